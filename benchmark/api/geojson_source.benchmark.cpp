@@ -0,0 +1,98 @@
+#include <benchmark/benchmark.h>
+
+#include <mbgl/map/map.hpp>
+#include <mbgl/gl/headless_frontend.hpp>
+#include <mbgl/util/default_thread_pool.hpp>
+#include <mbgl/style/style.hpp>
+#include <mbgl/style/sources/geojson_source.hpp>
+#include <mbgl/style/layers/circle_layer.hpp>
+#include <mbgl/storage/default_file_source.hpp>
+#include <mbgl/storage/network_status.hpp>
+#include <mbgl/util/run_loop.hpp>
+
+using namespace mbgl;
+using namespace mbgl::style;
+
+namespace {
+
+// The number of features of the source, moved in part on every update
+constexpr std::size_t featureCount = 20000;
+
+class GeoJSONSourceBenchmark {
+public:
+    explicit GeoJSONSourceBenchmark(bool incrementalUpdates) {
+        NetworkStatus::Set(NetworkStatus::Status::Offline);
+
+        map.getStyle().loadJSON(R"({ "version": 8, "sources": {}, "layers": [] })");
+        map.setLatLngZoom({ 40.726989, -73.992857 }, 12); // Manhattan
+
+        for (std::size_t i = 0; i < featureCount; ++i) {
+            features.push_back(feature(i, 0));
+        }
+
+        GeoJSONOptions options;
+        options.incrementalUpdates = incrementalUpdates;
+        map.getStyle().addSource(std::make_unique<GeoJSONSource>("fleet", options));
+        map.getStyle().addLayer(std::make_unique<CircleLayer>("fleet", "fleet"));
+        source = map.getStyle().getSource("fleet")->as<GeoJSONSource>();
+        source->setGeoJSON(features);
+
+        frontend.render(map);
+    }
+
+    // Spreads the features around Manhattan, the step moves them a little
+    static mapbox::geojson::feature feature(std::size_t i, std::size_t step) {
+        mapbox::geojson::feature result { mapbox::geometry::point<double>(
+            -74.1 + (i % 200) * 0.001 + step * 0.0001, 40.65 + (i / 200) * 0.002) };
+        result.id = FeatureIdentifier(uint64_t(i));
+        return result;
+    }
+
+    util::RunLoop loop;
+    DefaultFileSource fileSource { ":memory:", "." };
+    ThreadPool threadPool { 4 };
+    HeadlessFrontend frontend { { 1000, 1000 }, 1, fileSource, threadPool };
+    Map map { frontend, MapObserver::nullObserver(), frontend.getSize(), 1, fileSource, threadPool, MapMode::Static };
+    FeatureCollection features;
+    GeoJSONSource* source = nullptr;
+};
+
+} // end namespace
+
+// Moves the given number of features, then replaces the whole data of the source
+static void API_geoJSONSourceSetGeoJSON(::benchmark::State& state) {
+    GeoJSONSourceBenchmark bench(false);
+    const auto changed = std::size_t(state.range(0));
+    std::size_t step = 0;
+
+    while (state.KeepRunning()) {
+        ++step;
+        for (std::size_t i = 0; i < changed; ++i) {
+            bench.features[i] = GeoJSONSourceBenchmark::feature(i, step);
+        }
+        bench.source->setGeoJSON(bench.features);
+        bench.frontend.render(bench.map);
+    }
+}
+
+// Moves the given number of features, then updates only these features in the source
+static void API_geoJSONSourceUpdateFeatures(::benchmark::State& state) {
+    GeoJSONSourceBenchmark bench(true);
+    const auto changed = std::size_t(state.range(0));
+    std::size_t step = 0;
+
+    while (state.KeepRunning()) {
+        ++step;
+        FeatureCollection changes;
+        changes.reserve(changed);
+        for (std::size_t i = 0; i < changed; ++i) {
+            changes.push_back(GeoJSONSourceBenchmark::feature(i, step));
+        }
+        bench.source->updateFeatures(changes);
+        bench.frontend.render(bench.map);
+    }
+}
+
+// Changes 0.1%, 1%, 10% and 100% of the features
+BENCHMARK(API_geoJSONSourceSetGeoJSON)->Arg(20)->Arg(200)->Arg(2000)->Arg(20000);
+BENCHMARK(API_geoJSONSourceUpdateFeatures)->Arg(20)->Arg(200)->Arg(2000)->Arg(20000);
@@ -2,6 +2,7 @@
 
 set(MBGL_BENCHMARK_FILES
     # api
+    benchmark/api/geojson_source.benchmark.cpp
     benchmark/api/query.benchmark.cpp
     benchmark/api/render.benchmark.cpp
 
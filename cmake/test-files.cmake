@@ -84,6 +84,7 @@ set(MBGL_TEST_FILES
 
     # style/conversion
     test/style/conversion/function.test.cpp
+    test/style/conversion/geojson.test.cpp
     test/style/conversion/geojson_options.test.cpp
     test/style/conversion/layer.test.cpp
     test/style/conversion/light.test.cpp
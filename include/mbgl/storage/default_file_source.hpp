@@ -58,6 +58,26 @@ public:
     void listOfflineRegions(std::function<void (std::exception_ptr,
                                                 optional<std::vector<OfflineRegion>>)>);
 
+    /*
+     * Retrieve a page of the regions in the offline database, ordered by ID, that is
+     * by creation. Only the ID and the first `maxMetadataSize` bytes of the metadata of
+     * each region are read, use `getOfflineRegion` to retrieve a complete region.
+     *
+     * The query will be executed asynchronously and the results passed to the given
+     * callback, which will be executed on the database thread; it is the responsibility
+     * of the SDK bindings to re-execute a user-provided callback on the main thread.
+     */
+    void listOfflineRegionSummaries(uint64_t offset, uint64_t limit, uint64_t maxMetadataSize, bool descending,
+                                    std::function<void (std::exception_ptr,
+                                                        optional<std::vector<OfflineRegionSummary>>)>);
+
+    /*
+     * Retrieve a region of the offline database by ID. The callback receives no region
+     * if there isn't any with this ID.
+     */
+    void getOfflineRegion(int64_t regionID,
+                          std::function<void (std::exception_ptr, optional<OfflineRegion>)>);
+
     /*
      * Create an offline region in the database.
      *
@@ -91,6 +111,16 @@ public:
      */
     void setOfflineRegionDownloadState(OfflineRegion&, OfflineRegionDownloadState);
 
+    /*
+     * Activate the download of a region and revalidate the resources it already
+     * stored. Stored resources are requested conditionally, with the ETag or the
+     * modification date of the stored response, so only changed resources are
+     * downloaded again. Unchanged resources are reported through the revalidated
+     * counts of `OfflineRegionStatus`. Once every resource has been revalidated, the
+     * region behaves like a regular active download.
+     */
+    void refreshOfflineRegion(OfflineRegion&);
+
     /*
      * Retrieve the current status of the region. The query will be executed
      * asynchronously and the results passed to the given callback, which will be
@@ -117,6 +147,67 @@ public:
      */
     void deleteOfflineRegion(OfflineRegion&&, std::function<void (std::exception_ptr)>);
 
+    /*
+     * Write an offline region, its metadata and every resource and tile it requires
+     * to a single database file at the given path. The file can be copied to another
+     * device and added to its offline database with `mergeOfflineRegions`, without
+     * downloading anything.
+     *
+     * When the operation is complete or encounters an error, the given callback will be
+     * executed on the database thread; it is the responsibility of the SDK bindings
+     * to re-execute a user-provided callback on the main thread.
+     */
+    void exportOfflineRegion(OfflineRegion&, const std::string& path,
+                             std::function<void (std::exception_ptr)>);
+
+    /*
+     * Merge the offline regions of another offline database, such as a file written by
+     * `exportOfflineRegion` or a database built on another device, into this database.
+     * The secondary database is read in bulk and isn't modified. The regions are copied
+     * with the resources and tiles they require in a single transaction; resources shared
+     * between regions or already stored are copied only once. The ambient cache of the
+     * secondary database is ignored.
+     *
+     * The merged regions are passed to the callback, which will be executed on the
+     * database thread; it is the responsibility of the SDK bindings to re-execute a
+     * user-provided callback on the main thread. If an error occurs, none of the regions
+     * is merged.
+     */
+    void mergeOfflineRegions(const std::string& path,
+                             std::function<void (std::exception_ptr,
+                                                 optional<std::vector<OfflineRegion>>)>);
+
+    /*
+     * Set the maximum size of the database above which ambient resources are evicted,
+     * least recently used first, and evict them until the database fits. Resources
+     * required by offline regions are never evicted.
+     *
+     * When the operation is complete or encounters an error, the given callback will be
+     * executed on the database thread; it is the responsibility of the SDK bindings
+     * to re-execute a user-provided callback on the main thread.
+     */
+    void setMaximumAmbientCacheSize(uint64_t size, std::function<void (std::exception_ptr)>);
+
+    /*
+     * Remove every ambient resource from the database and return the freed space to
+     * the file system. Resources required by offline regions are kept.
+     */
+    void clearAmbientCache(std::function<void (std::exception_ptr)>);
+
+    /*
+     * Evict ambient resources above the maximum size and return the unused pages of
+     * the database to the file system.
+     */
+    void compactAmbientCache(std::function<void (std::exception_ptr)>);
+
+    /*
+     * Retrieve the hit and miss counts and the size of the ambient cache. The query will
+     * be executed asynchronously and the results passed to the given callback, which
+     * will be executed on the database thread.
+     */
+    void getAmbientCacheStats(std::function<void (std::exception_ptr,
+                                                  optional<AmbientCacheStats>)>) const;
+
     /*
      * Changing or bypassing this limit without permission from Mapbox is prohibited
      * by the Mapbox Terms of Service.
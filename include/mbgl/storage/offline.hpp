@@ -1,8 +1,10 @@
 #pragma once
 
 #include <mbgl/util/geo.hpp>
+#include <mbgl/util/geometry.hpp>
 #include <mbgl/util/range.hpp>
 #include <mbgl/util/optional.hpp>
+#include <mbgl/util/variant.hpp>
 #include <mbgl/style/types.hpp>
 #include <mbgl/storage/response.hpp>
 
@@ -42,10 +44,36 @@ private:
 };
 
 /*
- * For the present, a tile pyramid is the only type of offline region. In the future,
- * other definition types will be available and this will be a variant type.
+ * An offline region defined by a style URL, geometry, zoom range, and
+ * device pixel ratio.
+ *
+ * Unlike a tile pyramid, only the tiles that intersect the geometry are included,
+ * rather than all tiles of its bounding box. A polygon includes the tiles it covers,
+ * a line string the tiles it passes through. Coordinates are longitude/latitude.
+ *
+ * The zoom range and pixel ratio follow the same rules as for a tile pyramid.
+ */
+class OfflineGeometryRegionDefinition {
+public:
+    OfflineGeometryRegionDefinition(std::string styleURL, Geometry<double>, double minZoom, double maxZoom, float pixelRatio);
+
+    /* Private */
+    std::vector<CanonicalTileID> tileCover(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+    uint64_t tileCount(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+    const std::string styleURL;
+    const Geometry<double> geometry;
+    const double minZoom;
+    const double maxZoom;
+    const float pixelRatio;
+private:
+    Range<uint8_t> coveringZoomRange(style::SourceType, uint16_t tileSize, const Range<uint8_t>& zoomRange) const;
+};
+
+/*
+ * An offline region is either a tile pyramid covering a bounding box or covers
+ * the tiles of a geometry.
  */
-using OfflineRegionDefinition = OfflineTilePyramidRegionDefinition;
+using OfflineRegionDefinition = variant<OfflineTilePyramidRegionDefinition, OfflineGeometryRegionDefinition>;
 
 /*
  * The encoded format is private.
@@ -130,11 +158,68 @@ public:
      */
     bool requiredResourceCountIsPrecise = false;
 
+    /**
+     * The number of stored resources that were revalidated with the server during a
+     * refresh and found to be unchanged. This is a subset of `completedResourceCount`.
+     */
+    uint64_t revalidatedResourceCount = 0;
+
+    /**
+     * The cumulative size, in bytes, of the resources that were found to be unchanged
+     * during a refresh, i.e. the number of bytes that didn't have to be downloaded again.
+     */
+    uint64_t revalidatedResourceSize = 0;
+
     bool complete() const {
         return completedResourceCount == requiredResourceCount;
     }
 };
 
+/*
+ * Statistics of the ambient cache, the resources stored by regular map use that
+ * aren't required by any offline region.
+ */
+class AmbientCacheStats {
+public:
+    /**
+     * The number of cache lookups that found a stored resource, since the database
+     * was opened.
+     */
+    uint64_t hitCount = 0;
+
+    /**
+     * The number of cache lookups that didn't find a stored resource, since the
+     * database was opened.
+     */
+    uint64_t missCount = 0;
+
+    /**
+     * The number of resources (inclusive of tiles) in the ambient cache.
+     */
+    uint64_t resourceCount = 0;
+
+    /**
+     * The cumulative size, in bytes, of the data of the resources in the ambient cache.
+     */
+    uint64_t resourceSize = 0;
+
+    /**
+     * The size, in bytes, of the database file, inclusive of offline regions.
+     */
+    uint64_t databaseSize = 0;
+
+    /**
+     * The size, in bytes, of the unused pages of the database file that compaction
+     * returns to the file system.
+     */
+    uint64_t freeSize = 0;
+
+    /**
+     * The size, in bytes, above which the ambient cache is evicted.
+     */
+    uint64_t maximumSize = 0;
+};
+
 /*
  * A region can have a single observer, which gets notified whenever a change
  * to the region's status occurs.
@@ -210,4 +295,24 @@ private:
     const OfflineRegionMetadata metadata;
 };
 
+/*
+ * The ID of a region and the beginning of its metadata, for listing many regions
+ * without decoding their definitions or reading their complete metadata. Use
+ * the ID to retrieve the full `OfflineRegion` when it is needed.
+ */
+class OfflineRegionSummary {
+public:
+    int64_t id = 0;
+
+    /**
+     * The first bytes of the metadata, up to the size requested by the query.
+     */
+    OfflineRegionMetadata metadata;
+
+    /**
+     * The size, in bytes, of the complete metadata.
+     */
+    uint64_t metadataSize = 0;
+};
+
 } // namespace mbgl
@@ -10,6 +10,9 @@ namespace conversion {
 // Workaround until https://github.com/mapbox/mapbox-gl-native/issues/5623 is done.
 optional<GeoJSON> parseGeoJSON(const std::string&, Error&);
 
+// Parses UTF-8 JSON in place, for example in a memory-mapped file
+optional<GeoJSON> parseGeoJSON(const char* data, std::size_t length, Error&);
+
 template <>
 struct Converter<GeoJSON> {
 public:
@@ -38,6 +38,10 @@ public:
     ~CustomGeometrySource() final;
     void loadDescription(FileSource&) final;
     void setTileData(const CanonicalTileID&, const GeoJSON&);
+    // Sets the data of a tile as an encoded Mapbox Vector Tile, which is used as is instead of
+    // being tiled. Style layers select one of its layers with their source layer, the first
+    // layer of the tile is used if they have none.
+    void setVectorTileData(const CanonicalTileID&, std::shared_ptr<const std::string>);
     void invalidateTile(const CanonicalTileID&);
     void invalidateRegion(const LatLngBounds&);
     // Private implementation
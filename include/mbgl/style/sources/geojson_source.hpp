@@ -2,12 +2,17 @@
 
 #include <mbgl/style/source.hpp>
 #include <mbgl/util/geojson.hpp>
+#include <mbgl/util/feature.hpp>
 #include <mbgl/util/optional.hpp>
 #include <mbgl/util/constants.hpp>
 
+#include <exception>
+#include <functional>
+
 namespace mbgl {
 
 class AsyncRequest;
+class LatLngBounds;
 
 namespace style {
 
@@ -23,6 +28,10 @@ struct GeoJSONOptions {
     bool cluster = false;
     uint16_t clusterRadius = 50;
     uint8_t clusterMaxZoom = 17;
+
+    // Keeps the data of the source next to its index, so that features can be added,
+    // updated and removed incrementally.
+    bool incrementalUpdates = false;
 };
 
 class GeoJSONSource : public Source {
@@ -32,6 +41,27 @@ public:
 
     void setURL(const std::string& url);
     void setGeoJSON(const GeoJSON&);
+    void setGeoJSON(GeoJSON&&);
+
+    // Incremental updates of the features, keyed by identifier. Only the tiles touched by
+    // the changed features are updated, but the index of the source is still rebuilt from
+    // all of its data, so changes are best made in batches. Features without an identifier
+    // can be added, but can't be updated or removed. Requires the incrementalUpdates option,
+    // throws std::runtime_error otherwise.
+
+    // Adds the features, replacing the existing features with the same identifier.
+    void addFeatures(const FeatureCollection&);
+    // Replaces the existing features with the same identifier, ignoring the others.
+    void updateFeatures(const FeatureCollection&);
+    void removeFeatures(const std::vector<FeatureIdentifier>&);
+
+    // Loads the data with the given function and builds its index on a background thread, then
+    // replaces the data of the source and invokes the callback without an error, or with the
+    // error thrown by the function. Replacing the data or the URL of the source, or a newer load,
+    // cancels a pending load, whose callback isn't invoked. Incremental updates made while a load
+    // is pending are replaced with the loaded data.
+    void setGeoJSONAsync(std::function<GeoJSON ()> load,
+                         std::function<void (std::exception_ptr)> callback);
 
     optional<std::string> getURL() const;
 
@@ -41,8 +71,17 @@ public:
     void loadDescription(FileSource&) final;
 
 private:
+    class Features;
+    class Loader;
+
+    void setData(GeoJSON&&);
+    Features& getFeatures();
+    void setChangedFeatures(const LatLngBounds&);
+
     optional<std::string> url;
     std::unique_ptr<AsyncRequest> req;
+    std::unique_ptr<Features> features;
+    std::unique_ptr<Loader> loader;
 };
 
 template <>
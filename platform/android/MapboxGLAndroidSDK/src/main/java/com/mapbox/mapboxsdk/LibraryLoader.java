@@ -7,12 +7,23 @@ import timber.log.Timber;
  */
 public class LibraryLoader {
 
+  private static volatile boolean loaded;
+
   /**
    * Loads "libmapbox-gl.so" native shared library.
+   * <p>
+   * Subsequent calls return immediately once the library has been loaded, which allows to load it
+   * ahead of time on a background thread with {@link Mapbox#preloadAsync()}.
+   * </p>
    */
   public static void load() {
+    if (loaded) {
+      return;
+    }
+
     try {
       System.loadLibrary("mapbox-gl");
+      loaded = true;
     } catch (UnsatisfiedLinkError error) {
       Timber.e(error, "Failed to load native shared library.");
     }
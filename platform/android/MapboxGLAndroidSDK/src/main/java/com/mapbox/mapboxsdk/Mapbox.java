@@ -4,19 +4,32 @@ import android.annotation.SuppressLint;
 import android.content.Context;
 import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
+import android.os.Handler;
+import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 import android.support.annotation.UiThread;
 import android.text.TextUtils;
 
 import com.mapbox.mapboxsdk.constants.MapboxConstants;
 import com.mapbox.mapboxsdk.exceptions.MapboxConfigurationException;
 import com.mapbox.mapboxsdk.location.LocationSource;
+import com.mapbox.mapboxsdk.maps.renderer.ProgramCache;
 import com.mapbox.mapboxsdk.net.ConnectivityReceiver;
+import com.mapbox.mapboxsdk.storage.FileSource;
 import com.mapbox.services.android.telemetry.location.LocationEngine;
 import com.mapbox.services.android.telemetry.location.LocationEnginePriority;
 import com.mapbox.services.android.telemetry.location.LocationEngineProvider;
 import com.mapbox.services.android.telemetry.MapboxTelemetry;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
 import timber.log.Timber;
 
 /**
@@ -36,6 +49,28 @@ public final class Mapbox {
   private String accessToken;
   private Boolean connected;
   private LocationEngine locationEngine;
+  private final Executor preloadExecutor;
+  private PreloadTask preloadTask;
+
+  /**
+   * Get notified on the main thread when the SDK has been preloaded.
+   *
+   * @see Mapbox#preloadAsync(PreloadCallback)
+   */
+  public interface PreloadCallback {
+
+    /**
+     * Called when the native library, file source and connectivity receiver are initialised.
+     */
+    void onPreloaded();
+
+    /**
+     * Called when preloading failed.
+     *
+     * @param error the cause of the failure
+     */
+    void onError(Throwable error);
+  }
 
   /**
    * Get an instance of Mapbox.
@@ -62,16 +97,65 @@ public final class Mapbox {
       } catch (Exception exception) {
         Timber.e(exception, "Unable to instantiate Mapbox telemetry");
       }
-
-      ConnectivityReceiver.instance(appContext);
     }
     return INSTANCE;
   }
 
+  /**
+   * Initialises the native parts of the SDK on a background thread.
+   * <p>
+   * Loads the native library, creates the {@link ConnectivityReceiver} and the {@link FileSource},
+   * which opens the cache database, off the UI thread. Without preloading, this work is done on the
+   * UI thread when the first {@link com.mapbox.mapboxsdk.maps.MapView} is created. Usually called from
+   * Application#onCreate() right after {@link #getInstance(Context, String)}.
+   * </p>
+   * <p>
+   * Preloading is performed only once, subsequent calls return the same future.
+   * </p>
+   *
+   * @return a future completing when the SDK has been preloaded
+   */
+  @UiThread
+  public static Future<Void> preloadAsync() {
+    return preloadAsync(null);
+  }
+
+  /**
+   * Initialises the native parts of the SDK on a background thread.
+   *
+   * @param callback the callback to be invoked on the main thread when preloading finished, may be null
+   * @return a future completing when the SDK has been preloaded
+   * @see #preloadAsync()
+   */
+  @UiThread
+  public static synchronized Future<Void> preloadAsync(@Nullable PreloadCallback callback) {
+    validateMapbox();
+    if (INSTANCE.preloadTask == null) {
+      INSTANCE.preloadTask = new PreloadTask(INSTANCE.context);
+      INSTANCE.preloadExecutor.execute(INSTANCE.preloadTask);
+    }
+
+    if (callback != null) {
+      INSTANCE.preloadTask.addCallback(callback);
+    }
+    return INSTANCE.preloadTask;
+  }
+
   Mapbox(@NonNull Context context, @NonNull String accessToken, LocationEngine locationEngine) {
+    this(context, accessToken, locationEngine, new Executor() {
+      @Override
+      public void execute(@NonNull Runnable runnable) {
+        new Thread(runnable, "Mapbox preload").start();
+      }
+    });
+  }
+
+  Mapbox(@NonNull Context context, @NonNull String accessToken, LocationEngine locationEngine,
+         Executor preloadExecutor) {
     this.context = context;
     this.accessToken = accessToken;
     this.locationEngine = locationEngine;
+    this.preloadExecutor = preloadExecutor;
   }
 
   /**
@@ -116,6 +200,24 @@ public final class Mapbox {
     return INSTANCE.context;
   }
 
+  /**
+   * Compiles the shader programs required to render a style ahead of time.
+   * <p>
+   * The style is rendered once on a background GL context and the resulting programs are stored in
+   * the program cache, avoiding the compilation hitch on the first frames of a map showing the style.
+   * Usually called from Application#onCreate() after {@link #getInstance(Context, String)}.
+   * </p>
+   *
+   * @param styleUrl the style to compile the programs for
+   * @see ProgramCache#warmUp(Context, String, com.mapbox.mapboxsdk.camera.CameraPosition,
+   * ProgramCache.WarmUpCallback)
+   */
+  @UiThread
+  public static void warmUp(@NonNull String styleUrl) {
+    validateMapbox();
+    ProgramCache.warmUp(INSTANCE.context, styleUrl, null, null);
+  }
+
   /**
    * Manually sets the connectivity state of the app. This is useful for apps which control their
    * own connectivity state and want to bypass any checks to the ConnectivityManager.
@@ -165,4 +267,63 @@ public final class Mapbox {
   public static LocationEngine getLocationEngine() {
     return INSTANCE.locationEngine;
   }
+
+  /**
+   * Loads the native library and initialises the file source, notifying callbacks on the main thread.
+   */
+  private static class PreloadTask extends FutureTask<Void> {
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<PreloadCallback> callbacks = new ArrayList<>();
+
+    PreloadTask(final Context context) {
+      super(new Callable<Void>() {
+        @Override
+        public Void call() throws Exception {
+          LibraryLoader.load();
+          ConnectivityReceiver.instance(context);
+          FileSource.getInstance(context);
+          return null;
+        }
+      });
+    }
+
+    void addCallback(PreloadCallback callback) {
+      synchronized (callbacks) {
+        if (!isDone()) {
+          callbacks.add(callback);
+          return;
+        }
+      }
+      notifyCallback(callback);
+    }
+
+    @Override
+    protected void done() {
+      List<PreloadCallback> pending;
+      synchronized (callbacks) {
+        pending = new ArrayList<>(callbacks);
+        callbacks.clear();
+      }
+
+      for (PreloadCallback callback : pending) {
+        notifyCallback(callback);
+      }
+    }
+
+    private void notifyCallback(final PreloadCallback callback) {
+      handler.post(new Runnable() {
+        @Override
+        public void run() {
+          try {
+            get();
+            callback.onPreloaded();
+          } catch (InterruptedException | ExecutionException exception) {
+            Timber.e(exception, "Failed to preload Mapbox");
+            callback.onError(exception.getCause() != null ? exception.getCause() : exception);
+          }
+        }
+      });
+    }
+  }
 }
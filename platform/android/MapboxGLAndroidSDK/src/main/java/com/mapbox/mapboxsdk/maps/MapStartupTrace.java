@@ -0,0 +1,279 @@
+package com.mapbox.mapboxsdk.maps;
+
+import android.os.Build;
+import android.os.Trace;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Timing instrumentation of the startup of a {@link MapView}.
+ * <p>
+ * The trace is recorded from the moment the map view is initialised until the first fully rendered
+ * frame and consists of a list of {@link Span}s. Spans of the work performed synchronously on the UI
+ * thread are measured directly, milestones that depend on asynchronous loading are measured from the
+ * start of the trace. All values are based on {@link System#nanoTime()}.
+ * </p>
+ * <p>
+ * Synchronous spans can also be emitted as {@link Trace} sections to be inspected with systrace, see
+ * {@link #setSystemTraceEnabled(boolean)}.
+ * </p>
+ */
+@UiThread
+public class MapStartupTrace {
+
+  /**
+   * Span covering the initialisation of the map view, from its constructor.
+   */
+  public static final String SPAN_INITIALISE = "MapView.initialise";
+
+  /**
+   * Span covering the creation of the drawing surface and map renderer after the first layout.
+   */
+  public static final String SPAN_DRAWING_SURFACE = "MapView.initialiseDrawingSurface";
+
+  /**
+   * Span covering the construction of the native map, part of {@link #SPAN_DRAWING_SURFACE}.
+   */
+  public static final String SPAN_NATIVE_MAP_VIEW = "NativeMapView";
+
+  /**
+   * Span covering the download and parsing of the style.
+   */
+  public static final String SPAN_STYLE = "Style";
+
+  /**
+   * Milestone reached when the first source has loaded, at which point its tiles are requested.
+   */
+  public static final String MILESTONE_FIRST_TILE_REQUEST = "FirstTileRequest";
+
+  /**
+   * Milestone reached when the first, possibly partial, frame has been rendered.
+   */
+  public static final String MILESTONE_FIRST_FRAME = "FirstFrame";
+
+  /**
+   * Milestone reached when the first fully rendered frame has been rendered. Completes the trace.
+   */
+  public static final String MILESTONE_FIRST_FULL_FRAME = "FirstFullFrame";
+
+  private static final String SECTION_PREFIX = "mbgl:";
+
+  private static boolean systemTraceEnabled;
+
+  /**
+   * Interface definition for a callback to be invoked when the startup trace has completed.
+   */
+  public interface OnTraceCompleteListener {
+
+    /**
+     * Called when the first fully rendered frame has been rendered.
+     *
+     * @param trace the completed trace
+     */
+    void onTraceComplete(@NonNull MapStartupTrace trace);
+  }
+
+  /**
+   * A named interval of the startup trace.
+   */
+  public static class Span {
+
+    private final String name;
+    private final long startNanos;
+    private long endNanos = -1;
+
+    Span(String name, long startNanos) {
+      this.name = name;
+      this.startNanos = startNanos;
+    }
+
+    /**
+     * @return the name of the span
+     */
+    public String getName() {
+      return name;
+    }
+
+    /**
+     * @return the start of the span, in {@link System#nanoTime()} units
+     */
+    public long getStartNanos() {
+      return startNanos;
+    }
+
+    /**
+     * @return the end of the span, in {@link System#nanoTime()} units, or -1 if the span hasn't ended
+     */
+    public long getEndNanos() {
+      return endNanos;
+    }
+
+    /**
+     * @return the duration of the span in milliseconds, or -1 if the span hasn't ended
+     */
+    public double getDurationMillis() {
+      return endNanos < 0 ? -1 : (endNanos - startNanos) / 1E6;
+    }
+
+    @Override
+    public String toString() {
+      return String.format(Locale.US, "%s: %.2f ms", name, getDurationMillis());
+    }
+  }
+
+  private final List<Span> spans = new ArrayList<>();
+  private long originNanos = -1;
+  private boolean complete;
+  private OnTraceCompleteListener onTraceCompleteListener;
+
+  /**
+   * Enable emitting the synchronous spans of startup traces as {@link Trace} sections.
+   * Only has an effect on API level 18 and above.
+   *
+   * @param enabled true to enable system trace sections
+   */
+  public static void setSystemTraceEnabled(boolean enabled) {
+    systemTraceEnabled = enabled;
+  }
+
+  /**
+   * Set a callback to be invoked when the trace completes.
+   * If the trace has already completed, the callback is invoked immediately.
+   *
+   * @param listener the listener to be invoked, or null to remove
+   */
+  public void setOnTraceCompleteListener(@Nullable OnTraceCompleteListener listener) {
+    this.onTraceCompleteListener = listener;
+    if (complete && listener != null) {
+      listener.onTraceComplete(this);
+    }
+  }
+
+  /**
+   * @return the recorded spans, in the order they started
+   */
+  @NonNull
+  public List<Span> getSpans() {
+    return Collections.unmodifiableList(spans);
+  }
+
+  /**
+   * Get a span by name.
+   *
+   * @param name the name of the span
+   * @return the span, or null if it wasn't recorded
+   */
+  @Nullable
+  public Span getSpan(@NonNull String name) {
+    for (Span span : spans) {
+      if (span.name.equals(name)) {
+        return span;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the start of the trace, in {@link System#nanoTime()} units, or -1 if not started
+   */
+  public long getOriginNanos() {
+    return originNanos;
+  }
+
+  /**
+   * @return true if the first fully rendered frame has been rendered
+   */
+  public boolean isComplete() {
+    return complete;
+  }
+
+  void beginSpan(String name) {
+    if (complete) {
+      return;
+    }
+
+    long now = System.nanoTime();
+    if (originNanos < 0) {
+      originNanos = now;
+    }
+    spans.add(new Span(name, now));
+
+    if (systemTraceEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+      Trace.beginSection(SECTION_PREFIX + name);
+    }
+  }
+
+  void endSpan(String name) {
+    Span span = getSpan(name);
+    if (span == null || span.endNanos >= 0) {
+      return;
+    }
+
+    span.endNanos = System.nanoTime();
+    if (systemTraceEnabled && Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+      Trace.endSection();
+    }
+  }
+
+  void onMapChange(@MapView.MapChange int change) {
+    if (complete || originNanos < 0) {
+      return;
+    }
+
+    switch (change) {
+      case MapView.WILL_START_LOADING_MAP:
+        if (getSpan(SPAN_STYLE) == null) {
+          spans.add(new Span(SPAN_STYLE, System.nanoTime()));
+        }
+        break;
+      case MapView.DID_FINISH_LOADING_STYLE:
+        Span style = getSpan(SPAN_STYLE);
+        if (style != null && style.endNanos < 0) {
+          style.endNanos = System.nanoTime();
+        }
+        break;
+      case MapView.SOURCE_DID_CHANGE:
+        mark(MILESTONE_FIRST_TILE_REQUEST);
+        break;
+      case MapView.DID_FINISH_RENDERING_FRAME:
+        mark(MILESTONE_FIRST_FRAME);
+        break;
+      case MapView.DID_FINISH_RENDERING_FRAME_FULLY_RENDERED:
+        mark(MILESTONE_FIRST_FRAME);
+        mark(MILESTONE_FIRST_FULL_FRAME);
+        complete = true;
+        if (onTraceCompleteListener != null) {
+          onTraceCompleteListener.onTraceComplete(this);
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void mark(String name) {
+    if (getSpan(name) == null) {
+      Span span = new Span(name, originNanos);
+      span.endNanos = System.nanoTime();
+      spans.add(span);
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder builder = new StringBuilder("MapStartupTrace{");
+    for (int i = 0; i < spans.size(); i++) {
+      if (i > 0) {
+        builder.append(", ");
+      }
+      builder.append(spans.get(i));
+    }
+    return builder.append('}').toString();
+  }
+}
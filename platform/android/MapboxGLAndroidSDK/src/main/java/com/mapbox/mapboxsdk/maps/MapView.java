@@ -70,6 +70,7 @@ import static com.mapbox.mapboxsdk.maps.widgets.CompassView.TIME_WAIT_IDLE;
 public class MapView extends FrameLayout {
 
   private final MapCallback mapCallback = new MapCallback();
+  private final MapStartupTrace startupTrace = new MapStartupTrace();
   private MapboxMap mapboxMap;
 
   private NativeMapView nativeMapView;
@@ -119,6 +120,7 @@ public class MapView extends FrameLayout {
       // in IDE layout editor, just return
       return;
     }
+    startupTrace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
     mapboxMapOptions = options;
 
     // inflate view
@@ -143,6 +145,7 @@ public class MapView extends FrameLayout {
         initialiseDrawingSurface(options);
       }
     });
+    startupTrace.endSpan(MapStartupTrace.SPAN_INITIALISE);
   }
 
   private void initialiseMap() {
@@ -291,6 +294,7 @@ public class MapView extends FrameLayout {
   }
 
   private void initialiseDrawingSurface(MapboxMapOptions options) {
+    startupTrace.beginSpan(MapStartupTrace.SPAN_DRAWING_SURFACE);
     if (options.getTextureMode()) {
       TextureView textureView = new TextureView(getContext());
       mapRenderer = new TextureViewMapRenderer(getContext(), textureView, options.getLocalIdeographFontFamily()) {
@@ -337,8 +341,11 @@ public class MapView extends FrameLayout {
 
     }
 
+    startupTrace.beginSpan(MapStartupTrace.SPAN_NATIVE_MAP_VIEW);
     nativeMapView = new NativeMapView(this, mapRenderer);
+    startupTrace.endSpan(MapStartupTrace.SPAN_NATIVE_MAP_VIEW);
     nativeMapView.resizeView(getMeasuredWidth(), getMeasuredHeight());
+    startupTrace.endSpan(MapStartupTrace.SPAN_DRAWING_SURFACE);
   }
 
   /**
@@ -583,6 +590,7 @@ public class MapView extends FrameLayout {
   //
 
   void onMapChange(int rawChange) {
+    startupTrace.onMapChange(rawChange);
     for (MapView.OnMapChangedListener onMapChangedListener : onMapChangedListeners) {
       try {
         onMapChangedListener.onMapChanged(rawChange);
@@ -635,6 +643,21 @@ public class MapView extends FrameLayout {
     }
   }
 
+  /**
+   * Get the startup trace of this map view.
+   * <p>
+   * The trace records the time spent initialising the map view up to its first fully rendered frame.
+   * Use {@link MapStartupTrace#setOnTraceCompleteListener(MapStartupTrace.OnTraceCompleteListener)}
+   * to get notified when it completes.
+   * </p>
+   *
+   * @return the startup trace
+   */
+  @NonNull
+  public MapStartupTrace getStartupTrace() {
+    return startupTrace;
+  }
+
   private boolean isMapInitialized() {
     return nativeMapView != null;
   }
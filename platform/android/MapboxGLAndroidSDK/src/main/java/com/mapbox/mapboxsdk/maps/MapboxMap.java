@@ -41,6 +41,7 @@ import com.mapbox.mapboxsdk.maps.widgets.MyLocationViewSettings;
 import com.mapbox.mapboxsdk.style.layers.Filter;
 import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.light.Light;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.mapboxsdk.style.sources.Source;
 import com.mapbox.services.android.telemetry.location.LocationEngine;
 import com.mapbox.services.commons.geojson.Feature;
@@ -2118,7 +2119,7 @@ public final class MapboxMap {
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates, @Nullable String...
     layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null, null);
   }
 
   /**
@@ -2133,7 +2134,7 @@ public final class MapboxMap {
   public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
                                              @Nullable Filter.Statement filter,
                                              @Nullable String... layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter, null);
   }
 
   /**
@@ -2146,7 +2147,7 @@ public final class MapboxMap {
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
                                              @Nullable String... layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, null, null);
   }
 
   /**
@@ -2161,7 +2162,128 @@ public final class MapboxMap {
   public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
                                              @Nullable Filter.Statement filter,
                                              @Nullable String... layerIds) {
-    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter);
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter, null);
+  }
+
+  /**
+   * Queries the map for rendered features, returning only the parts of the features selected by the options.
+   *
+   * @param coordinates the point to query
+   * @param filter      filters the returned features
+   * @param options     the parts of the features to return
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature
+   */
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
+                                             @Nullable Filter.Statement filter,
+                                             @NonNull QueryOptions options,
+                                             @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter, options);
+  }
+
+  /**
+   * Queries the map for rendered features, returning only the parts of the features selected by the options.
+   *
+   * @param coordinates the box to query
+   * @param filter      filters the returned features
+   * @param options     the parts of the features to return
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature
+   */
+  @NonNull
+  public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
+                                             @Nullable Filter.Statement filter,
+                                             @NonNull QueryOptions options,
+                                             @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatures(coordinates, layerIds, filter, options);
+  }
+
+  /**
+   * Queries the map for rendered features without blocking the main thread.
+   * <p>
+   * The query runs on the render thread against the rendered state of the map, the callback is invoked on the main
+   * thread. Only the latest query is pending: issuing a new one, for example while dragging a selection box, cancels
+   * the previous one.
+   * </p>
+   *
+   * @param coordinates the point to query
+   * @param filter      filters the returned features
+   * @param options     the parts of the features to return, or null for the complete features
+   * @param callback    the callback invoked with the result
+   * @param layerIds    optionally - only query these layers
+   */
+  public void queryRenderedFeaturesAsync(@NonNull PointF coordinates,
+                                         @Nullable Filter.Statement filter,
+                                         @Nullable QueryOptions options,
+                                         @NonNull QueryRenderedFeaturesCallback callback,
+                                         @Nullable String... layerIds) {
+    nativeMapView.queryRenderedFeaturesAsync(coordinates, layerIds, filter, options, callback);
+  }
+
+  /**
+   * Queries the map for rendered features without blocking the main thread.
+   * <p>
+   * The query runs on the render thread against the rendered state of the map, the callback is invoked on the main
+   * thread. Only the latest query is pending: issuing a new one, for example while dragging a selection box, cancels
+   * the previous one.
+   * </p>
+   *
+   * @param coordinates the box to query
+   * @param filter      filters the returned features
+   * @param options     the parts of the features to return, or null for the complete features
+   * @param callback    the callback invoked with the result
+   * @param layerIds    optionally - only query these layers
+   */
+  public void queryRenderedFeaturesAsync(@NonNull RectF coordinates,
+                                         @Nullable Filter.Statement filter,
+                                         @Nullable QueryOptions options,
+                                         @NonNull QueryRenderedFeaturesCallback callback,
+                                         @Nullable String... layerIds) {
+    nativeMapView.queryRenderedFeaturesAsync(coordinates, layerIds, filter, options, callback);
+  }
+
+  /**
+   * Cancels the pending asynchronous feature query, its callback is notified.
+   */
+  public void cancelRenderedFeaturesQuery() {
+    nativeMapView.cancelRenderedFeaturesQuery();
+  }
+
+  /**
+   * Queries the map for the ids of rendered features, without converting the features themselves.
+   * Features without an id are left out.
+   *
+   * @param coordinates the point to query
+   * @param filter      filters the returned features
+   * @param limit       the maximum number of ids, 0 for no limit
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature ids
+   */
+  @NonNull
+  public List<String> queryRenderedFeatureIds(@NonNull PointF coordinates,
+                                              @Nullable Filter.Statement filter,
+                                              @IntRange(from = 0) int limit,
+                                              @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatureIds(coordinates, layerIds, filter, limit);
+  }
+
+  /**
+   * Queries the map for the ids of rendered features, without converting the features themselves.
+   * Features without an id are left out.
+   *
+   * @param coordinates the box to query
+   * @param filter      filters the returned features
+   * @param limit       the maximum number of ids, 0 for no limit
+   * @param layerIds    optionally - only query these layers
+   * @return the list of feature ids
+   */
+  @NonNull
+  public List<String> queryRenderedFeatureIds(@NonNull RectF coordinates,
+                                              @Nullable Filter.Statement filter,
+                                              @IntRange(from = 0) int limit,
+                                              @Nullable String... layerIds) {
+    return nativeMapView.queryRenderedFeatureIds(coordinates, layerIds, filter, limit);
   }
 
   FocalPointChangeListener createFocalPointChangeListener() {
@@ -2654,6 +2776,29 @@ public final class MapboxMap {
     void onSnapshotReady(Bitmap snapshot);
   }
 
+  /**
+   * Interface definition for a callback to be invoked with the result of an asynchronous feature query.
+   *
+   * @see MapboxMap#queryRenderedFeaturesAsync(RectF, Filter.Statement, QueryOptions, QueryRenderedFeaturesCallback,
+   * String...)
+   */
+  public interface QueryRenderedFeaturesCallback {
+    /**
+     * Invoked on the main thread with the queried features.
+     *
+     * @param features  the list of feature
+     * @param queryTime the time the query took on the render thread, in milliseconds
+     * @param totalTime the time between issuing the query and this result, in milliseconds
+     */
+    void onResult(@NonNull List<Feature> features, double queryTime, double totalTime);
+
+    /**
+     * Invoked on the main thread when the query has been superseded by a newer one, or cancelled,
+     * before completing.
+     */
+    void onCancel();
+  }
+
   /**
    * Interface definition for a callback to be invoked when the style has finished loading.
    */
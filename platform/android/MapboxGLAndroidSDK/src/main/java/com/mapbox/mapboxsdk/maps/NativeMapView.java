@@ -26,6 +26,7 @@ import com.mapbox.mapboxsdk.style.layers.CannotAddLayerException;
 import com.mapbox.mapboxsdk.style.layers.Filter;
 import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.light.Light;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.mapboxsdk.style.sources.CannotAddSourceException;
 import com.mapbox.mapboxsdk.style.sources.Source;
 import com.mapbox.mapboxsdk.utils.BitmapUtils;
@@ -65,6 +66,9 @@ final class NativeMapView {
   // Listener invoked to return a bitmap of the map
   private MapboxMap.SnapshotReadyCallback snapshotReadyCallback;
 
+  // The pending asynchronous feature query, only the latest one is delivered
+  private final RenderedFeaturesQuery renderedFeaturesQuery = new RenderedFeaturesQuery();
+
   static {
     LibraryLoader.load();
   }
@@ -99,6 +103,7 @@ final class NativeMapView {
   }
 
   public void destroy() {
+    cancelRenderedFeaturesQuery();
     nativeDestroy();
     mapView = null;
     destroyed = true;
@@ -801,19 +806,24 @@ final class NativeMapView {
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull PointF coordinates,
                                              @Nullable String[] layerIds,
-                                             @Nullable Filter.Statement filter) {
+                                             @Nullable Filter.Statement filter,
+                                             @Nullable QueryOptions options) {
     if (isDestroyedOn("queryRenderedFeatures")) {
       return new ArrayList<>();
     }
     Feature[] features = nativeQueryRenderedFeaturesForPoint(coordinates.x / pixelRatio,
-      coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null);
+      coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null,
+      options != null ? options.getLimit() : 0,
+      options == null || options.hasGeometry(),
+      options != null ? options.getProperties() : null);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
   @NonNull
   public List<Feature> queryRenderedFeatures(@NonNull RectF coordinates,
                                              @Nullable String[] layerIds,
-                                             @Nullable Filter.Statement filter) {
+                                             @Nullable Filter.Statement filter,
+                                             @Nullable QueryOptions options) {
     if (isDestroyedOn("queryRenderedFeatures")) {
       return new ArrayList<>();
     }
@@ -823,10 +833,93 @@ final class NativeMapView {
       coordinates.right / pixelRatio,
       coordinates.bottom / pixelRatio,
       layerIds,
-      filter != null ? filter.toArray() : null);
+      filter != null ? filter.toArray() : null,
+      options != null ? options.getLimit() : 0,
+      options == null || options.hasGeometry(),
+      options != null ? options.getProperties() : null);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  @NonNull
+  public List<String> queryRenderedFeatureIds(@NonNull PointF coordinates,
+                                              @Nullable String[] layerIds,
+                                              @Nullable Filter.Statement filter,
+                                              int limit) {
+    if (isDestroyedOn("queryRenderedFeatureIds")) {
+      return new ArrayList<>();
+    }
+    String[] ids = nativeQueryRenderedFeatureIdsForPoint(coordinates.x / pixelRatio,
+      coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null, limit);
+    return ids != null ? Arrays.asList(ids) : new ArrayList<String>();
+  }
+
+  @NonNull
+  public List<String> queryRenderedFeatureIds(@NonNull RectF coordinates,
+                                              @Nullable String[] layerIds,
+                                              @Nullable Filter.Statement filter,
+                                              int limit) {
+    if (isDestroyedOn("queryRenderedFeatureIds")) {
+      return new ArrayList<>();
+    }
+    String[] ids = nativeQueryRenderedFeatureIdsForBox(
+      coordinates.left / pixelRatio,
+      coordinates.top / pixelRatio,
+      coordinates.right / pixelRatio,
+      coordinates.bottom / pixelRatio,
+      layerIds,
+      filter != null ? filter.toArray() : null,
+      limit);
+    return ids != null ? Arrays.asList(ids) : new ArrayList<String>();
+  }
+
+  public void queryRenderedFeaturesAsync(@NonNull PointF coordinates,
+                                         @Nullable String[] layerIds,
+                                         @Nullable Filter.Statement filter,
+                                         @Nullable QueryOptions options,
+                                         @NonNull MapboxMap.QueryRenderedFeaturesCallback callback) {
+    if (isDestroyedOn("queryRenderedFeaturesAsync")) {
+      return;
+    }
+    // A new query supersedes the pending one natively
+    long startTime = System.nanoTime();
+    long id = nativeQueryRenderedFeaturesForPointAsync(coordinates.x / pixelRatio,
+      coordinates.y / pixelRatio, layerIds, filter != null ? filter.toArray() : null,
+      options != null ? options.getLimit() : 0,
+      options == null || options.hasGeometry(),
+      options != null ? options.getProperties() : null);
+    renderedFeaturesQuery.start(id, startTime, callback);
+  }
+
+  public void queryRenderedFeaturesAsync(@NonNull RectF coordinates,
+                                         @Nullable String[] layerIds,
+                                         @Nullable Filter.Statement filter,
+                                         @Nullable QueryOptions options,
+                                         @NonNull MapboxMap.QueryRenderedFeaturesCallback callback) {
+    if (isDestroyedOn("queryRenderedFeaturesAsync")) {
+      return;
+    }
+    // A new query supersedes the pending one natively
+    long startTime = System.nanoTime();
+    long id = nativeQueryRenderedFeaturesForBoxAsync(
+      coordinates.left / pixelRatio,
+      coordinates.top / pixelRatio,
+      coordinates.right / pixelRatio,
+      coordinates.bottom / pixelRatio,
+      layerIds,
+      filter != null ? filter.toArray() : null,
+      options != null ? options.getLimit() : 0,
+      options == null || options.hasGeometry(),
+      options != null ? options.getProperties() : null);
+    renderedFeaturesQuery.start(id, startTime, callback);
+  }
+
+  public void cancelRenderedFeaturesQuery() {
+    if (renderedFeaturesQuery.isPending() && !destroyed) {
+      nativeCancelRenderedFeaturesQuery();
+    }
+    renderedFeaturesQuery.cancel();
+  }
+
   public void setApiBaseUrl(String baseUrl) {
     if (isDestroyedOn("setApiBaseUrl")) {
       return;
@@ -875,6 +968,11 @@ final class NativeMapView {
     }
   }
 
+  // Called from JNI with the result of the latest asynchronous query
+  protected void onRenderedFeaturesQueried(long id, Feature[] features, double queryTime) {
+    renderedFeaturesQuery.deliver(id, features, queryTime);
+  }
+
   //
   // JNI methods
   //
@@ -1049,12 +1147,46 @@ final class NativeMapView {
 
   private native Feature[] nativeQueryRenderedFeaturesForPoint(float x, float y,
                                                                String[] layerIds,
-                                                               Object[] filter);
+                                                               Object[] filter,
+                                                               int limit,
+                                                               boolean geometry,
+                                                               String[] properties);
 
   private native Feature[] nativeQueryRenderedFeaturesForBox(float left, float top,
                                                              float right, float bottom,
                                                              String[] layerIds,
-                                                             Object[] filter);
+                                                             Object[] filter,
+                                                             int limit,
+                                                             boolean geometry,
+                                                             String[] properties);
+
+  private native String[] nativeQueryRenderedFeatureIdsForPoint(float x, float y,
+                                                                String[] layerIds,
+                                                                Object[] filter,
+                                                                int limit);
+
+  private native String[] nativeQueryRenderedFeatureIdsForBox(float left, float top,
+                                                              float right, float bottom,
+                                                              String[] layerIds,
+                                                              Object[] filter,
+                                                              int limit);
+
+  private native long nativeQueryRenderedFeaturesForPointAsync(float x, float y,
+                                                               String[] layerIds,
+                                                               Object[] filter,
+                                                               int limit,
+                                                               boolean geometry,
+                                                               String[] properties);
+
+  private native long nativeQueryRenderedFeaturesForBoxAsync(float left, float top,
+                                                             float right, float bottom,
+                                                             String[] layerIds,
+                                                             Object[] filter,
+                                                             int limit,
+                                                             boolean geometry,
+                                                             String[] properties);
+
+  private native void nativeCancelRenderedFeaturesQuery();
 
   private native Light nativeGetLight();
 
@@ -0,0 +1,77 @@
+package com.mapbox.mapboxsdk.maps;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+
+import com.mapbox.services.commons.geojson.Feature;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * The pending asynchronous feature query of a {@link NativeMapView}.
+ * <p>
+ * Only the latest query is pending, its callback is notified exactly once: with the result of the query, or with
+ * {@link MapboxMap.QueryRenderedFeaturesCallback#onCancel()} once a newer query superseded it or it was cancelled.
+ * Results of earlier queries are dropped.
+ * </p>
+ */
+@UiThread
+final class RenderedFeaturesQuery {
+
+  private MapboxMap.QueryRenderedFeaturesCallback callback;
+  private long id;
+  private long startTime;
+
+  boolean isPending() {
+    return callback != null;
+  }
+
+  /**
+   * Makes the query with the given id the pending one, the previous one is cancelled.
+   *
+   * @param id        the id of the query
+   * @param startTime the time the query was issued, based on {@link System#nanoTime()}
+   * @param callback  the callback of the query
+   */
+  void start(long id, long startTime, @NonNull MapboxMap.QueryRenderedFeaturesCallback callback) {
+    // Replaced first, the superseded callback may issue a new query
+    MapboxMap.QueryRenderedFeaturesCallback superseded = this.callback;
+    this.callback = callback;
+    this.id = id;
+    this.startTime = startTime;
+    if (superseded != null) {
+      superseded.onCancel();
+    }
+  }
+
+  /**
+   * Cancels the pending query.
+   */
+  void cancel() {
+    if (callback == null) {
+      return;
+    }
+    MapboxMap.QueryRenderedFeaturesCallback cancelled = callback;
+    callback = null;
+    cancelled.onCancel();
+  }
+
+  /**
+   * Delivers the result of a query, if it is the pending one.
+   *
+   * @param id        the id of the query
+   * @param features  the features, null for none
+   * @param queryTime the time the query took on the render thread, in milliseconds
+   */
+  void deliver(long id, @Nullable Feature[] features, double queryTime) {
+    if (callback == null || id != this.id) {
+      return;
+    }
+    MapboxMap.QueryRenderedFeaturesCallback delivered = callback;
+    callback = null;
+    delivered.onResult(features != null ? Arrays.asList(features) : new ArrayList<Feature>(),
+      queryTime, (System.nanoTime() - startTime) / 1e6);
+  }
+}
@@ -27,7 +27,7 @@ public abstract class MapRenderer implements MapRendererScheduler {
 
     FileSource fileSource = FileSource.getInstance(context);
     float pixelRatio = context.getResources().getDisplayMetrics().density;
-    String programCacheDir = context.getCacheDir().getAbsolutePath();
+    String programCacheDir = ProgramCache.getCacheDir(context);
     // Initialise native peer
     nativeInitialize(this, fileSource, pixelRatio, programCacheDir, localIdeographFontFamily);
   }
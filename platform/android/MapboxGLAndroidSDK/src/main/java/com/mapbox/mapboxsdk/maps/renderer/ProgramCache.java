@@ -0,0 +1,310 @@
+package com.mapbox.mapboxsdk.maps.renderer;
+
+import android.content.Context;
+import android.os.Build;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+import android.support.annotation.WorkerThread;
+
+import com.mapbox.mapboxsdk.BuildConfig;
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshot;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshotter;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Set;
+
+import timber.log.Timber;
+
+/**
+ * Manages the on-disk cache of compiled shader programs.
+ * <p>
+ * The renderer stores the binary of every program it links in the program cache directory and
+ * loads it from there on subsequent launches instead of compiling the shaders again. Programs are
+ * only compiled when they are first drawn, which causes a visible hitch on the first frames of a
+ * style that hasn't been shown before. Use {@link #warmUp(Context, String, CameraPosition, WarmUpCallback)}
+ * to compile and persist the programs of a style on a background GL context ahead of time.
+ * </p>
+ * <p>
+ * Program binaries are specific to the SDK build and to the GL driver of the device. The cache is
+ * invalidated by {@link #validate(Context)} whenever either of them changes.
+ * </p>
+ */
+public final class ProgramCache {
+
+  private static final String PROGRAM_FILE_PREFIX = "com.mapbox.gl.shader.";
+  private static final String PROGRAM_FILE_SUFFIX = ".pbf";
+  private static final String VERSION_FILE_NAME = PROGRAM_FILE_PREFIX + "version";
+
+  // Size, in density independent pixels, of the off screen map used to warm up the cache
+  private static final int WARM_UP_SIZE = 256;
+
+  // Keeps the warm up snapshotters alive until they have finished
+  private static final Set<MapSnapshotter> warmUps = new HashSet<>();
+
+  /**
+   * Callback invoked on the main thread when a warm up has finished.
+   *
+   * @see #warmUp(Context, String, CameraPosition, WarmUpCallback)
+   */
+  public interface WarmUpCallback {
+
+    /**
+     * Called when the programs of the style have been compiled and stored in the cache.
+     */
+    void onWarmUpComplete();
+
+    /**
+     * Called when the style could not be rendered.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  private ProgramCache() {
+  }
+
+  /**
+   * Get the directory the renderer stores compiled programs in.
+   *
+   * @param context the context to derive the cache directory from
+   * @return the absolute path of the program cache directory
+   */
+  public static String getCacheDir(@NonNull Context context) {
+    return context.getCacheDir().getAbsolutePath();
+  }
+
+  /**
+   * Compiles the programs required to render a style and stores them in the program cache.
+   * <p>
+   * The style is rendered once, off screen and off the UI thread, at the pixel ratio of the display
+   * so that the cached programs match the ones requested by a {@link com.mapbox.mapboxsdk.maps.MapView}.
+   * Only programs required by the layers visible at the camera position are compiled, pass a
+   * position that is representative of the first map shown in the application.
+   * </p>
+   * <p>
+   * The cache is validated with {@link #validate(Context)} on a worker thread before rendering.
+   * </p>
+   *
+   * @param context        the context to derive the cache directory and pixel ratio from
+   * @param styleUrl       the style to compile the programs for
+   * @param cameraPosition the camera position to render, or null for the default camera of the style
+   * @param callback       the callback to be invoked on the main thread, may be null
+   */
+  @UiThread
+  public static void warmUp(@NonNull Context context, @NonNull final String styleUrl,
+                            @Nullable final CameraPosition cameraPosition, @Nullable final WarmUpCallback callback) {
+    final Context appContext = context.getApplicationContext();
+    final Handler handler = new Handler(Looper.getMainLooper());
+    new Thread(new Runnable() {
+      @Override
+      public void run() {
+        validate(appContext);
+        handler.post(new Runnable() {
+          @Override
+          public void run() {
+            startWarmUp(appContext, styleUrl, cameraPosition, callback);
+          }
+        });
+      }
+    }).start();
+  }
+
+  private static void startWarmUp(Context context, final String styleUrl, CameraPosition cameraPosition,
+                                  final WarmUpCallback callback) {
+    MapSnapshotter.Options options = new MapSnapshotter.Options(WARM_UP_SIZE, WARM_UP_SIZE)
+      .withStyle(styleUrl)
+      .withPixelRatio(context.getResources().getDisplayMetrics().density)
+      .withCameraPosition(cameraPosition)
+      .withLogo(false);
+
+    final MapSnapshotter snapshotter = new MapSnapshotter(context, options);
+    warmUps.add(snapshotter);
+    snapshotter.start(new MapSnapshotter.SnapshotReadyCallback() {
+      @Override
+      public void onSnapshotReady(MapSnapshot snapshot) {
+        warmUps.remove(snapshotter);
+        snapshot.getBitmap().recycle();
+        if (callback != null) {
+          callback.onWarmUpComplete();
+        }
+      }
+    }, new MapSnapshotter.ErrorHandler() {
+      @Override
+      public void onError(String error) {
+        warmUps.remove(snapshotter);
+        Timber.e("Failed to warm up program cache for %s: %s", styleUrl, error);
+        if (callback != null) {
+          callback.onError(error);
+        }
+      }
+    });
+  }
+
+  /**
+   * Clears the program cache if it was written by a different SDK build or GL driver.
+   * <p>
+   * This method performs disk IO and shouldn't be called on the UI thread.
+   * </p>
+   *
+   * @param context the context to derive the cache directory from
+   * @return true if the cache was cleared
+   */
+  @WorkerThread
+  public static boolean validate(@NonNull Context context) {
+    File versionFile = new File(getCacheDir(context), VERSION_FILE_NAME);
+    String version = getVersion();
+    if (version.equals(readVersion(versionFile))) {
+      return false;
+    }
+
+    clear(context);
+    writeVersion(versionFile, version);
+    return true;
+  }
+
+  /**
+   * Get the total size of the compiled programs in the cache.
+   * <p>
+   * This method performs disk IO and shouldn't be called on the UI thread.
+   * </p>
+   *
+   * @param context the context to derive the cache directory from
+   * @return the size in bytes
+   */
+  @WorkerThread
+  public static long getSize(@NonNull Context context) {
+    long size = 0;
+    for (File program : listPrograms(context)) {
+      size += program.length();
+    }
+    return size;
+  }
+
+  /**
+   * Removes the least recently written programs until the cache fits the given size.
+   * <p>
+   * This method performs disk IO and shouldn't be called on the UI thread.
+   * </p>
+   *
+   * @param context the context to derive the cache directory from
+   * @param maxSize the maximum size of the cache in bytes
+   * @return the size of the cache in bytes after trimming
+   */
+  @WorkerThread
+  public static long trim(@NonNull Context context, long maxSize) {
+    if (maxSize < 0) {
+      throw new IllegalArgumentException("maxSize cannot be negative.");
+    }
+
+    File[] programs = listPrograms(context);
+    Arrays.sort(programs, new Comparator<File>() {
+      @Override
+      public int compare(File lhs, File rhs) {
+        long lhsModified = lhs.lastModified();
+        long rhsModified = rhs.lastModified();
+        return lhsModified < rhsModified ? -1 : (lhsModified == rhsModified ? 0 : 1);
+      }
+    });
+
+    long size = 0;
+    for (File program : programs) {
+      size += program.length();
+    }
+
+    for (File program : programs) {
+      if (size <= maxSize) {
+        break;
+      }
+      long length = program.length();
+      if (program.delete()) {
+        size -= length;
+      }
+    }
+    return size;
+  }
+
+  /**
+   * Removes all compiled programs from the cache.
+   * <p>
+   * This method performs disk IO and shouldn't be called on the UI thread.
+   * </p>
+   *
+   * @param context the context to derive the cache directory from
+   */
+  @WorkerThread
+  public static void clear(@NonNull Context context) {
+    for (File program : listPrograms(context)) {
+      if (!program.delete()) {
+        Timber.w("Failed to delete cached program %s", program.getName());
+      }
+    }
+  }
+
+  static String getVersion() {
+    return BuildConfig.GIT_REVISION_SHORT + "/" + Build.FINGERPRINT;
+  }
+
+  private static File[] listPrograms(Context context) {
+    File[] programs = new File(getCacheDir(context)).listFiles(new FilenameFilter() {
+      @Override
+      public boolean accept(File dir, String name) {
+        return name.startsWith(PROGRAM_FILE_PREFIX) && name.endsWith(PROGRAM_FILE_SUFFIX);
+      }
+    });
+    return programs != null ? programs : new File[0];
+  }
+
+  @Nullable
+  private static String readVersion(File versionFile) {
+    if (!versionFile.exists()) {
+      return null;
+    }
+
+    BufferedReader reader = null;
+    try {
+      reader = new BufferedReader(new FileReader(versionFile));
+      return reader.readLine();
+    } catch (IOException exception) {
+      Timber.e(exception, "Failed to read program cache version");
+      return null;
+    } finally {
+      closeQuietly(reader);
+    }
+  }
+
+  private static void writeVersion(File versionFile, String version) {
+    FileWriter writer = null;
+    try {
+      writer = new FileWriter(versionFile);
+      writer.write(version);
+    } catch (IOException exception) {
+      Timber.e(exception, "Failed to write program cache version");
+    } finally {
+      closeQuietly(writer);
+    }
+  }
+
+  private static void closeQuietly(Closeable closeable) {
+    if (closeable != null) {
+      try {
+        closeable.close();
+      } catch (IOException exception) {
+        // Ignore
+      }
+    }
+  }
+}
@@ -9,6 +9,7 @@ import android.net.ConnectivityManager;
 import android.net.NetworkInfo;
 import android.support.annotation.NonNull;
 import android.support.annotation.UiThread;
+import android.support.v4.net.ConnectivityManagerCompat;
 
 import com.mapbox.mapboxsdk.Mapbox;
 
@@ -127,4 +128,19 @@ public class ConnectivityReceiver extends BroadcastReceiver {
     NetworkInfo activeNetwork = cm.getActiveNetworkInfo();
     return (activeNetwork != null && activeNetwork.isConnected());
   }
+
+  /**
+   * Get whether the device is connected to a network that isn't metered, such as Wi-Fi
+   *
+   * @param context current Context
+   * @return true if connected and not metered
+   */
+  public boolean isConnectedUnmetered(Context context) {
+    if (!isConnected(context)) {
+      return false;
+    }
+
+    ConnectivityManager cm = (ConnectivityManager) context.getSystemService(Context.CONNECTIVITY_SERVICE);
+    return !ConnectivityManagerCompat.isActiveNetworkMetered(cm);
+  }
 }
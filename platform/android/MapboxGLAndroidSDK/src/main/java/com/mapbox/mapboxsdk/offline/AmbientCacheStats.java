@@ -0,0 +1,137 @@
+package com.mapbox.mapboxsdk.offline;
+
+/**
+ * Statistics of the ambient cache, the resources stored while browsing the map online
+ * that aren't required by any offline region.
+ * <p>
+ * The ambient cache shares its database with the offline regions. Its resources are evicted,
+ * least recently used first, when the database grows beyond the maximum size.
+ * </p>
+ */
+public class AmbientCacheStats {
+
+  /**
+   * The number of cache lookups that found a stored resource.
+   */
+  private long hitCount;
+
+  /**
+   * The number of cache lookups that didn't find a stored resource.
+   */
+  private long missCount;
+
+  /**
+   * The number of resources (inclusive of tiles) in the ambient cache.
+   */
+  private long resourceCount;
+
+  /**
+   * The cumulative size, in bytes, of the resources in the ambient cache.
+   */
+  private long resourceSize;
+
+  /**
+   * The size, in bytes, of the database, inclusive of offline regions.
+   */
+  private long databaseSize;
+
+  /**
+   * The size, in bytes, of the unused space of the database.
+   */
+  private long freeSize;
+
+  /**
+   * The size, in bytes, above which the ambient cache is evicted.
+   */
+  private long maximumSize;
+
+  /*
+   * Use OfflineManager#getAmbientCacheStats to obtain an AmbientCacheStats object.
+   *
+   * For JNI use only
+   */
+  private AmbientCacheStats(long hitCount, long missCount, long resourceCount, long resourceSize,
+                            long databaseSize, long freeSize, long maximumSize) {
+    this.hitCount = hitCount;
+    this.missCount = missCount;
+    this.resourceCount = resourceCount;
+    this.resourceSize = resourceSize;
+    this.databaseSize = databaseSize;
+    this.freeSize = freeSize;
+    this.maximumSize = maximumSize;
+  }
+
+  /**
+   * Get the number of cache lookups that found a stored resource since the database was opened.
+   *
+   * @return the number of hits
+   */
+  public long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * Get the number of cache lookups that didn't find a stored resource since the database was opened.
+   *
+   * @return the number of misses
+   */
+  public long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * Get the ratio of cache lookups that found a stored resource.
+   *
+   * @return the hit ratio between 0 and 1, 0 if there wasn't any lookup
+   */
+  public double getHitRatio() {
+    long lookups = hitCount + missCount;
+    return lookups > 0 ? (double) hitCount / lookups : 0;
+  }
+
+  /**
+   * Get the number of resources (inclusive of tiles) in the ambient cache.
+   *
+   * @return the amount of ambient resources
+   */
+  public long getResourceCount() {
+    return resourceCount;
+  }
+
+  /**
+   * Get the cumulative size, in bytes, of the resources in the ambient cache.
+   *
+   * @return the size of the ambient resources
+   */
+  public long getResourceSize() {
+    return resourceSize;
+  }
+
+  /**
+   * Get the size, in bytes, of the database file, inclusive of offline regions.
+   *
+   * @return the size of the database
+   */
+  public long getDatabaseSize() {
+    return databaseSize;
+  }
+
+  /**
+   * Get the size, in bytes, of the unused space of the database that
+   * {@link OfflineManager#compactAmbientCache(OfflineManager.AmbientCacheCallback)} returns to the file system.
+   *
+   * @return the unused size of the database
+   */
+  public long getFreeSize() {
+    return freeSize;
+  }
+
+  /**
+   * Get the size, in bytes, above which the ambient cache is evicted.
+   *
+   * @return the maximum size
+   */
+  public long getMaximumSize() {
+    return maximumSize;
+  }
+}
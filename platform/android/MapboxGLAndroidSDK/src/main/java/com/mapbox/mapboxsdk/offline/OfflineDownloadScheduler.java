@@ -0,0 +1,618 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.annotation.SuppressLint;
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+
+import com.mapbox.mapboxsdk.storage.FileSource;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Downloads a queue of offline regions within a concurrency, bandwidth and storage budget.
+ * <p>
+ * Scheduled regions are downloaded in order of priority and, for equal priorities, in the order
+ * they were scheduled. At most {@link Options#withMaxConcurrentDownloads(int)} regions are active at
+ * the same time, a region with a higher priority preempts an active region with a lower priority.
+ * Regions are set inactive and removed from the queue once they have been downloaded completely.
+ * </p>
+ * <p>
+ * The native file source has no rate limiter, the bandwidth budget is enforced by suspending all
+ * downloads for as long as the average throughput since the last suspension exceeds the budget.
+ * Suspending a download cancels its in flight requests, which are repeated when it resumes.
+ * The storage budget applies to the size of the offline database and suspends all downloads when
+ * exceeded.
+ * </p>
+ * <p>
+ * The queue is persisted, use {@link #restore(RestoreCallback)} after the process was restarted
+ * to continue the downloads that didn't complete. The scheduler replaces the
+ * {@link OfflineRegion.OfflineRegionObserver} of scheduled regions, use an
+ * {@link OfflineDownloadListener} to follow their progress instead. The scheduler and its listener
+ * are always invoked on the main thread, regardless of the callback executors of
+ * {@link OfflineManager} and of the scheduled regions.
+ * </p>
+ */
+@UiThread
+public class OfflineDownloadScheduler {
+
+  private static final String PREFERENCES_NAME = "com.mapbox.mapboxsdk.offline.OfflineDownloadScheduler";
+  private static final String DATABASE_NAME = "mbgl-offline.db";
+
+  // Interval over which throughput is measured
+  private static final long THROUGHPUT_WINDOW_MS = 5000;
+
+  // Minimum interval between checks of the database size
+  private static final long STORAGE_CHECK_INTERVAL_MS = 1000;
+
+  // This object is implemented as a singleton
+  @SuppressLint("StaticFieldLeak")
+  private static OfflineDownloadScheduler instance;
+
+  private final Context context;
+  private final Handler handler;
+  private final SharedPreferences preferences;
+  private final Map<Long, Entry> entries = new HashMap<>();
+  private Options options = new Options();
+  private OfflineDownloadListener listener;
+  private File database;
+  private long sequence;
+
+  private boolean paused;
+  private boolean throttled;
+  private boolean storageLimitReached;
+  private long lastStorageCheck = -STORAGE_CHECK_INTERVAL_MS;
+
+  private long windowStart = -1;
+  private long windowBytes;
+  private long downloadedBytes;
+  private long completedRegionCount;
+
+  // Delivers region and offline manager callbacks on the main thread, whatever their callback executor
+  private final Executor mainThreadExecutor = new Executor() {
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+      handler.post(runnable);
+    }
+  };
+
+  private final Runnable resumeAfterThrottle = new Runnable() {
+    @Override
+    public void run() {
+      throttled = false;
+      windowStart = -1;
+      windowBytes = 0;
+      update();
+    }
+  };
+
+  /**
+   * Receives the events of the regions downloaded by an {@link OfflineDownloadScheduler}.
+   * All methods are invoked on the main thread.
+   */
+  public interface OfflineDownloadListener {
+
+    /**
+     * Called when a region has been downloaded completely and was removed from the queue.
+     *
+     * @param region the downloaded region
+     */
+    void onRegionComplete(@NonNull OfflineRegion region);
+
+    /**
+     * Called when a download of a region encountered an error. Downloads are retried
+     * automatically, the region stays in the queue.
+     *
+     * @param region the region
+     * @param error  the error
+     */
+    void onRegionError(@NonNull OfflineRegion region, @NonNull OfflineRegionError error);
+
+    /**
+     * Called when a region exceeds the Mapbox tile count limit and was removed from the queue.
+     *
+     * @param region the region
+     * @param limit  the tile count limit
+     */
+    void onTileCountLimitExceeded(@NonNull OfflineRegion region, long limit);
+
+    /**
+     * Called when the offline database exceeds the storage budget. All downloads are suspended
+     * until the budget is raised with {@link #setOptions(Options)}.
+     *
+     * @param size the size of the offline database in bytes
+     */
+    void onStorageLimitReached(long size);
+
+    /**
+     * Called when any of the scheduled regions made progress.
+     *
+     * @param progress the aggregate progress of the scheduler
+     */
+    void onProgress(@NonNull Progress progress);
+  }
+
+  /**
+   * Callback invoked on the main thread when the persisted queue has been restored.
+   *
+   * @see #restore(RestoreCallback)
+   */
+  public interface RestoreCallback {
+
+    /**
+     * @param regions the regions that were scheduled again
+     */
+    void onRestored(@NonNull List<OfflineRegion> regions);
+
+    /**
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * The budgets of an {@link OfflineDownloadScheduler}.
+   */
+  public static class Options {
+
+    private int maxConcurrentDownloads = 2;
+    private long maxBytesPerSecond;
+    private long maxStorageBytes;
+
+    /**
+     * @param maxConcurrentDownloads the maximum number of regions downloaded at the same time (default: 2)
+     * @return the mutated {@link Options}
+     */
+    public Options withMaxConcurrentDownloads(int maxConcurrentDownloads) {
+      if (maxConcurrentDownloads < 1) {
+        throw new IllegalArgumentException("maxConcurrentDownloads must be at least 1.");
+      }
+      this.maxConcurrentDownloads = maxConcurrentDownloads;
+      return this;
+    }
+
+    /**
+     * @param maxBytesPerSecond the average download rate of all regions combined, 0 for unlimited (default)
+     * @return the mutated {@link Options}
+     */
+    public Options withMaxBytesPerSecond(long maxBytesPerSecond) {
+      this.maxBytesPerSecond = maxBytesPerSecond;
+      return this;
+    }
+
+    /**
+     * @param maxStorageBytes the maximum size of the offline database, 0 for unlimited (default)
+     * @return the mutated {@link Options}
+     */
+    public Options withMaxStorageBytes(long maxStorageBytes) {
+      this.maxStorageBytes = maxStorageBytes;
+      return this;
+    }
+
+    /**
+     * @return the maximum number of regions downloaded at the same time
+     */
+    public int getMaxConcurrentDownloads() {
+      return maxConcurrentDownloads;
+    }
+
+    /**
+     * @return the maximum download rate in bytes per second, 0 if unlimited
+     */
+    public long getMaxBytesPerSecond() {
+      return maxBytesPerSecond;
+    }
+
+    /**
+     * @return the maximum size of the offline database in bytes, 0 if unlimited
+     */
+    public long getMaxStorageBytes() {
+      return maxStorageBytes;
+    }
+  }
+
+  /**
+   * The aggregate progress of the regions downloaded by an {@link OfflineDownloadScheduler}.
+   */
+  public static class Progress {
+
+    private final int activeRegionCount;
+    private final int pendingRegionCount;
+    private final long completedRegionCount;
+    private final long downloadedBytes;
+    private final long bytesPerSecond;
+    private final boolean suspended;
+
+    Progress(int activeRegionCount, int pendingRegionCount, long completedRegionCount,
+             long downloadedBytes, long bytesPerSecond, boolean suspended) {
+      this.activeRegionCount = activeRegionCount;
+      this.pendingRegionCount = pendingRegionCount;
+      this.completedRegionCount = completedRegionCount;
+      this.downloadedBytes = downloadedBytes;
+      this.bytesPerSecond = bytesPerSecond;
+      this.suspended = suspended;
+    }
+
+    /**
+     * @return the number of regions being downloaded
+     */
+    public int getActiveRegionCount() {
+      return activeRegionCount;
+    }
+
+    /**
+     * @return the number of scheduled regions waiting to be downloaded
+     */
+    public int getPendingRegionCount() {
+      return pendingRegionCount;
+    }
+
+    /**
+     * @return the number of regions completed since the scheduler was created
+     */
+    public long getCompletedRegionCount() {
+      return completedRegionCount;
+    }
+
+    /**
+     * @return the number of bytes downloaded since the scheduler was created
+     */
+    public long getDownloadedBytes() {
+      return downloadedBytes;
+    }
+
+    /**
+     * @return the recent download rate of all regions combined
+     */
+    public long getBytesPerSecond() {
+      return bytesPerSecond;
+    }
+
+    /**
+     * @return true if all downloads are suspended by {@link #pause()} or a budget
+     */
+    public boolean isSuspended() {
+      return suspended;
+    }
+  }
+
+  private class Entry implements Comparable<Entry>, OfflineRegion.OfflineRegionObserver {
+
+    private final OfflineRegion region;
+    private final long sequence;
+    private int priority;
+    private boolean active;
+    private long completedSize = -1;
+
+    Entry(OfflineRegion region, int priority, long sequence) {
+      this.region = region;
+      this.priority = priority;
+      this.sequence = sequence;
+    }
+
+    @Override
+    public void onStatusChanged(OfflineRegionStatus status) {
+      OfflineDownloadScheduler.this.onStatusChanged(this, status);
+    }
+
+    @Override
+    public void onError(OfflineRegionError error) {
+      if (listener != null) {
+        listener.onRegionError(region, error);
+      }
+    }
+
+    @Override
+    public void mapboxTileCountLimitExceeded(long limit) {
+      unschedule(region);
+      if (listener != null) {
+        listener.onTileCountLimitExceeded(region, limit);
+      }
+    }
+
+    @Override
+    public int compareTo(@NonNull Entry other) {
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+
+  /**
+   * Get the single instance of the offline download scheduler.
+   *
+   * @param context the context used to persist the queue
+   * @return the single instance of the offline download scheduler
+   */
+  public static synchronized OfflineDownloadScheduler getInstance(@NonNull Context context) {
+    if (instance == null) {
+      instance = new OfflineDownloadScheduler(context.getApplicationContext(), new Handler(Looper.getMainLooper()));
+    }
+    return instance;
+  }
+
+  OfflineDownloadScheduler(Context context, Handler handler) {
+    this.context = context;
+    this.handler = handler;
+    this.preferences = context.getSharedPreferences(PREFERENCES_NAME, Context.MODE_PRIVATE);
+  }
+
+  /**
+   * Set the budgets of the scheduler. Downloads suspended by the storage budget are resumed
+   * if the database fits the new budget.
+   *
+   * @param options the budgets
+   */
+  public void setOptions(@NonNull Options options) {
+    this.options = options;
+    storageLimitReached = false;
+    lastStorageCheck = -STORAGE_CHECK_INTERVAL_MS;
+    checkStorage();
+    update();
+  }
+
+  /**
+   * @return the budgets of the scheduler
+   */
+  @NonNull
+  public Options getOptions() {
+    return options;
+  }
+
+  /**
+   * Set the listener to be notified of the progress of scheduled regions.
+   *
+   * @param listener the listener, or null to remove
+   */
+  public void setListener(@Nullable OfflineDownloadListener listener) {
+    this.listener = listener;
+  }
+
+  /**
+   * Adds a region to the download queue, or changes its priority if it's already queued.
+   *
+   * @param region   the region to download
+   * @param priority the priority of the region, regions with a higher priority are downloaded first
+   */
+  public void schedule(@NonNull OfflineRegion region, int priority) {
+    Entry entry = entries.get(region.getID());
+    if (entry == null) {
+      entry = new Entry(region, priority, sequence++);
+      entries.put(region.getID(), entry);
+      region.setObserver(entry, new OfflineRegion.ObserverOptions().withExecutor(mainThreadExecutor));
+    } else {
+      entry.priority = priority;
+    }
+
+    preferences.edit().putInt(String.valueOf(region.getID()), priority).apply();
+    update();
+  }
+
+  /**
+   * Removes a region from the download queue, setting it inactive if it was being downloaded.
+   *
+   * @param region the region to remove
+   */
+  public void unschedule(@NonNull OfflineRegion region) {
+    Entry entry = entries.remove(region.getID());
+    if (entry == null) {
+      return;
+    }
+
+    if (entry.active) {
+      entry.region.setDownloadState(OfflineRegion.STATE_INACTIVE);
+    }
+    entry.region.setObserver(null);
+    preferences.edit().remove(String.valueOf(region.getID())).apply();
+    update();
+  }
+
+  /**
+   * @param region the region
+   * @return true if the region is in the download queue
+   */
+  public boolean isScheduled(@NonNull OfflineRegion region) {
+    return entries.containsKey(region.getID());
+  }
+
+  /**
+   * Suspends all downloads until {@link #resume()} is called.
+   */
+  public void pause() {
+    paused = true;
+    update();
+  }
+
+  /**
+   * Resumes downloads suspended by {@link #pause()}.
+   */
+  public void resume() {
+    paused = false;
+    update();
+  }
+
+  /**
+   * Schedules the regions that were in the download queue when the process was last stopped.
+   *
+   * @param callback the callback to be invoked when the queue has been restored, may be null
+   */
+  public void restore(@Nullable final RestoreCallback callback) {
+    OfflineManager.getInstance(context).listOfflineRegions(new OfflineManager.ListOfflineRegionsCallback() {
+      @Override
+      public void onList(final OfflineRegion[] offlineRegions) {
+        mainThreadExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            onRestore(offlineRegions, callback);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        mainThreadExecutor.execute(new Runnable() {
+          @Override
+          public void run() {
+            if (callback != null) {
+              callback.onError(error);
+            }
+          }
+        });
+      }
+    });
+  }
+
+  private void onRestore(OfflineRegion[] offlineRegions, @Nullable RestoreCallback callback) {
+    List<OfflineRegion> restored = new ArrayList<>();
+    for (OfflineRegion region : offlineRegions) {
+      String key = String.valueOf(region.getID());
+      if (preferences.contains(key) && !entries.containsKey(region.getID())) {
+        schedule(region, preferences.getInt(key, 0));
+        restored.add(region);
+      }
+    }
+    if (callback != null) {
+      callback.onRestored(restored);
+    }
+  }
+
+  /**
+   * @return the current aggregate progress of the scheduler
+   */
+  @NonNull
+  public Progress getProgress() {
+    int active = 0;
+    for (Entry entry : entries.values()) {
+      if (entry.active) {
+        active++;
+      }
+    }
+
+    long bytesPerSecond = 0;
+    long elapsed = elapsedRealtime() - windowStart;
+    if (windowStart >= 0 && elapsed > 0) {
+      bytesPerSecond = windowBytes * 1000 / elapsed;
+    }
+    return new Progress(active, entries.size() - active, completedRegionCount, downloadedBytes,
+      bytesPerSecond, isSuspended());
+  }
+
+  long elapsedRealtime() {
+    return SystemClock.elapsedRealtime();
+  }
+
+  long getDatabaseSize() {
+    if (database == null) {
+      database = new File(FileSource.getCachePath(context), DATABASE_NAME);
+    }
+    return database.length();
+  }
+
+  private boolean isSuspended() {
+    return paused || throttled || storageLimitReached;
+  }
+
+  private void update() {
+    List<Entry> queue = new ArrayList<>(entries.values());
+    Collections.sort(queue);
+
+    int slots = isSuspended() ? 0 : options.maxConcurrentDownloads;
+    for (Entry entry : queue) {
+      boolean activate = slots > 0;
+      if (activate) {
+        slots--;
+      }
+
+      if (activate && !entry.active) {
+        if (windowStart < 0) {
+          windowStart = elapsedRealtime();
+        }
+        entry.active = true;
+        entry.region.setDownloadState(OfflineRegion.STATE_ACTIVE);
+      } else if (!activate && entry.active) {
+        entry.active = false;
+        entry.region.setDownloadState(OfflineRegion.STATE_INACTIVE);
+      }
+    }
+  }
+
+  private void onStatusChanged(Entry entry, OfflineRegionStatus status) {
+    if (entries.get(entry.region.getID()) != entry) {
+      // Delivered after the region was removed from the queue
+      return;
+    }
+
+    long size = status.getCompletedResourceSize();
+    if (entry.completedSize >= 0 && size > entry.completedSize) {
+      onBytesDownloaded(size - entry.completedSize);
+    }
+    entry.completedSize = size;
+
+    if (status.isRequiredResourceCountPrecise()
+      && status.getCompletedResourceCount() >= status.getRequiredResourceCount()) {
+      unschedule(entry.region);
+      completedRegionCount++;
+      if (listener != null) {
+        listener.onRegionComplete(entry.region);
+      }
+    }
+
+    checkStorage();
+    if (listener != null) {
+      listener.onProgress(getProgress());
+    }
+  }
+
+  private void onBytesDownloaded(long bytes) {
+    downloadedBytes += bytes;
+
+    long now = elapsedRealtime();
+    if (windowStart < 0 || now - windowStart > THROUGHPUT_WINDOW_MS) {
+      windowStart = now;
+      windowBytes = 0;
+    }
+    windowBytes += bytes;
+
+    long maxBytesPerSecond = options.maxBytesPerSecond;
+    if (maxBytesPerSecond > 0 && !throttled) {
+      // Time the downloaded bytes should have taken within the budget
+      long budgetMillis = windowBytes * 1000 / maxBytesPerSecond;
+      long elapsed = now - windowStart;
+      if (budgetMillis > elapsed) {
+        throttled = true;
+        update();
+        handler.postDelayed(resumeAfterThrottle, budgetMillis - elapsed);
+      }
+    }
+  }
+
+  private void checkStorage() {
+    long maxStorageBytes = options.maxStorageBytes;
+    long now = elapsedRealtime();
+    if (maxStorageBytes <= 0 || storageLimitReached || now - lastStorageCheck < STORAGE_CHECK_INTERVAL_MS) {
+      return;
+    }
+
+    lastStorageCheck = now;
+    long size = getDatabaseSize();
+    if (size > maxStorageBytes) {
+      storageLimitReached = true;
+      update();
+      if (listener != null) {
+        listener.onStorageLimitReached(size);
+      }
+    }
+  }
+}
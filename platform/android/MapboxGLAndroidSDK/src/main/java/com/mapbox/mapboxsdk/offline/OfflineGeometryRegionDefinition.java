@@ -0,0 +1,272 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.os.Parcel;
+import android.os.Parcelable;
+import android.support.annotation.NonNull;
+
+import com.google.gson.GsonBuilder;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.Geometry;
+import com.mapbox.services.commons.geojson.MultiPolygon;
+import com.mapbox.services.commons.geojson.custom.GeometryDeserializer;
+import com.mapbox.services.commons.geojson.custom.PositionDeserializer;
+import com.mapbox.services.commons.models.Position;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An offline region defined by a style URL, geometry, zoom range, and
+ * device pixel ratio.
+ * <p>
+ * Unlike {@link OfflineTilePyramidRegionDefinition}, only the tiles that intersect the geometry
+ * are downloaded instead of all tiles of its bounding box. A polygon includes the tiles it covers,
+ * a line string the tiles it passes through. Use {@link #fromCorridor(String, List, double, double, double, float)}
+ * to download the tiles along a route.
+ * <p>
+ * Both minZoom and maxZoom must be ≥ 0, and maxZoom must be ≥ minZoom.
+ * <p>
+ * maxZoom may be ∞, in which case for each tile source, the region will include
+ * tiles from minZoom up to the maximum zoom level provided by that source.
+ * <p>
+ * pixelRatio must be ≥ 0 and should typically be 1.0 or 2.0.
+ */
+public class OfflineGeometryRegionDefinition implements OfflineRegionDefinition, Parcelable {
+
+  private static final double METERS_PER_DEGREE_LATITUDE = 111320;
+  private static final int CAP_SEGMENTS = 16;
+
+  private String styleURL;
+  private Geometry geometry;
+  private LatLngBounds bounds;
+  private double minZoom;
+  private double maxZoom;
+  private float pixelRatio;
+
+  /**
+   * Constructor to create an OfflineGeometryRegionDefinition from parameters.
+   *
+   * @param styleURL   the style
+   * @param geometry   the geometry, a (multi) polygon, (multi) line string or (multi) point
+   * @param minZoom    min zoom
+   * @param maxZoom    max zoom
+   * @param pixelRatio pixel ratio of the device
+   */
+  public OfflineGeometryRegionDefinition(
+    String styleURL, @NonNull Geometry geometry, double minZoom, double maxZoom, float pixelRatio) {
+    this.styleURL = styleURL;
+    this.geometry = geometry;
+    this.bounds = calculateBounds(geometry);
+    this.minZoom = minZoom;
+    this.maxZoom = maxZoom;
+    this.pixelRatio = pixelRatio;
+  }
+
+  /**
+   * Constructor used in JNI, the geometry is passed as GeoJSON.
+   */
+  private OfflineGeometryRegionDefinition(
+    String styleURL, String geometry, double minZoom, double maxZoom, float pixelRatio) {
+    this(styleURL, parseGeometry(geometry), minZoom, maxZoom, pixelRatio);
+  }
+
+  /**
+   * Constructor to create an OfflineGeometryRegionDefinition from a Parcel.
+   *
+   * @param parcel the parcel to create the OfflineGeometryRegionDefinition from
+   */
+  public OfflineGeometryRegionDefinition(Parcel parcel) {
+    this.styleURL = parcel.readString();
+    this.geometry = parseGeometry(parcel.readString());
+    this.bounds = calculateBounds(geometry);
+    this.minZoom = parcel.readDouble();
+    this.maxZoom = parcel.readDouble();
+    this.pixelRatio = parcel.readFloat();
+  }
+
+  /**
+   * Creates a definition covering a corridor along a route, for example a highway.
+   * <p>
+   * The corridor includes every location within the buffer distance of the route.
+   * </p>
+   *
+   * @param styleURL     the style
+   * @param route        the points of the route, at least one
+   * @param bufferMeters the distance to the route in meters, must be &gt; 0
+   * @param minZoom      min zoom
+   * @param maxZoom      max zoom
+   * @param pixelRatio   pixel ratio of the device
+   * @return the definition of the corridor
+   */
+  public static OfflineGeometryRegionDefinition fromCorridor(String styleURL, @NonNull List<LatLng> route,
+                                                             double bufferMeters, double minZoom,
+                                                             double maxZoom, float pixelRatio) {
+    if (route.isEmpty()) {
+      throw new IllegalArgumentException("A corridor requires at least one point.");
+    }
+    if (!(bufferMeters > 0)) {
+      throw new IllegalArgumentException("The buffer of a corridor must be greater than 0.");
+    }
+
+    // The corridor is the union of a rectangle around each segment and a cap around each point
+    List<List<List<Position>>> polygons = new ArrayList<>();
+    for (int i = 0; i < route.size(); i++) {
+      LatLng point = route.get(i);
+      polygons.add(Collections.singletonList(createCap(point, bufferMeters)));
+      if (i > 0) {
+        polygons.add(Collections.singletonList(createSegment(route.get(i - 1), point, bufferMeters)));
+      }
+    }
+
+    return new OfflineGeometryRegionDefinition(
+      styleURL, MultiPolygon.fromCoordinates(polygons), minZoom, maxZoom, pixelRatio);
+  }
+
+  /*
+   * Getters
+   */
+
+  public String getStyleURL() {
+    return styleURL;
+  }
+
+  public Geometry getGeometry() {
+    return geometry;
+  }
+
+  /**
+   * Returns the bounding box of the geometry.
+   *
+   * @return the bounds
+   */
+  public LatLngBounds getBounds() {
+    return bounds;
+  }
+
+  public double getMinZoom() {
+    return minZoom;
+  }
+
+  public double getMaxZoom() {
+    return maxZoom;
+  }
+
+  public float getPixelRatio() {
+    return pixelRatio;
+  }
+
+  /*
+   * Geometry
+   */
+
+  private static Geometry parseGeometry(String json) {
+    return new GsonBuilder()
+      .registerTypeAdapter(Position.class, new PositionDeserializer())
+      .registerTypeAdapter(Geometry.class, new GeometryDeserializer())
+      .create()
+      .fromJson(json, Geometry.class);
+  }
+
+  private static LatLngBounds calculateBounds(Geometry geometry) {
+    double[] bounds = new double[] {
+      Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY
+    };
+    extendBounds(bounds, geometry);
+    if (bounds[0] > bounds[1]) {
+      throw new IllegalArgumentException("The geometry of an offline region can't be empty.");
+    }
+    return LatLngBounds.from(bounds[1], bounds[2], bounds[0], bounds[3]);
+  }
+
+  /**
+   * Extends south, north, east and west by the coordinates of a geometry, a list of coordinates or a position.
+   */
+  private static void extendBounds(double[] bounds, Object coordinates) {
+    if (coordinates instanceof Geometry) {
+      extendBounds(bounds, ((Geometry) coordinates).getCoordinates());
+    } else if (coordinates instanceof List) {
+      for (Object child : (List) coordinates) {
+        extendBounds(bounds, child);
+      }
+    } else if (coordinates instanceof Position) {
+      Position position = (Position) coordinates;
+      bounds[0] = Math.min(bounds[0], position.getLatitude());
+      bounds[1] = Math.max(bounds[1], position.getLatitude());
+      bounds[2] = Math.max(bounds[2], position.getLongitude());
+      bounds[3] = Math.min(bounds[3], position.getLongitude());
+    }
+  }
+
+  private static List<Position> createCap(LatLng center, double bufferMeters) {
+    // Circumscribe the circle so that the cap contains all of it
+    double radius = bufferMeters / Math.cos(Math.PI / CAP_SEGMENTS);
+    List<Position> ring = new ArrayList<>(CAP_SEGMENTS + 1);
+    for (int i = 0; i < CAP_SEGMENTS; i++) {
+      double angle = 2 * Math.PI * i / CAP_SEGMENTS;
+      ring.add(offset(center, radius * Math.cos(angle), radius * Math.sin(angle)));
+    }
+    ring.add(ring.get(0));
+    return ring;
+  }
+
+  private static List<Position> createSegment(LatLng from, LatLng to, double bufferMeters) {
+    double metersPerDegreeLongitude = metersPerDegreeLongitude((from.getLatitude() + to.getLatitude()) / 2);
+    double dx = (to.getLongitude() - from.getLongitude()) * metersPerDegreeLongitude;
+    double dy = (to.getLatitude() - from.getLatitude()) * METERS_PER_DEGREE_LATITUDE;
+    double length = Math.sqrt(dx * dx + dy * dy);
+    if (length == 0) {
+      return createCap(from, bufferMeters);
+    }
+
+    double nx = -dy / length * bufferMeters;
+    double ny = dx / length * bufferMeters;
+    List<Position> ring = new ArrayList<>(5);
+    ring.add(offset(from, nx, ny));
+    ring.add(offset(to, nx, ny));
+    ring.add(offset(to, -nx, -ny));
+    ring.add(offset(from, -nx, -ny));
+    ring.add(ring.get(0));
+    return ring;
+  }
+
+  private static Position offset(LatLng latLng, double eastMeters, double northMeters) {
+    double latitude = latLng.getLatitude() + northMeters / METERS_PER_DEGREE_LATITUDE;
+    double longitude = latLng.getLongitude() + eastMeters / metersPerDegreeLongitude(latLng.getLatitude());
+    return Position.fromCoordinates(longitude, Math.max(-90, Math.min(90, latitude)));
+  }
+
+  private static double metersPerDegreeLongitude(double latitude) {
+    // Avoid dividing by zero near the poles, the tiles there are clamped anyway
+    return Math.max(1, METERS_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(latitude)));
+  }
+
+  /*
+   * Parceable
+   */
+
+  @Override
+  public int describeContents() {
+    return 0;
+  }
+
+  @Override
+  public void writeToParcel(Parcel dest, int flags) {
+    dest.writeString(styleURL);
+    dest.writeString(geometry.toJson());
+    dest.writeDouble(minZoom);
+    dest.writeDouble(maxZoom);
+    dest.writeFloat(pixelRatio);
+  }
+
+  public static final Parcelable.Creator CREATOR = new Parcelable.Creator() {
+    public OfflineGeometryRegionDefinition createFromParcel(Parcel in) {
+      return new OfflineGeometryRegionDefinition(in);
+    }
+
+    public OfflineGeometryRegionDefinition[] newArray(int size) {
+      return new OfflineGeometryRegionDefinition[size];
+    }
+  };
+}
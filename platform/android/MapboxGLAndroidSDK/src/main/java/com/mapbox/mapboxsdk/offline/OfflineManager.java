@@ -5,6 +5,7 @@ import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
 
 import com.mapbox.mapboxsdk.LibraryLoader;
 import com.mapbox.mapboxsdk.R;
@@ -13,12 +14,13 @@ import com.mapbox.mapboxsdk.net.ConnectivityReceiver;
 import com.mapbox.mapboxsdk.storage.FileSource;
 
 import java.io.File;
+import java.util.concurrent.Executor;
 
 import timber.log.Timber;
 
 /**
  * The offline manager is the main entry point for offline-related functionality.
- * It'll help you list and create offline regions.
+ * It'll help you list and create offline regions, and manage the ambient cache.
  */
 public class OfflineManager {
 
@@ -40,6 +42,17 @@ public class OfflineManager {
   // Makes sure callbacks come back to the main thread
   private Handler handler;
 
+  // Runs the callbacks instead of the main thread, if set
+  @Nullable
+  private volatile Executor callbackExecutor;
+
+  private final Executor mainThreadExecutor = new Executor() {
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+      getHandler().post(runnable);
+    }
+  };
+
   // This object is implemented as a singleton
   @SuppressLint("StaticFieldLeak")
   private static OfflineManager instance;
@@ -87,6 +100,179 @@ public class OfflineManager {
     void onError(String error);
   }
 
+  /**
+   * This callback receives an asynchronous response containing a page of
+   * OfflineRegionSummary or an error message otherwise.
+   */
+  public interface ListOfflineRegionSummariesCallback {
+    /**
+     * Receives the page of offline region summaries.
+     *
+     * @param summaries the offline region summary array
+     */
+    void onList(OfflineRegionSummary[] summaries);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * This callback receives an asynchronous response containing an OfflineRegion
+   * of the database or an error message otherwise.
+   */
+  public interface GetOfflineRegionCallback {
+    /**
+     * Receives the offline region.
+     *
+     * @param offlineRegion the offline region
+     */
+    void onRegion(OfflineRegion offlineRegion);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * A page of offline regions to list, ordered by creation.
+   */
+  public static class RegionQuery {
+
+    private long offset;
+    private long limit = 50;
+    private long maxMetadataSize = 256;
+    private boolean descending;
+
+    /**
+     * @param offset the number of regions to skip (default: 0)
+     * @return the mutated {@link RegionQuery}
+     */
+    public RegionQuery withOffset(long offset) {
+      this.offset = offset;
+      return this;
+    }
+
+    /**
+     * @param limit the maximum number of regions of the page (default: 50)
+     * @return the mutated {@link RegionQuery}
+     */
+    public RegionQuery withLimit(long limit) {
+      this.limit = limit;
+      return this;
+    }
+
+    /**
+     * @param maxMetadataSize the maximum number of bytes of metadata to read per region (default: 256)
+     * @return the mutated {@link RegionQuery}
+     */
+    public RegionQuery withMaxMetadataSize(long maxMetadataSize) {
+      this.maxMetadataSize = maxMetadataSize;
+      return this;
+    }
+
+    /**
+     * @param descending true to list the most recently created regions first (default: false)
+     * @return the mutated {@link RegionQuery}
+     */
+    public RegionQuery withDescending(boolean descending) {
+      this.descending = descending;
+      return this;
+    }
+
+    /**
+     * @return the number of regions to skip
+     */
+    public long getOffset() {
+      return offset;
+    }
+
+    /**
+     * @return the maximum number of regions of the page
+     */
+    public long getLimit() {
+      return limit;
+    }
+
+    /**
+     * @return the maximum number of bytes of metadata to read per region
+     */
+    public long getMaxMetadataSize() {
+      return maxMetadataSize;
+    }
+
+    /**
+     * @return true if the most recently created regions are listed first
+     */
+    public boolean isDescending() {
+      return descending;
+    }
+  }
+
+  /**
+   * This callback receives an asynchronous response containing the OfflineRegions
+   * merged into the database or an error message otherwise.
+   */
+  public interface MergeOfflineRegionsCallback {
+    /**
+     * Receives the merged offline regions.
+     *
+     * @param offlineRegions the merged offline region array
+     */
+    void onMerge(OfflineRegion[] offlineRegions);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * This callback receives an asynchronous notification when an ambient cache operation
+   * has completed or an error message otherwise.
+   */
+  public interface AmbientCacheCallback {
+    /**
+     * Receives the completion notification.
+     */
+    void onComplete();
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * This callback receives an asynchronous response containing the statistics of the
+   * ambient cache or an error message otherwise.
+   */
+  public interface AmbientCacheStatsCallback {
+    /**
+     * Receives the statistics of the ambient cache.
+     *
+     * @param stats the ambient cache statistics
+     */
+    void onStats(AmbientCacheStats stats);
+
+    /**
+     * Receives the error message.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
   /*
    * Constructor
    */
@@ -140,11 +326,59 @@ public class OfflineManager {
     return handler;
   }
 
+  /**
+   * Set the executor on which the callbacks of the offline manager are invoked, for example to process
+   * the results of listing or merging many regions without blocking the main thread.
+   * <p>
+   * The executor is inherited by the regions passed to these callbacks, see
+   * {@link OfflineRegion#setCallbackExecutor(Executor)}. Pass null to invoke the callbacks on the
+   * main thread again, which is the default.
+   * </p>
+   *
+   * @param executor the executor of the callbacks, or null for the main thread
+   */
+  public void setCallbackExecutor(@Nullable Executor executor) {
+    this.callbackExecutor = executor;
+  }
+
+  private Executor getCallbackExecutor() {
+    Executor executor = callbackExecutor;
+    return executor != null ? executor : mainThreadExecutor;
+  }
+
+  private void inheritCallbackExecutor(OfflineRegion... offlineRegions) {
+    Executor executor = callbackExecutor;
+    if (executor != null) {
+      for (OfflineRegion offlineRegion : offlineRegions) {
+        offlineRegion.setCallbackExecutor(executor);
+      }
+    }
+  }
+
+  private void deactivateConnectivityReceiver() {
+    getHandler().post(new Runnable() {
+      @Override
+      public void run() {
+        ConnectivityReceiver.instance(context).deactivate();
+      }
+    });
+  }
+
+  private void deactivateFileSource() {
+    // The activation of the file source is counted on the main thread
+    getHandler().post(new Runnable() {
+      @Override
+      public void run() {
+        fileSource.deactivate();
+      }
+    });
+  }
+
   /**
    * Retrieve all regions in the offline database.
    * <p>
    * The query will be executed asynchronously and the results passed to the given
-   * callback on the main thread.
+   * callback on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
    * </p>
    *
    * @param callback the callback to be invoked
@@ -155,10 +389,11 @@ public class OfflineManager {
 
       @Override
       public void onList(final OfflineRegion[] offlineRegions) {
-        getHandler().post(new Runnable() {
+        inheritCallbackExecutor(offlineRegions);
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
-            fileSource.deactivate();
             callback.onList(offlineRegions);
           }
         });
@@ -166,10 +401,94 @@ public class OfflineManager {
 
       @Override
       public void onError(final String error) {
-        getHandler().post(new Runnable() {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Retrieve a page of summaries of the regions in the offline database.
+   * <p>
+   * Unlike {@link #listOfflineRegions(ListOfflineRegionsCallback)}, only the ID and the beginning of
+   * the metadata of each region are read, which keeps listing many regions with large metadata
+   * fast. Use {@link #getOfflineRegion(long, GetOfflineRegionCallback)} to retrieve a complete region.
+   * </p>
+   * <p>
+   * The query will be executed asynchronously and the results passed to the given
+   * callback on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param query    the page to list
+   * @param callback the callback to be invoked
+   */
+  public void listOfflineRegionSummaries(@NonNull RegionQuery query,
+                                         @NonNull final ListOfflineRegionSummariesCallback callback) {
+    fileSource.activate();
+    listOfflineRegionSummaries(query.getOffset(), query.getLimit(), query.getMaxMetadataSize(), query.isDescending(),
+      new ListOfflineRegionSummariesCallback() {
+
+        @Override
+        public void onList(final OfflineRegionSummary[] summaries) {
+          deactivateFileSource();
+          getCallbackExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+              callback.onList(summaries);
+            }
+          });
+        }
+
+        @Override
+        public void onError(final String error) {
+          deactivateFileSource();
+          getCallbackExecutor().execute(new Runnable() {
+            @Override
+            public void run() {
+              callback.onError(error);
+            }
+          });
+        }
+      });
+  }
+
+  /**
+   * Retrieve a region of the offline database by ID, for example the ID of an {@link OfflineRegionSummary}.
+   * <p>
+   * The query will be executed asynchronously and the result passed to the given
+   * callback on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param id       the ID of the region
+   * @param callback the callback to be invoked
+   */
+  public void getOfflineRegion(long id, @NonNull final GetOfflineRegionCallback callback) {
+    fileSource.activate();
+    getOfflineRegion(fileSource, id, new GetOfflineRegionCallback() {
+
+      @Override
+      public void onRegion(final OfflineRegion offlineRegion) {
+        inheritCallbackExecutor(offlineRegion);
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onRegion(offlineRegion);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
-            fileSource.deactivate();
             callback.onError(error);
           }
         });
@@ -181,7 +500,7 @@ public class OfflineManager {
    * Create an offline region in the database.
    * <p>
    * When the initial database queries have completed, the provided callback will be
-   * executed on the main thread.
+   * executed on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
    * </p>
    * <p>
    * Note that the resulting region will be in an inactive download state; to begin
@@ -208,10 +527,11 @@ public class OfflineManager {
 
       @Override
       public void onCreate(final OfflineRegion offlineRegion) {
-        getHandler().post(new Runnable() {
+        inheritCallbackExecutor(offlineRegion);
+        deactivateConnectivityReceiver();
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
-            ConnectivityReceiver.instance(context).deactivate();
             callback.onCreate(offlineRegion);
           }
         });
@@ -219,10 +539,10 @@ public class OfflineManager {
 
       @Override
       public void onError(final String error) {
-        getHandler().post(new Runnable() {
+        deactivateConnectivityReceiver();
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
-            ConnectivityReceiver.instance(context).deactivate();
             callback.onError(error);
           }
         });
@@ -230,14 +550,178 @@ public class OfflineManager {
     });
   }
 
+  /**
+   * Merge the offline regions of a secondary offline database into the database of this device,
+   * for example a file written by
+   * {@link OfflineRegion#exportRegion(String, OfflineRegion.OfflineRegionExportCallback)} or a
+   * database built on another device.
+   * <p>
+   * The regions, their metadata and their resources are copied in bulk on a background thread,
+   * without using the network, in a single transaction. Resources shared
+   * between regions or already stored are copied only once, and the ambient cache of the secondary
+   * database is ignored. The secondary database isn't modified and can be deleted once the regions
+   * have been merged.
+   * </p>
+   * <p>
+   * The merged regions are passed to the given callback on the main thread, or on the executor of
+   * {@link #setCallbackExecutor(Executor)}. They are in an inactive download state. If an error
+   * occurs, none of the regions is merged.
+   * </p>
+   *
+   * @param path     the path of the secondary database
+   * @param callback the callback to be invoked
+   */
+  public void mergeOfflineRegions(@NonNull String path, @NonNull final MergeOfflineRegionsCallback callback) {
+    fileSource.activate();
+    mergeOfflineRegions(fileSource, path, new MergeOfflineRegionsCallback() {
+
+      @Override
+      public void onMerge(final OfflineRegion[] offlineRegions) {
+        inheritCallbackExecutor(offlineRegions);
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onMerge(offlineRegions);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Set the maximum size, in bytes, of the database above which the ambient cache is evicted.
+   * <p>
+   * The ambient cache holds the resources stored while browsing the map online. Once the
+   * database, inclusive of offline regions, grows beyond this size, the least recently used
+   * ambient resources are evicted. Resources required by offline regions are never evicted.
+   * The eviction runs on a background thread, the callback is invoked on the main thread
+   * or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param size     the maximum size in bytes
+   * @param callback the callback to be invoked
+   */
+  public void setMaximumAmbientCacheSize(long size, @NonNull AmbientCacheCallback callback) {
+    fileSource.activate();
+    setMaximumAmbientCacheSize(fileSource, size, wrapAmbientCacheCallback(callback));
+  }
+
+  /**
+   * Remove every resource of the ambient cache and return the freed space to the file system.
+   * Resources required by offline regions are kept.
+   * <p>
+   * The operation runs on a background thread, the callback is invoked on the main thread
+   * or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param callback the callback to be invoked
+   */
+  public void clearAmbientCache(@NonNull AmbientCacheCallback callback) {
+    fileSource.activate();
+    clearAmbientCache(fileSource, wrapAmbientCacheCallback(callback));
+  }
+
+  /**
+   * Evict the ambient cache down to the maximum size and return the unused space of the
+   * database to the file system.
+   * <p>
+   * The operation runs on a background thread, the callback is invoked on the main thread
+   * or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param callback the callback to be invoked
+   */
+  public void compactAmbientCache(@NonNull AmbientCacheCallback callback) {
+    fileSource.activate();
+    compactAmbientCache(fileSource, wrapAmbientCacheCallback(callback));
+  }
+
+  /**
+   * Retrieve the hit and miss counts and the size of the ambient cache.
+   * <p>
+   * The query will be executed asynchronously and the results passed to the given
+   * callback on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param callback the callback to be invoked
+   */
+  public void getAmbientCacheStats(@NonNull final AmbientCacheStatsCallback callback) {
+    fileSource.activate();
+    getAmbientCacheStats(fileSource, new AmbientCacheStatsCallback() {
+
+      @Override
+      public void onStats(final AmbientCacheStats stats) {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onStats(stats);
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  private AmbientCacheCallback wrapAmbientCacheCallback(@NonNull final AmbientCacheCallback callback) {
+    return new AmbientCacheCallback() {
+
+      @Override
+      public void onComplete() {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onComplete();
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        deactivateFileSource();
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    };
+  }
+
   /**
    * Validates if the offline region definition bounds is valid for an offline region download.
    *
    * @param definition the offline region definition
-   * @return true if the region fits the world bounds.
+   * @return true if the region is of a supported type and fits the world bounds.
    */
   private boolean isValidOfflineRegionDefinition(OfflineRegionDefinition definition) {
-    return LatLngBounds.world().contains(definition.getBounds());
+    return (definition instanceof OfflineTilePyramidRegionDefinition
+      || definition instanceof OfflineGeometryRegionDefinition)
+      && LatLngBounds.world().contains(definition.getBounds());
   }
 
   /**
@@ -255,7 +739,22 @@ public class OfflineManager {
 
   private native void listOfflineRegions(FileSource fileSource, ListOfflineRegionsCallback callback);
 
+  private native void listOfflineRegionSummaries(long offset, long limit, long maxMetadataSize, boolean descending,
+                                                 ListOfflineRegionSummariesCallback callback);
+
+  private native void getOfflineRegion(FileSource fileSource, long id, GetOfflineRegionCallback callback);
+
   private native void createOfflineRegion(FileSource fileSource, OfflineRegionDefinition definition,
                                           byte[] metadata, CreateOfflineRegionCallback callback);
 
+  private native void mergeOfflineRegions(FileSource fileSource, String path, MergeOfflineRegionsCallback callback);
+
+  private native void setMaximumAmbientCacheSize(FileSource fileSource, long size, AmbientCacheCallback callback);
+
+  private native void clearAmbientCache(FileSource fileSource, AmbientCacheCallback callback);
+
+  private native void compactAmbientCache(FileSource fileSource, AmbientCacheCallback callback);
+
+  private native void getAmbientCacheStats(FileSource fileSource, AmbientCacheStatsCallback callback);
+
 }
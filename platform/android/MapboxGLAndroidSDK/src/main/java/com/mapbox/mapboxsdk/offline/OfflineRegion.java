@@ -1,5 +1,6 @@
 package com.mapbox.mapboxsdk.offline;
 
+import android.content.Context;
 import android.os.Handler;
 import android.os.Looper;
 import android.support.annotation.IntDef;
@@ -7,10 +8,14 @@ import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 
 import com.mapbox.mapboxsdk.LibraryLoader;
+import com.mapbox.mapboxsdk.Mapbox;
+import com.mapbox.mapboxsdk.net.ConnectivityListener;
+import com.mapbox.mapboxsdk.net.ConnectivityReceiver;
 import com.mapbox.mapboxsdk.storage.FileSource;
 
 import java.lang.annotation.Retention;
 import java.lang.annotation.RetentionPolicy;
+import java.util.concurrent.Executor;
 
 /**
  * An offline region is the basic building block for offline mobile maps.
@@ -53,6 +58,20 @@ public class OfflineRegion {
   // Makes sure callbacks come back to the main thread
   private Handler handler;
 
+  // Runs the callbacks instead of the main thread, if set
+  @Nullable
+  private volatile Executor callbackExecutor;
+
+  private final Executor mainThreadExecutor = new Executor() {
+    @Override
+    public void execute(@NonNull Runnable runnable) {
+      getHandler().post(runnable);
+    }
+  };
+
+  // Waits for an unmetered connection to start a refresh
+  private ConnectivityListener pendingRefresh;
+
   /**
    * A region can have a single observer, which gets notified whenever a change
    * to the region's status occurs.
@@ -63,7 +82,8 @@ public class OfflineRegion {
      * offline region. Status changes include any change in state of the members
      * of OfflineRegionStatus.
      * <p>
-     * This method will be executed on the main thread.
+     * This method will be executed on the main thread, or on the executor
+     * of the {@link ObserverOptions} of the observer or of {@link OfflineRegion#setCallbackExecutor(Executor)}.
      * </p>
      *
      * @param status the changed status
@@ -76,7 +96,8 @@ public class OfflineRegion {
      * will attempt to re-request failed resources based on an exponential backoff
      * algorithm, or when it detects that network access has been restored.
      * <p>
-     * This method will be executed on the main thread.
+     * This method will be executed on the main thread, or on the executor
+     * of the {@link ObserverOptions} of the observer or of {@link OfflineRegion#setCallbackExecutor(Executor)}.
      * </p>
      *
      * @param error the offline region error message
@@ -93,7 +114,8 @@ public class OfflineRegion {
      *
      * This limit does not apply to non-Mapbox tile sources.
      *
-     * This method will be executed on the main thread.
+     * This method will be executed on the main thread, or on the executor
+     * of the ObserverOptions of the observer or of OfflineRegion#setCallbackExecutor(Executor).
      */
     void mapboxTileCountLimitExceeded(long limit);
   }
@@ -156,6 +178,91 @@ public class OfflineRegion {
     void onError(String error);
   }
 
+  /**
+   * This callback receives an asynchronous response containing a notification when
+   * an offline region has been exported, or a {@link String} error message otherwise.
+   */
+  public interface OfflineRegionExportCallback {
+    /**
+     * Receives the export notification
+     */
+    void onExport();
+
+    /**
+     * Receives the error message
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  /**
+   * Policy for the delivery of the events of an {@link OfflineRegionObserver}.
+   * <p>
+   * A status change is delivered when at least the minimum interval has passed since the last
+   * delivered status and the completed percentage changed by at least the minimum delta. Changes of
+   * the download state and the completion of the region are always delivered.
+   * </p>
+   *
+   * @see #setObserver(OfflineRegionObserver, ObserverOptions)
+   */
+  public static class ObserverOptions {
+
+    private long minInterval;
+    private double minPercentDelta;
+    private Executor executor;
+
+    /**
+     * @param minInterval the minimum interval between status changes in milliseconds (default: 0)
+     * @return the mutated {@link ObserverOptions}
+     */
+    public ObserverOptions withMinInterval(long minInterval) {
+      this.minInterval = minInterval;
+      return this;
+    }
+
+    /**
+     * @param minPercentDelta the minimum change of the completed percentage, 0 - 100 (default: 0)
+     * @return the mutated {@link ObserverOptions}
+     */
+    public ObserverOptions withMinPercentDelta(double minPercentDelta) {
+      this.minPercentDelta = minPercentDelta;
+      return this;
+    }
+
+    /**
+     * @param executor the executor to invoke the observer on, null for the callback executor
+     *                 of the region, the main thread by default
+     * @return the mutated {@link ObserverOptions}
+     */
+    public ObserverOptions withExecutor(@Nullable Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @return the minimum interval between status changes in milliseconds
+     */
+    public long getMinInterval() {
+      return minInterval;
+    }
+
+    /**
+     * @return the minimum change of the completed percentage
+     */
+    public double getMinPercentDelta() {
+      return minPercentDelta;
+    }
+
+    /**
+     * @return the executor to invoke the observer on, or null for the callback executor of the region
+     */
+    @Nullable
+    public Executor getExecutor() {
+      return executor;
+    }
+  }
+
   /**
    * A region is either inactive (not downloading, but previously-downloaded
    * resources are available for use), or active (resources are being downloaded
@@ -247,52 +354,74 @@ public class OfflineRegion {
     return handler;
   }
 
+  /**
+   * Set the executor on which the callbacks of this region are invoked, and the observers
+   * registered afterwards without an executor of their own.
+   * <p>
+   * Regions passed to the callbacks of {@link OfflineManager} inherit the executor of
+   * {@link OfflineManager#setCallbackExecutor(Executor)}. Pass null to invoke the callbacks on the
+   * main thread again, which is the default.
+   * </p>
+   *
+   * @param executor the executor of the callbacks, or null for the main thread
+   */
+  public void setCallbackExecutor(@Nullable Executor executor) {
+    this.callbackExecutor = executor;
+  }
+
+  private Executor getCallbackExecutor() {
+    Executor executor = callbackExecutor;
+    return executor != null ? executor : mainThreadExecutor;
+  }
+
   /**
    * Register an observer to be notified when the state of the region changes.
+   * <p>
+   * Status changes are coalesced, the observer receives the latest status once the main thread
+   * is ready for it. Use {@link #setObserver(OfflineRegionObserver, ObserverOptions)} to throttle
+   * status changes further.
+   * </p>
    *
    * @param observer the observer to be notified
    */
   public void setObserver(@Nullable final OfflineRegionObserver observer) {
+    setObserver(observer, new ObserverOptions());
+  }
+
+  /**
+   * Register an observer to be notified when the state of the region changes,
+   * with a policy for the delivery of status changes.
+   *
+   * @param observer the observer to be notified
+   * @param options  the delivery policy of the observer
+   */
+  public void setObserver(@Nullable final OfflineRegionObserver observer, @NonNull ObserverOptions options) {
+    Executor executor = options.getExecutor();
+    if (executor == null) {
+      executor = getCallbackExecutor();
+    }
+
+    final OfflineRegionObserver target = observer != null
+      ? new ThrottledRegionObserver(observer, options, executor) : null;
     setOfflineRegionObserver(new OfflineRegionObserver() {
       @Override
       public void onStatusChanged(final OfflineRegionStatus status) {
-        if (deliverMessages()) {
-          getHandler().post(new Runnable() {
-            @Override
-            public void run() {
-              if (observer != null) {
-                observer.onStatusChanged(status);
-              }
-            }
-          });
+        if (target != null && deliverMessages()) {
+          target.onStatusChanged(status);
         }
       }
 
       @Override
       public void onError(final OfflineRegionError error) {
-        if (deliverMessages()) {
-          getHandler().post(new Runnable() {
-            @Override
-            public void run() {
-              if (observer != null) {
-                observer.onError(error);
-              }
-            }
-          });
+        if (target != null && deliverMessages()) {
+          target.onError(error);
         }
       }
 
       @Override
       public void mapboxTileCountLimitExceeded(final long limit) {
-        if (deliverMessages()) {
-          getHandler().post(new Runnable() {
-            @Override
-            public void run() {
-              if (observer != null) {
-                observer.mapboxTileCountLimitExceeded(limit);
-              }
-            }
-          });
+        if (target != null && deliverMessages()) {
+          target.mapboxTileCountLimitExceeded(limit);
         }
       }
     });
@@ -307,6 +436,7 @@ public class OfflineRegion {
    * @param state the download state
    */
   public void setDownloadState(@DownloadState int state) {
+    cancelPendingRefresh();
     if (state == STATE_ACTIVE) {
       fileSource.activate();
     } else {
@@ -317,10 +447,79 @@ public class OfflineRegion {
     setOfflineRegionDownloadState(state);
   }
 
+  /**
+   * Refresh the region, downloading only the resources that changed since they were stored.
+   * <p>
+   * This activates the download of the region and revalidates every stored resource with the server,
+   * sending the ETag or modification date of the stored copy. Resources the server reports as
+   * unchanged aren't downloaded again, their number and size are reported by
+   * {@link OfflineRegionStatus#getRevalidatedResourceCount()} and
+   * {@link OfflineRegionStatus#getRevalidatedResourceSize()}.
+   * </p>
+   * <p>
+   * As with {@link #setDownloadState(int)}, you are required to reset the state of the region to
+   * STATE_INACTIVE once the refresh has been completed.
+   * </p>
+   */
+  public void refresh() {
+    refresh(false);
+  }
+
+  /**
+   * Refresh the region, optionally waiting for an unmetered connection such as Wi-Fi.
+   * <p>
+   * If the device isn't connected to an unmetered network, the refresh starts as soon as it is,
+   * as long as the application is running. Changing the download state cancels a pending refresh.
+   * </p>
+   *
+   * @param unmeteredOnly true to only refresh on an unmetered connection
+   * @see #refresh()
+   */
+  public void refresh(boolean unmeteredOnly) {
+    cancelPendingRefresh();
+
+    final Context context = Mapbox.getApplicationContext();
+    final ConnectivityReceiver receiver = ConnectivityReceiver.instance(context);
+    if (!unmeteredOnly || receiver.isConnectedUnmetered(context)) {
+      startRefresh();
+      return;
+    }
+
+    pendingRefresh = new ConnectivityListener() {
+      @Override
+      public void onNetworkStateChanged(boolean connected) {
+        if (connected && receiver.isConnectedUnmetered(context)) {
+          cancelPendingRefresh();
+          startRefresh();
+        }
+      }
+    };
+    receiver.addListener(pendingRefresh);
+    receiver.activate();
+  }
+
+  private void startRefresh() {
+    if (state != STATE_ACTIVE) {
+      fileSource.activate();
+    }
+
+    this.state = STATE_ACTIVE;
+    refreshOfflineRegion();
+  }
+
+  private void cancelPendingRefresh() {
+    if (pendingRefresh != null) {
+      ConnectivityReceiver receiver = ConnectivityReceiver.instance(Mapbox.getApplicationContext());
+      receiver.removeListener(pendingRefresh);
+      receiver.deactivate();
+      pendingRefresh = null;
+    }
+  }
+
   /**
    * Retrieve the current status of the region. The query will be executed
    * asynchronously and the results passed to the given callback which will be
-   * executed on the main thread.
+   * executed on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
    *
    * @param callback the callback to invoked.
    */
@@ -328,7 +527,7 @@ public class OfflineRegion {
     getOfflineRegionStatus(new OfflineRegionStatusCallback() {
       @Override
       public void onStatus(final OfflineRegionStatus status) {
-        getHandler().post(new Runnable() {
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
             callback.onStatus(status);
@@ -338,7 +537,7 @@ public class OfflineRegion {
 
       @Override
       public void onError(final String error) {
-        getHandler().post(new Runnable() {
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
             callback.onError(error);
@@ -357,7 +556,7 @@ public class OfflineRegion {
    * </p>
    * <p>
    * When the operation is complete or encounters an error, the given callback will be
-   * executed on the main thread.
+   * executed on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
    * </p>
    * <p>
    * After you call this method, you may not call any additional methods on this object.
@@ -368,14 +567,21 @@ public class OfflineRegion {
   public void delete(@NonNull final OfflineRegionDeleteCallback callback) {
     if (!isDeleted) {
       isDeleted = true;
+      cancelPendingRefresh();
       deleteOfflineRegion(new OfflineRegionDeleteCallback() {
         @Override
         public void onDelete() {
+          // The region is torn down on the main thread, only the callback runs on the callback executor
           getHandler().post(new Runnable() {
             @Override
             public void run() {
-              callback.onDelete();
               OfflineRegion.this.finalize();
+              getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                  callback.onDelete();
+                }
+              });
             }
           });
         }
@@ -386,7 +592,12 @@ public class OfflineRegion {
             @Override
             public void run() {
               isDeleted = false;
-              callback.onError(error);
+              getCallbackExecutor().execute(new Runnable() {
+                @Override
+                public void run() {
+                  callback.onError(error);
+                }
+              });
             }
           });
         }
@@ -398,7 +609,7 @@ public class OfflineRegion {
    * Update an offline region metadata from the database.
    * <p>
    * When the operation is complete or encounters an error, the given callback will be
-   * executed on the main thread.
+   * executed on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
    * </p>
    * <p>
    * After you call this method, you may not call any additional methods on this object.
@@ -411,18 +622,64 @@ public class OfflineRegion {
     updateOfflineRegionMetadata(bytes, new OfflineRegionUpdateMetadataCallback() {
       @Override
       public void onUpdate(final byte[] metadata) {
+        // The metadata is updated on the main thread, only the callback runs on the callback executor
         getHandler().post(new Runnable() {
           @Override
           public void run() {
             OfflineRegion.this.metadata = metadata;
-            callback.onUpdate(metadata);
+            getCallbackExecutor().execute(new Runnable() {
+              @Override
+              public void run() {
+                callback.onUpdate(metadata);
+              }
+            });
           }
         });
       }
 
       @Override
       public void onError(final String error) {
-        getHandler().post(new Runnable() {
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onError(error);
+          }
+        });
+      }
+    });
+  }
+
+  /**
+   * Export the region to a single file.
+   * <p>
+   * The file contains the definition and metadata of the region and every resource and tile it
+   * has downloaded. It can be copied to another device, for example in an APK expansion file, and
+   * merged with {@link OfflineManager#mergeOfflineRegions(String, OfflineManager.MergeOfflineRegionsCallback)}
+   * without using the network. An existing file at the path is replaced.
+   * </p>
+   * <p>
+   * When the operation is complete or encounters an error, the given callback will be
+   * executed on the main thread, or on the executor of {@link #setCallbackExecutor(Executor)}.
+   * </p>
+   *
+   * @param path     the path of the file to write
+   * @param callback the callback to be invoked
+   */
+  public void exportRegion(@NonNull String path, @NonNull final OfflineRegionExportCallback callback) {
+    exportOfflineRegion(path, new OfflineRegionExportCallback() {
+      @Override
+      public void onExport() {
+        getCallbackExecutor().execute(new Runnable() {
+          @Override
+          public void run() {
+            callback.onExport();
+          }
+        });
+      }
+
+      @Override
+      public void onError(final String error) {
+        getCallbackExecutor().execute(new Runnable() {
           @Override
           public void run() {
             callback.onError(error);
@@ -441,10 +698,14 @@ public class OfflineRegion {
 
   private native void setOfflineRegionDownloadState(@DownloadState int offlineRegionDownloadState);
 
+  private native void refreshOfflineRegion();
+
   private native void getOfflineRegionStatus(OfflineRegionStatusCallback callback);
 
   private native void deleteOfflineRegion(OfflineRegionDeleteCallback callback);
 
   private native void updateOfflineRegionMetadata(byte[] metadata, OfflineRegionUpdateMetadataCallback callback);
 
+  private native void exportOfflineRegion(String path, OfflineRegionExportCallback callback);
+
 }
@@ -5,7 +5,8 @@ import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 /**
  * This is the interface that all Offline Region definitions have to implement.
  * <p>
- * For the present, a tile pyramid is the only type of offline region.
+ * An offline region is either a {@link OfflineTilePyramidRegionDefinition} covering a bounding box
+ * or an {@link OfflineGeometryRegionDefinition} covering the tiles of a geometry.
  */
 public interface OfflineRegionDefinition {
 
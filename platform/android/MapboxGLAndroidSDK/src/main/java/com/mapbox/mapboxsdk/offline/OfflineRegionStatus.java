@@ -56,6 +56,18 @@ public class OfflineRegionStatus {
    */
   private boolean requiredResourceCountIsPrecise = true;
 
+  /**
+   * The number of stored resources that the server reported as unchanged during a refresh
+   * and didn't need to be downloaded again.
+   */
+  private long revalidatedResourceCount = 0;
+
+  /**
+   * The cumulative size, in bytes, of the resources that didn't need to be downloaded again
+   * during a refresh.
+   */
+  private long revalidatedResourceSize = 0;
+
   /*
    * Use setObserver(OfflineRegionObserver observer) to obtain a OfflineRegionStatus object.
    *
@@ -64,7 +76,8 @@ public class OfflineRegionStatus {
   private OfflineRegionStatus(int downloadState, long completedResourceCount,
                               long completedResourceSize, long completedTileCount,
                               long completedTileSize, long requiredResourceCount,
-                              boolean requiredResourceCountIsPrecise) {
+                              boolean requiredResourceCountIsPrecise, long revalidatedResourceCount,
+                              long revalidatedResourceSize) {
     this.downloadState = downloadState;
     this.completedResourceCount = completedResourceCount;
     this.completedResourceSize = completedResourceSize;
@@ -72,6 +85,8 @@ public class OfflineRegionStatus {
     this.completedTileSize = completedTileSize;
     this.requiredResourceCount = requiredResourceCount;
     this.requiredResourceCountIsPrecise = requiredResourceCountIsPrecise;
+    this.revalidatedResourceCount = revalidatedResourceCount;
+    this.revalidatedResourceSize = revalidatedResourceSize;
   }
 
   /**
@@ -166,4 +181,24 @@ public class OfflineRegionStatus {
     return requiredResourceCountIsPrecise;
   }
 
+  /**
+   * Get the number of stored resources that were revalidated instead of downloaded again
+   * by {@link OfflineRegion#refresh()}.
+   *
+   * @return the amount of revalidated resources
+   */
+  public long getRevalidatedResourceCount() {
+    return revalidatedResourceCount;
+  }
+
+  /**
+   * Get the cumulative size, in bytes, of the resources that were revalidated instead of
+   * downloaded again by {@link OfflineRegion#refresh()}, the bytes saved by the refresh.
+   *
+   * @return the size of the revalidated resources
+   */
+  public long getRevalidatedResourceSize() {
+    return revalidatedResourceSize;
+  }
+
 }
@@ -0,0 +1,64 @@
+package com.mapbox.mapboxsdk.offline;
+
+/**
+ * The ID of an offline region and the beginning of its metadata.
+ * <p>
+ * Summaries are listed with
+ * {@link OfflineManager#listOfflineRegionSummaries(OfflineManager.RegionQuery,
+ * OfflineManager.ListOfflineRegionSummariesCallback)} without decoding the definitions or reading the
+ * complete metadata of the regions. Use
+ * {@link OfflineManager#getOfflineRegion(long, OfflineManager.GetOfflineRegionCallback)} to retrieve
+ * the {@link OfflineRegion} of a summary when it is needed.
+ * </p>
+ */
+public class OfflineRegionSummary {
+
+  private long id;
+  private byte[] metadata;
+  private long metadataSize;
+
+  /*
+   * For JNI use only
+   */
+  private OfflineRegionSummary(long id, byte[] metadata, long metadataSize) {
+    this.id = id;
+    this.metadata = metadata;
+    this.metadataSize = metadataSize;
+  }
+
+  /**
+   * Get the ID of the region.
+   *
+   * @return the region ID
+   */
+  public long getId() {
+    return id;
+  }
+
+  /**
+   * Get the first bytes of the metadata, up to the maximum metadata size of the query.
+   *
+   * @return the metadata in bytes
+   */
+  public byte[] getMetadata() {
+    return metadata;
+  }
+
+  /**
+   * Get the size, in bytes, of the complete metadata of the region.
+   *
+   * @return the metadata size
+   */
+  public long getMetadataSize() {
+    return metadataSize;
+  }
+
+  /**
+   * Validates if the metadata of the summary is only the beginning of the metadata of the region.
+   *
+   * @return true if the metadata is truncated, false if it is complete
+   */
+  public boolean isMetadataTruncated() {
+    return metadata.length < metadataSize;
+  }
+}
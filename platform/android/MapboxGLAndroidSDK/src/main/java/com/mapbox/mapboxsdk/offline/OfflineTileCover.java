@@ -0,0 +1,527 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.support.annotation.NonNull;
+
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.Geometry;
+import com.mapbox.services.commons.geojson.LineString;
+import com.mapbox.services.commons.geojson.MultiLineString;
+import com.mapbox.services.commons.geojson.MultiPoint;
+import com.mapbox.services.commons.geojson.MultiPolygon;
+import com.mapbox.services.commons.geojson.Point;
+import com.mapbox.services.commons.geojson.Polygon;
+import com.mapbox.services.commons.models.Position;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Calculates the tiles an {@link OfflineRegionDefinition} covers before the region is created.
+ * <p>
+ * This allows to refuse or split oversized regions before any data is downloaded. The cover
+ * matches the tiles the offline download requests for a single tile source: the zoom levels of
+ * the definition are converted to the zoom levels of the source the same way, and geometry
+ * definitions only include the tiles that intersect the geometry.
+ * </p>
+ * <p>
+ * Tiles are computed one row at a time, so counting or enumerating large regions doesn't
+ * allocate a list of all tiles.
+ * </p>
+ */
+public class OfflineTileCover {
+
+  /**
+   * Receives the tiles of a cover, row by row, ordered by zoom level, y and x.
+   */
+  public interface TileVisitor {
+
+    /**
+     * Invoked for every tile of the cover.
+     *
+     * @param zoom the zoom level of the tile
+     * @param x    the x coordinate of the tile
+     * @param y    the y coordinate of the tile
+     * @return true to continue, false to stop the enumeration
+     */
+    boolean onTile(int zoom, int x, int y);
+  }
+
+  private static final double LATITUDE_MAX = 85.051128779806604;
+  private static final int DEFAULT_TILE_SIZE = 512;
+  private static final int DEFAULT_MAX_SOURCE_ZOOM = 22;
+
+  private final OfflineRegionDefinition definition;
+  private final double minZoom;
+  private final double maxZoom;
+  private int tileSize = DEFAULT_TILE_SIZE;
+  private boolean raster;
+  private int minSourceZoom = 0;
+  private int maxSourceZoom = DEFAULT_MAX_SOURCE_ZOOM;
+
+  /**
+   * Creates the tile cover of a definition for a vector source with 512 pixel tiles
+   * and zoom levels 0 to 22.
+   *
+   * @param definition a tile pyramid or geometry definition
+   */
+  public OfflineTileCover(@NonNull OfflineRegionDefinition definition) {
+    if (definition instanceof OfflineTilePyramidRegionDefinition) {
+      OfflineTilePyramidRegionDefinition tilePyramid = (OfflineTilePyramidRegionDefinition) definition;
+      minZoom = tilePyramid.getMinZoom();
+      maxZoom = tilePyramid.getMaxZoom();
+    } else if (definition instanceof OfflineGeometryRegionDefinition) {
+      OfflineGeometryRegionDefinition geometry = (OfflineGeometryRegionDefinition) definition;
+      minZoom = geometry.getMinZoom();
+      maxZoom = geometry.getMaxZoom();
+    } else {
+      throw new IllegalArgumentException("Unsupported offline region definition: " + definition);
+    }
+    this.definition = definition;
+  }
+
+  /**
+   * Sets the tile size of the source in pixels, for example 256 for most raster sources.
+   *
+   * @param tileSize the tile size
+   * @return this
+   */
+  public OfflineTileCover withTileSize(int tileSize) {
+    if (tileSize <= 0) {
+      throw new IllegalArgumentException("The tile size must be greater than 0.");
+    }
+    this.tileSize = tileSize;
+    return this;
+  }
+
+  /**
+   * Sets whether the source is a raster source. Zoom levels are rounded for raster sources
+   * and floored for vector sources.
+   *
+   * @param raster true for a raster source
+   * @return this
+   */
+  public OfflineTileCover withRasterSource(boolean raster) {
+    this.raster = raster;
+    return this;
+  }
+
+  /**
+   * Sets the zoom levels the source provides tiles for, as declared by its TileJSON.
+   *
+   * @param minSourceZoom the minimum zoom level of the source
+   * @param maxSourceZoom the maximum zoom level of the source
+   * @return this
+   */
+  public OfflineTileCover withSourceZoomRange(int minSourceZoom, int maxSourceZoom) {
+    if (minSourceZoom < 0 || maxSourceZoom < minSourceZoom) {
+      throw new IllegalArgumentException("Invalid source zoom range: " + minSourceZoom + " - " + maxSourceZoom);
+    }
+    this.minSourceZoom = minSourceZoom;
+    this.maxSourceZoom = maxSourceZoom;
+    return this;
+  }
+
+  /**
+   * Returns the lowest zoom level of the source that is downloaded.
+   *
+   * @return the zoom level
+   */
+  public int getMinZoom() {
+    return Math.max(coveringZoomLevel(minZoom), minSourceZoom);
+  }
+
+  /**
+   * Returns the highest zoom level of the source that is downloaded, lower than
+   * {@link #getMinZoom()} if no tiles are downloaded at all.
+   *
+   * @return the zoom level
+   */
+  public int getMaxZoom() {
+    return Double.isInfinite(maxZoom) ? maxSourceZoom : Math.min(coveringZoomLevel(maxZoom), maxSourceZoom);
+  }
+
+  /**
+   * Returns the number of tiles of the cover at a zoom level of the source.
+   *
+   * @param zoom the zoom level
+   * @return the number of tiles, 0 if the zoom level isn't downloaded
+   */
+  public long getTileCount(int zoom) {
+    if (zoom < getMinZoom() || zoom > getMaxZoom()) {
+      return 0;
+    }
+    TileCounter counter = new TileCounter();
+    scan(zoom, counter);
+    return counter.count;
+  }
+
+  /**
+   * Returns the number of tiles of the cover on all zoom levels.
+   *
+   * @return the number of tiles
+   */
+  public long getTileCount() {
+    long count = 0;
+    for (int zoom = getMinZoom(); zoom <= getMaxZoom(); zoom++) {
+      count += getTileCount(zoom);
+    }
+    return count;
+  }
+
+  /**
+   * Estimates the size of the tiles of the cover from an average tile size.
+   *
+   * @param averageTileSize the average size of a tile in bytes
+   * @return the estimated size in bytes
+   */
+  public long estimateSize(long averageTileSize) {
+    return getTileCount() * averageTileSize;
+  }
+
+  /**
+   * Estimates the size of the tiles of the cover from a sample, for example a small region of the
+   * same style that was downloaded before.
+   *
+   * @param sample the status of the sample region
+   * @return the estimated size in bytes
+   */
+  public long estimateSize(@NonNull OfflineRegionStatus sample) {
+    if (sample.getCompletedTileCount() == 0) {
+      throw new IllegalArgumentException("The sample region doesn't contain any tiles.");
+    }
+    return Math.round((double) sample.getCompletedTileSize() / sample.getCompletedTileCount() * getTileCount());
+  }
+
+  /**
+   * Enumerates the tiles of the cover without keeping them in memory.
+   *
+   * @param visitor the visitor receiving the tiles
+   */
+  public void forEachTile(@NonNull TileVisitor visitor) {
+    for (int zoom = getMinZoom(); zoom <= getMaxZoom(); zoom++) {
+      if (!scan(zoom, visitor)) {
+        return;
+      }
+    }
+  }
+
+  private int coveringZoomLevel(double zoom) {
+    zoom += Math.log(DEFAULT_TILE_SIZE / (double) tileSize) / Math.log(2);
+    return (int) (raster ? Math.round(zoom) : Math.floor(zoom));
+  }
+
+  private boolean scan(int zoom, TileVisitor visitor) {
+    RowScanner scanner = new RowScanner(zoom, visitor);
+    if (definition instanceof OfflineTilePyramidRegionDefinition) {
+      return scanner.scan(((OfflineTilePyramidRegionDefinition) definition).getBounds());
+    } else {
+      return scanner.scan(((OfflineGeometryRegionDefinition) definition).getGeometry());
+    }
+  }
+
+  private static class TileCounter implements TileVisitor {
+
+    private long count;
+
+    @Override
+    public boolean onTile(int zoom, int x, int y) {
+      count++;
+      return true;
+    }
+  }
+
+  /**
+   * Computes the tiles of one zoom level row by row. The tiles crossed by points, lines and polygon
+   * edges are collected up front, the tiles inside polygons are computed per row with the even-odd rule.
+   */
+  private static class RowScanner {
+
+    private final int zoom;
+    private final int tiles;
+    private final TileVisitor visitor;
+
+    // Tiles crossed by points, lines and polygon outlines, encoded as y << 32 | x
+    private long[] outline = new long[64];
+    private int outlineSize;
+
+    // Projected polygons, each a list of rings with interleaved x and y coordinates
+    private final List<double[][]> polygons = new ArrayList<>();
+    private final List<double[]> polygonRows = new ArrayList<>();
+
+    // Spans of the current row, encoded as start << 32 | end
+    private long[] spans = new long[16];
+    private int spanCount;
+    private double[] crossings = new double[16];
+
+    // Counting visitors don't need the individual tiles of a span
+    private final TileCounter counter;
+
+    RowScanner(int zoom, TileVisitor visitor) {
+      this.zoom = zoom;
+      this.tiles = 1 << zoom;
+      this.visitor = visitor;
+      this.counter = visitor instanceof TileCounter ? (TileCounter) visitor : null;
+    }
+
+    boolean scan(LatLngBounds bounds) {
+      double x0 = projectX(bounds.getLonWest());
+      double x1 = projectX(bounds.getLonEast());
+      double y0 = projectY(bounds.getLatNorth());
+      double y1 = projectY(bounds.getLatSouth());
+      int minX = (int) Math.floor(x0);
+      int maxX = Math.max(minX, (int) Math.ceil(x1) - 1);
+      int minY = Math.max(0, (int) Math.floor(y0));
+      int maxY = Math.min(tiles - 1, Math.max(minY, (int) Math.ceil(y1) - 1));
+      for (int y = minY; y <= maxY; y++) {
+        spanCount = 0;
+        addSpan(minX, maxX);
+        if (!emitRow(y)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    boolean scan(Geometry geometry) {
+      addGeometry(geometry);
+      Arrays.sort(outline, 0, outlineSize);
+
+      int minY = outlineSize > 0 ? (int) (outline[0] >> 32) : Integer.MAX_VALUE;
+      int maxY = outlineSize > 0 ? (int) (outline[outlineSize - 1] >> 32) : Integer.MIN_VALUE;
+      for (double[] rows : polygonRows) {
+        minY = Math.min(minY, (int) rows[0]);
+        maxY = Math.max(maxY, (int) rows[1]);
+      }
+      minY = Math.max(0, minY);
+      maxY = Math.min(tiles - 1, maxY);
+
+      int index = 0;
+      for (int y = minY; y <= maxY; y++) {
+        spanCount = 0;
+        while (index < outlineSize && (int) (outline[index] >> 32) < y) {
+          index++;
+        }
+        while (index < outlineSize && (int) (outline[index] >> 32) == y) {
+          int x = (int) outline[index++];
+          addSpan(x, x);
+        }
+        for (int i = 0; i < polygons.size(); i++) {
+          double[] rows = polygonRows.get(i);
+          if (y >= rows[0] && y <= rows[1]) {
+            fillRow(polygons.get(i), y);
+          }
+        }
+        if (!emitRow(y)) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    private void addGeometry(Geometry geometry) {
+      if (geometry instanceof Point) {
+        addPoint(((Point) geometry).getCoordinates());
+      } else if (geometry instanceof MultiPoint) {
+        for (Position position : ((MultiPoint) geometry).getCoordinates()) {
+          addPoint(position);
+        }
+      } else if (geometry instanceof LineString) {
+        addLine(((LineString) geometry).getCoordinates());
+      } else if (geometry instanceof MultiLineString) {
+        for (List<Position> line : ((MultiLineString) geometry).getCoordinates()) {
+          addLine(line);
+        }
+      } else if (geometry instanceof Polygon) {
+        addPolygon(((Polygon) geometry).getCoordinates());
+      } else if (geometry instanceof MultiPolygon) {
+        for (List<List<Position>> polygon : ((MultiPolygon) geometry).getCoordinates()) {
+          addPolygon(polygon);
+        }
+      } else {
+        throw new IllegalArgumentException("Unsupported geometry type: " + geometry.getType());
+      }
+    }
+
+    private void addPoint(Position position) {
+      addOutline((int) Math.floor(projectX(position.getLongitude())),
+        (int) Math.floor(projectY(position.getLatitude())));
+    }
+
+    private void addLine(List<Position> line) {
+      if (line.size() == 1) {
+        addPoint(line.get(0));
+        return;
+      }
+      double[] points = project(line);
+      for (int i = 2; i < points.length; i += 2) {
+        addSegment(points[i - 2], points[i - 1], points[i], points[i + 1]);
+      }
+    }
+
+    private void addPolygon(List<List<Position>> polygon) {
+      double[][] rings = new double[polygon.size()][];
+      double minY = Double.POSITIVE_INFINITY;
+      double maxY = Double.NEGATIVE_INFINITY;
+      for (int r = 0; r < rings.length; r++) {
+        double[] ring = project(polygon.get(r));
+        for (int i = 0; i < ring.length; i += 2) {
+          int j = (i + 2) % ring.length;
+          addSegment(ring[i], ring[i + 1], ring[j], ring[j + 1]);
+          minY = Math.min(minY, ring[i + 1]);
+          maxY = Math.max(maxY, ring[i + 1]);
+        }
+        rings[r] = ring;
+      }
+      if (minY <= maxY) {
+        polygons.add(rings);
+        polygonRows.add(new double[] {Math.floor(minY), Math.floor(maxY)});
+      }
+    }
+
+    /**
+     * Adds every tile a segment passes through, walking the grid from one tile boundary to the next.
+     */
+    private void addSegment(double ax, double ay, double bx, double by) {
+      int x = (int) Math.floor(ax);
+      int y = (int) Math.floor(ay);
+      int steps = Math.abs((int) Math.floor(bx) - x) + Math.abs((int) Math.floor(by) - y);
+
+      double dx = bx - ax;
+      double dy = by - ay;
+      int sx = dx > 0 ? 1 : -1;
+      int sy = dy > 0 ? 1 : -1;
+      double deltaX = dx != 0 ? Math.abs(1 / dx) : Double.POSITIVE_INFINITY;
+      double deltaY = dy != 0 ? Math.abs(1 / dy) : Double.POSITIVE_INFINITY;
+      double maxX = dx != 0 ? (dx > 0 ? x + 1 - ax : ax - x) * deltaX : Double.POSITIVE_INFINITY;
+      double maxY = dy != 0 ? (dy > 0 ? y + 1 - ay : ay - y) * deltaY : Double.POSITIVE_INFINITY;
+
+      addOutline(x, y);
+      for (int i = 0; i < steps; i++) {
+        if (maxX < maxY) {
+          maxX += deltaX;
+          x += sx;
+        } else {
+          maxY += deltaY;
+          y += sy;
+        }
+        addOutline(x, y);
+      }
+    }
+
+    private void addOutline(int x, int y) {
+      if (y < 0 || y >= tiles) {
+        return;
+      }
+      if (outlineSize == outline.length) {
+        outline = Arrays.copyOf(outline, outlineSize * 2);
+      }
+      outline[outlineSize++] = ((long) y << 32) | wrap(x);
+    }
+
+    /**
+     * Adds the tiles of a row whose center lies inside of a polygon.
+     */
+    private void fillRow(double[][] rings, int y) {
+      double cy = y + 0.5;
+      int count = 0;
+      for (double[] ring : rings) {
+        for (int i = 0; i < ring.length; i += 2) {
+          int j = (i + 2) % ring.length;
+          double ay = ring[i + 1];
+          double by = ring[j + 1];
+          if ((ay <= cy) != (by <= cy)) {
+            if (count == crossings.length) {
+              crossings = Arrays.copyOf(crossings, count * 2);
+            }
+            crossings[count++] = ring[i] + (cy - ay) * (ring[j] - ring[i]) / (by - ay);
+          }
+        }
+      }
+      Arrays.sort(crossings, 0, count);
+      for (int i = 0; i + 1 < count; i += 2) {
+        int x0 = (int) Math.ceil(crossings[i] - 0.5);
+        int x1 = (int) Math.floor(crossings[i + 1] - 0.5);
+        if (x0 <= x1) {
+          addSpan(x0, x1);
+        }
+      }
+    }
+
+    /**
+     * Adds a span of tiles to the current row, wrapping it around the antimeridian.
+     */
+    private void addSpan(int x0, int x1) {
+      if ((long) x1 - x0 + 1 >= tiles) {
+        appendSpan(0, tiles - 1);
+        return;
+      }
+      int start = wrap(x0);
+      int end = start + (x1 - x0);
+      if (end < tiles) {
+        appendSpan(start, end);
+      } else {
+        appendSpan(start, tiles - 1);
+        appendSpan(0, end - tiles);
+      }
+    }
+
+    private void appendSpan(int start, int end) {
+      if (spanCount == spans.length) {
+        spans = Arrays.copyOf(spans, spanCount * 2);
+      }
+      spans[spanCount++] = ((long) start << 32) | end;
+    }
+
+    /**
+     * Merges the spans of the current row and passes their tiles to the visitor.
+     */
+    private boolean emitRow(int y) {
+      Arrays.sort(spans, 0, spanCount);
+      int i = 0;
+      while (i < spanCount) {
+        int start = (int) (spans[i] >> 32);
+        int end = (int) spans[i];
+        i++;
+        while (i < spanCount && (int) (spans[i] >> 32) <= end + 1) {
+          end = Math.max(end, (int) spans[i]);
+          i++;
+        }
+        if (counter != null) {
+          counter.count += end - start + 1;
+        } else {
+          for (int x = start; x <= end; x++) {
+            if (!visitor.onTile(zoom, x, y)) {
+              return false;
+            }
+          }
+        }
+      }
+      return true;
+    }
+
+    private double[] project(List<Position> positions) {
+      double[] points = new double[positions.size() * 2];
+      for (int i = 0; i < positions.size(); i++) {
+        Position position = positions.get(i);
+        points[i * 2] = projectX(position.getLongitude());
+        points[i * 2 + 1] = projectY(position.getLatitude());
+      }
+      return points;
+    }
+
+    private double projectX(double longitude) {
+      return (longitude + 180) / 360 * tiles;
+    }
+
+    private double projectY(double latitude) {
+      double lat = Math.toRadians(Math.max(-LATITUDE_MAX, Math.min(LATITUDE_MAX, latitude)));
+      return (1 - Math.log(Math.tan(Math.PI / 4 + lat / 2)) / Math.PI) / 2 * tiles;
+    }
+
+    private int wrap(int x) {
+      int wrapped = x % tiles;
+      return wrapped < 0 ? wrapped + tiles : wrapped;
+    }
+  }
+}
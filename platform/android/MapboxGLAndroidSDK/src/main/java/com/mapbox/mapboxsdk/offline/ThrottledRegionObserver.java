@@ -0,0 +1,154 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.os.Handler;
+import android.os.Looper;
+import android.os.SystemClock;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Delivers the events of an offline region to an observer on an executor, dropping status
+ * changes that don't pass the {@link OfflineRegion.ObserverOptions} of the observer.
+ * <p>
+ * Status changes are coalesced, if a status is still waiting to be delivered when the next one
+ * arrives only the latest one is delivered. Changes of the download state and the completion of
+ * the region are always delivered. The latest status dropped by the minimum interval is delivered
+ * when the interval ends, unless a newer status was delivered in the meantime.
+ * </p>
+ */
+class ThrottledRegionObserver implements OfflineRegion.OfflineRegionObserver {
+
+  private final OfflineRegion.OfflineRegionObserver observer;
+  private final long minInterval;
+  private final double minPercentDelta;
+  private final Executor executor;
+
+  private final AtomicReference<OfflineRegionStatus> pendingStatus = new AtomicReference<>();
+  private final Runnable deliverStatus = new Runnable() {
+    @Override
+    public void run() {
+      OfflineRegionStatus status = pendingStatus.getAndSet(null);
+      if (status != null) {
+        observer.onStatusChanged(status);
+      }
+    }
+  };
+
+  // State of the last accepted status and the status waiting for the end of the interval, guarded by this
+  private int lastState = -1;
+  private long lastTime;
+  private double lastPercentage;
+  private OfflineRegionStatus trailingStatus;
+  private boolean trailingScheduled;
+
+  private final Runnable deliverTrailingStatus = new Runnable() {
+    @Override
+    public void run() {
+      onIntervalEnd();
+    }
+  };
+
+  ThrottledRegionObserver(OfflineRegion.OfflineRegionObserver observer, OfflineRegion.ObserverOptions options,
+                          Executor executor) {
+    this.observer = observer;
+    this.minInterval = options.getMinInterval();
+    this.minPercentDelta = options.getMinPercentDelta();
+    this.executor = executor;
+  }
+
+  @Override
+  public synchronized void onStatusChanged(OfflineRegionStatus status) {
+    long now = elapsedRealtime();
+    double percentage = getPercentage(status);
+    boolean forced = status.getDownloadState() != lastState || isComplete(status);
+    if (!forced) {
+      if (Math.abs(percentage - lastPercentage) < minPercentDelta) {
+        return;
+      }
+
+      if (now - lastTime < minInterval) {
+        trailingStatus = status;
+        scheduleTrailingStatus(now);
+        return;
+      }
+    }
+
+    accept(status, now, percentage);
+  }
+
+  private synchronized void onIntervalEnd() {
+    trailingScheduled = false;
+    if (trailingStatus == null) {
+      return;
+    }
+
+    // A newer status may have been accepted since this delivery was scheduled
+    long now = elapsedRealtime();
+    if (now - lastTime < minInterval) {
+      scheduleTrailingStatus(now);
+    } else {
+      accept(trailingStatus, now, getPercentage(trailingStatus));
+    }
+  }
+
+  private void scheduleTrailingStatus(long now) {
+    if (!trailingScheduled) {
+      trailingScheduled = true;
+      postDelayed(deliverTrailingStatus, lastTime + minInterval - now);
+    }
+  }
+
+  private void accept(OfflineRegionStatus status, long now, double percentage) {
+    trailingStatus = null;
+    lastState = status.getDownloadState();
+    lastTime = now;
+    lastPercentage = percentage;
+    if (pendingStatus.getAndSet(status) == null) {
+      executor.execute(deliverStatus);
+    }
+  }
+
+  @Override
+  public void onError(final OfflineRegionError error) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        observer.onError(error);
+      }
+    });
+  }
+
+  @Override
+  public void mapboxTileCountLimitExceeded(final long limit) {
+    executor.execute(new Runnable() {
+      @Override
+      public void run() {
+        observer.mapboxTileCountLimitExceeded(limit);
+      }
+    });
+  }
+
+  long elapsedRealtime() {
+    return SystemClock.elapsedRealtime();
+  }
+
+  void postDelayed(Runnable runnable, long delay) {
+    TimerHolder.HANDLER.postDelayed(runnable, delay);
+  }
+
+  // Created on first use of a trailing delivery
+  private static class TimerHolder {
+    private static final Handler HANDLER = new Handler(Looper.getMainLooper());
+  }
+
+  private static double getPercentage(OfflineRegionStatus status) {
+    long required = status.getRequiredResourceCount();
+    return required > 0 ? 100.0 * status.getCompletedResourceCount() / required : 0.0;
+  }
+
+  private static boolean isComplete(OfflineRegionStatus status) {
+    return status.isRequiredResourceCountPrecise()
+      && status.getCompletedResourceCount() >= status.getRequiredResourceCount();
+  }
+}
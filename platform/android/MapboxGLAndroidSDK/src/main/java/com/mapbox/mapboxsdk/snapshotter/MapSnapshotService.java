@@ -0,0 +1,408 @@
+package com.mapbox.mapboxsdk.snapshotter;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.Looper;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+import android.support.annotation.UiThread;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Renders a queue of map snapshots with a bounded number of {@link MapSnapshotter}s.
+ * <p>
+ * A {@link MapSnapshotter} renders a single snapshot at a time and creating one allocates a native
+ * map. The service keeps up to the configured number of snapshotters alive and hands each submitted
+ * job to an idle one, preferring a snapshotter that has already loaded the style of the job. Jobs are
+ * started in order of priority and, for equal priorities, in the order they were submitted.
+ * </p>
+ * <p>
+ * The pixel ratio and logo setting of a snapshotter are fixed when it's created, a snapshotter is only
+ * reused for a job with the same values. Jobs without a camera position and region are rendered at the
+ * default camera of the style and always get a new snapshotter, a reused one would keep the camera of
+ * its previous job.
+ * </p>
+ * <p>
+ * Like the {@link MapSnapshotter}, the service must be used on the UI thread. Callbacks are invoked
+ * on the UI thread.
+ * </p>
+ */
+@UiThread
+public class MapSnapshotService {
+
+  /**
+   * Priority of jobs that should be rendered after all other jobs.
+   */
+  public static final int PRIORITY_LOW = -1;
+
+  /**
+   * Priority of jobs submitted without an explicit priority.
+   */
+  public static final int PRIORITY_DEFAULT = 0;
+
+  /**
+   * Priority of jobs that should be rendered before all other jobs.
+   */
+  public static final int PRIORITY_HIGH = 1;
+
+  private final Context context;
+  private final int maxWorkers;
+  private final Handler handler;
+  private final PriorityQueue<Job> pending = new PriorityQueue<>();
+  private final List<Worker> workers = new ArrayList<>();
+  private long sequence;
+  private boolean released;
+
+  /**
+   * A snapshot submitted to a {@link MapSnapshotService}.
+   */
+  public static class Job implements Comparable<Job> {
+
+    private static final int STATE_PENDING = 0;
+    private static final int STATE_RUNNING = 1;
+    private static final int STATE_DONE = 2;
+    private static final int STATE_CANCELLED = 3;
+
+    private final MapSnapshotter.Options options;
+    private final int priority;
+    private final long sequence;
+    private final MapSnapshotter.SnapshotReadyCallback callback;
+    private final MapSnapshotter.ErrorHandler errorHandler;
+    private MapSnapshotService service;
+    private Worker worker;
+    private int state = STATE_PENDING;
+
+    private Job(MapSnapshotService service, MapSnapshotter.Options options, int priority, long sequence,
+                MapSnapshotter.SnapshotReadyCallback callback, MapSnapshotter.ErrorHandler errorHandler) {
+      this.service = service;
+      this.options = options;
+      this.priority = priority;
+      this.sequence = sequence;
+      this.callback = callback;
+      this.errorHandler = errorHandler;
+    }
+
+    /**
+     * Cancels the job. A pending job is removed from the queue, a running job is stopped.
+     * The callbacks of a cancelled job are not invoked. Has no effect on a job that is done.
+     */
+    public void cancel() {
+      if (service != null) {
+        service.cancel(this);
+      }
+    }
+
+    /**
+     * @return the options of the snapshot
+     */
+    @NonNull
+    public MapSnapshotter.Options getOptions() {
+      return options;
+    }
+
+    /**
+     * @return the priority of the job
+     */
+    public int getPriority() {
+      return priority;
+    }
+
+    /**
+     * @return true if the job is being rendered
+     */
+    public boolean isRunning() {
+      return state == STATE_RUNNING;
+    }
+
+    /**
+     * @return true if the job was cancelled
+     */
+    public boolean isCancelled() {
+      return state == STATE_CANCELLED;
+    }
+
+    /**
+     * @return true if the job has completed, failed or was cancelled
+     */
+    public boolean isDone() {
+      return state == STATE_DONE || state == STATE_CANCELLED;
+    }
+
+    @Override
+    public int compareTo(@NonNull Job other) {
+      if (priority != other.priority) {
+        return priority > other.priority ? -1 : 1;
+      }
+      return sequence < other.sequence ? -1 : (sequence == other.sequence ? 0 : 1);
+    }
+  }
+
+  private static class Worker {
+
+    private MapSnapshotter snapshotter;
+    private String styleUrl;
+    private float pixelRatio;
+    private boolean showLogo;
+    private Job job;
+
+    private boolean isIdle() {
+      return job == null;
+    }
+
+    private boolean isCompatible(MapSnapshotter.Options options) {
+      return snapshotter != null
+        && pixelRatio == options.pixelRatio
+        && showLogo == options.isShowLogo()
+        && (options.getCameraPosition() != null || options.getRegion() != null);
+    }
+  }
+
+  /**
+   * Creates the snapshot service.
+   *
+   * @param context    the Context that is or contains the Application context
+   * @param maxWorkers the maximum number of snapshots rendered concurrently
+   */
+  public MapSnapshotService(@NonNull Context context, int maxWorkers) {
+    this(context, maxWorkers, new Handler(Looper.getMainLooper()));
+  }
+
+  MapSnapshotService(@NonNull Context context, int maxWorkers, @NonNull Handler handler) {
+    if (maxWorkers < 1) {
+      throw new IllegalArgumentException("maxWorkers must be at least 1.");
+    }
+    this.context = context.getApplicationContext();
+    this.maxWorkers = maxWorkers;
+    this.handler = handler;
+  }
+
+  /**
+   * Adds a snapshot to the queue with {@link #PRIORITY_DEFAULT}.
+   *
+   * @param options      the options of the snapshot
+   * @param callback     the callback to use when the snapshot is ready
+   * @param errorHandler the error handler to use on snapshot errors
+   * @return the submitted job
+   */
+  @NonNull
+  public Job submit(@NonNull MapSnapshotter.Options options,
+                    @NonNull MapSnapshotter.SnapshotReadyCallback callback,
+                    @Nullable MapSnapshotter.ErrorHandler errorHandler) {
+    return submit(options, PRIORITY_DEFAULT, callback, errorHandler);
+  }
+
+  /**
+   * Adds a snapshot to the queue. Jobs with a higher priority are started first.
+   *
+   * @param options      the options of the snapshot
+   * @param priority     the priority of the job, see {@link #PRIORITY_LOW} and {@link #PRIORITY_HIGH}
+   * @param callback     the callback to use when the snapshot is ready
+   * @param errorHandler the error handler to use on snapshot errors
+   * @return the submitted job
+   */
+  @NonNull
+  public Job submit(@NonNull MapSnapshotter.Options options, int priority,
+                    @NonNull MapSnapshotter.SnapshotReadyCallback callback,
+                    @Nullable MapSnapshotter.ErrorHandler errorHandler) {
+    if (released) {
+      throw new IllegalStateException("MapSnapshotService was released");
+    }
+
+    Job job = new Job(this, options, priority, sequence++, callback, errorHandler);
+    pending.add(job);
+    dispatch();
+    return job;
+  }
+
+  /**
+   * @return the number of jobs waiting for a snapshotter
+   */
+  public int getPendingJobCount() {
+    return pending.size();
+  }
+
+  /**
+   * @return the number of jobs being rendered
+   */
+  public int getRunningJobCount() {
+    int count = 0;
+    for (Worker worker : workers) {
+      if (!worker.isIdle()) {
+        count++;
+      }
+    }
+    return count;
+  }
+
+  /**
+   * @return the maximum number of snapshots rendered concurrently
+   */
+  public int getMaxWorkers() {
+    return maxWorkers;
+  }
+
+  /**
+   * Cancels all pending and running jobs. The snapshotters of idle workers are kept for reuse.
+   */
+  public void cancelAll() {
+    List<Job> jobs = new ArrayList<>(pending);
+    for (Worker worker : workers) {
+      if (worker.job != null) {
+        jobs.add(worker.job);
+      }
+    }
+    for (Job job : jobs) {
+      job.cancel();
+    }
+  }
+
+  /**
+   * Cancels all jobs and releases the snapshotters. The service can't be used afterwards.
+   */
+  public void release() {
+    released = true;
+    cancelAll();
+    workers.clear();
+  }
+
+  /**
+   * Creates a new snapshotter for a job.
+   *
+   * @param options the options of the job
+   * @return the snapshotter
+   */
+  MapSnapshotter createSnapshotter(MapSnapshotter.Options options) {
+    return new MapSnapshotter(context, options);
+  }
+
+  private void dispatch() {
+    while (!released && !pending.isEmpty()) {
+      Worker worker = obtainWorker(pending.peek().options);
+      if (worker == null) {
+        return;
+      }
+      start(worker, pending.poll());
+    }
+  }
+
+  private Worker obtainWorker(MapSnapshotter.Options options) {
+    Worker idle = null;
+    Worker compatible = null;
+    for (Worker worker : workers) {
+      if (!worker.isIdle()) {
+        continue;
+      }
+
+      if (worker.isCompatible(options)) {
+        if (worker.styleUrl.equals(options.getStyleUrl())) {
+          return worker;
+        }
+        compatible = worker;
+      } else if (idle == null) {
+        idle = worker;
+      }
+    }
+
+    if (workers.size() < maxWorkers) {
+      Worker worker = new Worker();
+      workers.add(worker);
+      return worker;
+    }
+
+    if (compatible != null) {
+      return compatible;
+    }
+
+    if (idle != null) {
+      // Replace the native map, it can't render the job
+      idle.snapshotter = null;
+    }
+    return idle;
+  }
+
+  private void start(final Worker worker, final Job job) {
+    MapSnapshotter.Options options = job.options;
+    if (worker.snapshotter == null) {
+      worker.snapshotter = createSnapshotter(options);
+      worker.pixelRatio = options.pixelRatio;
+      worker.showLogo = options.isShowLogo();
+    } else {
+      if (!worker.styleUrl.equals(options.getStyleUrl())) {
+        worker.snapshotter.setStyleUrl(options.getStyleUrl());
+      }
+      worker.snapshotter.setSize(options.getWidth(), options.getHeight());
+      if (options.getCameraPosition() != null) {
+        worker.snapshotter.setCameraPosition(options.getCameraPosition());
+      }
+      if (options.getRegion() != null) {
+        worker.snapshotter.setRegion(options.getRegion());
+      }
+    }
+    worker.styleUrl = options.getStyleUrl();
+    worker.job = job;
+    job.worker = worker;
+    job.state = Job.STATE_RUNNING;
+
+    worker.snapshotter.start(new MapSnapshotter.SnapshotReadyCallback() {
+      @Override
+      public void onSnapshotReady(MapSnapshot snapshot) {
+        if (finish(worker, job, false)) {
+          job.callback.onSnapshotReady(snapshot);
+        }
+      }
+    }, new MapSnapshotter.ErrorHandler() {
+      @Override
+      public void onError(String error) {
+        if (finish(worker, job, true) && job.errorHandler != null) {
+          job.errorHandler.onError(error);
+        }
+      }
+    });
+  }
+
+  private boolean finish(final Worker worker, Job job, boolean failed) {
+    if (job.state != Job.STATE_RUNNING) {
+      return false;
+    }
+
+    job.state = Job.STATE_DONE;
+    job.worker = null;
+    job.service = null;
+    if (failed) {
+      // Don't reuse a snapshotter that is in an unknown state
+      worker.snapshotter = null;
+    }
+
+    // The snapshotter can only be started again once it has returned from this callback
+    handler.post(new Runnable() {
+      @Override
+      public void run() {
+        worker.job = null;
+        dispatch();
+      }
+    });
+    return true;
+  }
+
+  private void cancel(Job job) {
+    if (job.state == Job.STATE_PENDING) {
+      pending.remove(job);
+    } else if (job.state == Job.STATE_RUNNING) {
+      // The native map may still be rendering, replace it rather than waiting for it
+      Worker worker = job.worker;
+      worker.snapshotter.cancel();
+      worker.snapshotter = null;
+      worker.job = null;
+      job.worker = null;
+    } else {
+      return;
+    }
+
+    job.state = Job.STATE_CANCELLED;
+    job.service = null;
+    dispatch();
+  }
+}
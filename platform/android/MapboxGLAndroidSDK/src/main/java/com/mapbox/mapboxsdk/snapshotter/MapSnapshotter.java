@@ -5,17 +5,29 @@ import android.graphics.Bitmap;
 import android.graphics.BitmapFactory;
 import android.graphics.Canvas;
 import android.graphics.Matrix;
+import android.os.Handler;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.UiThread;
 import android.util.DisplayMetrics;
+import android.util.LruCache;
 
 import com.mapbox.mapboxsdk.R;
 import com.mapbox.mapboxsdk.camera.CameraPosition;
 import com.mapbox.mapboxsdk.constants.Style;
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.mapboxsdk.maps.renderer.ProgramCache;
 import com.mapbox.mapboxsdk.storage.FileSource;
 
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
 /**
  * The map snapshotter creates a bitmap of the map, rendered
  * off the UI thread. The snapshotter itself must be used on
@@ -40,6 +52,21 @@ public class MapSnapshotter {
 
   }
 
+  /**
+   * Get notified when an encoded snapshot has been written.
+   *
+   * @see MapSnapshotter#start(OutputStream, Bitmap.CompressFormat, int, SnapshotWrittenCallback, ErrorHandler)
+   * @see MapSnapshotter#start(File, Bitmap.CompressFormat, int, SnapshotWrittenCallback, ErrorHandler)
+   */
+  public interface SnapshotWrittenCallback {
+
+    /**
+     * Called when the encoded snapshot has been written.
+     */
+    void onSnapshotWritten();
+
+  }
+
   /**
    * Can be used to get notified of errors
    * in snapshot generation
@@ -58,6 +85,19 @@ public class MapSnapshotter {
   }
 
   private static final int LOGO_MARGIN_DP = 4;
+  private static final int LOGO_CACHE_BYTES = 512 * 1024;
+  private static final long ENCODER_KEEP_ALIVE_SECONDS = 30;
+
+  // Scaled logos keyed by the size of the snapshot they were created for
+  private static final LruCache<Long, Bitmap> scaledLogos = new LruCache<Long, Bitmap>(LOGO_CACHE_BYTES) {
+    @Override
+    protected int sizeOf(Long key, Bitmap logo) {
+      return logo.getByteCount();
+    }
+  };
+
+  // Encodes snapshots off the UI thread. Its daemon thread is only kept alive while snapshots are written.
+  private static final ThreadPoolExecutor encoder = createEncoder();
 
   // Holds the pointer to JNI NativeMapView
   private long nativePtr = 0;
@@ -65,12 +105,17 @@ public class MapSnapshotter {
   private final Context context;
   private SnapshotReadyCallback callback;
   private ErrorHandler errorHandler;
+  private Bitmap targetBitmap;
+
+  // Bitmap of the last encoded snapshot, reused for the next one
+  private Bitmap encodeBitmap;
 
   /**
    * MapSnapshotter options
    */
   public static class Options {
-    private int pixelRatio = 1;
+    // Package-private for MapSnapshotService, getPixelRatio() rounds it down
+    float pixelRatio = 1;
     private int width;
     private int height;
     private String styleUrl = Style.MAPBOX_STREETS;
@@ -115,6 +160,15 @@ public class MapSnapshotter {
       return this;
     }
 
+    /**
+     * @param pixelRatio the pixel ratio to use, such as the display density (default: 1)
+     * @return the mutated {@link Options}
+     */
+    public Options withPixelRatio(float pixelRatio) {
+      this.pixelRatio = pixelRatio;
+      return this;
+    }
+
     /**
      * @param cameraPosition The camera position to use,
      *                       the {@link CameraPosition#target} is overridden
@@ -150,10 +204,10 @@ public class MapSnapshotter {
     }
 
     /**
-     * @return the pixel ratio
+     * @return the pixel ratio, rounded down if it isn't a whole number
      */
     public int getPixelRatio() {
-      return pixelRatio;
+      return (int) pixelRatio;
     }
 
     /**
@@ -178,6 +232,13 @@ public class MapSnapshotter {
     public CameraPosition getCameraPosition() {
       return cameraPosition;
     }
+
+    /**
+     * @return true if the Mapbox logo is shown
+     */
+    public boolean isShowLogo() {
+      return showLogo;
+    }
   }
 
   /**
@@ -190,7 +251,7 @@ public class MapSnapshotter {
   public MapSnapshotter(@NonNull Context context, @NonNull Options options) {
     this.context = context.getApplicationContext();
     FileSource fileSource = FileSource.getInstance(context);
-    String programCacheDir = context.getCacheDir().getAbsolutePath();
+    String programCacheDir = ProgramCache.getCacheDir(context);
 
     nativeInitialize(this, fileSource, options.pixelRatio, options.width,
       options.height, options.styleUrl, options.region, options.cameraPosition,
@@ -215,15 +276,136 @@ public class MapSnapshotter {
    * @param errorHandler the error handler to use on snapshot errors
    */
   public void start(@NonNull SnapshotReadyCallback callback, ErrorHandler errorHandler) {
+    start(null, callback, errorHandler);
+  }
+
+  /**
+   * Starts loading and rendering the snapshot into an existing bitmap. The callbacks will be fired
+   * on the calling thread.
+   * <p>
+   * The bitmap is reused if it matches the size of the snapshot in pixels, which is its size
+   * multiplied by the pixel ratio. A new bitmap is created otherwise, compare it with
+   * {@link MapSnapshot#getBitmap()} to find out which one was used.
+   * </p>
+   *
+   * @param bitmap       the mutable {@link Bitmap.Config#ARGB_8888} bitmap to render into
+   * @param callback     the callback to use when the snapshot is ready
+   * @param errorHandler the error handler to use on snapshot errors
+   */
+  public void start(@Nullable Bitmap bitmap, @NonNull SnapshotReadyCallback callback, ErrorHandler errorHandler) {
     if (this.callback != null) {
       throw new IllegalStateException("Snapshotter was already started");
     }
 
+    if (bitmap != null && (!bitmap.isMutable() || bitmap.getConfig() != Bitmap.Config.ARGB_8888)) {
+      throw new IllegalArgumentException("Bitmap must be mutable and use the ARGB_8888 config");
+    }
+
     this.callback = callback;
     this.errorHandler = errorHandler;
+    this.targetBitmap = bitmap;
     nativeStart();
   }
 
+  /**
+   * Starts loading and rendering the snapshot and writes it, encoded, to an output stream.
+   * <p>
+   * The snapshot is encoded off the UI thread, the callbacks will be fired on the calling thread.
+   * The output stream is not closed. The bitmap of the snapshot is reused for the next encoded
+   * snapshot of the same size.
+   * </p>
+   *
+   * @param outputStream the output stream to write to
+   * @param format       the format to encode the snapshot in
+   * @param quality      the quality hint for the encoder, 0 - 100
+   * @param callback     the callback to use when the snapshot has been written
+   * @param errorHandler the error handler to use on snapshot and encoding errors
+   */
+  public void start(@NonNull OutputStream outputStream, @NonNull Bitmap.CompressFormat format, int quality,
+                    @NonNull SnapshotWrittenCallback callback, ErrorHandler errorHandler) {
+    startEncoded(new EncodeTask(outputStream, null, format, quality), callback, errorHandler);
+  }
+
+  /**
+   * Starts loading and rendering the snapshot and writes it, encoded, to a file.
+   * <p>
+   * The snapshot is encoded off the UI thread, the callbacks will be fired on the calling thread.
+   * The bitmap of the snapshot is reused for the next encoded snapshot of the same size.
+   * </p>
+   *
+   * @param file         the file to write to, replaced if it exists
+   * @param format       the format to encode the snapshot in
+   * @param quality      the quality hint for the encoder, 0 - 100
+   * @param callback     the callback to use when the snapshot has been written
+   * @param errorHandler the error handler to use on snapshot and encoding errors
+   */
+  public void start(@NonNull File file, @NonNull Bitmap.CompressFormat format, int quality,
+                    @NonNull SnapshotWrittenCallback callback, ErrorHandler errorHandler) {
+    startEncoded(new EncodeTask(null, file, format, quality), callback, errorHandler);
+  }
+
+  private void startEncoded(final EncodeTask task, final SnapshotWrittenCallback callback,
+                            final ErrorHandler errorHandler) {
+    if (this.callback != null) {
+      throw new IllegalStateException("Snapshotter was already started");
+    }
+
+    final Handler handler = createHandler();
+    final Bitmap bitmap = encodeBitmap;
+    encodeBitmap = null;
+    start(bitmap, new SnapshotReadyCallback() {
+      @Override
+      public void onSnapshotReady(MapSnapshot snapshot) {
+        task.bitmap = snapshot.getBitmap();
+        task.onComplete = new Runnable() {
+          @Override
+          public void run() {
+            if (encodeBitmap == null) {
+              encodeBitmap = task.bitmap;
+            }
+
+            if (task.error == null) {
+              callback.onSnapshotWritten();
+            } else if (errorHandler != null) {
+              errorHandler.onError(task.error);
+            }
+          }
+        };
+        task.handler = handler;
+        encoder.execute(task);
+      }
+    }, new ErrorHandler() {
+      @Override
+      public void onError(String error) {
+        if (encodeBitmap == null) {
+          encodeBitmap = bitmap;
+        }
+        if (errorHandler != null) {
+          errorHandler.onError(error);
+        }
+      }
+    });
+  }
+
+  // Handler of the calling thread, receives the results of the encoder
+  Handler createHandler() {
+    return new Handler();
+  }
+
+  private static ThreadPoolExecutor createEncoder() {
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, ENCODER_KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+        @Override
+        public Thread newThread(@NonNull Runnable runnable) {
+          Thread thread = new Thread(runnable, "MapSnapshotterEncoder");
+          thread.setDaemon(true);
+          return thread;
+        }
+      });
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
+  }
+
   /**
    * Updates the snapshotter with a new size
    *
@@ -288,17 +470,24 @@ public class MapSnapshotter {
   }
 
   /**
-   * Create a scaled logo for a map snapshot.
+   * Create a scaled logo for a map snapshot, or get it from the cache
+   * if it was created for a snapshot of the same size before.
    *
    * @param snapshot the map snapshot where the logo should be placed on
    * @return the scaled bitmap logo
    */
   private Bitmap createScaledLogo(Bitmap snapshot) {
-    Bitmap logo = BitmapFactory.decodeResource(context.getResources(), R.drawable.mapbox_logo_icon, null);
-    float scale = calculateLogoScale(snapshot, logo);
-    Matrix matrix = new Matrix();
-    matrix.postScale(scale, scale);
-    return Bitmap.createBitmap(logo, 0, 0, logo.getWidth(), logo.getHeight(), matrix, true);
+    long key = ((long) snapshot.getWidth() << 32) | snapshot.getHeight();
+    Bitmap scaledLogo = scaledLogos.get(key);
+    if (scaledLogo == null) {
+      Bitmap logo = BitmapFactory.decodeResource(context.getResources(), R.drawable.mapbox_logo_icon, null);
+      float scale = calculateLogoScale(snapshot, logo);
+      Matrix matrix = new Matrix();
+      matrix.postScale(scale, scale);
+      scaledLogo = Bitmap.createBitmap(logo, 0, 0, logo.getWidth(), logo.getHeight(), matrix, true);
+      scaledLogos.put(key, scaledLogo);
+    }
+    return scaledLogo;
   }
 
   /**
@@ -350,6 +539,17 @@ public class MapSnapshotter {
   protected void reset() {
     callback = null;
     errorHandler = null;
+    targetBitmap = null;
+  }
+
+  /**
+   * Called by JNI peer to get the bitmap to render the snapshot into.
+   *
+   * @return the bitmap passed to {@link #start(Bitmap, SnapshotReadyCallback, ErrorHandler)}, or null
+   */
+  @Nullable
+  private Bitmap getTargetBitmap() {
+    return targetBitmap;
   }
 
   protected native void nativeInitialize(MapSnapshotter mapSnapshotter,
@@ -364,4 +564,52 @@ public class MapSnapshotter {
 
   @Override
   protected native void finalize() throws Throwable;
+
+  private static class EncodeTask implements Runnable {
+
+    private final OutputStream outputStream;
+    private final File file;
+    private final Bitmap.CompressFormat format;
+    private final int quality;
+    private Bitmap bitmap;
+    private Handler handler;
+    private Runnable onComplete;
+    private String error;
+
+    EncodeTask(OutputStream outputStream, File file, Bitmap.CompressFormat format, int quality) {
+      this.outputStream = outputStream;
+      this.file = file;
+      this.format = format;
+      this.quality = quality;
+    }
+
+    @Override
+    public void run() {
+      OutputStream stream = outputStream;
+      try {
+        if (stream == null) {
+          stream = new FileOutputStream(file);
+        }
+        if (!bitmap.compress(format, quality, stream)) {
+          error = "Failed to encode snapshot";
+        }
+        stream.flush();
+      } catch (IOException exception) {
+        error = "Failed to write snapshot: " + exception.getMessage();
+      } catch (RuntimeException exception) {
+        error = "Failed to encode snapshot: " + exception.getMessage();
+      } finally {
+        if (outputStream == null && stream != null) {
+          try {
+            stream.close();
+          } catch (IOException exception) {
+            if (error == null) {
+              error = "Failed to write snapshot: " + exception.getMessage();
+            }
+          }
+        }
+        handler.post(onComplete);
+      }
+    }
+  }
 }
@@ -0,0 +1,81 @@
+package com.mapbox.mapboxsdk.style.query;
+
+import android.support.annotation.IntRange;
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+/**
+ * Options for querying rendered or source features, leaving out the parts of the results that aren't needed.
+ * <p>
+ * Features are converted to java one by one, so limiting the results, or their geometries and properties, makes
+ * queries over dense layers faster and lighter, for example when hit-testing with a box.
+ * </p>
+ *
+ * @see com.mapbox.mapboxsdk.maps.MapboxMap#queryRenderedFeatures(android.graphics.RectF,
+ * com.mapbox.mapboxsdk.style.layers.Filter.Statement, QueryOptions, String...)
+ */
+public class QueryOptions {
+
+  private int limit;
+  private boolean geometry = true;
+  private String[] properties;
+
+  /**
+   * Limits the number of returned features, the first features of the results are kept.
+   *
+   * @param limit the maximum number of features, 0 for no limit - Defaults to 0.
+   * @return the current instance for chaining
+   */
+  @NonNull
+  public QueryOptions withLimit(@IntRange(from = 0) int limit) {
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * Whether the geometries of the features are returned, without them {@link
+   * com.mapbox.services.commons.geojson.Feature#getGeometry()} returns null.
+   *
+   * @param geometry true to return the geometries - Defaults to true.
+   * @return the current instance for chaining
+   */
+  @NonNull
+  public QueryOptions withGeometry(boolean geometry) {
+    this.geometry = geometry;
+    return this;
+  }
+
+  /**
+   * Restricts the returned properties of the features to the given keys.
+   *
+   * @param properties the keys of the properties to return, none for no properties, null for all - Defaults to null.
+   * @return the current instance for chaining
+   */
+  @NonNull
+  public QueryOptions withProperties(@Nullable String... properties) {
+    this.properties = properties;
+    return this;
+  }
+
+  /**
+   * @return the maximum number of returned features, 0 if there's no limit
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * @return true if the geometries of the features are returned
+   */
+  public boolean hasGeometry() {
+    return geometry;
+  }
+
+  /**
+   * @return the keys of the returned properties, null if all are returned
+   */
+  @Nullable
+  public String[] getProperties() {
+    return properties;
+  }
+}
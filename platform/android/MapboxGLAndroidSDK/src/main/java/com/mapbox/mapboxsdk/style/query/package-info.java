@@ -0,0 +1,4 @@
+/**
+ * Contains the Mapbox Maps Android feature query API classes.
+ */
+package com.mapbox.mapboxsdk.style.query;
@@ -1,24 +1,24 @@
 package com.mapbox.mapboxsdk.style.sources;
 
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.UiThread;
 import android.support.annotation.WorkerThread;
+import android.support.v4.util.LongSparseArray;
+import android.support.v4.util.Pools;
 
 import com.mapbox.mapboxsdk.geometry.LatLngBounds;
 import com.mapbox.mapboxsdk.style.layers.Filter;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.services.commons.geojson.Feature;
 import com.mapbox.services.commons.geojson.FeatureCollection;
 
 import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Custom Vector Source, allows using FeatureCollections.
@@ -26,9 +26,15 @@ import java.util.concurrent.atomic.AtomicBoolean;
  */
 @UiThread
 public class CustomGeometrySource extends Source {
-  private ExecutorService executor;
+  // Enough for the tiles of a few zoom levels, requested while zooming fast
+  private static final int MAX_POOLED_REQUESTS = 64;
+
+  private final TileRequestExecutor executor;
   private GeometryTileProvider provider;
-  private final Map<TileID, AtomicBoolean> cancelledTileRequests = new ConcurrentHashMap<>();
+  private VectorTileProvider vectorTileProvider;
+  private final LongSparseArray<GeometryTileRequest> pendingTileRequests = new LongSparseArray<>();
+  private final Pools.SimplePool<GeometryTileRequest> requestPool = new Pools.SimplePool<>(MAX_POOLED_REQUESTS);
+  private volatile TileCache tileCache;
 
   /**
    * Create a CustomGeometrySource
@@ -49,11 +55,83 @@ public class CustomGeometrySource extends Source {
    * @param options GeoJsonOptions.
    */
   public CustomGeometrySource(String id, GeometryTileProvider provider, GeoJsonOptions options) {
+    this(id, provider, options, TileRequestExecutor.getDefault());
+  }
+
+  /**
+   * Create a CustomGeometrySource with non-default GeoJsonOptions, running the provider requests on the given
+   * executor instead of the shared {@link TileRequestExecutor#getDefault()}.
+   * <p>Supported options are minZoom, maxZoom, buffer, and tolerance.</p>
+   *
+   * @param id       The source id.
+   * @param provider The tile provider that returns geometry data for this source.
+   * @param options  GeoJsonOptions.
+   * @param executor The executor for the provider requests.
+   */
+  public CustomGeometrySource(String id, GeometryTileProvider provider, GeoJsonOptions options,
+                              @NonNull TileRequestExecutor executor) {
+    this(id, provider, null, options, executor);
+  }
+
+  /**
+   * Create a CustomGeometrySource with tiles that are already encoded as Mapbox Vector Tiles.
+   *
+   * @param id       The source id.
+   * @param provider The tile provider that returns the encoded tiles of this source.
+   */
+  public CustomGeometrySource(String id, VectorTileProvider provider) {
+    this(id, provider, new GeoJsonOptions(), TileRequestExecutor.getDefault());
+  }
+
+  /**
+   * Create a CustomGeometrySource with tiles that are already encoded as Mapbox Vector Tiles, running the provider
+   * requests on the given executor.
+   * <p>Supported options are minZoom and maxZoom.</p>
+   *
+   * @param id       The source id.
+   * @param provider The tile provider that returns the encoded tiles of this source.
+   * @param options  GeoJsonOptions.
+   * @param executor The executor for the provider requests.
+   */
+  public CustomGeometrySource(String id, VectorTileProvider provider, GeoJsonOptions options,
+                              @NonNull TileRequestExecutor executor) {
+    this(id, null, provider, options, executor);
+  }
+
+  private CustomGeometrySource(String id, GeometryTileProvider provider, VectorTileProvider vectorTileProvider,
+                               GeoJsonOptions options, TileRequestExecutor executor) {
     this.provider = provider;
-    executor = Executors.newFixedThreadPool(4);
+    this.vectorTileProvider = vectorTileProvider;
+    this.executor = executor;
     initialize(id, options);
   }
 
+  /**
+   * @return the executor running the provider requests of this source
+   */
+  @NonNull
+  public TileRequestExecutor getExecutor() {
+    return executor;
+  }
+
+  /**
+   * Sets a cache for the results of the {@link GeometryTileProvider}, so tiles requested again aren't recomputed.
+   * The cache must not be shared with other sources.
+   *
+   * @param tileCache the cache, or null to disable caching
+   */
+  public void setTileCache(@Nullable TileCache tileCache) {
+    this.tileCache = tileCache;
+  }
+
+  /**
+   * @return the cache of the provider results, null if there's none
+   */
+  @Nullable
+  public TileCache getTileCache() {
+    return tileCache;
+  }
+
   /**
    *  Invalidate previously provided features within a given bounds at all zoom levels.
    *  Invoking this method will result in new requests to `GeometryTileProvider` for regions
@@ -62,6 +140,10 @@ public class CustomGeometrySource extends Source {
    * @param bounds The region in which features should be invalidated at all zoom levels
    */
   public void invalidateRegion(LatLngBounds bounds) {
+    TileCache cache = tileCache;
+    if (cache != null) {
+      cache.invalidate(bounds);
+    }
     nativeInvalidateBounds(bounds);
   }
 
@@ -74,6 +156,10 @@ public class CustomGeometrySource extends Source {
    * @param y Tile Y coordinate.
    */
   public void invalidateTile(int zoomLevel, int x, int y) {
+    TileCache cache = tileCache;
+    if (cache != null) {
+      cache.invalidate(zoomLevel, x, y);
+    }
     nativeInvalidateTile(zoomLevel, x, y);
   }
 
@@ -88,9 +174,51 @@ public class CustomGeometrySource extends Source {
    * @param data Feature collection for the tile.
    */
   public void setTileData(int zoomLevel, int x, int y, FeatureCollection data) {
+    TileCache cache = tileCache;
+    if (cache != null) {
+      cache.invalidate(zoomLevel, x, y);
+      cache.put(zoomLevel, x, y, data, cache.getGeneration());
+    }
     nativeSetTileData(zoomLevel, x, y, data);
   }
 
+  /**
+   * Set or update geometry contents of a specific tile from packed features, which are decoded
+   * in a single pass on the native side. This method can be called from background threads,
+   * the buffer must not be modified concurrently.
+   *
+   * @param zoomLevel Tile zoom level.
+   * @param x Tile X coordinate.
+   * @param y Tile Y coordinate.
+   * @param data Features for the tile.
+   */
+  public void setTileData(int zoomLevel, int x, int y, FeatureBuffer data) {
+    TileCache cache = tileCache;
+    if (cache != null) {
+      cache.invalidate(zoomLevel, x, y);
+    }
+    ByteBuffer buffer = data.finish();
+    nativeSetTileDataBuffer(zoomLevel, x, y, buffer, buffer.limit());
+  }
+
+  /**
+   * Set or update the contents of a specific tile with an encoded Mapbox Vector Tile, see
+   * {@link VectorTileProvider#getVectorTile(int, int, int)}. This method can be called from background threads.
+   *
+   * @param zoomLevel Tile zoom level.
+   * @param x Tile X coordinate.
+   * @param y Tile Y coordinate.
+   * @param data The encoded tile.
+   */
+  public void setVectorTileData(int zoomLevel, int x, int y, @NonNull ByteBuffer data) {
+    TileCache cache = tileCache;
+    if (cache != null) {
+      cache.invalidate(zoomLevel, x, y);
+      cache.put(zoomLevel, x, y, data, cache.getGeneration());
+    }
+    setEncodedTileData(zoomLevel, x, y, data);
+  }
+
   /**
    * Queries the source for features.
    *
@@ -99,16 +227,52 @@ public class CustomGeometrySource extends Source {
    */
   @NonNull
   public List<Feature> querySourceFeatures(@Nullable Filter.Statement filter) {
-    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null);
+    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null, 0, true, null);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  /**
+   * Queries the source for features, returning only the parts of the features selected by the options.
+   *
+   * @param filter  an optional filter statement to filter the returned Features
+   * @param options the parts of the features to return
+   * @return the features
+   */
+  @NonNull
+  public List<Feature> querySourceFeatures(@Nullable Filter.Statement filter, @NonNull QueryOptions options) {
+    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null,
+      options.getLimit(), options.hasGeometry(), options.getProperties());
+    return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
+  }
+
+  /**
+   * Queries the source for the ids of features, without converting the features themselves.
+   * Features without an id are left out.
+   *
+   * @param filter an optional filter statement to filter the returned Features
+   * @param limit  the maximum number of ids, 0 for no limit
+   * @return the feature ids
+   */
+  @NonNull
+  public List<String> querySourceFeatureIds(@Nullable Filter.Statement filter, @IntRange(from = 0) int limit) {
+    String[] ids = querySourceFeatureIds(filter != null ? filter.toArray() : null, limit);
+    return ids != null ? Arrays.asList(ids) : new ArrayList<String>();
+  }
+
   protected native void initialize(String sourceId, Object options);
 
-  private native Feature[] querySourceFeatures(Object[] filter);
+  private native Feature[] querySourceFeatures(Object[] filter, int limit, boolean geometry, String[] properties);
+
+  private native String[] querySourceFeatureIds(Object[] filter, int limit);
 
   private native void nativeSetTileData(int z, int x, int y, FeatureCollection data);
 
+  private native void nativeSetTileDataBuffer(int z, int x, int y, ByteBuffer data, int length);
+
+  private native void nativeSetVectorTileBuffer(int z, int x, int y, ByteBuffer data, int position, int length);
+
+  private native void nativeSetVectorTileBytes(int z, int x, int y, byte[] data, int offset, int length);
+
   private native void nativeInvalidateTile(int z, int x, int y);
 
   private native void nativeInvalidateBounds(LatLngBounds bounds);
@@ -116,88 +280,144 @@ public class CustomGeometrySource extends Source {
   @Override
   protected native void finalize() throws Throwable;
 
-  private void setTileData(TileID tileId, FeatureCollection data) {
-    cancelledTileRequests.remove(tileId);
-    nativeSetTileData(tileId.z, tileId.x, tileId.y, data);
+  private void setTileData(GeometryTileRequest request, Object data) {
+    if (data instanceof ByteBuffer) {
+      setEncodedTileData(request.z, request.x, request.y, (ByteBuffer) data);
+    } else {
+      nativeSetTileData(request.z, request.x, request.y, (FeatureCollection) data);
+    }
+  }
+
+  private void setEncodedTileData(int z, int x, int y, ByteBuffer data) {
+    if (data.isDirect()) {
+      nativeSetVectorTileBuffer(z, x, y, data, data.position(), data.remaining());
+    } else if (data.hasArray()) {
+      nativeSetVectorTileBytes(z, x, y, data.array(), data.arrayOffset() + data.position(), data.remaining());
+    } else {
+      byte[] bytes = new byte[data.remaining()];
+      data.duplicate().get(bytes);
+      nativeSetVectorTileBytes(z, x, y, bytes, 0, bytes.length);
+    }
+  }
+
+  // Returns the features or the encoded vector tile of a tile
+  @WorkerThread
+  private Object loadTile(int z, int x, int y) {
+    if (vectorTileProvider != null) {
+      return vectorTileProvider.getVectorTile(z, x, y);
+    }
+    return provider.getFeaturesForBounds(LatLngBounds.from(z, x, y), z);
   }
 
   @WorkerThread
   private void fetchTile(int z, int x, int y) {
-    AtomicBoolean cancelFlag = new AtomicBoolean(false);
-    TileID tileID = new TileID(z, x, y);
-    cancelledTileRequests.put(tileID, cancelFlag);
-    GeometryTileRequest request = new GeometryTileRequest(tileID, provider, this, cancelFlag);
+    long key = TileCache.key(z, x, y);
+    GeometryTileRequest request;
+    synchronized (pendingTileRequests) {
+      GeometryTileRequest previous = pendingTileRequests.get(key);
+      if (previous != null) {
+        cancel(previous);
+      }
+      request = requestPool.acquire();
+      if (request == null) {
+        request = new GeometryTileRequest(this);
+      }
+      request.reset(z, x, y);
+      pendingTileRequests.put(key, request);
+    }
     executor.execute(request);
   }
 
   @WorkerThread
   private void cancelTile(int z, int x, int y) {
-    AtomicBoolean cancelFlag = cancelledTileRequests.get(new TileID(z, x, y));
-    if (cancelFlag != null) {
-      cancelFlag.compareAndSet(false, true);
+    long key = TileCache.key(z, x, y);
+    synchronized (pendingTileRequests) {
+      GeometryTileRequest request = pendingTileRequests.get(key);
+      if (request != null) {
+        pendingTileRequests.remove(key);
+        cancel(request);
+      }
     }
   }
 
-  private static class TileID {
-    public int z;
-    public int x;
-    public int y;
-
-    public TileID(int _z, int _x, int _y) {
-      z = _z;
-      x = _x;
-      y = _y;
+  // Called when the source is removed from the map, the pending requests are of no use anymore
+  private void cancelAllTiles() {
+    synchronized (pendingTileRequests) {
+      for (int i = 0; i < pendingTileRequests.size(); i++) {
+        cancel(pendingTileRequests.valueAt(i));
+      }
+      pendingTileRequests.clear();
     }
+  }
 
-    public int hashCode() {
-      return Arrays.hashCode(new int[]{z, x, y});
+  // Requests that never ran are recycled right away, running ones by themselves when done
+  private void cancel(GeometryTileRequest request) {
+    request.cancelled = true;
+    if (executor.cancel(request)) {
+      requestPool.release(request);
     }
+  }
 
-    public boolean equals(Object object) {
-      if (object == this) {
-        return true;
-      }
-
-      if (object == null || getClass() != object.getClass()) {
-        return false;
-      }
-
-      if (object instanceof TileID) {
-        TileID other = (TileID)object;
-        return this.z == other.z && this.x == other.x && this.y == other.y;
+  private void finish(GeometryTileRequest request) {
+    long key = TileCache.key(request.z, request.x, request.y);
+    synchronized (pendingTileRequests) {
+      if (pendingTileRequests.get(key) == request) {
+        pendingTileRequests.remove(key);
       }
-      return false;
+      requestPool.release(request);
     }
   }
 
-  private static class GeometryTileRequest implements Runnable {
-    private TileID id;
-    private GeometryTileProvider provider;
-    private WeakReference<CustomGeometrySource> sourceRef;
-    private AtomicBoolean cancelled;
+  /**
+   * A provider request, reused once it has run or has been cancelled before running. All state changes happen
+   * while holding the lock of the pending requests.
+   */
+  private static class GeometryTileRequest extends TileRequestExecutor.Request {
+    private final WeakReference<CustomGeometrySource> sourceRef;
+    private int z;
+    private int x;
+    private int y;
+    private volatile boolean cancelled;
+
+    GeometryTileRequest(CustomGeometrySource source) {
+      sourceRef = new WeakReference<>(source);
+    }
 
-    public GeometryTileRequest(TileID _id, GeometryTileProvider p,
-                               CustomGeometrySource _source, AtomicBoolean _cancelled) {
-      id = _id;
-      provider = p;
-      sourceRef = new WeakReference<>(_source);
-      cancelled = _cancelled;
+    void reset(int z, int x, int y) {
+      this.z = z;
+      this.x = x;
+      this.y = y;
+      cancelled = false;
     }
 
     public void run() {
-      if (isCancelled()) {
+      CustomGeometrySource source = sourceRef.get();
+      if (source == null) {
         return;
       }
 
-      FeatureCollection data = provider.getFeaturesForBounds(LatLngBounds.from(id.z, id.x, id.y), id.z);
-      CustomGeometrySource source = sourceRef.get();
-      if (!isCancelled() && source != null && data != null)  {
-        source.setTileData(id, data);
+      if (!cancelled) {
+        load(source);
       }
+      source.finish(this);
     }
 
-    private Boolean isCancelled() {
-      return cancelled.get();
+    private void load(CustomGeometrySource source) {
+      TileCache cache = source.tileCache;
+      Object data = cache != null ? cache.get(z, x, y) : null;
+      if (data == null) {
+        long generation = cache != null ? cache.getGeneration() : 0;
+        long start = System.nanoTime();
+        data = source.loadTile(z, x, y);
+        source.executor.recordProviderTime(System.nanoTime() - start);
+        if (cache != null && data != null) {
+          cache.put(z, x, y, data, generation);
+        }
+      }
+
+      if (!cancelled && data != null) {
+        source.setTileData(this, data);
+      }
     }
   }
 }
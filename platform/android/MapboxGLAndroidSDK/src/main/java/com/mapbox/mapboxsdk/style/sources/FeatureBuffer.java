@@ -0,0 +1,420 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A packed buffer of features, built incrementally and handed to the native side as a single direct buffer
+ * instead of walking a {@link com.mapbox.services.commons.geojson.FeatureCollection} object by object.
+ * <p>
+ * Every feature is started with {@link #beginFeature()}, followed by exactly one geometry and any number of
+ * properties:
+ * </p>
+ * <pre>
+ * FeatureBuffer features = new FeatureBuffer();
+ * features.beginFeature("bus-1").point(-73.99, 40.73).property("line", "M15").property("speed", 12.5);
+ * features.beginFeature("route").lineString(new double[] {-73.99, 40.73, -73.98, 40.75});
+ * source.setGeoJson(features);
+ * </pre>
+ * <p>
+ * Coordinates are interleaved longitude and latitude pairs. Strings, keys as well as values, are stored once in a
+ * string table, however often they occur. The buffer can be passed on and extended further, but it isn't thread safe.
+ * </p>
+ */
+public final class FeatureBuffer {
+
+  // The layout of the buffer, in native byte order:
+  //
+  // header:   int32 version, int32 feature count, int32 offset of the string table
+  // feature:  byte id type [int64 number | int32 string index], byte geometry type, geometry,
+  //           int32 property count, properties
+  // geometry: point: double longitude, double latitude
+  //           multi point, line string: int32 point count, points
+  //           multi line string, polygon: int32 line count, lines
+  //           multi polygon: int32 polygon count, polygons
+  // property: int32 key string index, byte value type [byte boolean | double | int64 | int32 string index]
+  // strings:  int32 string count, per string: int32 byte length, UTF-8 bytes
+  //
+  // Keep in sync with platform/android/src/geojson/feature_buffer.cpp
+
+  static final int VERSION = 1;
+
+  static final int HEADER_SIZE = 12;
+  private static final int FEATURE_COUNT_OFFSET = 4;
+  private static final int STRING_TABLE_OFFSET = 8;
+
+  static final byte ID_NONE = 0;
+  static final byte ID_NUMBER = 1;
+  static final byte ID_STRING = 2;
+
+  static final byte GEOMETRY_POINT = 1;
+  static final byte GEOMETRY_MULTI_POINT = 2;
+  static final byte GEOMETRY_LINE_STRING = 3;
+  static final byte GEOMETRY_MULTI_LINE_STRING = 4;
+  static final byte GEOMETRY_POLYGON = 5;
+  static final byte GEOMETRY_MULTI_POLYGON = 6;
+
+  static final byte VALUE_NULL = 0;
+  static final byte VALUE_BOOLEAN = 1;
+  static final byte VALUE_DOUBLE = 2;
+  static final byte VALUE_LONG = 3;
+  static final byte VALUE_STRING = 4;
+
+  private static final int DEFAULT_CAPACITY = 4 * 1024;
+  private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+  // Where the building of the current feature stands
+  private static final int STATE_IDLE = 0;
+  private static final int STATE_GEOMETRY = 1;
+  private static final int STATE_PROPERTIES = 2;
+
+  private ByteBuffer buffer;
+  private int featureCount;
+  private int state = STATE_IDLE;
+  private int propertyCountPosition;
+  private int propertyCount;
+
+  private final Map<String, Integer> stringIndices = new HashMap<>();
+  private final List<byte[]> strings = new ArrayList<>();
+  private int stringTableSize = 4;
+
+  /**
+   * Creates an empty buffer.
+   */
+  public FeatureBuffer() {
+    this(DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Creates an empty buffer with the given initial capacity, the buffer grows as needed.
+   *
+   * @param capacity the initial capacity in bytes
+   */
+  public FeatureBuffer(int capacity) {
+    buffer = ByteBuffer.allocateDirect(Math.max(capacity, HEADER_SIZE)).order(ByteOrder.nativeOrder());
+    buffer.position(HEADER_SIZE);
+  }
+
+  /**
+   * Starts a feature without an id.
+   *
+   * @return this buffer
+   */
+  public FeatureBuffer beginFeature() {
+    startFeature();
+    buffer.put(ID_NONE);
+    return this;
+  }
+
+  /**
+   * Starts a feature with a string id.
+   *
+   * @param id the id of the feature
+   * @return this buffer
+   */
+  public FeatureBuffer beginFeature(@NonNull String id) {
+    startFeature();
+    buffer.put(ID_STRING);
+    buffer.putInt(indexOf(id));
+    return this;
+  }
+
+  /**
+   * Starts a feature with a numeric id.
+   *
+   * @param id the id of the feature
+   * @return this buffer
+   */
+  public FeatureBuffer beginFeature(long id) {
+    startFeature();
+    buffer.put(ID_NUMBER);
+    buffer.putLong(id);
+    return this;
+  }
+
+  /**
+   * Sets a point as the geometry of the current feature.
+   *
+   * @param longitude the longitude of the point
+   * @param latitude  the latitude of the point
+   * @return this buffer
+   */
+  public FeatureBuffer point(double longitude, double latitude) {
+    startGeometry(GEOMETRY_POINT, 16);
+    buffer.putDouble(longitude);
+    buffer.putDouble(latitude);
+    return endGeometry();
+  }
+
+  /**
+   * Sets a multi point as the geometry of the current feature.
+   *
+   * @param coordinates the interleaved longitudes and latitudes of the points
+   * @return this buffer
+   */
+  public FeatureBuffer multiPoint(@NonNull double[] coordinates) {
+    startGeometry(GEOMETRY_MULTI_POINT, sizeOf(coordinates));
+    putLine(coordinates);
+    return endGeometry();
+  }
+
+  /**
+   * Sets a line string as the geometry of the current feature.
+   *
+   * @param coordinates the interleaved longitudes and latitudes of the line
+   * @return this buffer
+   */
+  public FeatureBuffer lineString(@NonNull double[] coordinates) {
+    startGeometry(GEOMETRY_LINE_STRING, sizeOf(coordinates));
+    putLine(coordinates);
+    return endGeometry();
+  }
+
+  /**
+   * Sets a multi line string as the geometry of the current feature.
+   *
+   * @param lines the interleaved longitudes and latitudes of every line
+   * @return this buffer
+   */
+  public FeatureBuffer multiLineString(@NonNull double[][] lines) {
+    startGeometry(GEOMETRY_MULTI_LINE_STRING, sizeOf(lines));
+    putLines(lines);
+    return endGeometry();
+  }
+
+  /**
+   * Sets a polygon as the geometry of the current feature.
+   *
+   * @param rings the interleaved longitudes and latitudes of the outer ring, followed by the holes
+   * @return this buffer
+   */
+  public FeatureBuffer polygon(@NonNull double[][] rings) {
+    startGeometry(GEOMETRY_POLYGON, sizeOf(rings));
+    putLines(rings);
+    return endGeometry();
+  }
+
+  /**
+   * Sets a multi polygon as the geometry of the current feature.
+   *
+   * @param polygons the rings of every polygon, see {@link #polygon(double[][])}
+   * @return this buffer
+   */
+  public FeatureBuffer multiPolygon(@NonNull double[][][] polygons) {
+    int size = 4;
+    for (double[][] rings : polygons) {
+      size += sizeOf(rings);
+    }
+    startGeometry(GEOMETRY_MULTI_POLYGON, size);
+    buffer.putInt(polygons.length);
+    for (double[][] rings : polygons) {
+      putLines(rings);
+    }
+    return endGeometry();
+  }
+
+  /**
+   * Adds a string property to the current feature.
+   *
+   * @param key   the name of the property
+   * @param value the value, null for a null property
+   * @return this buffer
+   */
+  public FeatureBuffer property(@NonNull String key, @Nullable String value) {
+    startProperty(key, 4);
+    if (value == null) {
+      buffer.put(VALUE_NULL);
+    } else {
+      buffer.put(VALUE_STRING);
+      buffer.putInt(indexOf(value));
+    }
+    return this;
+  }
+
+  /**
+   * Adds a numeric property to the current feature.
+   *
+   * @param key   the name of the property
+   * @param value the value
+   * @return this buffer
+   */
+  public FeatureBuffer property(@NonNull String key, double value) {
+    startProperty(key, 8);
+    buffer.put(VALUE_DOUBLE);
+    buffer.putDouble(value);
+    return this;
+  }
+
+  /**
+   * Adds an integer property to the current feature.
+   *
+   * @param key   the name of the property
+   * @param value the value
+   * @return this buffer
+   */
+  public FeatureBuffer property(@NonNull String key, long value) {
+    startProperty(key, 8);
+    buffer.put(VALUE_LONG);
+    buffer.putLong(value);
+    return this;
+  }
+
+  /**
+   * Adds a boolean property to the current feature.
+   *
+   * @param key   the name of the property
+   * @param value the value
+   * @return this buffer
+   */
+  public FeatureBuffer property(@NonNull String key, boolean value) {
+    startProperty(key, 1);
+    buffer.put(VALUE_BOOLEAN);
+    buffer.put(value ? (byte) 1 : (byte) 0);
+    return this;
+  }
+
+  /**
+   * @return the number of features in the buffer
+   */
+  public int getFeatureCount() {
+    return featureCount;
+  }
+
+  /**
+   * Removes all features, the allocated memory is kept for reuse.
+   */
+  public void clear() {
+    buffer.clear();
+    buffer.position(HEADER_SIZE);
+    featureCount = 0;
+    state = STATE_IDLE;
+    stringIndices.clear();
+    strings.clear();
+    stringTableSize = 4;
+  }
+
+  /**
+   * Completes the buffer for the native side. The string table is written after the features without
+   * advancing the position, so features can still be added afterwards.
+   *
+   * @return a view of the buffer from the header to the end of the string table
+   */
+  ByteBuffer finish() {
+    if (state == STATE_GEOMETRY) {
+      throw new IllegalStateException("The last feature has no geometry");
+    }
+
+    int end = buffer.position();
+    ensureCapacity(stringTableSize);
+    buffer.putInt(0, VERSION);
+    buffer.putInt(FEATURE_COUNT_OFFSET, featureCount);
+    buffer.putInt(STRING_TABLE_OFFSET, end);
+
+    ByteBuffer result = buffer.duplicate().order(ByteOrder.nativeOrder());
+    result.putInt(strings.size());
+    for (byte[] string : strings) {
+      result.putInt(string.length);
+      result.put(string);
+    }
+    result.flip();
+    return result;
+  }
+
+  private void startFeature() {
+    if (state == STATE_GEOMETRY) {
+      throw new IllegalStateException("The previous feature has no geometry");
+    }
+    ensureCapacity(1 + 8);
+    featureCount++;
+    state = STATE_GEOMETRY;
+  }
+
+  private void startGeometry(byte type, int size) {
+    if (state != STATE_GEOMETRY) {
+      throw new IllegalStateException("A geometry must follow beginFeature()");
+    }
+    ensureCapacity(1 + size + 4);
+    buffer.put(type);
+  }
+
+  private FeatureBuffer endGeometry() {
+    propertyCountPosition = buffer.position();
+    propertyCount = 0;
+    buffer.putInt(0);
+    state = STATE_PROPERTIES;
+    return this;
+  }
+
+  private void startProperty(String key, int valueSize) {
+    if (state != STATE_PROPERTIES) {
+      throw new IllegalStateException("Properties must follow the geometry of a feature");
+    }
+    ensureCapacity(4 + 1 + valueSize);
+    buffer.putInt(indexOf(key));
+    buffer.putInt(propertyCountPosition, ++propertyCount);
+  }
+
+  private void putLine(double[] coordinates) {
+    buffer.putInt(coordinates.length / 2);
+    for (double coordinate : coordinates) {
+      buffer.putDouble(coordinate);
+    }
+  }
+
+  private void putLines(double[][] lines) {
+    buffer.putInt(lines.length);
+    for (double[] line : lines) {
+      putLine(line);
+    }
+  }
+
+  private static int sizeOf(double[] coordinates) {
+    if (coordinates.length % 2 != 0) {
+      throw new IllegalArgumentException("Coordinates must be pairs of longitude and latitude");
+    }
+    return 4 + coordinates.length * 8;
+  }
+
+  private static int sizeOf(double[][] lines) {
+    int size = 4;
+    for (double[] line : lines) {
+      size += sizeOf(line);
+    }
+    return size;
+  }
+
+  private int indexOf(String string) {
+    Integer index = stringIndices.get(string);
+    if (index == null) {
+      byte[] bytes = string.getBytes(UTF_8);
+      index = strings.size();
+      strings.add(bytes);
+      stringIndices.put(string, index);
+      stringTableSize += 4 + bytes.length;
+    }
+    return index;
+  }
+
+  private void ensureCapacity(int size) {
+    if (buffer.remaining() >= size) {
+      return;
+    }
+
+    int capacity = buffer.capacity();
+    while (capacity - buffer.position() < size) {
+      capacity *= 2;
+    }
+    ByteBuffer grown = ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    buffer.flip();
+    grown.put(buffer);
+    buffer = grown;
+  }
+}
@@ -89,4 +89,17 @@ public class GeoJsonOptions extends HashMap<String, Object> {
     return this;
   }
 
+  /**
+   * Keeps the data of the source next to its index, so that features can be added, updated and removed
+   * with {@link GeoJsonSource#addFeatures}, {@link GeoJsonSource#updateFeatures} and
+   * {@link GeoJsonSource#removeFeatures(String...)}. This retains the whole data in memory.
+   *
+   * @param incrementalUpdates incremental updates? - Defaults to false
+   * @return the current instance for chaining
+   */
+  public GeoJsonOptions withIncrementalUpdates(boolean incrementalUpdates) {
+    this.put("incrementalUpdates", incrementalUpdates);
+    return this;
+  }
+
 }
@@ -1,15 +1,26 @@
 package com.mapbox.mapboxsdk.style.sources;
 
+import android.content.res.AssetFileDescriptor;
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.UiThread;
 
 import com.mapbox.mapboxsdk.style.layers.Filter;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.services.commons.geojson.Feature;
 import com.mapbox.services.commons.geojson.FeatureCollection;
 import com.mapbox.services.commons.geojson.Geometry;
 
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
@@ -22,6 +33,37 @@ import java.util.List;
 @UiThread
 public class GeoJsonSource extends Source {
 
+  /**
+   * Callback of the asynchronous updates of the source,
+   * see {@link #setGeoJsonAsync(String, SetGeoJsonCallback)}.
+   */
+  public interface SetGeoJsonCallback {
+
+    /**
+     * Invoked on the main thread once the data of the source has been replaced.
+     */
+    void onComplete();
+
+    /**
+     * Invoked on the main thread when the update has been superseded by a newer one
+     * before completing.
+     */
+    void onCancel();
+
+    /**
+     * Invoked on the main thread when the data couldn't be parsed.
+     *
+     * @param error the error message
+     */
+    void onError(String error);
+  }
+
+  // The initial size of the buffer of streams with an unknown length
+  private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+
+  // The callback of the pending asynchronous update
+  private SetGeoJsonCallback pendingCallback;
+
   /**
    * Internal use
    *
@@ -179,6 +221,7 @@ public class GeoJsonSource extends Source {
    * @param feature the GeoJSON {@link Feature} to set
    */
   public void setGeoJson(Feature feature) {
+    cancelPendingGeoJson();
     nativeSetFeature(feature);
   }
 
@@ -188,6 +231,7 @@ public class GeoJsonSource extends Source {
    * @param geometry the GeoJSON {@link Geometry} to set
    */
   public void setGeoJson(Geometry<?> geometry) {
+    cancelPendingGeoJson();
     nativeSetGeometry(geometry);
   }
 
@@ -197,6 +241,7 @@ public class GeoJsonSource extends Source {
    * @param features the GeoJSON FeatureCollection
    */
   public void setGeoJson(FeatureCollection features) {
+    cancelPendingGeoJson();
     nativeSetFeatureCollection(features);
   }
 
@@ -206,9 +251,226 @@ public class GeoJsonSource extends Source {
    * @param json the raw GeoJson FeatureCollection string
    */
   public void setGeoJson(String json) {
+    cancelPendingGeoJson();
     nativeSetGeoJsonString(json);
   }
 
+  /**
+   * Updates the GeoJson with packed features, which are decoded in a single pass on the native side
+   *
+   * @param features the features
+   */
+  public void setGeoJson(@NonNull FeatureBuffer features) {
+    cancelPendingGeoJson();
+    ByteBuffer buffer = features.finish();
+    nativeSetFeatureBuffer(buffer, buffer.limit());
+  }
+
+  /**
+   * Updates the GeoJson from a UTF-8 encoded file. The file is memory-mapped and parsed in place,
+   * without loading it into a Java string first.
+   *
+   * @param file the GeoJson file
+   * @throws IOException if the file can't be read
+   */
+  public void setGeoJson(@NonNull File file) throws IOException {
+    FileInputStream stream = new FileInputStream(file);
+    try {
+      FileChannel channel = stream.getChannel();
+      setGeoJson(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * Updates the GeoJson from a UTF-8 encoded asset or raw resource, for example from
+   * {@link android.content.res.AssetManager#openFd(String)}. Only uncompressed assets can be opened this way,
+   * the asset is memory-mapped and parsed in place.
+   *
+   * @param descriptor the descriptor of the GeoJson asset
+   * @throws IOException if the asset can't be read
+   */
+  public void setGeoJson(@NonNull AssetFileDescriptor descriptor) throws IOException {
+    FileInputStream stream = descriptor.createInputStream();
+    try {
+      FileChannel channel = stream.getChannel();
+      long offset = descriptor.getStartOffset();
+      long length = descriptor.getDeclaredLength();
+      if (length == AssetFileDescriptor.UNKNOWN_LENGTH) {
+        length = channel.size() - offset;
+      }
+      setGeoJson(channel.map(FileChannel.MapMode.READ_ONLY, offset, length));
+    } finally {
+      stream.close();
+    }
+  }
+
+  /**
+   * Updates the GeoJson from a UTF-8 encoded stream. The stream is read until its end into a native buffer,
+   * it isn't closed.
+   *
+   * @param stream the GeoJson stream
+   * @throws IOException if the stream can't be read
+   */
+  public void setGeoJson(@NonNull InputStream stream) throws IOException {
+    ReadableByteChannel channel = Channels.newChannel(stream);
+    ByteBuffer buffer = ByteBuffer.allocateDirect(Math.max(stream.available(), STREAM_BUFFER_SIZE));
+    while (channel.read(buffer) != -1) {
+      if (!buffer.hasRemaining()) {
+        ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() * 2);
+        buffer.flip();
+        grown.put(buffer);
+        buffer = grown;
+      }
+    }
+    buffer.flip();
+    setGeoJson(buffer);
+  }
+
+  /**
+   * Updates the GeoJson from the UTF-8 encoded bytes between the position and the limit of the buffer.
+   * Direct buffers, for example memory-mapped files, are parsed in place, other buffers are copied first.
+   *
+   * @param buffer the GeoJson bytes
+   */
+  public void setGeoJson(@NonNull ByteBuffer buffer) {
+    cancelPendingGeoJson();
+    if (!buffer.isDirect()) {
+      ByteBuffer direct = ByteBuffer.allocateDirect(buffer.remaining());
+      direct.put(buffer.duplicate());
+      direct.flip();
+      buffer = direct;
+    }
+    nativeSetGeoJsonBuffer(buffer, buffer.position(), buffer.remaining());
+  }
+
+  /**
+   * Updates the GeoJson asynchronously.
+   * <p>
+   * The json is parsed and indexed on a background thread, then the data of the source is replaced
+   * and the callback is invoked. Updating the data or the url of the source, or a newer asynchronous
+   * update, cancels a pending update. Features added or updated while an update is pending are
+   * replaced with its data.
+   * </p>
+   *
+   * @param json     the raw GeoJson FeatureCollection string
+   * @param callback the callback to be invoked, or null
+   */
+  public void setGeoJsonAsync(@NonNull String json, @Nullable SetGeoJsonCallback callback) {
+    nativeSetGeoJsonStringAsync(json, prepareCallback(callback));
+  }
+
+  /**
+   * Updates the GeoJson asynchronously.
+   * <p>
+   * The features are converted and indexed on a background thread, they must not be modified until
+   * the callback is invoked.
+   * </p>
+   *
+   * @param features the GeoJSON FeatureCollection
+   * @param callback the callback to be invoked, or null
+   * @see #setGeoJsonAsync(String, SetGeoJsonCallback)
+   */
+  public void setGeoJsonAsync(@NonNull FeatureCollection features, @Nullable SetGeoJsonCallback callback) {
+    nativeSetFeatureCollectionAsync(features, prepareCallback(callback));
+  }
+
+  private SetGeoJsonCallback prepareCallback(@Nullable final SetGeoJsonCallback callback) {
+    cancelPendingGeoJson();
+    final SetGeoJsonCallback pending = new SetGeoJsonCallback() {
+      @Override
+      public void onComplete() {
+        pendingCallback = null;
+        if (callback != null) {
+          callback.onComplete();
+        }
+      }
+
+      @Override
+      public void onCancel() {
+        if (callback != null) {
+          callback.onCancel();
+        }
+      }
+
+      @Override
+      public void onError(String error) {
+        pendingCallback = null;
+        if (callback != null) {
+          callback.onError(error);
+        }
+      }
+    };
+    pendingCallback = pending;
+    return pending;
+  }
+
+  private void cancelPendingGeoJson() {
+    if (pendingCallback != null) {
+      // The native source discards the superseded update
+      SetGeoJsonCallback callback = pendingCallback;
+      pendingCallback = null;
+      callback.onCancel();
+    }
+  }
+
+  /**
+   * Adds features to the source, replacing the features with the same id.
+   * <p>
+   * Unlike {@link #setGeoJson(FeatureCollection)}, only the given features are converted and only
+   * the tiles they touch are updated, which is much cheaper when a few features of a large source
+   * change, for example moving vehicles. Features without an id are added, but can't be updated or
+   * removed afterwards. The ids of the features are expected to be unique within the source.
+   * </p>
+   * <p>
+   * The source must be created with {@link GeoJsonOptions#withIncrementalUpdates(boolean)}, otherwise
+   * the change is ignored and an error is logged. The index of the source is still rebuilt from all
+   * of its data on every change, so prefer a single call with all the features that changed.
+   * </p>
+   *
+   * @param features the features to add
+   */
+  public void addFeatures(@NonNull FeatureCollection features) {
+    nativeAddFeatures(features);
+  }
+
+  /**
+   * Replaces the features of the source with the same id as the given features.
+   * Features with an id that isn't in the source are ignored.
+   *
+   * @param features the features to update
+   * @see #addFeatures(FeatureCollection)
+   */
+  public void updateFeatures(@NonNull FeatureCollection features) {
+    nativeUpdateFeatures(features);
+  }
+
+  /**
+   * Removes the features with the given ids from the source.
+   * <p>
+   * The ids of features set from Java are strings. Features with numeric ids, parsed from a GeoJSON
+   * string or url, are removed with {@link #removeFeatures(long...)}.
+   * </p>
+   *
+   * @param ids the ids of the features to remove
+   * @see #addFeatures(FeatureCollection)
+   */
+  public void removeFeatures(@NonNull String... ids) {
+    nativeRemoveFeatures(ids);
+  }
+
+  /**
+   * Removes the features with the given numeric ids from the source, such as the features of a
+   * GeoJSON string or url with integer ids.
+   *
+   * @param ids the ids of the features to remove
+   * @see #addFeatures(FeatureCollection)
+   */
+  public void removeFeatures(@NonNull long... ids) {
+    nativeRemoveNumericFeatures(ids);
+  }
+
   /**
    * Updates the url
    *
@@ -224,6 +486,7 @@ public class GeoJsonSource extends Source {
    * @param url the GeoJSON FeatureCollection url
    */
   public void setUrl(String url) {
+    cancelPendingGeoJson();
     nativeSetUrl(url);
   }
 
@@ -243,10 +506,38 @@ public class GeoJsonSource extends Source {
    */
   @NonNull
   public List<Feature> querySourceFeatures(@Nullable Filter.Statement filter) {
-    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null);
+    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null, 0, true, null);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  /**
+   * Queries the source for features, returning only the parts of the features selected by the options.
+   *
+   * @param filter  an optional filter statement to filter the returned Features
+   * @param options the parts of the features to return
+   * @return the features
+   */
+  @NonNull
+  public List<Feature> querySourceFeatures(@Nullable Filter.Statement filter, @NonNull QueryOptions options) {
+    Feature[] features = querySourceFeatures(filter != null ? filter.toArray() : null,
+      options.getLimit(), options.hasGeometry(), options.getProperties());
+    return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
+  }
+
+  /**
+   * Queries the source for the ids of features, without converting the features themselves.
+   * Features without an id are left out.
+   *
+   * @param filter an optional filter statement to filter the returned Features
+   * @param limit  the maximum number of ids, 0 for no limit
+   * @return the feature ids
+   */
+  @NonNull
+  public List<String> querySourceFeatureIds(@Nullable Filter.Statement filter, @IntRange(from = 0) int limit) {
+    String[] ids = querySourceFeatureIds(filter != null ? filter.toArray() : null, limit);
+    return ids != null ? Arrays.asList(ids) : new ArrayList<String>();
+  }
+
   protected native void initialize(String layerId, Object options);
 
   protected native void nativeSetUrl(String url);
@@ -261,7 +552,25 @@ public class GeoJsonSource extends Source {
 
   private native void nativeSetGeometry(Geometry<?> geometry);
 
-  private native Feature[] querySourceFeatures(Object[] filter);
+  private native void nativeSetGeoJsonBuffer(ByteBuffer buffer, int position, int length);
+
+  private native void nativeSetFeatureBuffer(ByteBuffer buffer, int length);
+
+  private native void nativeSetGeoJsonStringAsync(String geoJson, SetGeoJsonCallback callback);
+
+  private native void nativeSetFeatureCollectionAsync(FeatureCollection geoJson, SetGeoJsonCallback callback);
+
+  private native void nativeAddFeatures(FeatureCollection features);
+
+  private native void nativeUpdateFeatures(FeatureCollection features);
+
+  private native void nativeRemoveFeatures(String[] ids);
+
+  private native void nativeRemoveNumericFeatures(long[] ids);
+
+  private native Feature[] querySourceFeatures(Object[] filter, int limit, boolean geometry, String[] properties);
+
+  private native String[] querySourceFeatureIds(Object[] filter, int limit);
 
   @Override
   protected native void finalize() throws Throwable;
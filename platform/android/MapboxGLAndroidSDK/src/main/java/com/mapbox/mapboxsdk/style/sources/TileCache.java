@@ -0,0 +1,280 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import android.support.annotation.NonNull;
+import android.support.annotation.Nullable;
+
+import com.google.gson.JsonObject;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.FeatureCollection;
+import com.mapbox.services.commons.geojson.Geometry;
+import com.mapbox.services.commons.models.Position;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A least recently used cache of the {@link GeometryTileProvider} or {@link VectorTileProvider} results of a
+ * {@link CustomGeometrySource}, so tiles the map requests again, for example when panning back and forth, aren't
+ * recomputed by the provider.
+ * <p>
+ * The size of cached features is estimated from their number of coordinates and properties, encoded tiles count
+ * with their size. Entries are removed when the tiles are invalidated with
+ * {@link CustomGeometrySource#invalidateTile(int, int, int)} or
+ * {@link CustomGeometrySource#invalidateRegion(LatLngBounds)}. A cache must not be shared between sources.
+ * </p>
+ */
+public final class TileCache {
+
+  // Rough sizes in memory of the parts of a feature collection
+  private static final int FEATURE_SIZE = 64;
+  private static final int POSITION_SIZE = 48;
+  private static final int PROPERTY_SIZE = 64;
+
+  // Invalidations remembered to discard the stale results of the tiles they affect
+  private static final int MAX_TRACKED_INVALIDATIONS = 64;
+
+  private final long maxSize;
+  private long size;
+  private long hitCount;
+  private long missCount;
+
+  // Incremented on every invalidation, results computed before an invalidation of their tile are discarded
+  private long generation;
+
+  // Results computed before this generation are discarded, raised when an invalidation is forgotten
+  private long oldestValidGeneration;
+  private final ArrayDeque<Invalidation> invalidations = new ArrayDeque<>();
+
+  private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+  /**
+   * Creates a cache with the given budget.
+   *
+   * @param maxSize the maximum estimated size of the cached features in bytes
+   */
+  public TileCache(long maxSize) {
+    this.maxSize = maxSize;
+  }
+
+  /**
+   * @return the maximum estimated size of the cached features in bytes
+   */
+  public long getMaxSize() {
+    return maxSize;
+  }
+
+  /**
+   * @return the current estimated size of the cached features in bytes
+   */
+  public synchronized long getSize() {
+    return size;
+  }
+
+  /**
+   * @return the number of tiles that are cached
+   */
+  public synchronized int getTileCount() {
+    return entries.size();
+  }
+
+  /**
+   * @return the number of tile requests answered from the cache
+   */
+  public synchronized long getHitCount() {
+    return hitCount;
+  }
+
+  /**
+   * @return the number of tile requests that had to go to the provider
+   */
+  public synchronized long getMissCount() {
+    return missCount;
+  }
+
+  /**
+   * @return the ratio of tile requests answered from the cache, between 0 and 1
+   */
+  public synchronized float getHitRate() {
+    long requestCount = hitCount + missCount;
+    return requestCount > 0 ? (float) hitCount / requestCount : 0;
+  }
+
+  /**
+   * Removes all tiles from the cache, the statistics are kept.
+   */
+  public synchronized void clear() {
+    entries.clear();
+    size = 0;
+    generation++;
+    invalidations.clear();
+    oldestValidGeneration = generation;
+  }
+
+  @Nullable
+  synchronized Object get(int z, int x, int y) {
+    Entry entry = entries.get(key(z, x, y));
+    if (entry == null) {
+      missCount++;
+      return null;
+    }
+    hitCount++;
+    return entry.data;
+  }
+
+  synchronized long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Caches the result of a tile, unless the tile has been invalidated since the given generation.
+   */
+  synchronized void put(int z, int x, int y, @NonNull Object data, long generation) {
+    if (isInvalidatedSince(key(z, x, y), generation)) {
+      return;
+    }
+
+    long dataSize = estimateSize(data);
+    if (dataSize > maxSize) {
+      return;
+    }
+
+    Entry previous = entries.put(key(z, x, y), new Entry(data, dataSize));
+    if (previous != null) {
+      size -= previous.size;
+    }
+    size += dataSize;
+
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (size > maxSize && eldest.hasNext()) {
+      size -= eldest.next().size;
+      eldest.remove();
+    }
+  }
+
+  synchronized void invalidate(int z, int x, int y) {
+    long key = key(z, x, y);
+    Entry entry = entries.remove(key);
+    if (entry != null) {
+      size -= entry.size;
+    }
+    track(new Invalidation(++generation, key, null));
+  }
+
+  synchronized void invalidate(@NonNull LatLngBounds bounds) {
+    Iterator<Map.Entry<Long, Entry>> iterator = entries.entrySet().iterator();
+    while (iterator.hasNext()) {
+      Map.Entry<Long, Entry> entry = iterator.next();
+      long key = entry.getKey();
+      if (intersects(tileBounds(key), bounds)) {
+        size -= entry.getValue().size;
+        iterator.remove();
+      }
+    }
+    track(new Invalidation(++generation, 0, bounds));
+  }
+
+  private void track(Invalidation invalidation) {
+    invalidations.addLast(invalidation);
+    if (invalidations.size() > MAX_TRACKED_INVALIDATIONS) {
+      oldestValidGeneration = invalidations.removeFirst().generation;
+    }
+  }
+
+  private boolean isInvalidatedSince(long key, long generation) {
+    if (generation < oldestValidGeneration) {
+      return true;
+    }
+
+    Iterator<Invalidation> iterator = invalidations.descendingIterator();
+    while (iterator.hasNext()) {
+      Invalidation invalidation = iterator.next();
+      if (invalidation.generation <= generation) {
+        break;
+      }
+      if (invalidation.bounds != null ? intersects(tileBounds(key), invalidation.bounds) : invalidation.key == key) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  // Packs the tile id, up to zoom level 28 fits
+  static long key(int z, int x, int y) {
+    return ((long) z << 58) | ((long) x << 29) | y;
+  }
+
+  private static LatLngBounds tileBounds(long key) {
+    return LatLngBounds.from((int) (key >>> 58), (int) (key >>> 29) & 0x1FFFFFFF, (int) key & 0x1FFFFFFF);
+  }
+
+  // Touching bounds intersect too, invalidating a tile too many is harmless
+  private static boolean intersects(LatLngBounds tile, LatLngBounds bounds) {
+    return tile.getLonWest() <= bounds.getLonEast() && tile.getLonEast() >= bounds.getLonWest()
+      && tile.getLatSouth() <= bounds.getLatNorth() && tile.getLatNorth() >= bounds.getLatSouth();
+  }
+
+  static long estimateSize(Object data) {
+    if (data instanceof ByteBuffer) {
+      return FEATURE_SIZE + ((ByteBuffer) data).remaining();
+    }
+    return estimateSize((FeatureCollection) data);
+  }
+
+  static long estimateSize(FeatureCollection collection) {
+    long result = FEATURE_SIZE;
+    List<Feature> features = collection.getFeatures();
+    if (features != null) {
+      for (Feature feature : features) {
+        result += FEATURE_SIZE + POSITION_SIZE * countPositions(feature.getGeometry());
+        JsonObject properties = feature.getProperties();
+        if (properties != null) {
+          result += PROPERTY_SIZE * properties.entrySet().size();
+        }
+      }
+    }
+    return result;
+  }
+
+  private static long countPositions(Object coordinates) {
+    if (coordinates instanceof Geometry) {
+      return countPositions(((Geometry) coordinates).getCoordinates());
+    } else if (coordinates instanceof List) {
+      long count = 0;
+      for (Object child : (List) coordinates) {
+        count += countPositions(child);
+      }
+      return count;
+    } else if (coordinates instanceof Position) {
+      return 1;
+    }
+    return 0;
+  }
+
+  private static class Entry {
+    final Object data;
+    final long size;
+
+    Entry(Object data, long size) {
+      this.data = data;
+      this.size = size;
+    }
+  }
+
+  // An invalidation of a single tile, or of the tiles intersecting the bounds if set
+  private static class Invalidation {
+    final long generation;
+    final long key;
+    final LatLngBounds bounds;
+
+    Invalidation(long generation, long key, LatLngBounds bounds) {
+      this.generation = generation;
+      this.key = key;
+      this.bounds = bounds;
+    }
+  }
+}
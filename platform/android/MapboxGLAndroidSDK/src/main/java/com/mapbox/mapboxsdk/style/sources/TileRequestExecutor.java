@@ -0,0 +1,148 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import android.support.annotation.NonNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs the {@link GeometryTileProvider} requests of {@link CustomGeometrySource}s.
+ * <p>
+ * By default all sources share {@link #getDefault()}, a bounded pool whose threads stop when idle. Requests are run
+ * newest first: the tiles the map requested last are the ones currently on screen, at the zoom level it's heading to.
+ * Requests for tiles that are no longer needed are dropped from the queue before they reach the provider.
+ * </p>
+ */
+public final class TileRequestExecutor {
+
+  private static final int DEFAULT_THREAD_COUNT = 4;
+  private static final long KEEP_ALIVE_SECONDS = 30;
+
+  private static TileRequestExecutor defaultExecutor;
+
+  private final Executor executor;
+  private final PriorityBlockingQueue<Request> queue = new PriorityBlockingQueue<>();
+  private final AtomicLong sequence = new AtomicLong();
+
+  private final AtomicLong completedCount = new AtomicLong();
+  private final AtomicLong totalProviderNanos = new AtomicLong();
+  private final AtomicLong maxProviderNanos = new AtomicLong();
+
+  // Runs the request of the highest priority, whichever it is by now
+  private final Runnable next = new Runnable() {
+    @Override
+    public void run() {
+      Request request = queue.poll();
+      if (request != null) {
+        request.run();
+      }
+    }
+  };
+
+  /**
+   * @return the executor shared by the sources that aren't given one
+   */
+  public static synchronized TileRequestExecutor getDefault() {
+    if (defaultExecutor == null) {
+      defaultExecutor = new TileRequestExecutor(DEFAULT_THREAD_COUNT);
+    }
+    return defaultExecutor;
+  }
+
+  /**
+   * Creates an executor with its own pool of threads, which are stopped when idle.
+   *
+   * @param threadCount the maximum number of concurrent provider requests
+   */
+  public TileRequestExecutor(int threadCount) {
+    ThreadPoolExecutor pool = new ThreadPoolExecutor(threadCount, threadCount, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+      new LinkedBlockingQueue<Runnable>(), new TileThreadFactory());
+    pool.allowCoreThreadTimeOut(true);
+    executor = pool;
+  }
+
+  /**
+   * Creates an executor running the provider requests on the given executor, for example the thread pool of the
+   * application. The requests are still prioritized, the given executor only provides the threads.
+   *
+   * @param executor the executor to run the requests on
+   */
+  public TileRequestExecutor(@NonNull Executor executor) {
+    this.executor = executor;
+  }
+
+  /**
+   * @return the number of requests waiting for a thread
+   */
+  public int getQueueSize() {
+    return queue.size();
+  }
+
+  /**
+   * @return the number of provider requests that have completed
+   */
+  public long getCompletedCount() {
+    return completedCount.get();
+  }
+
+  /**
+   * @return the average time the providers took for a tile, in milliseconds
+   */
+  public double getAverageProviderTime() {
+    long count = completedCount.get();
+    return count > 0 ? totalProviderNanos.get() / 1e6 / count : 0;
+  }
+
+  /**
+   * @return the longest time a provider took for a tile, in milliseconds
+   */
+  public double getMaxProviderTime() {
+    return maxProviderNanos.get() / 1e6;
+  }
+
+  void execute(Request request) {
+    request.sequence = sequence.incrementAndGet();
+    queue.add(request);
+    executor.execute(next);
+  }
+
+  boolean cancel(Request request) {
+    return queue.remove(request);
+  }
+
+  void recordProviderTime(long nanos) {
+    completedCount.incrementAndGet();
+    totalProviderNanos.addAndGet(nanos);
+    long max = maxProviderNanos.get();
+    while (nanos > max && !maxProviderNanos.compareAndSet(max, nanos)) {
+      max = maxProviderNanos.get();
+    }
+  }
+
+  /**
+   * A queued request, the most recent one has the highest priority.
+   */
+  abstract static class Request implements Runnable, Comparable<Request> {
+    private long sequence;
+
+    @Override
+    public int compareTo(@NonNull Request other) {
+      return sequence > other.sequence ? -1 : (sequence < other.sequence ? 1 : 0);
+    }
+  }
+
+  private static class TileThreadFactory implements ThreadFactory {
+    private static final AtomicInteger THREAD_COUNT = new AtomicInteger();
+
+    @Override
+    public Thread newThread(@NonNull Runnable runnable) {
+      return new Thread(runnable, "CustomGeometrySource-" + THREAD_COUNT.incrementAndGet());
+    }
+  }
+}
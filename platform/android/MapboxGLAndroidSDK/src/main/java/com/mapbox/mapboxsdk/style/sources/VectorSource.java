@@ -1,11 +1,13 @@
 package com.mapbox.mapboxsdk.style.sources;
 
+import android.support.annotation.IntRange;
 import android.support.annotation.NonNull;
 import android.support.annotation.Nullable;
 import android.support.annotation.Size;
 import android.support.annotation.UiThread;
 
 import com.mapbox.mapboxsdk.style.layers.Filter;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.services.commons.geojson.Feature;
 
 import java.net.URL;
@@ -72,10 +74,52 @@ public class VectorSource extends Source {
                                            @Nullable Filter.Statement filter) {
     Feature[] features = querySourceFeatures(
       sourceLayerIds,
-      filter != null ? filter.toArray() : null);
+      filter != null ? filter.toArray() : null,
+      0, true, null);
     return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
   }
 
+  /**
+   * Queries the source for features, returning only the parts of the features selected by the options.
+   *
+   * @param sourceLayerIds the source layer identifiers. At least one must be specified.
+   * @param filter         an optional filter statement to filter the returned Features
+   * @param options        the parts of the features to return
+   * @return the features
+   */
+  @NonNull
+  public List<Feature> querySourceFeatures(@Size(min = 1) String[] sourceLayerIds,
+                                           @Nullable Filter.Statement filter,
+                                           @NonNull QueryOptions options) {
+    Feature[] features = querySourceFeatures(
+      sourceLayerIds,
+      filter != null ? filter.toArray() : null,
+      options.getLimit(),
+      options.hasGeometry(),
+      options.getProperties());
+    return features != null ? Arrays.asList(features) : new ArrayList<Feature>();
+  }
+
+  /**
+   * Queries the source for the ids of features, without converting the features themselves.
+   * Features without an id are left out.
+   *
+   * @param sourceLayerIds the source layer identifiers. At least one must be specified.
+   * @param filter         an optional filter statement to filter the returned Features
+   * @param limit          the maximum number of ids, 0 for no limit
+   * @return the feature ids
+   */
+  @NonNull
+  public List<String> querySourceFeatureIds(@Size(min = 1) String[] sourceLayerIds,
+                                            @Nullable Filter.Statement filter,
+                                            @IntRange(from = 0) int limit) {
+    String[] ids = querySourceFeatureIds(
+      sourceLayerIds,
+      filter != null ? filter.toArray() : null,
+      limit);
+    return ids != null ? Arrays.asList(ids) : new ArrayList<String>();
+  }
+
   /**
    * @return The url or null
    */
@@ -92,6 +136,13 @@ public class VectorSource extends Source {
   protected native String nativeGetUrl();
 
   private native Feature[] querySourceFeatures(String[] sourceLayerId,
-                                               Object[] filter);
+                                               Object[] filter,
+                                               int limit,
+                                               boolean geometry,
+                                               String[] properties);
+
+  private native String[] querySourceFeatureIds(String[] sourceLayerId,
+                                                Object[] filter,
+                                                int limit);
 
 }
@@ -0,0 +1,32 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import android.support.annotation.Nullable;
+import android.support.annotation.WorkerThread;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Interface for {@link CustomGeometrySource}s whose tiles are already encoded as Mapbox Vector Tiles, for example
+ * by a backend or in a local tile database. The encoded tiles are parsed as is, without building features and
+ * tiling them first.
+ */
+public interface VectorTileProvider {
+
+  /**
+   * Interface method called by {@link CustomGeometrySource} to request an encoded tile.
+   * <p>
+   * The bytes between the position and the limit of the buffer are used, they must not be compressed.
+   * Direct buffers, for example memory-mapped files, are read without an intermediate Java copy.
+   * Style layers select a layer of the tile with their source layer, the first layer of the tile is used
+   * if they have none.
+   * </p>
+   *
+   * @param zoomLevel Tile zoom level.
+   * @param x         Tile X coordinate.
+   * @param y         Tile Y coordinate.
+   * @return the encoded tile, or null if there's no data for the tile
+   */
+  @WorkerThread
+  @Nullable
+  ByteBuffer getVectorTile(int zoomLevel, int x, int y);
+}
@@ -11,6 +11,8 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.lang.reflect.Field;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
 
 import static junit.framework.TestCase.assertNotNull;
 import static junit.framework.TestCase.assertSame;
@@ -18,7 +20,10 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotEquals;
 import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 public class MapboxTest {
@@ -82,8 +87,33 @@ public class MapboxTest {
     assertTrue(Mapbox.isConnected());
   }
 
+  @Test
+  public void testPreloadAsyncOnlyOnce() {
+    Executor preloadExecutor = mock(Executor.class);
+    injectMapboxSingleton(new Mapbox(appContext, "dummy", locationSource, preloadExecutor));
+    Future<Void> preload = Mapbox.preloadAsync();
+    assertSame(preload, Mapbox.preloadAsync(mock(Mapbox.PreloadCallback.class)));
+    assertFalse(preload.isDone());
+    verify(preloadExecutor, times(1)).execute(any(Runnable.class));
+  }
+
+  @Test(expected = MapboxConfigurationException.class)
+  public void testPreloadAsyncWithoutInstance() {
+    try {
+      Field field = Mapbox.class.getDeclaredField("INSTANCE");
+      field.setAccessible(true);
+      field.set(null, null);
+    } catch (Exception exception) {
+      throw new AssertionError();
+    }
+    Mapbox.preloadAsync();
+  }
+
   private void injectMapboxSingleton(String accessToken) {
-    Mapbox mapbox = new Mapbox(appContext, accessToken, locationSource);
+    injectMapboxSingleton(new Mapbox(appContext, accessToken, locationSource));
+  }
+
+  private void injectMapboxSingleton(Mapbox mapbox) {
     try {
       Field field = Mapbox.class.getDeclaredField("INSTANCE");
       field.setAccessible(true);
@@ -0,0 +1,102 @@
+package com.mapbox.mapboxsdk.maps;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+public class MapStartupTraceTest {
+
+  @Test
+  public void testSynchronousSpan() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.endSpan(MapStartupTrace.SPAN_INITIALISE);
+
+    MapStartupTrace.Span span = trace.getSpan(MapStartupTrace.SPAN_INITIALISE);
+    assertNotNull(span);
+    assertEquals(trace.getOriginNanos(), span.getStartNanos());
+    assertTrue(span.getDurationMillis() >= 0);
+  }
+
+  @Test
+  public void testOpenSpan() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_DRAWING_SURFACE);
+    assertEquals(-1, trace.getSpan(MapStartupTrace.SPAN_DRAWING_SURFACE).getDurationMillis(), 0);
+  }
+
+  @Test
+  public void testMapChangesBeforeStartIgnored() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME_FULLY_RENDERED);
+    assertFalse(trace.isComplete());
+    assertTrue(trace.getSpans().isEmpty());
+  }
+
+  @Test
+  public void testStyleSpan() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.onMapChange(MapView.WILL_START_LOADING_MAP);
+    assertEquals(-1, trace.getSpan(MapStartupTrace.SPAN_STYLE).getEndNanos());
+    trace.onMapChange(MapView.DID_FINISH_LOADING_STYLE);
+    assertTrue(trace.getSpan(MapStartupTrace.SPAN_STYLE).getEndNanos() >= 0);
+  }
+
+  @Test
+  public void testMilestonesRecordedOnce() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME);
+    MapStartupTrace.Span firstFrame = trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FRAME);
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME);
+    assertEquals(firstFrame, trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FRAME));
+    assertEquals(trace.getOriginNanos(), firstFrame.getStartNanos());
+    assertNull(trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FULL_FRAME));
+  }
+
+  @Test
+  public void testCompleteNotifiesListener() {
+    MapStartupTrace trace = new MapStartupTrace();
+    MapStartupTrace.OnTraceCompleteListener listener = mock(MapStartupTrace.OnTraceCompleteListener.class);
+    trace.setOnTraceCompleteListener(listener);
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.onMapChange(MapView.SOURCE_DID_CHANGE);
+    verify(listener, never()).onTraceComplete(trace);
+
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME_FULLY_RENDERED);
+    assertTrue(trace.isComplete());
+    assertNotNull(trace.getSpan(MapStartupTrace.MILESTONE_FIRST_TILE_REQUEST));
+    assertNotNull(trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FRAME));
+    assertNotNull(trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FULL_FRAME));
+    verify(listener).onTraceComplete(trace);
+  }
+
+  @Test
+  public void testListenerAfterComplete() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME_FULLY_RENDERED);
+
+    MapStartupTrace.OnTraceCompleteListener listener = mock(MapStartupTrace.OnTraceCompleteListener.class);
+    trace.setOnTraceCompleteListener(listener);
+    verify(listener).onTraceComplete(trace);
+  }
+
+  @Test
+  public void testNoSpansAfterComplete() {
+    MapStartupTrace trace = new MapStartupTrace();
+    trace.beginSpan(MapStartupTrace.SPAN_INITIALISE);
+    trace.onMapChange(MapView.DID_FINISH_RENDERING_FRAME_FULLY_RENDERED);
+    int size = trace.getSpans().size();
+    trace.beginSpan(MapStartupTrace.SPAN_NATIVE_MAP_VIEW);
+    assertEquals(size, trace.getSpans().size());
+  }
+}
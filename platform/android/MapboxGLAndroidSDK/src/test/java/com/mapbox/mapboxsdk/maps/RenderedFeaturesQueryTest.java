@@ -0,0 +1,118 @@
+package com.mapbox.mapboxsdk.maps;
+
+import com.mapbox.services.commons.geojson.Feature;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+public class RenderedFeaturesQueryTest {
+
+  private RenderedFeaturesQuery query;
+  private MapboxMap.QueryRenderedFeaturesCallback callback;
+
+  @Before
+  public void beforeTest() {
+    query = new RenderedFeaturesQuery();
+    callback = mock(MapboxMap.QueryRenderedFeaturesCallback.class);
+  }
+
+  @Test
+  public void testDeliver() {
+    query.start(1, System.nanoTime(), callback);
+    assertTrue(query.isPending());
+    query.deliver(1, new Feature[0], 2.0);
+    verify(callback).onResult(anyList(), eq(2.0), anyDouble());
+    verify(callback, never()).onCancel();
+    assertFalse(query.isPending());
+  }
+
+  @Test
+  public void testDeliverWithoutFeatures() {
+    query.start(1, System.nanoTime(), callback);
+    query.deliver(1, null, 2.0);
+    verify(callback).onResult(eq(Collections.<Feature>emptyList()), eq(2.0), anyDouble());
+  }
+
+  @Test
+  public void testDeliverOnce() {
+    query.start(1, System.nanoTime(), callback);
+    query.deliver(1, new Feature[0], 2.0);
+    query.deliver(1, new Feature[0], 2.0);
+    query.cancel();
+    verify(callback, times(1)).onResult(anyList(), anyDouble(), anyDouble());
+    verify(callback, never()).onCancel();
+  }
+
+  @Test
+  public void testSupersede() {
+    MapboxMap.QueryRenderedFeaturesCallback latest = mock(MapboxMap.QueryRenderedFeaturesCallback.class);
+    query.start(1, System.nanoTime(), callback);
+    query.start(2, System.nanoTime(), latest);
+    verify(callback).onCancel();
+
+    // A late result of the superseded query is dropped
+    query.deliver(1, new Feature[0], 2.0);
+    verify(callback, never()).onResult(anyList(), anyDouble(), anyDouble());
+    verify(latest, never()).onResult(anyList(), anyDouble(), anyDouble());
+
+    query.deliver(2, new Feature[0], 2.0);
+    verify(latest).onResult(anyList(), anyDouble(), anyDouble());
+    verify(latest, never()).onCancel();
+  }
+
+  @Test
+  public void testSupersedeFromOnCancel() {
+    final MapboxMap.QueryRenderedFeaturesCallback latest = mock(MapboxMap.QueryRenderedFeaturesCallback.class);
+    final MapboxMap.QueryRenderedFeaturesCallback second = mock(MapboxMap.QueryRenderedFeaturesCallback.class);
+    doAnswer(new Answer<Void>() {
+      @Override
+      public Void answer(InvocationOnMock invocation) throws Throwable {
+        query.start(3, System.nanoTime(), latest);
+        return null;
+      }
+    }).when(callback).onCancel();
+
+    query.start(1, System.nanoTime(), callback);
+    query.start(2, System.nanoTime(), second);
+    verify(second).onCancel();
+
+    query.deliver(3, new Feature[0], 2.0);
+    verify(latest).onResult(anyList(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void testCancel() {
+    query.start(1, System.nanoTime(), callback);
+    query.cancel();
+    verify(callback).onCancel();
+    assertFalse(query.isPending());
+
+    // Cancelling again, or a late result, doesn't notify the callback again
+    query.cancel();
+    query.deliver(1, new Feature[0], 2.0);
+    verify(callback, times(1)).onCancel();
+    verify(callback, never()).onResult(anyList(), anyDouble(), anyDouble());
+  }
+
+  @Test
+  public void testCancelWithoutQuery() {
+    assertFalse(query.isPending());
+    query.cancel();
+    query.deliver(0, new Feature[0], 2.0);
+  }
+}
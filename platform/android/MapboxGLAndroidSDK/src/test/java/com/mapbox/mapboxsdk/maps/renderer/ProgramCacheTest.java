@@ -0,0 +1,94 @@
+package com.mapbox.mapboxsdk.maps.renderer;
+
+import android.content.Context;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ProgramCacheTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private Context context;
+
+  @Before
+  public void beforeTest() {
+    context = mock(Context.class);
+    when(context.getCacheDir()).thenReturn(folder.getRoot());
+  }
+
+  @Test
+  public void testSize() throws IOException {
+    createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    createFile("com.mapbox.gl.shader.line.0000000000000001.pbf", 50);
+    createFile("mbgl-offline.db", 1000);
+    assertEquals(150, ProgramCache.getSize(context));
+  }
+
+  @Test
+  public void testClear() throws IOException {
+    createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    File other = createFile("mbgl-offline.db", 1000);
+    ProgramCache.clear(context);
+    assertEquals(0, ProgramCache.getSize(context));
+    assertTrue(other.exists());
+  }
+
+  @Test
+  public void testTrimRemovesOldestFirst() throws IOException {
+    File oldest = createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    File newest = createFile("com.mapbox.gl.shader.line.0000000000000001.pbf", 100);
+    assertTrue(oldest.setLastModified(1000));
+    assertTrue(newest.setLastModified(2000));
+
+    assertEquals(100, ProgramCache.trim(context, 150));
+    assertFalse(oldest.exists());
+    assertTrue(newest.exists());
+  }
+
+  @Test
+  public void testTrimWithinLimit() throws IOException {
+    createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    assertEquals(100, ProgramCache.trim(context, 100));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTrimNegativeSize() {
+    ProgramCache.trim(context, -1);
+  }
+
+  @Test
+  public void testValidate() throws IOException {
+    createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    assertTrue(ProgramCache.validate(context));
+    assertEquals(0, ProgramCache.getSize(context));
+
+    createFile("com.mapbox.gl.shader.fill.0000000000000001.pbf", 100);
+    assertFalse(ProgramCache.validate(context));
+    assertEquals(100, ProgramCache.getSize(context));
+  }
+
+  private File createFile(String name, int size) throws IOException {
+    File file = folder.newFile(name);
+    FileOutputStream outputStream = new FileOutputStream(file);
+    try {
+      outputStream.write(new byte[size]);
+    } finally {
+      outputStream.close();
+    }
+    return file;
+  }
+}
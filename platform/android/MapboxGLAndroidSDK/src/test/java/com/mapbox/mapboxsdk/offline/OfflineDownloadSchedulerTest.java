@@ -0,0 +1,247 @@
+package com.mapbox.mapboxsdk.offline;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_SELF;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class OfflineDownloadSchedulerTest {
+
+  private TestScheduler scheduler;
+  private Handler handler;
+  private SharedPreferences.Editor editor;
+  private OfflineDownloadScheduler.OfflineDownloadListener listener;
+
+  @Before
+  public void beforeTest() {
+    Context context = mock(Context.class);
+    SharedPreferences preferences = mock(SharedPreferences.class);
+    editor = mock(SharedPreferences.Editor.class, RETURNS_SELF);
+    when(context.getSharedPreferences(anyString(), anyInt())).thenReturn(preferences);
+    when(preferences.edit()).thenReturn(editor);
+    handler = mock(Handler.class);
+    listener = mock(OfflineDownloadScheduler.OfflineDownloadListener.class);
+    scheduler = new TestScheduler(context, handler);
+    scheduler.setListener(listener);
+  }
+
+  @Test
+  public void testConcurrency() {
+    OfflineRegion first = region(1);
+    OfflineRegion second = region(2);
+    OfflineRegion third = region(3);
+    scheduler.schedule(first, 0);
+    scheduler.schedule(second, 0);
+    scheduler.schedule(third, 0);
+
+    verify(first).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    verify(second).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    verify(third, never()).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    assertEquals(2, scheduler.getProgress().getActiveRegionCount());
+    assertEquals(1, scheduler.getProgress().getPendingRegionCount());
+  }
+
+  @Test
+  public void testPriorityPreemption() {
+    OfflineRegion first = region(1);
+    OfflineRegion second = region(2);
+    OfflineRegion urgent = region(3);
+    scheduler.schedule(first, 0);
+    scheduler.schedule(second, 0);
+    scheduler.schedule(urgent, 1);
+
+    verify(urgent).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    verify(second).setDownloadState(OfflineRegion.STATE_INACTIVE);
+    verify(first, never()).setDownloadState(OfflineRegion.STATE_INACTIVE);
+  }
+
+  @Test
+  public void testCompletionStartsNext() {
+    OfflineRegion first = region(1);
+    OfflineRegion second = region(2);
+    OfflineRegion third = region(3);
+    OfflineRegion.OfflineRegionObserver observer = schedule(first);
+    scheduler.schedule(second, 0);
+    scheduler.schedule(third, 0);
+
+    observer.onStatusChanged(status(10, 10, 1000));
+    verify(first).setDownloadState(OfflineRegion.STATE_INACTIVE);
+    verify(first).setObserver(null);
+    verify(third).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    verify(listener).onRegionComplete(first);
+    verify(editor).remove("1");
+    assertFalse(scheduler.isScheduled(first));
+    assertEquals(1, scheduler.getProgress().getCompletedRegionCount());
+  }
+
+  @Test
+  public void testTileCountLimitExceeded() {
+    OfflineRegion region = region(1);
+    OfflineRegion.OfflineRegionObserver observer = schedule(region);
+    observer.mapboxTileCountLimitExceeded(6000);
+    assertFalse(scheduler.isScheduled(region));
+    verify(listener).onTileCountLimitExceeded(region, 6000);
+  }
+
+  @Test
+  public void testPauseResume() {
+    OfflineRegion region = region(1);
+    scheduler.schedule(region, 0);
+    scheduler.pause();
+    verify(region).setDownloadState(OfflineRegion.STATE_INACTIVE);
+    assertTrue(scheduler.getProgress().isSuspended());
+    scheduler.resume();
+    verify(region, times(2)).setDownloadState(OfflineRegion.STATE_ACTIVE);
+  }
+
+  @Test
+  public void testThroughput() {
+    OfflineRegion region = region(1);
+    OfflineRegion.OfflineRegionObserver observer = schedule(region);
+    observer.onStatusChanged(status(1, 10, 5000));
+    scheduler.now = 1000;
+    observer.onStatusChanged(status(2, 10, 6000));
+    scheduler.now = 2000;
+    observer.onStatusChanged(status(3, 10, 8000));
+
+    OfflineDownloadScheduler.Progress progress = scheduler.getProgress();
+    assertEquals(3000, progress.getDownloadedBytes());
+    assertEquals(1500, progress.getBytesPerSecond());
+  }
+
+  @Test
+  public void testBandwidthBudget() {
+    scheduler.setOptions(new OfflineDownloadScheduler.Options().withMaxBytesPerSecond(1000));
+    OfflineRegion region = region(1);
+    OfflineRegion.OfflineRegionObserver observer = schedule(region);
+    observer.onStatusChanged(status(1, 10, 0));
+    scheduler.now = 1000;
+    observer.onStatusChanged(status(2, 10, 500));
+    verify(region, never()).setDownloadState(OfflineRegion.STATE_INACTIVE);
+
+    observer.onStatusChanged(status(3, 10, 3000));
+    verify(region).setDownloadState(OfflineRegion.STATE_INACTIVE);
+    ArgumentCaptor<Runnable> resume = ArgumentCaptor.forClass(Runnable.class);
+    verify(handler).postDelayed(resume.capture(), eq(2000L));
+
+    resume.getValue().run();
+    verify(region, times(2)).setDownloadState(OfflineRegion.STATE_ACTIVE);
+  }
+
+  @Test
+  public void testStorageBudget() {
+    scheduler.databaseSize = 2000;
+    scheduler.setOptions(new OfflineDownloadScheduler.Options().withMaxStorageBytes(1000));
+    verify(listener).onStorageLimitReached(2000);
+
+    OfflineRegion region = region(1);
+    scheduler.schedule(region, 0);
+    verify(region, never()).setDownloadState(OfflineRegion.STATE_ACTIVE);
+
+    scheduler.setOptions(new OfflineDownloadScheduler.Options().withMaxStorageBytes(4000));
+    verify(region).setDownloadState(OfflineRegion.STATE_ACTIVE);
+  }
+
+  @Test
+  public void testSchedulePersists() {
+    OfflineRegion region = region(7);
+    scheduler.schedule(region, 3);
+    verify(editor).putInt("7", 3);
+    scheduler.unschedule(region);
+    verify(editor).remove("7");
+  }
+
+  @Test
+  public void testRescheduleChangesPriority() {
+    OfflineRegion first = region(1);
+    OfflineRegion second = region(2);
+    OfflineRegion third = region(3);
+    scheduler.schedule(first, 0);
+    scheduler.schedule(second, 0);
+    scheduler.schedule(third, 0);
+    scheduler.schedule(third, 1);
+
+    verify(third).setDownloadState(OfflineRegion.STATE_ACTIVE);
+    verify(second).setDownloadState(OfflineRegion.STATE_INACTIVE);
+    verify(third, times(1))
+      .setObserver(any(OfflineRegion.OfflineRegionObserver.class), any(OfflineRegion.ObserverOptions.class));
+  }
+
+  @Test
+  public void testObserverInvokedOnMainThread() {
+    OfflineRegion region = region(1);
+    scheduler.schedule(region, 0);
+    ArgumentCaptor<OfflineRegion.ObserverOptions> options =
+      ArgumentCaptor.forClass(OfflineRegion.ObserverOptions.class);
+    verify(region).setObserver(any(OfflineRegion.OfflineRegionObserver.class), options.capture());
+
+    Runnable runnable = mock(Runnable.class);
+    options.getValue().getExecutor().execute(runnable);
+    verify(handler).post(runnable);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidConcurrency() {
+    new OfflineDownloadScheduler.Options().withMaxConcurrentDownloads(0);
+  }
+
+  private OfflineRegion.OfflineRegionObserver schedule(OfflineRegion region) {
+    scheduler.schedule(region, 0);
+    ArgumentCaptor<OfflineRegion.OfflineRegionObserver> observer =
+      ArgumentCaptor.forClass(OfflineRegion.OfflineRegionObserver.class);
+    verify(region).setObserver(observer.capture(), any(OfflineRegion.ObserverOptions.class));
+    return observer.getValue();
+  }
+
+  private static OfflineRegion region(long id) {
+    OfflineRegion region = mock(OfflineRegion.class);
+    when(region.getID()).thenReturn(id);
+    return region;
+  }
+
+  private static OfflineRegionStatus status(long completed, long required, long size) {
+    OfflineRegionStatus status = mock(OfflineRegionStatus.class);
+    when(status.getCompletedResourceCount()).thenReturn(completed);
+    when(status.getRequiredResourceCount()).thenReturn(required);
+    when(status.getCompletedResourceSize()).thenReturn(size);
+    when(status.isRequiredResourceCountPrecise()).thenReturn(true);
+    return status;
+  }
+
+  private static class TestScheduler extends OfflineDownloadScheduler {
+
+    private long now;
+    private long databaseSize;
+
+    TestScheduler(Context context, Handler handler) {
+      super(context, handler);
+    }
+
+    @Override
+    long elapsedRealtime() {
+      return now;
+    }
+
+    @Override
+    long getDatabaseSize() {
+      return databaseSize;
+    }
+  }
+}
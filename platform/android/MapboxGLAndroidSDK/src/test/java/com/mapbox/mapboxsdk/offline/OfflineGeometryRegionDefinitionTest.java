@@ -0,0 +1,69 @@
+package com.mapbox.mapboxsdk.offline;
+
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.MultiPolygon;
+import com.mapbox.services.commons.geojson.Polygon;
+import com.mapbox.services.commons.models.Position;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class OfflineGeometryRegionDefinitionTest {
+
+  private static final double DELTA = 1e-6;
+
+  @Test
+  public void testPolygonBounds() {
+    List<Position> ring = Arrays.asList(
+      Position.fromCoordinates(-122.5, 37.6),
+      Position.fromCoordinates(-122.3, 37.7),
+      Position.fromCoordinates(-122.4, 37.8),
+      Position.fromCoordinates(-122.5, 37.6));
+    List<List<Position>> coordinates = new ArrayList<>();
+    coordinates.add(ring);
+    OfflineGeometryRegionDefinition definition = new OfflineGeometryRegionDefinition(
+      "style", Polygon.fromCoordinates(coordinates), 0, 10, 1.0f);
+
+    LatLngBounds bounds = definition.getBounds();
+    assertEquals(37.8, bounds.getLatNorth(), DELTA);
+    assertEquals(37.6, bounds.getLatSouth(), DELTA);
+    assertEquals(-122.3, bounds.getLonEast(), DELTA);
+    assertEquals(-122.5, bounds.getLonWest(), DELTA);
+  }
+
+  @Test
+  public void testCorridor() {
+    List<LatLng> route = Arrays.asList(new LatLng(0, 0), new LatLng(0, 1), new LatLng(1, 1));
+    OfflineGeometryRegionDefinition definition =
+      OfflineGeometryRegionDefinition.fromCorridor("style", route, 1000, 0, 10, 1.0f);
+
+    // A cap for every point and a rectangle for every segment
+    assertTrue(definition.getGeometry() instanceof MultiPolygon);
+    assertEquals(5, ((MultiPolygon) definition.getGeometry()).getCoordinates().size());
+
+    // The buffer of 1 km is about 0.009 degrees at the equator
+    LatLngBounds bounds = definition.getBounds();
+    assertTrue(bounds.getLatSouth() < -0.0089 && bounds.getLatSouth() > -0.0095);
+    assertTrue(bounds.getLatNorth() > 1.0089 && bounds.getLatNorth() < 1.0095);
+    assertTrue(bounds.getLonWest() < -0.0089 && bounds.getLonWest() > -0.0095);
+    assertTrue(bounds.getLonEast() > 1.0089 && bounds.getLonEast() < 1.0095);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testEmptyCorridor() {
+    OfflineGeometryRegionDefinition.fromCorridor("style", Collections.<LatLng>emptyList(), 1000, 0, 10, 1.0f);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testInvalidBuffer() {
+    OfflineGeometryRegionDefinition.fromCorridor("style", Collections.singletonList(new LatLng(0, 0)), 0, 0, 10, 1.0f);
+  }
+}
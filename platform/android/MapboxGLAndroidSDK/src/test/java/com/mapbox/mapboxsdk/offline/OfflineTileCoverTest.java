@@ -0,0 +1,123 @@
+package com.mapbox.mapboxsdk.offline;
+
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.LineString;
+import com.mapbox.services.commons.geojson.Polygon;
+import com.mapbox.services.commons.models.Position;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class OfflineTileCoverTest {
+
+  private static final LatLngBounds SAN_FRANCISCO = LatLngBounds.from(37.8271, -122.3204, 37.6609, -122.5744);
+
+  @Test
+  public void testTilePyramid() {
+    OfflineTileCover cover = new OfflineTileCover(
+      new OfflineTilePyramidRegionDefinition("style", SAN_FRANCISCO, 0, 10, 1.0f));
+    assertEquals(1, cover.getTileCount(0));
+    assertEquals(4, cover.getTileCount(10));
+    assertEquals(0, cover.getTileCount(11));
+
+    OfflineTileCover world = new OfflineTileCover(
+      new OfflineTilePyramidRegionDefinition("style", LatLngBounds.world(), 0, 1, 1.0f));
+    assertEquals(5, world.getTileCount());
+  }
+
+  @Test
+  public void testZoomRange() {
+    OfflineTilePyramidRegionDefinition definition =
+      new OfflineTilePyramidRegionDefinition("style", SAN_FRANCISCO, 0.6, Double.POSITIVE_INFINITY, 1.0f);
+    OfflineTileCover vector = new OfflineTileCover(definition).withSourceZoomRange(0, 14);
+    assertEquals(0, vector.getMinZoom());
+    assertEquals(14, vector.getMaxZoom());
+
+    OfflineTileCover raster = new OfflineTileCover(definition).withRasterSource(true).withTileSize(256);
+    assertEquals(2, raster.getMinZoom());
+    assertEquals(22, raster.getMaxZoom());
+  }
+
+  @Test
+  public void testLineString() {
+    LineString line = LineString.fromCoordinates(Arrays.asList(
+      Position.fromCoordinates(-135, 66), Position.fromCoordinates(135, -66)));
+    OfflineTileCover cover = new OfflineTileCover(new OfflineGeometryRegionDefinition("style", line, 3, 3, 1.0f));
+
+    // Only the tiles the line passes through, not the 28 tiles of its bounding box
+    final List<int[]> tiles = new ArrayList<>();
+    cover.forEachTile(new OfflineTileCover.TileVisitor() {
+      @Override
+      public boolean onTile(int zoom, int x, int y) {
+        tiles.add(new int[] {zoom, x, y});
+        return true;
+      }
+    });
+    assertArrayEquals(new int[][] {
+      {3, 1, 2}, {3, 2, 2}, {3, 2, 3}, {3, 3, 3}, {3, 4, 3},
+      {3, 4, 4}, {3, 5, 4}, {3, 5, 5}, {3, 6, 5}, {3, 7, 5}
+    }, tiles.toArray(new int[0][]));
+    assertEquals(10, cover.getTileCount());
+  }
+
+  @Test
+  public void testPolygon() {
+    List<List<Position>> triangle = new ArrayList<>();
+    triangle.add(Arrays.asList(Position.fromCoordinates(-180, -85), Position.fromCoordinates(180, -85),
+      Position.fromCoordinates(-180, 85), Position.fromCoordinates(-180, -85)));
+    OfflineTileCover cover = new OfflineTileCover(
+      new OfflineGeometryRegionDefinition("style", Polygon.fromCoordinates(triangle), 5, 5, 1.0f));
+    assertEquals(543, cover.getTileCount());
+  }
+
+  @Test
+  public void testPolygonWithHole() {
+    List<List<Position>> polygon = new ArrayList<>();
+    polygon.add(Arrays.asList(Position.fromCoordinates(-180, -85), Position.fromCoordinates(180, -85),
+      Position.fromCoordinates(180, 85), Position.fromCoordinates(-180, 85), Position.fromCoordinates(-180, -85)));
+    polygon.add(Arrays.asList(Position.fromCoordinates(-90, -40), Position.fromCoordinates(90, -40),
+      Position.fromCoordinates(90, 40), Position.fromCoordinates(-90, 40), Position.fromCoordinates(-90, -40)));
+    OfflineTileCover cover = new OfflineTileCover(
+      new OfflineGeometryRegionDefinition("style", Polygon.fromCoordinates(polygon), 5, 5, 1.0f));
+    assertEquals(934, cover.getTileCount());
+  }
+
+  @Test
+  public void testStopEnumeration() {
+    OfflineTileCover cover = new OfflineTileCover(
+      new OfflineTilePyramidRegionDefinition("style", LatLngBounds.world(), 0, 5, 1.0f));
+    final int[] visited = new int[1];
+    cover.forEachTile(new OfflineTileCover.TileVisitor() {
+      @Override
+      public boolean onTile(int zoom, int x, int y) {
+        return ++visited[0] < 3;
+      }
+    });
+    assertEquals(3, visited[0]);
+  }
+
+  @Test
+  public void testEstimateSize() {
+    OfflineTileCover cover = new OfflineTileCover(
+      new OfflineTilePyramidRegionDefinition("style", SAN_FRANCISCO, 10, 10, 1.0f));
+    assertEquals(4000, cover.estimateSize(1000));
+
+    OfflineRegionStatus sample = mock(OfflineRegionStatus.class);
+    when(sample.getCompletedTileCount()).thenReturn(10L);
+    when(sample.getCompletedTileSize()).thenReturn(25000L);
+    assertEquals(10000, cover.estimateSize(sample));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testUnsupportedDefinition() {
+    new OfflineTileCover(mock(OfflineRegionDefinition.class));
+  }
+}
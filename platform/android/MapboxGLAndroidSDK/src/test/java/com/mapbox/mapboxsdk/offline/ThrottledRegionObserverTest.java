@@ -0,0 +1,212 @@
+package com.mapbox.mapboxsdk.offline;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class ThrottledRegionObserverTest {
+
+  private OfflineRegion.OfflineRegionObserver observer;
+  private QueueExecutor executor;
+
+  @Before
+  public void beforeTest() {
+    observer = mock(OfflineRegion.OfflineRegionObserver.class);
+    executor = new QueueExecutor();
+  }
+
+  @Test
+  public void testCoalescing() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions());
+    OfflineRegionStatus first = status(OfflineRegion.STATE_ACTIVE, 1, 10);
+    OfflineRegionStatus second = status(OfflineRegion.STATE_ACTIVE, 2, 10);
+    OfflineRegionStatus third = status(OfflineRegion.STATE_ACTIVE, 3, 10);
+    throttled.onStatusChanged(first);
+    throttled.onStatusChanged(second);
+    throttled.onStatusChanged(third);
+    assertEquals(1, executor.runnables.size());
+
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(first);
+    verify(observer, never()).onStatusChanged(second);
+    verify(observer).onStatusChanged(third);
+
+    OfflineRegionStatus fourth = status(OfflineRegion.STATE_ACTIVE, 4, 10);
+    throttled.onStatusChanged(fourth);
+    executor.runAll();
+    verify(observer).onStatusChanged(fourth);
+  }
+
+  @Test
+  public void testMinInterval() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions().withMinInterval(1000));
+    throttled.onStatusChanged(status(OfflineRegion.STATE_ACTIVE, 1, 10));
+    executor.runAll();
+
+    throttled.now = 500;
+    OfflineRegionStatus early = status(OfflineRegion.STATE_ACTIVE, 2, 10);
+    throttled.onStatusChanged(early);
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(early);
+
+    throttled.now = 1000;
+    OfflineRegionStatus late = status(OfflineRegion.STATE_ACTIVE, 3, 10);
+    throttled.onStatusChanged(late);
+    executor.runAll();
+    verify(observer).onStatusChanged(late);
+  }
+
+  @Test
+  public void testTrailingStatusDelivered() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions().withMinInterval(1000));
+    throttled.onStatusChanged(status(OfflineRegion.STATE_ACTIVE, 1, 10));
+    executor.runAll();
+
+    throttled.now = 200;
+    OfflineRegionStatus early = status(OfflineRegion.STATE_ACTIVE, 2, 10);
+    throttled.onStatusChanged(early);
+    throttled.now = 500;
+    OfflineRegionStatus latest = status(OfflineRegion.STATE_ACTIVE, 3, 10);
+    throttled.onStatusChanged(latest);
+    assertEquals(1, throttled.delayed.size());
+    assertEquals(Long.valueOf(800), throttled.delays.get(0));
+
+    throttled.now = 1000;
+    throttled.runDelayed();
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(early);
+    verify(observer).onStatusChanged(latest);
+  }
+
+  @Test
+  public void testTrailingStatusSupersededByForcedStatus() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions().withMinInterval(1000));
+    throttled.onStatusChanged(status(OfflineRegion.STATE_ACTIVE, 1, 10));
+    executor.runAll();
+
+    throttled.now = 500;
+    OfflineRegionStatus early = status(OfflineRegion.STATE_ACTIVE, 2, 10);
+    throttled.onStatusChanged(early);
+    OfflineRegionStatus inactive = status(OfflineRegion.STATE_INACTIVE, 2, 10);
+    throttled.onStatusChanged(inactive);
+
+    throttled.now = 1000;
+    throttled.runDelayed();
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(early);
+    verify(observer).onStatusChanged(inactive);
+  }
+
+  @Test
+  public void testMinPercentDelta() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions().withMinPercentDelta(5));
+    throttled.onStatusChanged(status(OfflineRegion.STATE_ACTIVE, 0, 100));
+    OfflineRegionStatus small = status(OfflineRegion.STATE_ACTIVE, 4, 100);
+    throttled.onStatusChanged(small);
+    executor.runAll();
+    verify(observer, never()).onStatusChanged(small);
+
+    OfflineRegionStatus large = status(OfflineRegion.STATE_ACTIVE, 5, 100);
+    throttled.onStatusChanged(large);
+    executor.runAll();
+    verify(observer).onStatusChanged(large);
+  }
+
+  @Test
+  public void testStateChangeAndCompletionAlwaysDelivered() {
+    TestObserver throttled = new TestObserver(
+      new OfflineRegion.ObserverOptions().withMinInterval(1000).withMinPercentDelta(50));
+    throttled.onStatusChanged(status(OfflineRegion.STATE_ACTIVE, 0, 100));
+    executor.runAll();
+
+    OfflineRegionStatus complete = status(OfflineRegion.STATE_ACTIVE, 100, 100);
+    throttled.onStatusChanged(complete);
+    executor.runAll();
+    verify(observer).onStatusChanged(complete);
+
+    OfflineRegionStatus inactive = status(OfflineRegion.STATE_INACTIVE, 100, 100);
+    throttled.onStatusChanged(inactive);
+    executor.runAll();
+    verify(observer).onStatusChanged(inactive);
+  }
+
+  @Test
+  public void testErrorsNotThrottled() {
+    TestObserver throttled = new TestObserver(new OfflineRegion.ObserverOptions().withMinInterval(1000));
+    OfflineRegionError error = mock(OfflineRegionError.class);
+    throttled.onError(error);
+    throttled.onError(error);
+    throttled.mapboxTileCountLimitExceeded(6000);
+    executor.runAll();
+    verify(observer, times(2)).onError(error);
+    verify(observer).mapboxTileCountLimitExceeded(6000);
+  }
+
+  private static OfflineRegionStatus status(int state, long completed, long required) {
+    OfflineRegionStatus status = mock(OfflineRegionStatus.class);
+    when(status.getDownloadState()).thenReturn(state);
+    when(status.getCompletedResourceCount()).thenReturn(completed);
+    when(status.getRequiredResourceCount()).thenReturn(required);
+    when(status.isRequiredResourceCountPrecise()).thenReturn(true);
+    return status;
+  }
+
+  private class TestObserver extends ThrottledRegionObserver {
+
+    private long now;
+    private final List<Runnable> delayed = new ArrayList<>();
+    private final List<Long> delays = new ArrayList<>();
+
+    TestObserver(OfflineRegion.ObserverOptions options) {
+      super(observer, options, executor);
+    }
+
+    @Override
+    long elapsedRealtime() {
+      return now;
+    }
+
+    @Override
+    void postDelayed(Runnable runnable, long delay) {
+      delayed.add(runnable);
+      delays.add(delay);
+    }
+
+    void runDelayed() {
+      List<Runnable> pending = new ArrayList<>(delayed);
+      delayed.clear();
+      delays.clear();
+      for (Runnable runnable : pending) {
+        runnable.run();
+      }
+    }
+  }
+
+  private static class QueueExecutor implements Executor {
+
+    private final List<Runnable> runnables = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable runnable) {
+      runnables.add(runnable);
+    }
+
+    void runAll() {
+      List<Runnable> pending = new ArrayList<>(runnables);
+      runnables.clear();
+      for (Runnable runnable : pending) {
+        runnable.run();
+      }
+    }
+  }
+}
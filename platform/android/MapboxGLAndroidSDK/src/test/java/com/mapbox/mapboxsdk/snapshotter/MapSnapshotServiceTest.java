@@ -0,0 +1,261 @@
+package com.mapbox.mapboxsdk.snapshotter;
+
+import android.content.Context;
+import android.os.Handler;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MapSnapshotServiceTest {
+
+  private TestService service;
+  private MapSnapshotter.SnapshotReadyCallback callback;
+
+  @Before
+  public void beforeTest() {
+    Context context = mock(Context.class);
+    when(context.getApplicationContext()).thenReturn(context);
+    Handler handler = mock(Handler.class);
+    doAnswer(new Answer<Boolean>() {
+      @Override
+      public Boolean answer(InvocationOnMock invocation) throws Throwable {
+        ((Runnable) invocation.getArgument(0)).run();
+        return true;
+      }
+    }).when(handler).post(any(Runnable.class));
+    service = new TestService(context, 2, handler);
+    callback = mock(MapSnapshotter.SnapshotReadyCallback.class);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNoWorkers() {
+    new MapSnapshotService(mock(Context.class), 0);
+  }
+
+  @Test
+  public void testMaxWorkers() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    MapSnapshotService.Job third = service.submit(options("a"), callback, null);
+    assertEquals(2, service.snapshotters.size());
+    assertEquals(2, service.getRunningJobCount());
+    assertEquals(1, service.getPendingJobCount());
+    assertFalse(third.isRunning());
+  }
+
+  @Test
+  public void testPriority() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    MapSnapshotService.Job low = service.submit(options("a"), MapSnapshotService.PRIORITY_LOW, callback, null);
+    MapSnapshotService.Job first = service.submit(options("a"), callback, null);
+    MapSnapshotService.Job second = service.submit(options("a"), callback, null);
+    MapSnapshotService.Job high = service.submit(options("a"), MapSnapshotService.PRIORITY_HIGH, callback, null);
+
+    assertTrue(high.compareTo(first) < 0);
+    assertTrue(first.compareTo(second) < 0);
+    assertTrue(second.compareTo(low) < 0);
+
+    complete(0);
+    assertTrue(high.isRunning());
+    complete(1);
+    assertTrue(first.isRunning());
+    assertFalse(low.isRunning());
+  }
+
+  @Test
+  public void testReuseSnapshotter() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("b"), callback, null);
+    complete(0);
+    complete(1);
+    verify(callback, times(2)).onSnapshotReady(any(MapSnapshot.class));
+
+    MapSnapshotter.Options options = options("a");
+    service.submit(options, callback, null);
+    assertEquals(2, service.snapshotters.size());
+    MapSnapshotter snapshotter = service.snapshotters.get(0);
+    assertSame(snapshotter, service.started.get(2));
+    verify(snapshotter, never()).setStyleUrl(anyString());
+    verify(snapshotter).setSize(options.getWidth(), options.getHeight());
+    verify(snapshotter).setCameraPosition(options.getCameraPosition());
+  }
+
+  @Test
+  public void testReuseSnapshotterForOtherStyle() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("b"), callback, null);
+    complete(0);
+    complete(1);
+
+    service.submit(options("c"), callback, null);
+    assertEquals(2, service.snapshotters.size());
+    verify(service.started.get(2)).setStyleUrl("c");
+  }
+
+  @Test
+  public void testPreferSameStyle() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("b"), callback, null);
+    complete(0);
+    complete(1);
+
+    service.submit(options("b"), callback, null);
+    assertSame(service.snapshotters.get(1), service.started.get(2));
+    verify(service.snapshotters.get(1), never()).setStyleUrl(anyString());
+  }
+
+  @Test
+  public void testNewSnapshotterWhileBelowMaxWorkers() {
+    service.submit(options("a"), callback, null);
+    complete(0);
+    service.submit(options("b"), callback, null);
+    assertEquals(2, service.snapshotters.size());
+  }
+
+  @Test
+  public void testNewSnapshotterWithoutCamera() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    complete(0);
+    complete(1);
+    service.submit(new MapSnapshotter.Options(100, 100).withStyle("a"), callback, null);
+    assertEquals(3, service.snapshotters.size());
+  }
+
+  @Test
+  public void testNewSnapshotterForPixelRatio() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    complete(0);
+    complete(1);
+    service.submit(options("a").withPixelRatio(2), callback, null);
+    assertEquals(3, service.snapshotters.size());
+  }
+
+  @Test
+  public void testNewSnapshotterForFractionalPixelRatio() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    complete(0);
+    complete(1);
+    service.submit(options("a").withPixelRatio(1.5f), callback, null);
+    assertEquals(3, service.snapshotters.size());
+  }
+
+  @Test
+  public void testCancelPending() {
+    service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    MapSnapshotService.Job job = service.submit(options("a"), callback, null);
+    job.cancel();
+    assertTrue(job.isCancelled());
+    assertTrue(job.isDone());
+    assertEquals(0, service.getPendingJobCount());
+  }
+
+  @Test
+  public void testCancelRunning() {
+    MapSnapshotService.Job running = service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    MapSnapshotService.Job pending = service.submit(options("a"), callback, null);
+    MapSnapshotter snapshotter = service.snapshotters.get(0);
+
+    running.cancel();
+    verify(snapshotter).cancel();
+    assertTrue(running.isCancelled());
+    assertTrue(pending.isRunning());
+    assertNotSame(snapshotter, service.snapshotters.get(2));
+  }
+
+  @Test
+  public void testError() {
+    MapSnapshotter.ErrorHandler errorHandler = mock(MapSnapshotter.ErrorHandler.class);
+    MapSnapshotService.Job job = service.submit(options("a"), callback, errorHandler);
+    service.errorHandlers.get(0).onError("error");
+    verify(errorHandler).onError("error");
+    assertTrue(job.isDone());
+    assertFalse(job.isCancelled());
+
+    service.submit(options("a"), callback, null);
+    assertEquals(2, service.snapshotters.size());
+  }
+
+  @Test
+  public void testCancelAll() {
+    MapSnapshotService.Job running = service.submit(options("a"), callback, null);
+    service.submit(options("a"), callback, null);
+    MapSnapshotService.Job pending = service.submit(options("a"), callback, null);
+    service.cancelAll();
+    assertTrue(running.isCancelled());
+    assertTrue(pending.isCancelled());
+    assertEquals(0, service.getPendingJobCount());
+    assertEquals(0, service.getRunningJobCount());
+    assertEquals(2, service.snapshotters.size());
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testSubmitAfterRelease() {
+    service.release();
+    service.submit(options("a"), callback, null);
+  }
+
+  private void complete(int index) {
+    service.callbacks.get(index).onSnapshotReady(mock(MapSnapshot.class));
+  }
+
+  private static MapSnapshotter.Options options(String styleUrl) {
+    return new MapSnapshotter.Options(100, 100)
+      .withStyle(styleUrl)
+      .withCameraPosition(mock(CameraPosition.class));
+  }
+
+  private static class TestService extends MapSnapshotService {
+
+    private final List<MapSnapshotter> snapshotters = new ArrayList<>();
+    private final List<MapSnapshotter> started = new ArrayList<>();
+    private final List<MapSnapshotter.SnapshotReadyCallback> callbacks = new ArrayList<>();
+    private final List<MapSnapshotter.ErrorHandler> errorHandlers = new ArrayList<>();
+
+    TestService(Context context, int maxWorkers, Handler handler) {
+      super(context, maxWorkers, handler);
+    }
+
+    @Override
+    MapSnapshotter createSnapshotter(MapSnapshotter.Options options) {
+      final MapSnapshotter snapshotter = mock(MapSnapshotter.class);
+      doAnswer(new Answer<Void>() {
+        @Override
+        public Void answer(InvocationOnMock invocation) throws Throwable {
+          started.add(snapshotter);
+          callbacks.add((MapSnapshotter.SnapshotReadyCallback) invocation.getArgument(0));
+          errorHandlers.add((MapSnapshotter.ErrorHandler) invocation.getArgument(1));
+          return null;
+        }
+      }).when(snapshotter).start(any(MapSnapshotter.SnapshotReadyCallback.class), any(MapSnapshotter.ErrorHandler.class));
+      snapshotters.add(snapshotter);
+      return snapshotter;
+    }
+  }
+}
@@ -0,0 +1,196 @@
+package com.mapbox.mapboxsdk.snapshotter;
+
+import android.graphics.Bitmap;
+import android.os.Handler;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.CALLS_REAL_METHODS;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class MapSnapshotterTest {
+
+  @Rule
+  public TemporaryFolder folder = new TemporaryFolder();
+
+  private MapSnapshotter snapshotter;
+  private MapSnapshotter.ErrorHandler errorHandler;
+  private MapSnapshotter.SnapshotWrittenCallback writtenCallback;
+  private Bitmap bitmap;
+  private CountDownLatch posted;
+
+  @Before
+  public void beforeTest() {
+    // Skips the native peer, snapshots are delivered through onSnapshotReady and onSnapshotFailed
+    snapshotter = mock(MapSnapshotter.class, CALLS_REAL_METHODS);
+    doNothing().when(snapshotter).nativeStart();
+
+    posted = new CountDownLatch(1);
+    Handler handler = mock(Handler.class);
+    doAnswer(new Answer<Boolean>() {
+      @Override
+      public Boolean answer(InvocationOnMock invocation) throws Throwable {
+        ((Runnable) invocation.getArgument(0)).run();
+        posted.countDown();
+        return true;
+      }
+    }).when(handler).post(any(Runnable.class));
+    doReturn(handler).when(snapshotter).createHandler();
+
+    errorHandler = mock(MapSnapshotter.ErrorHandler.class);
+    writtenCallback = mock(MapSnapshotter.SnapshotWrittenCallback.class);
+    bitmap = mock(Bitmap.class);
+    when(bitmap.isMutable()).thenReturn(true);
+    when(bitmap.getConfig()).thenReturn(Bitmap.Config.ARGB_8888);
+  }
+
+  @Test
+  public void testStartWithBitmap() {
+    MapSnapshotter.SnapshotReadyCallback callback = mock(MapSnapshotter.SnapshotReadyCallback.class);
+    snapshotter.start(bitmap, callback, errorHandler);
+    MapSnapshot snapshot = snapshot();
+    snapshotter.onSnapshotReady(snapshot);
+    verify(callback).onSnapshotReady(snapshot);
+    verify(errorHandler, never()).onError(anyString());
+  }
+
+  @Test
+  public void testStartWithBitmapError() {
+    MapSnapshotter.SnapshotReadyCallback callback = mock(MapSnapshotter.SnapshotReadyCallback.class);
+    snapshotter.start(bitmap, callback, errorHandler);
+    snapshotter.onSnapshotFailed("error");
+    verify(errorHandler).onError("error");
+    verify(callback, never()).onSnapshotReady(any(MapSnapshot.class));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testStartWithImmutableBitmap() {
+    when(bitmap.isMutable()).thenReturn(false);
+    snapshotter.start(bitmap, mock(MapSnapshotter.SnapshotReadyCallback.class), errorHandler);
+  }
+
+  @Test
+  public void testStartWithOutputStream() throws Exception {
+    when(bitmap.compress(any(Bitmap.CompressFormat.class), anyInt(), any(OutputStream.class))).thenReturn(true);
+    snapshotter.start(new ByteArrayOutputStream(), Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(writtenCallback).onSnapshotWritten();
+    verify(errorHandler, never()).onError(anyString());
+  }
+
+  @Test
+  public void testEncoderThreadIsDaemon() throws Exception {
+    final boolean[] daemon = new boolean[1];
+    when(bitmap.compress(any(Bitmap.CompressFormat.class), anyInt(), any(OutputStream.class)))
+      .thenAnswer(new Answer<Boolean>() {
+        @Override
+        public Boolean answer(InvocationOnMock invocation) throws Throwable {
+          daemon[0] = Thread.currentThread().isDaemon();
+          return true;
+        }
+      });
+    snapshotter.start(new ByteArrayOutputStream(), Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(writtenCallback).onSnapshotWritten();
+
+    // The encoder doesn't keep the process alive
+    assertTrue(daemon[0]);
+  }
+
+  @Test
+  public void testStartWithOutputStreamEncodeFailure() throws Exception {
+    when(bitmap.compress(any(Bitmap.CompressFormat.class), anyInt(), any(OutputStream.class))).thenReturn(false);
+    snapshotter.start(new ByteArrayOutputStream(), Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(errorHandler).onError("Failed to encode snapshot");
+    verify(writtenCallback, never()).onSnapshotWritten();
+  }
+
+  @Test
+  public void testStartWithOutputStreamEncoderException() throws Exception {
+    when(bitmap.compress(any(Bitmap.CompressFormat.class), anyInt(), any(OutputStream.class)))
+      .thenThrow(new IllegalStateException("recycled"));
+    snapshotter.start(new ByteArrayOutputStream(), Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(errorHandler).onError("Failed to encode snapshot: recycled");
+    verify(writtenCallback, never()).onSnapshotWritten();
+  }
+
+  @Test
+  public void testStartWithOutputStreamSnapshotError() {
+    snapshotter.start(new ByteArrayOutputStream(), Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotFailed("error");
+    verify(errorHandler).onError("error");
+    verify(writtenCallback, never()).onSnapshotWritten();
+  }
+
+  @Test
+  public void testStartWithFile() throws Exception {
+    when(bitmap.compress(any(Bitmap.CompressFormat.class), anyInt(), any(OutputStream.class))).thenReturn(true);
+    File file = new File(folder.getRoot(), "snapshot.png");
+    snapshotter.start(file, Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(writtenCallback).onSnapshotWritten();
+    verify(bitmap).compress(eq(Bitmap.CompressFormat.PNG), eq(100), any(OutputStream.class));
+    assertTrue(file.exists());
+  }
+
+  @Test
+  public void testStartWithFileWriteFailure() throws Exception {
+    File file = new File(new File(folder.getRoot(), "missing"), "snapshot.png");
+    snapshotter.start(file, Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotReady(snapshot());
+    awaitEncoder();
+    verify(errorHandler).onError(startsWith("Failed to write snapshot"));
+    verify(writtenCallback, never()).onSnapshotWritten();
+  }
+
+  @Test
+  public void testStartWithFileSnapshotError() {
+    File file = new File(folder.getRoot(), "snapshot.png");
+    snapshotter.start(file, Bitmap.CompressFormat.PNG, 100, writtenCallback, errorHandler);
+    snapshotter.onSnapshotFailed("error");
+    verify(errorHandler).onError("error");
+    verify(writtenCallback, never()).onSnapshotWritten();
+    assertFalse(file.exists());
+  }
+
+  private MapSnapshot snapshot() {
+    MapSnapshot snapshot = mock(MapSnapshot.class);
+    when(snapshot.getBitmap()).thenReturn(bitmap);
+    return snapshot;
+  }
+
+  private void awaitEncoder() throws InterruptedException {
+    assertTrue("The encoder didn't complete", posted.await(5, TimeUnit.SECONDS));
+  }
+}
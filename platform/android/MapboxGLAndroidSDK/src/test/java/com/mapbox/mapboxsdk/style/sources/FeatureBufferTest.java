@@ -0,0 +1,91 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FeatureBufferTest {
+
+  private static final double DELTA = 1e-9;
+
+  @Test
+  public void testLayout() {
+    FeatureBuffer features = new FeatureBuffer(16);
+    features.beginFeature("a").point(1, 2).property("name", "a").property("visible", true);
+    features.beginFeature(7L).lineString(new double[] {1, 2, 3, 4});
+    assertEquals(2, features.getFeatureCount());
+
+    ByteBuffer buffer = features.finish();
+    assertEquals(0, buffer.position());
+    assertEquals(FeatureBuffer.VERSION, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    int stringTable = buffer.getInt();
+
+    // The point feature, the id and the property values are indices into the string table
+    assertEquals(FeatureBuffer.ID_STRING, buffer.get());
+    assertEquals(0, buffer.getInt());
+    assertEquals(FeatureBuffer.GEOMETRY_POINT, buffer.get());
+    assertEquals(1, buffer.getDouble(), DELTA);
+    assertEquals(2, buffer.getDouble(), DELTA);
+    assertEquals(2, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals(FeatureBuffer.VALUE_STRING, buffer.get());
+    assertEquals(0, buffer.getInt());
+    assertEquals(2, buffer.getInt());
+    assertEquals(FeatureBuffer.VALUE_BOOLEAN, buffer.get());
+    assertEquals(1, buffer.get());
+
+    // The line feature
+    assertEquals(FeatureBuffer.ID_NUMBER, buffer.get());
+    assertEquals(7L, buffer.getLong());
+    assertEquals(FeatureBuffer.GEOMETRY_LINE_STRING, buffer.get());
+    assertEquals(2, buffer.getInt());
+    buffer.position(buffer.position() + 4 * 8);
+    assertEquals(0, buffer.getInt());
+
+    // The strings follow the features, "a" is stored once
+    assertEquals(stringTable, buffer.position());
+    assertEquals(3, buffer.getInt());
+    assertEquals(1, buffer.getInt());
+    assertEquals('a', buffer.get());
+    assertEquals(4, buffer.getInt());
+    buffer.position(buffer.position() + 4);
+    assertEquals(7, buffer.getInt());
+    buffer.position(buffer.position() + 7);
+    assertEquals(buffer.limit(), buffer.position());
+  }
+
+  @Test
+  public void testAppendAfterFinish() {
+    FeatureBuffer features = new FeatureBuffer();
+    features.beginFeature().point(0, 0).property("key", "value");
+    int first = features.finish().limit();
+
+    features.beginFeature().polygon(new double[][] {{0, 0, 1, 0, 1, 1, 0, 0}});
+    ByteBuffer buffer = features.finish();
+    assertEquals(2, buffer.getInt(4));
+    assertTrue(buffer.limit() > first);
+
+    features.clear();
+    assertEquals(0, features.getFeatureCount());
+    assertEquals(0, features.finish().getInt(4));
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testFeatureWithoutGeometry() {
+    new FeatureBuffer().beginFeature().beginFeature();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testPropertyBeforeGeometry() {
+    new FeatureBuffer().beginFeature().property("key", 1.0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOddCoordinates() {
+    new FeatureBuffer().beginFeature().lineString(new double[] {1, 2, 3});
+  }
+}
@@ -0,0 +1,111 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.FeatureCollection;
+import com.mapbox.services.commons.geojson.Point;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+public class TileCacheTest {
+
+  private static final FeatureCollection FEATURES = FeatureCollection.fromFeatures(new Feature[] {
+    Feature.fromGeometry(Point.fromCoordinates(new double[] {0, 0}))
+  });
+
+  private static final long SIZE = TileCache.estimateSize(FEATURES);
+
+  @Test
+  public void testLeastRecentlyUsed() {
+    TileCache cache = new TileCache(2 * SIZE);
+    cache.put(1, 0, 0, FEATURES, cache.getGeneration());
+    cache.put(1, 1, 0, FEATURES, cache.getGeneration());
+    assertNotNull(cache.get(1, 0, 0));
+
+    // The tile 1/1/0 is the least recently used one by now
+    cache.put(1, 0, 1, FEATURES, cache.getGeneration());
+    assertEquals(2, cache.getTileCount());
+    assertEquals(2 * SIZE, cache.getSize());
+    assertNull(cache.get(1, 1, 0));
+    assertNotNull(cache.get(1, 0, 0));
+    assertNotNull(cache.get(1, 0, 1));
+
+    assertEquals(3, cache.getHitCount());
+    assertEquals(1, cache.getMissCount());
+    assertEquals(0.75f, cache.getHitRate(), 1e-6f);
+  }
+
+  @Test
+  public void testInvalidateTile() {
+    TileCache cache = new TileCache(10 * SIZE);
+    long generation = cache.getGeneration();
+    cache.put(2, 1, 1, FEATURES, generation);
+    cache.invalidate(2, 1, 1);
+    assertNull(cache.get(2, 1, 1));
+    assertEquals(0, cache.getSize());
+
+    // A result computed before the invalidation is stale
+    cache.put(2, 1, 1, FEATURES, generation);
+    assertEquals(0, cache.getTileCount());
+
+    // Results of other tiles computed before are still valid
+    cache.put(2, 2, 1, FEATURES, generation);
+    assertNotNull(cache.get(2, 2, 1));
+  }
+
+  @Test
+  public void testInvalidateRegionDiscardsStaleResults() {
+    TileCache cache = new TileCache(10 * SIZE);
+    long generation = cache.getGeneration();
+    cache.invalidate(LatLngBounds.from(10, 90, -10, 1));
+
+    cache.put(2, 2, 1, FEATURES, generation);
+    cache.put(2, 0, 1, FEATURES, generation);
+    assertNull(cache.get(2, 2, 1));
+    assertNotNull(cache.get(2, 0, 1));
+  }
+
+  @Test
+  public void testForgottenInvalidationsDiscardOlderResults() {
+    TileCache cache = new TileCache(10 * SIZE);
+    long generation = cache.getGeneration();
+    for (int i = 0; i < 100; i++) {
+      cache.invalidate(3, 0, 0);
+    }
+
+    // Too many invalidations to tell whether the tile was affected
+    cache.put(2, 1, 1, FEATURES, generation);
+    assertNull(cache.get(2, 1, 1));
+
+    cache.put(2, 1, 1, FEATURES, cache.getGeneration());
+    assertNotNull(cache.get(2, 1, 1));
+  }
+
+  @Test
+  public void testClearDiscardsStaleResults() {
+    TileCache cache = new TileCache(10 * SIZE);
+    long generation = cache.getGeneration();
+    cache.clear();
+    cache.put(2, 1, 1, FEATURES, generation);
+    assertEquals(0, cache.getTileCount());
+  }
+
+  @Test
+  public void testInvalidateRegion() {
+    TileCache cache = new TileCache(10 * SIZE);
+    for (int x = 0; x < 4; x++) {
+      cache.put(2, x, 1, FEATURES, cache.getGeneration());
+    }
+
+    // The tile 2/3/1 only touches the bounds, it's invalidated too
+    cache.invalidate(LatLngBounds.from(10, 90, -10, 1));
+    assertEquals(2, cache.getTileCount());
+    assertNotNull(cache.get(2, 0, 1));
+    assertNull(cache.get(2, 2, 1));
+    assertNull(cache.get(2, 3, 1));
+  }
+}
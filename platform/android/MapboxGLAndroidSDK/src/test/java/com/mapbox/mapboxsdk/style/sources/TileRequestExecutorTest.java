@@ -0,0 +1,88 @@
+package com.mapbox.mapboxsdk.style.sources;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class TileRequestExecutorTest {
+
+  // Collects the runnables, to run them later on the test thread
+  private static class DeferredExecutor implements Executor {
+    final List<Runnable> runnables = new ArrayList<>();
+
+    @Override
+    public void execute(Runnable runnable) {
+      runnables.add(runnable);
+    }
+
+    void runAll() {
+      for (Runnable runnable : runnables) {
+        runnable.run();
+      }
+      runnables.clear();
+    }
+  }
+
+  private static class Request extends TileRequestExecutor.Request {
+    final int id;
+    final List<Integer> log;
+
+    Request(int id, List<Integer> log) {
+      this.id = id;
+      this.log = log;
+    }
+
+    @Override
+    public void run() {
+      log.add(id);
+    }
+  }
+
+  @Test
+  public void testNewestFirst() {
+    DeferredExecutor threads = new DeferredExecutor();
+    TileRequestExecutor executor = new TileRequestExecutor(threads);
+    List<Integer> log = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      executor.execute(new Request(i, log));
+    }
+    assertEquals(4, executor.getQueueSize());
+
+    threads.runAll();
+    assertEquals(0, executor.getQueueSize());
+    assertEquals(3, (int) log.get(0));
+    assertEquals(2, (int) log.get(1));
+    assertEquals(1, (int) log.get(2));
+    assertEquals(0, (int) log.get(3));
+  }
+
+  @Test
+  public void testCancel() {
+    DeferredExecutor threads = new DeferredExecutor();
+    TileRequestExecutor executor = new TileRequestExecutor(threads);
+    List<Integer> log = new ArrayList<>();
+    Request cancelled = new Request(0, log);
+    executor.execute(cancelled);
+    executor.execute(new Request(1, log));
+    assertTrue(executor.cancel(cancelled));
+
+    threads.runAll();
+    assertEquals(1, log.size());
+    assertEquals(1, (int) log.get(0));
+  }
+
+  @Test
+  public void testProviderTime() {
+    TileRequestExecutor executor = new TileRequestExecutor(new DeferredExecutor());
+    executor.recordProviderTime(2000000);
+    executor.recordProviderTime(4000000);
+    assertEquals(2, executor.getCompletedCount());
+    assertEquals(3.0, executor.getAverageProviderTime(), 1e-9);
+    assertEquals(4.0, executor.getMaxProviderTime(), 1e-9);
+  }
+}
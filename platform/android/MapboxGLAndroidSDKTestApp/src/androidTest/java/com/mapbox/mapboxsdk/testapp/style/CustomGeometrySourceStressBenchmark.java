@@ -0,0 +1,105 @@
+package com.mapbox.mapboxsdk.testapp.style;
+
+import android.os.Debug;
+import android.support.test.espresso.UiController;
+import android.support.test.espresso.ViewAction;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import com.mapbox.mapboxsdk.camera.CameraUpdateFactory;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.geometry.LatLngBounds;
+import com.mapbox.mapboxsdk.style.layers.FillLayer;
+import com.mapbox.mapboxsdk.style.sources.CustomGeometrySource;
+import com.mapbox.mapboxsdk.style.sources.GeoJsonOptions;
+import com.mapbox.mapboxsdk.style.sources.GeometryTileProvider;
+import com.mapbox.mapboxsdk.style.sources.TileRequestExecutor;
+import com.mapbox.mapboxsdk.testapp.R;
+import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
+import com.mapbox.mapboxsdk.testapp.activity.style.RuntimeStyleTestActivity;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.FeatureCollection;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import timber.log.Timber;
+
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+
+/**
+ * Zooms in and out quickly over a {@link CustomGeometrySource} with a trivial provider, so the time and allocations
+ * spent are dominated by requesting and cancelling tiles. The totals are logged.
+ */
+@RunWith(AndroidJUnit4.class)
+public class CustomGeometrySourceStressBenchmark extends BaseActivityTest {
+
+  private static final int ITERATIONS = 500;
+  private static final int MAX_ZOOM = 16;
+  private static final long FRAME_MILLIS = 16;
+
+  @Override
+  protected Class getActivityClass() {
+    return RuntimeStyleTestActivity.class;
+  }
+
+  @Test
+  public void benchmarkFastZoom() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new StressAction());
+  }
+
+  private class StressAction implements ViewAction {
+
+    @Override
+    public Matcher<View> getConstraints() {
+      return isDisplayed();
+    }
+
+    @Override
+    public String getDescription() {
+      return "fast zoom over a custom geometry source";
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void perform(UiController uiController, View view) {
+      TileRequestExecutor executor = new TileRequestExecutor(4);
+      CustomGeometrySource source = new CustomGeometrySource("benchmark", new EmptyProvider(),
+        new GeoJsonOptions(), executor);
+      mapboxMap.addSource(source);
+      mapboxMap.addLayer(new FillLayer("benchmark", source.getId()));
+
+      Debug.resetGlobalAllocCount();
+      Debug.startAllocCounting();
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        // Alternates between zooming in and out, shifting a bit so new tiles are requested every time
+        int zoom = i % (2 * MAX_ZOOM);
+        mapboxMap.moveCamera(CameraUpdateFactory.newLatLngZoom(
+          new LatLng(-40 + (i % 80), -90 + (i % 180)), zoom < MAX_ZOOM ? zoom : 2 * MAX_ZOOM - zoom));
+        uiController.loopMainThreadForAtLeast(FRAME_MILLIS);
+      }
+      long elapsed = System.nanoTime() - start;
+      Debug.stopAllocCounting();
+
+      Timber.i("%d camera changes in %.2f ms, %d provider requests completed, %d allocations",
+        ITERATIONS, elapsed / 1e6, executor.getCompletedCount(), Debug.getGlobalAllocCount());
+
+      mapboxMap.removeLayer("benchmark");
+      mapboxMap.removeSource(source);
+    }
+  }
+
+  private static class EmptyProvider implements GeometryTileProvider {
+    @Override
+    public FeatureCollection getFeaturesForBounds(LatLngBounds bounds, int zoomLevel) {
+      return FeatureCollection.fromFeatures(new ArrayList<Feature>());
+    }
+  }
+}
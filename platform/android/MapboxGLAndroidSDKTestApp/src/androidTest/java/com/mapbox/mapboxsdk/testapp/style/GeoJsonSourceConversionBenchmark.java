@@ -0,0 +1,158 @@
+package com.mapbox.mapboxsdk.testapp.style;
+
+import android.support.test.espresso.UiController;
+import android.support.test.espresso.ViewAction;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import com.google.gson.JsonObject;
+import com.mapbox.mapboxsdk.style.layers.CircleLayer;
+import com.mapbox.mapboxsdk.style.sources.FeatureBuffer;
+import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
+import com.mapbox.mapboxsdk.testapp.R;
+import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
+import com.mapbox.mapboxsdk.testapp.activity.style.RuntimeStyleTestActivity;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.FeatureCollection;
+import com.mapbox.services.commons.geojson.Point;
+
+import org.hamcrest.Matcher;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import timber.log.Timber;
+
+import static android.support.test.espresso.Espresso.onView;
+import static android.support.test.espresso.matcher.ViewMatchers.isDisplayed;
+import static android.support.test.espresso.matcher.ViewMatchers.withId;
+
+/**
+ * Compares the transfer of features to a {@link GeoJsonSource} as a {@link FeatureCollection}, converted object by
+ * object through JNI, with a packed {@link FeatureBuffer}. Every run is warmed up first, the average time per update
+ * is logged.
+ */
+@RunWith(AndroidJUnit4.class)
+public class GeoJsonSourceConversionBenchmark extends BaseActivityTest {
+
+  private static final int FEATURE_COUNT = 10000;
+  private static final int WARMUP_ITERATIONS = 3;
+  private static final int ITERATIONS = 10;
+
+  @Override
+  protected Class getActivityClass() {
+    return RuntimeStyleTestActivity.class;
+  }
+
+  @Test
+  public void benchmarkFeatureCollection() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new BenchmarkAction("FeatureCollection") {
+      private final FeatureCollection features = createFeatureCollection();
+
+      @Override
+      void update(GeoJsonSource source) {
+        source.setGeoJson(features);
+      }
+    });
+  }
+
+  @Test
+  public void benchmarkFeatureBuffer() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new BenchmarkAction("FeatureBuffer") {
+      private final FeatureBuffer features = createFeatureBuffer();
+
+      @Override
+      void update(GeoJsonSource source) {
+        source.setGeoJson(features);
+      }
+    });
+  }
+
+  @Test
+  public void benchmarkFeatureBufferBuilding() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new BenchmarkAction("FeatureBuffer, including building") {
+      @Override
+      void update(GeoJsonSource source) {
+        source.setGeoJson(createFeatureBuffer());
+      }
+    });
+  }
+
+  private static FeatureCollection createFeatureCollection() {
+    List<Feature> features = new ArrayList<>(FEATURE_COUNT);
+    for (int i = 0; i < FEATURE_COUNT; i++) {
+      JsonObject properties = new JsonObject();
+      properties.addProperty("name", "feature " + (i % 100));
+      properties.addProperty("value", i);
+      features.add(Feature.fromGeometry(
+        Point.fromCoordinates(new double[] {longitude(i), latitude(i)}), properties, String.valueOf(i)));
+    }
+    return FeatureCollection.fromFeatures(features);
+  }
+
+  private static FeatureBuffer createFeatureBuffer() {
+    FeatureBuffer features = new FeatureBuffer();
+    for (int i = 0; i < FEATURE_COUNT; i++) {
+      features.beginFeature(String.valueOf(i))
+        .point(longitude(i), latitude(i))
+        .property("name", "feature " + (i % 100))
+        .property("value", (double) i);
+    }
+    return features;
+  }
+
+  private static double longitude(int i) {
+    return -180 + (i % 360);
+  }
+
+  private static double latitude(int i) {
+    return -80 + (i / 360) % 160;
+  }
+
+  private abstract class BenchmarkAction implements ViewAction {
+
+    private final String name;
+
+    BenchmarkAction(String name) {
+      this.name = name;
+    }
+
+    abstract void update(GeoJsonSource source);
+
+    @Override
+    public Matcher<View> getConstraints() {
+      return isDisplayed();
+    }
+
+    @Override
+    public String getDescription() {
+      return name;
+    }
+
+    @Override
+    public void perform(UiController uiController, View view) {
+      GeoJsonSource source = new GeoJsonSource("benchmark");
+      mapboxMap.addSource(source);
+      mapboxMap.addLayer(new CircleLayer("benchmark", source.getId()));
+
+      for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+        update(source);
+      }
+
+      long start = System.nanoTime();
+      for (int i = 0; i < ITERATIONS; i++) {
+        update(source);
+      }
+      long elapsed = System.nanoTime() - start;
+      Timber.i("%s: %.2f ms per update of %d features", name, elapsed / 1e6 / ITERATIONS, FEATURE_COUNT);
+
+      mapboxMap.removeLayer("benchmark");
+      mapboxMap.removeSource(source);
+    }
+  }
+}
@@ -2,12 +2,15 @@ package com.mapbox.mapboxsdk.testapp.style;
 
 import android.graphics.Color;
 import android.graphics.PointF;
+import android.graphics.RectF;
 import android.support.test.espresso.Espresso;
 import android.support.test.espresso.UiController;
 import android.support.test.espresso.ViewAction;
 import android.support.test.runner.AndroidJUnit4;
 import android.view.View;
 
+import com.google.gson.JsonObject;
+import com.mapbox.mapboxsdk.geometry.LatLng;
 import com.mapbox.mapboxsdk.maps.MapboxMap;
 import com.mapbox.mapboxsdk.style.layers.CannotAddLayerException;
 import com.mapbox.mapboxsdk.style.layers.CircleLayer;
@@ -16,6 +19,7 @@ import com.mapbox.mapboxsdk.style.layers.Layer;
 import com.mapbox.mapboxsdk.style.layers.LineLayer;
 import com.mapbox.mapboxsdk.style.layers.Property;
 import com.mapbox.mapboxsdk.style.layers.PropertyFactory;
+import com.mapbox.mapboxsdk.style.query.QueryOptions;
 import com.mapbox.mapboxsdk.style.sources.CannotAddSourceException;
 import com.mapbox.mapboxsdk.style.sources.GeoJsonSource;
 import com.mapbox.mapboxsdk.style.sources.RasterSource;
@@ -25,6 +29,9 @@ import com.mapbox.mapboxsdk.testapp.R;
 import com.mapbox.mapboxsdk.testapp.action.MapboxMapAction;
 import com.mapbox.mapboxsdk.testapp.activity.BaseActivityTest;
 import com.mapbox.mapboxsdk.testapp.activity.style.RuntimeStyleTestActivity;
+import com.mapbox.services.commons.geojson.Feature;
+import com.mapbox.services.commons.geojson.FeatureCollection;
+import com.mapbox.services.commons.geojson.Point;
 
 import junit.framework.Assert;
 
@@ -35,6 +42,8 @@ import org.junit.runner.RunWith;
 
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import timber.log.Timber;
@@ -55,6 +64,8 @@ import static org.junit.Assert.fail;
 @RunWith(AndroidJUnit4.class)
 public class RuntimeStyleTests extends BaseActivityTest {
 
+  private static final String QUERY_LAYER = "query-layer";
+
   @Override
   protected Class getActivityClass() {
     return RuntimeStyleTestActivity.class;
@@ -314,6 +325,80 @@ public class RuntimeStyleTests extends BaseActivityTest {
     });
   }
 
+  @Test
+  public void testQueryRenderedFeaturesLimit() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new QueryLayerAction() {
+
+      @Override
+      void query(RectF box) {
+        assertEquals(3, mapboxMap.queryRenderedFeatures(box, null, new QueryOptions(), QUERY_LAYER).size());
+        assertEquals(2,
+          mapboxMap.queryRenderedFeatures(box, null, new QueryOptions().withLimit(2), QUERY_LAYER).size());
+      }
+
+    });
+  }
+
+  @Test
+  public void testQueryRenderedFeaturesProperties() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new QueryLayerAction() {
+
+      @Override
+      void query(RectF box) {
+        List<Feature> features = mapboxMap.queryRenderedFeatures(box, null,
+          new QueryOptions().withProperties("name", "missing"), QUERY_LAYER);
+        assertEquals(3, features.size());
+        for (Feature feature : features) {
+          assertEquals(1, feature.getProperties().entrySet().size());
+          assertTrue(feature.getProperties().has("name"));
+          assertNotNull(feature.getGeometry());
+        }
+      }
+
+    });
+  }
+
+  @Test
+  public void testQueryRenderedFeaturesWithoutGeometry() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new QueryLayerAction() {
+
+      @Override
+      void query(RectF box) {
+        List<Feature> features = mapboxMap.queryRenderedFeatures(box, null,
+          new QueryOptions().withGeometry(false), QUERY_LAYER);
+        assertEquals(3, features.size());
+        for (Feature feature : features) {
+          assertNull(feature.getGeometry());
+          assertTrue(feature.getProperties().has("rank"));
+        }
+      }
+
+    });
+  }
+
+  @Test
+  public void testQueryRenderedFeatureIds() {
+    validateTestSetup();
+    onView(withId(R.id.mapView)).perform(new QueryLayerAction() {
+
+      @Override
+      void query(RectF box) {
+        // The feature without an id is left out
+        List<String> ids = mapboxMap.queryRenderedFeatureIds(box, null, 0, QUERY_LAYER);
+        assertEquals(2, ids.size());
+        assertTrue(ids.containsAll(Arrays.asList("first", "second")));
+
+        PointF center = mapboxMap.getProjection().toScreenLocation(mapboxMap.getCameraPosition().target);
+        assertEquals(2, mapboxMap.queryRenderedFeatureIds(center, null, 0, QUERY_LAYER).size());
+        assertEquals(1, mapboxMap.queryRenderedFeatureIds(box, null, 1, QUERY_LAYER).size());
+      }
+
+    });
+  }
+
   private class AddRemoveLayerAction extends BaseViewAction {
 
     @Override
@@ -362,6 +447,33 @@ public class RuntimeStyleTests extends BaseActivityTest {
     Espresso.unregisterIdlingResources(idlingResource);
   }
 
+  /**
+   * Adds a layer of three overlapping circles at the center of the map, the last one without an id, and queries
+   * them once rendered.
+   */
+  private abstract class QueryLayerAction extends BaseViewAction {
+
+    @Override
+    public void perform(UiController uiController, View view) {
+      LatLng center = mapboxMap.getCameraPosition().target;
+      List<Feature> features = new ArrayList<>();
+      for (String id : new String[] {"first", "second", null}) {
+        JsonObject properties = new JsonObject();
+        properties.addProperty("name", String.valueOf(id));
+        properties.addProperty("rank", features.size());
+        features.add(Feature.fromGeometry(
+          Point.fromCoordinates(new double[] {center.getLongitude(), center.getLatitude()}), properties, id));
+      }
+      mapboxMap.addSource(new GeoJsonSource(QUERY_LAYER, FeatureCollection.fromFeatures(features)));
+      mapboxMap.addLayer(new CircleLayer(QUERY_LAYER, QUERY_LAYER).withProperties(PropertyFactory.circleRadius(20f)));
+      uiController.loopMainThreadForAtLeast(1000);
+
+      query(new RectF(0, 0, view.getWidth(), view.getHeight()));
+    }
+
+    abstract void query(RectF box);
+  }
+
   public abstract class BaseViewAction implements ViewAction {
 
     @Override
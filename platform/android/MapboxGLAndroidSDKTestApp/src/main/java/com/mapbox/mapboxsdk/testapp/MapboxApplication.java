@@ -57,6 +57,7 @@ public class MapboxApplication extends Application {
     }
 
     Mapbox.getInstance(getApplicationContext(), mapboxAccessToken);
+    Mapbox.preloadAsync();
   }
 
   private void initializeLogger() {
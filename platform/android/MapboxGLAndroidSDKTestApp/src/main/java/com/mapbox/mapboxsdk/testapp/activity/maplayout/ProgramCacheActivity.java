@@ -0,0 +1,183 @@
+package com.mapbox.mapboxsdk.testapp.activity.maplayout;
+
+import android.os.AsyncTask;
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.annotation.NonNull;
+import android.support.v7.app.AppCompatActivity;
+import android.view.Menu;
+import android.view.MenuItem;
+import android.view.ViewGroup;
+import android.widget.TextView;
+
+import com.mapbox.mapboxsdk.constants.Style;
+import com.mapbox.mapboxsdk.maps.MapStartupTrace;
+import com.mapbox.mapboxsdk.maps.MapView;
+import com.mapbox.mapboxsdk.maps.MapboxMapOptions;
+import com.mapbox.mapboxsdk.maps.renderer.ProgramCache;
+import com.mapbox.mapboxsdk.testapp.R;
+
+import java.util.Locale;
+
+import timber.log.Timber;
+
+/**
+ * Test activity benchmarking the first frame latency of a map with a cold and a warmed up program cache.
+ * <p>
+ * A cold start clears the program cache before showing the map, a warm start compiles the programs
+ * of the style with {@link ProgramCache#warmUp} first.
+ * </p>
+ */
+public class ProgramCacheActivity extends AppCompatActivity {
+
+  private static final String STYLE_URL = Style.MAPBOX_STREETS;
+
+  private ViewGroup container;
+  private TextView timingView;
+  private MapView mapView;
+
+  @Override
+  protected void onCreate(Bundle savedInstanceState) {
+    super.onCreate(savedInstanceState);
+    setContentView(R.layout.activity_program_cache);
+    container = (ViewGroup) findViewById(R.id.container);
+    timingView = (TextView) findViewById(R.id.timing);
+  }
+
+  @Override
+  public boolean onCreateOptionsMenu(Menu menu) {
+    getMenuInflater().inflate(R.menu.menu_program_cache, menu);
+    return true;
+  }
+
+  @Override
+  public boolean onOptionsItemSelected(MenuItem item) {
+    switch (item.getItemId()) {
+      case R.id.action_cold_start:
+        coldStart();
+        return true;
+      case R.id.action_warm_start:
+        warmStart();
+        return true;
+      default:
+        return super.onOptionsItemSelected(item);
+    }
+  }
+
+  private void coldStart() {
+    removeMap();
+    timingView.setText("Clearing program cache");
+    new ClearCacheTask(this).execute();
+  }
+
+  private void warmStart() {
+    removeMap();
+    timingView.setText("Warming up program cache");
+    final long start = SystemClock.elapsedRealtime();
+    ProgramCache.warmUp(this, STYLE_URL, null, new ProgramCache.WarmUpCallback() {
+      @Override
+      public void onWarmUpComplete() {
+        if (!isFinishing()) {
+          showMap("warm", SystemClock.elapsedRealtime() - start);
+        }
+      }
+
+      @Override
+      public void onError(String error) {
+        timingView.setText(error);
+      }
+    });
+  }
+
+  private void showMap(final String label, final long preparation) {
+    mapView = new MapView(this, new MapboxMapOptions().styleUrl(STYLE_URL));
+    mapView.getStartupTrace().setOnTraceCompleteListener(new MapStartupTrace.OnTraceCompleteListener() {
+      @Override
+      public void onTraceComplete(@NonNull MapStartupTrace trace) {
+        String timing = String.format(Locale.US, "%s: preparation %d ms, first frame %.0f ms, fully rendered %.0f ms",
+          label, preparation,
+          trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FRAME).getDurationMillis(),
+          trace.getSpan(MapStartupTrace.MILESTONE_FIRST_FULL_FRAME).getDurationMillis());
+        Timber.i("%s %s", timing, trace);
+        timingView.setText(timing);
+      }
+    });
+    mapView.onCreate(null);
+    container.addView(mapView);
+    mapView.onStart();
+    mapView.onResume();
+  }
+
+  private void removeMap() {
+    if (mapView != null) {
+      mapView.onPause();
+      mapView.onStop();
+      mapView.onDestroy();
+      container.removeView(mapView);
+      mapView = null;
+    }
+  }
+
+  @Override
+  protected void onStart() {
+    super.onStart();
+    if (mapView != null) {
+      mapView.onStart();
+    }
+  }
+
+  @Override
+  protected void onResume() {
+    super.onResume();
+    if (mapView != null) {
+      mapView.onResume();
+    }
+  }
+
+  @Override
+  protected void onPause() {
+    super.onPause();
+    if (mapView != null) {
+      mapView.onPause();
+    }
+  }
+
+  @Override
+  protected void onStop() {
+    super.onStop();
+    if (mapView != null) {
+      mapView.onStop();
+    }
+  }
+
+  @Override
+  protected void onDestroy() {
+    super.onDestroy();
+    if (mapView != null) {
+      mapView.onDestroy();
+    }
+  }
+
+  private static class ClearCacheTask extends AsyncTask<Void, Void, Long> {
+
+    private final ProgramCacheActivity activity;
+
+    ClearCacheTask(ProgramCacheActivity activity) {
+      this.activity = activity;
+    }
+
+    @Override
+    protected Long doInBackground(Void... params) {
+      long start = SystemClock.elapsedRealtime();
+      ProgramCache.clear(activity);
+      return SystemClock.elapsedRealtime() - start;
+    }
+
+    @Override
+    protected void onPostExecute(Long duration) {
+      if (!activity.isFinishing()) {
+        activity.showMap("cold", duration);
+      }
+    }
+  }
+}
@@ -0,0 +1,95 @@
+package com.mapbox.mapboxsdk.testapp.activity.snapshot;
+
+import android.os.Bundle;
+import android.os.SystemClock;
+import android.support.v7.app.AppCompatActivity;
+import android.view.ViewTreeObserver;
+import android.widget.GridLayout;
+import android.widget.ImageView;
+
+import com.mapbox.mapboxsdk.camera.CameraPosition;
+import com.mapbox.mapboxsdk.constants.Style;
+import com.mapbox.mapboxsdk.geometry.LatLng;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshot;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshotService;
+import com.mapbox.mapboxsdk.snapshotter.MapSnapshotter;
+import com.mapbox.mapboxsdk.testapp.R;
+
+import timber.log.Timber;
+
+/**
+ * Test activity showing how to render a batch of thumbnails with the {@link MapSnapshotService}
+ */
+public class MapSnapshotServiceActivity extends AppCompatActivity {
+
+  private static final int SNAPSHOT_COUNT = 48;
+  private static final int WORKER_COUNT = 3;
+
+  private GridLayout grid;
+  private MapSnapshotService snapshotService;
+  private int completed;
+  private long start;
+
+  @Override
+  protected void onCreate(Bundle savedInstanceState) {
+    super.onCreate(savedInstanceState);
+    setContentView(R.layout.activity_map_snapshot_service);
+    snapshotService = new MapSnapshotService(this, WORKER_COUNT);
+
+    // Start snapshotting as soon as the grid is measured
+    grid = (GridLayout) findViewById(R.id.snapshot_grid);
+    grid.getViewTreeObserver()
+      .addOnGlobalLayoutListener(new ViewTreeObserver.OnGlobalLayoutListener() {
+        @Override
+        public void onGlobalLayout() {
+          //noinspection deprecation
+          grid.getViewTreeObserver().removeGlobalOnLayoutListener(this);
+          addSnapshots();
+        }
+      });
+  }
+
+  private void addSnapshots() {
+    start = SystemClock.elapsedRealtime();
+    int size = grid.getMeasuredWidth() / grid.getColumnCount();
+    for (int i = 0; i < SNAPSHOT_COUNT; i++) {
+      final ImageView imageView = new ImageView(this);
+      grid.addView(imageView, new GridLayout.LayoutParams(
+        GridLayout.spec(i / grid.getColumnCount()), GridLayout.spec(i % grid.getColumnCount())));
+      imageView.getLayoutParams().width = size;
+      imageView.getLayoutParams().height = size;
+
+      MapSnapshotter.Options options = new MapSnapshotter.Options(size, size)
+        .withStyle(i % 2 == 0 ? Style.MAPBOX_STREETS : Style.LIGHT)
+        .withCameraPosition(new CameraPosition.Builder()
+          .target(new LatLng(52.09 + (i / 8) * 0.01, 5.12 + (i % 8) * 0.01))
+          .zoom(14)
+          .build())
+        .withLogo(false);
+
+      // Render the first row before the others
+      int priority = i < grid.getColumnCount() ? MapSnapshotService.PRIORITY_HIGH : MapSnapshotService.PRIORITY_DEFAULT;
+      snapshotService.submit(options, priority, new MapSnapshotter.SnapshotReadyCallback() {
+        @Override
+        public void onSnapshotReady(MapSnapshot snapshot) {
+          imageView.setImageBitmap(snapshot.getBitmap());
+          if (++completed == SNAPSHOT_COUNT) {
+            Timber.i("Rendered %d snapshots with %d workers in %d ms",
+              SNAPSHOT_COUNT, WORKER_COUNT, SystemClock.elapsedRealtime() - start);
+          }
+        }
+      }, new MapSnapshotter.ErrorHandler() {
+        @Override
+        public void onError(String error) {
+          Timber.e("Snapshot failed: %s", error);
+        }
+      });
+    }
+  }
+
+  @Override
+  protected void onDestroy() {
+    super.onDestroy();
+    snapshotService.release();
+  }
+}
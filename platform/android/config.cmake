@@ -196,6 +196,8 @@ add_library(mbgl-android STATIC
     platform/android/src/style/functions/interval_stops.hpp
     platform/android/src/style/position.cpp
     platform/android/src/style/position.hpp
+    platform/android/src/style/query_options.cpp
+    platform/android/src/style/query_options.hpp
     platform/android/src/style/light.cpp
     platform/android/src/style/light.hpp
 
@@ -216,6 +218,7 @@ add_library(mbgl-android STATIC
     platform/android/src/map_renderer_runnable.hpp
 
     # Java core classes
+    platform/android/src/java/nio.hpp
     platform/android/src/java/util.cpp
     platform/android/src/java/util.hpp
 
@@ -228,6 +231,8 @@ add_library(mbgl-android STATIC
     # GeoJSON
     platform/android/src/geojson/feature.cpp
     platform/android/src/geojson/feature.hpp
+    platform/android/src/geojson/feature_buffer.cpp
+    platform/android/src/geojson/feature_buffer.hpp
     platform/android/src/geojson/feature_collection.cpp
     platform/android/src/geojson/feature_collection.hpp
     platform/android/src/geojson/geometry.cpp
@@ -276,6 +281,8 @@ add_library(mbgl-android STATIC
     platform/android/src/annotation/polyline.hpp
 
     # Offline
+    platform/android/src/offline/ambient_cache_stats.cpp
+    platform/android/src/offline/ambient_cache_stats.hpp
     platform/android/src/offline/offline_manager.cpp
     platform/android/src/offline/offline_manager.hpp
     platform/android/src/offline/offline_region.cpp
@@ -286,6 +293,8 @@ add_library(mbgl-android STATIC
     platform/android/src/offline/offline_region_error.hpp
     platform/android/src/offline/offline_region_status.cpp
     platform/android/src/offline/offline_region_status.hpp
+    platform/android/src/offline/offline_region_summary.cpp
+    platform/android/src/offline/offline_region_summary.hpp
 
     # Snapshots (SDK)
     platform/android/src/snapshotter/map_snapshotter.cpp
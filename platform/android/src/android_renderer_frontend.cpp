@@ -8,6 +8,8 @@
 #include <mbgl/util/run_loop.hpp>
 
 #include "android_renderer_backend.hpp"
+#include "attach_env.hpp"
+#include "jni/generic_global_ref_deleter.hpp"
 
 namespace mbgl {
 namespace android {
@@ -107,6 +109,65 @@ std::vector<Feature> AndroidRendererFrontend::queryRenderedFeatures(const Screen
     return mapRenderer.actor().ask(fn, point, options).get();
 }
 
+uint64_t AndroidRendererFrontend::queryRenderedFeatures(const ScreenCoordinate& point,
+                                                       const RenderedQueryOptions& options,
+                                                       QueryConversion convert,
+                                                       QueryCallback callback) {
+    return requestQuery([point, options](const Renderer& renderer) {
+        return renderer.queryRenderedFeatures(point, options);
+    }, std::move(convert), std::move(callback));
+}
+
+uint64_t AndroidRendererFrontend::queryRenderedFeatures(const ScreenBox& box,
+                                                       const RenderedQueryOptions& options,
+                                                       QueryConversion convert,
+                                                       QueryCallback callback) {
+    return requestQuery([box, options](const Renderer& renderer) {
+        return renderer.queryRenderedFeatures(box, options);
+    }, std::move(convert), std::move(callback));
+}
+
+void AndroidRendererFrontend::cancelRenderedFeaturesQuery() {
+    ++*latestQuery;
+}
+
+uint64_t AndroidRendererFrontend::requestQuery(QueryFunction query, QueryConversion convert, QueryCallback callback) {
+    const uint64_t id = ++*latestQuery;
+    std::weak_ptr<std::atomic<uint64_t>> weakLatestQuery = latestQuery;
+    auto isLatest = [id, weakLatestQuery] {
+        auto latest = weakLatestQuery.lock();
+        return latest && *latest == id;
+    };
+
+    mapRenderer.requestQuery([id, isLatest, query=std::move(query), convert=std::move(convert),
+                              callback=std::move(callback), runLoop=mapRunLoop](const Renderer* renderer) {
+        // Superseded queries are skipped if they haven't started, or been converted, yet
+        if (!isLatest()) return;
+
+        // Without a renderer there is nothing rendered to query
+        auto start = Clock::now();
+        auto features = renderer ? query(*renderer) : std::vector<Feature>();
+        auto duration = Clock::now() - start;
+        if (!isLatest()) return;
+
+        // The map thread only delivers the result, through a global reference
+        android::UniqueEnv env = android::AttachEnv();
+        auto jFeatures = convert(*env, std::move(features));
+        std::shared_ptr<jni::jarray<jni::jobject>> result(
+            jni::NewGlobalRef(*env, jFeatures.Get()).release(), GenericGlobalRefDeleter());
+        jni::DeleteLocalRef(*env, jFeatures);
+
+        runLoop->invoke([id, isLatest, callback, result, duration] {
+            // The latest query expires with the frontend, and so does the callback
+            if (isLatest()) {
+                callback(id, jni::Array<jni::Object<geojson::Feature>>(result.get()), duration);
+            }
+        });
+    });
+
+    return id;
+}
+
 AnnotationIDs AndroidRendererFrontend::queryPointAnnotations(const ScreenBox& box) const {
     // Waits for the result from the orchestration thread and returns
     return mapRenderer.actor().ask(&Renderer::queryPointAnnotations, box).get();
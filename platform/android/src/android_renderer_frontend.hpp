@@ -3,15 +3,18 @@
 #include <mbgl/actor/actor.hpp>
 #include <mbgl/annotation/annotation.hpp>
 #include <mbgl/renderer/renderer_frontend.hpp>
+#include <mbgl/util/chrono.hpp>
 #include <mbgl/util/geo.hpp>
 #include <mbgl/util/run_loop.hpp>
 
+#include <atomic>
 #include <functional>
 #include <memory>
 #include <vector>
 #include <string>
 
 #include "map_renderer.hpp"
+#include "geojson/feature.hpp"
 
 namespace mbgl {
 
@@ -38,12 +41,28 @@ public:
     AnnotationIDs queryPointAnnotations(const ScreenBox& box) const;
     AnnotationIDs queryShapeAnnotations(const ScreenBox& box) const;
 
+    // Asynchronous feature querying - only the latest query is answered. The query and
+    // the conversion of its features run on the GL Thread, unless a newer query or a
+    // cancellation superseded it. The callback is invoked on the map thread with the id
+    // of the query, the converted features and the time the query took.
+    using QueryConversion = std::function<jni::Array<jni::Object<geojson::Feature>> (JNIEnv&, std::vector<Feature>)>;
+    using QueryCallback = std::function<void (uint64_t, jni::Array<jni::Object<geojson::Feature>>, Duration)>;
+    uint64_t queryRenderedFeatures(const ScreenCoordinate&, const RenderedQueryOptions&, QueryConversion, QueryCallback);
+    uint64_t queryRenderedFeatures(const ScreenBox&, const RenderedQueryOptions&, QueryConversion, QueryCallback);
+    void cancelRenderedFeaturesQuery();
+
     // Memory
     void onLowMemory();
 
 private:
+    using QueryFunction = std::function<std::vector<Feature> (const Renderer&)>;
+    uint64_t requestQuery(QueryFunction, QueryConversion, QueryCallback);
+
     MapRenderer& mapRenderer;
     util::RunLoop* mapRunLoop;
+
+    // Id of the latest asynchronous query
+    std::shared_ptr<std::atomic<uint64_t>> latestQuery = std::make_shared<std::atomic<uint64_t>>(0);
 };
 
 } // namespace android
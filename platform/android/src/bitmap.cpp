@@ -79,16 +79,25 @@ jni::Object<Bitmap> Bitmap::CreateBitmap(jni::JNIEnv& env,
 jni::Object<Bitmap> Bitmap::CreateBitmap(jni::JNIEnv& env, const PremultipliedImage& image) {
     auto bitmap = CreateBitmap(env, image.size.width, image.size.height, Config::ARGB_8888);
 
+    if (!CopyImage(env, image, bitmap)) {
+        // TODO: more specific information
+        throw std::runtime_error("bitmap creation: couldn't get bitmap info");
+    }
+
+    return bitmap;
+}
+
+bool Bitmap::CopyImage(jni::JNIEnv& env, const PremultipliedImage& image, jni::Object<Bitmap> bitmap) {
     AndroidBitmapInfo info;
     const int result = AndroidBitmap_getInfo(&env, jni::Unwrap(*bitmap), &info);
     if (result != ANDROID_BITMAP_RESULT_SUCCESS) {
-        // TODO: more specific information
-        throw std::runtime_error("bitmap creation: couldn't get bitmap info");
+        return false;
     }
 
-    assert(info.width == image.size.width);
-    assert(info.height == image.size.height);
-    assert(info.format == ANDROID_BITMAP_FORMAT_RGBA_8888);
+    if (info.width != image.size.width || info.height != image.size.height ||
+        info.format != ANDROID_BITMAP_FORMAT_RGBA_8888) {
+        return false;
+    }
 
     PixelGuard guard(env, bitmap);
 
@@ -98,7 +107,7 @@ jni::Object<Bitmap> Bitmap::CreateBitmap(jni::JNIEnv& env, const PremultipliedIm
         std::copy(begin, begin + image.stride(), guard.get() + y * info.stride);
     }
 
-    return bitmap;
+    return true;
 }
 
 PremultipliedImage Bitmap::GetImage(jni::JNIEnv& env, jni::Object<Bitmap> bitmap) {
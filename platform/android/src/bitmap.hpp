@@ -44,6 +44,9 @@ public:
     static PremultipliedImage GetImage(jni::JNIEnv&, jni::Object<Bitmap>);
     static jni::Object<Bitmap> CreateBitmap(jni::JNIEnv&, const PremultipliedImage&);
 
+    // Copies the image into an existing ARGB_8888 bitmap of the same size, returns false if it doesn't match
+    static bool CopyImage(jni::JNIEnv&, const PremultipliedImage&, jni::Object<Bitmap>);
+
 private:
     static jni::Class<Bitmap> _class;
 };
@@ -169,9 +169,12 @@ struct Converter<jni::jobject*, std::unordered_map<std::string, mbgl::Value>> {
 };
 
 
+/**
+ * Turn a feature into a Java Feature, without its geometry if includeGeometry is false
+ */
 template <>
 struct Converter<jni::Object<android::geojson::Feature>, mbgl::Feature> {
-    Result<jni::Object<android::geojson::Feature>> operator()(jni::JNIEnv& env, const mbgl::Feature& value) const {
+    Result<jni::Object<android::geojson::Feature>> operator()(jni::JNIEnv& env, const mbgl::Feature& value, bool includeGeometry = true) const {
 
         // Convert Id
         FeatureIdVisitor idEvaluator;
@@ -182,14 +185,17 @@ struct Converter<jni::Object<android::geojson::Feature>, mbgl::Feature> {
         auto properties = jni::Object<gson::JsonObject>(*convert<jni::jobject*>(env, value.properties));
 
         // Convert geometry
-        auto geometry = jni::Object<android::geojson::Geometry>(*convert<jni::jobject*>(env, value.geometry));
+        auto geometry = includeGeometry ? jni::Object<android::geojson::Geometry>(*convert<jni::jobject*>(env, value.geometry))
+                                        : jni::Object<android::geojson::Geometry>();
 
         // Create feature
         auto feature = android::geojson::Feature::fromGeometry(env, geometry, properties, jid);
 
         //Cleanup
         jni::DeleteLocalRef(env, jid);
-        jni::DeleteLocalRef(env, geometry);
+        if (geometry) {
+            jni::DeleteLocalRef(env, geometry);
+        }
         jni::DeleteLocalRef(env, properties);
 
         return feature;
@@ -198,12 +204,12 @@ struct Converter<jni::Object<android::geojson::Feature>, mbgl::Feature> {
 
 template <>
 struct Converter<jni::Array<jni::Object<android::geojson::Feature>>, std::vector<mbgl::Feature>> {
-    Result<jni::Array<jni::Object<android::geojson::Feature>>> operator()(jni::JNIEnv& env, const std::vector<mbgl::Feature>& value) const {
+    Result<jni::Array<jni::Object<android::geojson::Feature>>> operator()(jni::JNIEnv& env, const std::vector<mbgl::Feature>& value, bool includeGeometry = true) const {
         using namespace mbgl::android::geojson;
         auto features = jni::Array<jni::Object<Feature>>::New(env, value.size(), Feature::javaClass);
 
         for(size_t i = 0; i < value.size(); i = i + 1) {
-            auto converted = *convert<jni::Object<android::geojson::Feature>, mbgl::Feature>(env, value.at(i));
+            auto converted = *convert<jni::Object<android::geojson::Feature>, mbgl::Feature>(env, value.at(i), includeGeometry);
             features.Set(env, i, converted);
             jni::DeleteLocalRef(env, converted);
         }
@@ -0,0 +1,262 @@
+#include "feature_buffer.hpp"
+
+#include <cstring>
+#include <stdexcept>
+
+namespace mbgl {
+namespace android {
+namespace geojson {
+
+namespace {
+
+// Keep in sync with FeatureBuffer.java
+constexpr int32_t version = 1;
+
+// Id type, geometry type, point or element count and property count
+constexpr std::size_t minimumFeatureSize = 1 + 1 + sizeof(int32_t) + sizeof(int32_t);
+
+enum : uint8_t { IdNone = 0, IdNumber = 1, IdString = 2 };
+
+enum : uint8_t {
+    GeometryPoint = 1,
+    GeometryMultiPoint = 2,
+    GeometryLineString = 3,
+    GeometryMultiLineString = 4,
+    GeometryPolygon = 5,
+    GeometryMultiPolygon = 6
+};
+
+enum : uint8_t { ValueNull = 0, ValueBoolean = 1, ValueDouble = 2, ValueLong = 3, ValueString = 4 };
+
+class Reader {
+public:
+    Reader(const char* data_, std::size_t length_)
+        : data(data_), length(length_) {
+    }
+
+    template <class T>
+    T read() {
+        require(sizeof(T));
+        T value;
+        std::memcpy(&value, data + offset, sizeof(T));
+        offset += sizeof(T);
+        return value;
+    }
+
+    // Reads a count of elements, each taking at least the given number of bytes
+    std::size_t readCount(std::size_t elementSize) {
+        const auto count = read<int32_t>();
+        if (count < 0) {
+            throw std::runtime_error("Invalid feature buffer: negative count");
+        }
+        requireCount(count, elementSize);
+        return count;
+    }
+
+    // Checks that the remaining data can hold a count of elements before space is reserved for them
+    void requireCount(std::size_t count, std::size_t elementSize) const {
+        if (count > (length - offset) / elementSize) {
+            throw std::runtime_error("Invalid feature buffer: unexpected end of data");
+        }
+    }
+
+    std::string readString() {
+        const std::size_t size = readCount(1);
+        std::string result(data + offset, size);
+        offset += size;
+        return result;
+    }
+
+    void seek(std::size_t offset_) {
+        if (offset_ > length) {
+            throw std::runtime_error("Invalid feature buffer: offset out of range");
+        }
+        offset = offset_;
+    }
+
+private:
+    void require(std::size_t size) const {
+        if (size > length - offset) {
+            throw std::runtime_error("Invalid feature buffer: unexpected end of data");
+        }
+    }
+
+    const char* data;
+    const std::size_t length;
+    std::size_t offset = 0;
+};
+
+class Decoder {
+public:
+    Decoder(const char* data, std::size_t length)
+        : reader(data, length) {
+    }
+
+    mbgl::FeatureCollection decode() {
+        if (reader.read<int32_t>() != version) {
+            throw std::runtime_error("Invalid feature buffer: unsupported version");
+        }
+        const auto featureCount = reader.read<int32_t>();
+        const auto stringTableOffset = reader.read<int32_t>();
+        if (featureCount < 0 || stringTableOffset < 0) {
+            throw std::runtime_error("Invalid feature buffer: corrupt header");
+        }
+        const std::size_t featuresOffset = 3 * sizeof(int32_t);
+
+        // The strings are referenced by index from the features, read them first
+        reader.seek(stringTableOffset);
+        const std::size_t stringCount = reader.readCount(sizeof(int32_t));
+        strings.reserve(stringCount);
+        for (std::size_t i = 0; i < stringCount; ++i) {
+            strings.push_back(reader.readString());
+        }
+
+        reader.seek(featuresOffset);
+        reader.requireCount(featureCount, minimumFeatureSize);
+        mbgl::FeatureCollection features;
+        features.reserve(featureCount);
+        for (int32_t i = 0; i < featureCount; ++i) {
+            features.push_back(readFeature());
+        }
+        return features;
+    }
+
+private:
+    mbgl::Feature readFeature() {
+        std::experimental::optional<mapbox::geometry::identifier> id;
+        switch (reader.read<uint8_t>()) {
+        case IdNone:
+            break;
+        case IdNumber: {
+            const auto number = reader.read<int64_t>();
+            if (number >= 0) {
+                id = { uint64_t(number) };
+            } else {
+                id = { number };
+            }
+            break;
+        }
+        case IdString:
+            id = { readIndexedString() };
+            break;
+        default:
+            throw std::runtime_error("Invalid feature buffer: unknown id type");
+        }
+
+        mbgl::Feature feature { readGeometry() };
+        feature.id = std::move(id);
+
+        const std::size_t propertyCount = reader.readCount(sizeof(int32_t) + 1);
+        for (std::size_t i = 0; i < propertyCount; ++i) {
+            std::string key = readIndexedString();
+            feature.properties[std::move(key)] = readValue();
+        }
+
+        return feature;
+    }
+
+    mapbox::geometry::geometry<double> readGeometry() {
+        switch (reader.read<uint8_t>()) {
+        case GeometryPoint:
+            return readPoint();
+        case GeometryMultiPoint:
+            return readPoints<mapbox::geometry::multi_point<double>>();
+        case GeometryLineString:
+            return readPoints<mapbox::geometry::line_string<double>>();
+        case GeometryMultiLineString:
+            return readLines<mapbox::geometry::multi_line_string<double>>();
+        case GeometryPolygon:
+            return readLines<mapbox::geometry::polygon<double>>();
+        case GeometryMultiPolygon: {
+            mapbox::geometry::multi_polygon<double> polygons;
+            const std::size_t count = reader.readCount(sizeof(int32_t));
+            polygons.reserve(count);
+            for (std::size_t i = 0; i < count; ++i) {
+                polygons.push_back(readLines<mapbox::geometry::polygon<double>>());
+            }
+            return polygons;
+        }
+        default:
+            throw std::runtime_error("Invalid feature buffer: unknown geometry type");
+        }
+    }
+
+    mapbox::geometry::point<double> readPoint() {
+        const auto x = reader.read<double>();
+        const auto y = reader.read<double>();
+        return { x, y };
+    }
+
+    template <class Points>
+    Points readPoints() {
+        Points points;
+        const std::size_t count = reader.readCount(2 * sizeof(double));
+        points.reserve(count);
+        for (std::size_t i = 0; i < count; ++i) {
+            points.push_back(readPoint());
+        }
+        return points;
+    }
+
+    template <class Lines>
+    Lines readLines() {
+        Lines lines;
+        const std::size_t count = reader.readCount(sizeof(int32_t));
+        lines.reserve(count);
+        for (std::size_t i = 0; i < count; ++i) {
+            lines.push_back(readPoints<typename Lines::value_type>());
+        }
+        return lines;
+    }
+
+    mbgl::Value readValue() {
+        switch (reader.read<uint8_t>()) {
+        case ValueNull:
+            return mbgl::NullValue();
+        case ValueBoolean:
+            return bool(reader.read<uint8_t>());
+        case ValueDouble:
+            return reader.read<double>();
+        case ValueLong: {
+            const auto value = reader.read<int64_t>();
+            if (value >= 0) {
+                return uint64_t(value);
+            }
+            return value;
+        }
+        case ValueString:
+            return readIndexedString();
+        default:
+            throw std::runtime_error("Invalid feature buffer: unknown value type");
+        }
+    }
+
+    const std::string& readIndexedString() {
+        const auto index = reader.read<int32_t>();
+        if (index < 0 || std::size_t(index) >= strings.size()) {
+            throw std::runtime_error("Invalid feature buffer: string index out of range");
+        }
+        return strings[index];
+    }
+
+    Reader reader;
+    std::vector<std::string> strings;
+};
+
+} // namespace
+
+mbgl::FeatureCollection FeatureBuffer::convert(jni::JNIEnv& env, jni::Object<java::nio::ByteBuffer> jBuffer, jni::jint length) {
+    auto data = static_cast<const char*>(env.GetDirectBufferAddress(jni::Unwrap(jBuffer.Get())));
+    if (!data || length < 0 || length > env.GetDirectBufferCapacity(jni::Unwrap(jBuffer.Get()))) {
+        throw std::runtime_error("Invalid feature buffer: not a direct buffer");
+    }
+    return convert(data, std::size_t(length));
+}
+
+mbgl::FeatureCollection FeatureBuffer::convert(const char* data, std::size_t length) {
+    return Decoder(data, length).decode();
+}
+
+} // namespace geojson
+} // namespace android
+} // namespace mbgl
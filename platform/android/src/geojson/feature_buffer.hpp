@@ -0,0 +1,27 @@
+#pragma once
+
+#include "../java/nio.hpp"
+
+#include <mbgl/util/geojson.hpp>
+#include <mbgl/util/noncopyable.hpp>
+
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+namespace geojson {
+
+class FeatureBuffer : private mbgl::util::noncopyable {
+public:
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/style/sources/FeatureBuffer"; };
+
+    // Converts the packed features of a direct buffer, see FeatureBuffer.java for the layout.
+    // Throws std::runtime_error if the buffer is malformed.
+    static mbgl::FeatureCollection convert(jni::JNIEnv&, jni::Object<java::nio::ByteBuffer>, jni::jint length);
+
+    static mbgl::FeatureCollection convert(const char* data, std::size_t length);
+};
+
+} // namespace geojson
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,20 @@
+#pragma once
+
+#include <mbgl/util/noncopyable.hpp>
+
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+namespace java {
+namespace nio {
+
+class ByteBuffer : private mbgl::util::noncopyable {
+public:
+    static constexpr auto Name() { return "java/nio/ByteBuffer"; };
+};
+
+} // namespace nio
+} // namespace java
+} // namespace android
+} // namespace mbgl
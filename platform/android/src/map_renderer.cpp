@@ -96,6 +96,11 @@ void MapRenderer::requestSnapshot(SnapshotCallback callback) {
     );
 }
 
+void MapRenderer::requestQuery(QueryTask task) {
+    auto self = ActorRef<MapRenderer>(*this, mailbox);
+    self.invoke(&MapRenderer::runQuery, std::make_unique<QueryTask>(std::move(task)));
+}
+
 // Called on OpenGL thread //
 
 void MapRenderer::resetRenderer() {
@@ -108,6 +113,10 @@ void MapRenderer::scheduleSnapshot(std::unique_ptr<SnapshotCallback> callback) {
     requestRender();
 }
 
+void MapRenderer::runQuery(std::unique_ptr<QueryTask> task) {
+    (*task)(renderer.get());
+}
+
 void MapRenderer::render(JNIEnv&) {
     assert (renderer);
 
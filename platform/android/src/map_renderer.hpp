@@ -3,6 +3,7 @@
 #include <mbgl/actor/scheduler.hpp>
 #include <mbgl/util/image.hpp>
 
+#include <functional>
 #include <memory>
 #include <utility>
 
@@ -80,11 +81,19 @@ public:
     using SnapshotCallback = std::function<void (PremultipliedImage)>;
     void requestSnapshot(SnapshotCallback);
 
+    // Feature querying - the task runs on the GL Thread without
+    // blocking the calling thread. It receives no renderer when
+    // there is none.
+    using QueryTask = std::function<void (const Renderer*)>;
+    void requestQuery(QueryTask);
+
 protected:
     // Called from the GL Thread //
 
     void scheduleSnapshot(std::unique_ptr<SnapshotCallback>);
 
+    void runQuery(std::unique_ptr<QueryTask>);
+
 private:
     // Called from the GL Thread //
 
@@ -37,6 +37,7 @@
 #include "conversion/conversion.hpp"
 #include "conversion/collection.hpp"
 #include "style/conversion/filter.hpp"
+#include "style/query_options.hpp"
 #include "geojson/conversion/feature.hpp"
 
 #include "jni.hpp"
@@ -654,41 +655,105 @@ jni::Array<jlong> NativeMapView::queryShapeAnnotations(JNIEnv &env, jni::Object<
     return result;
 }
 
-jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesForPoint(JNIEnv& env, jni::jfloat x, jni::jfloat y,
-                                                                              jni::Array<jni::String> layerIds,
-                                                                              jni::Array<jni::Object<>> jfilter) {
+// Layers and filter of a rendered feature query, no layer ids query all layers
+static RenderedQueryOptions toRenderedQueryOptions(JNIEnv& env, jni::Array<jni::String> layerIds,
+                                                   jni::Array<jni::Object<>> jfilter) {
     using namespace mbgl::android::conversion;
-    using namespace mbgl::android::geojson;
 
     mbgl::optional<std::vector<std::string>> layers;
     if (layerIds != nullptr && layerIds.Length(env) > 0) {
-        layers = android::conversion::toVector(env, layerIds);
+        layers = toVector(env, layerIds);
     }
+    return { layers, toFilter(env, jfilter) };
+}
+
+static mbgl::ScreenBox toScreenBox(jni::jfloat left, jni::jfloat top, jni::jfloat right, jni::jfloat bottom) {
+    return {
+            mapbox::geometry::point<double>{ left, top},
+            mapbox::geometry::point<double>{ right, bottom }
+    };
+}
+
+jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesForPoint(JNIEnv& env, jni::jfloat x, jni::jfloat y,
+                                                                              jni::Array<jni::String> layerIds,
+                                                                              jni::Array<jni::Object<>> jfilter,
+                                                                              jni::jint limit, jni::jboolean geometry,
+                                                                              jni::Array<jni::String> properties) {
     mapbox::geometry::point<double> point = {x, y};
 
-    return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(
-            env,
-            rendererFrontend->queryRenderedFeatures(point, { layers, toFilter(env, jfilter) }));
+    return QueryOptions(env, limit, geometry, properties).convert(env,
+            rendererFrontend->queryRenderedFeatures(point, toRenderedQueryOptions(env, layerIds, jfilter)));
 }
 
 jni::Array<jni::Object<geojson::Feature>> NativeMapView::queryRenderedFeaturesForBox(JNIEnv& env, jni::jfloat left, jni::jfloat top,
                                                                             jni::jfloat right, jni::jfloat bottom, jni::Array<jni::String> layerIds,
-                                                                            jni::Array<jni::Object<>> jfilter) {
-    using namespace mbgl::android::conversion;
-    using namespace mbgl::android::geojson;
+                                                                            jni::Array<jni::Object<>> jfilter,
+                                                                            jni::jint limit, jni::jboolean geometry,
+                                                                            jni::Array<jni::String> properties) {
+    return QueryOptions(env, limit, geometry, properties).convert(env,
+            rendererFrontend->queryRenderedFeatures(toScreenBox(left, top, right, bottom),
+                                                    toRenderedQueryOptions(env, layerIds, jfilter)));
+}
+
+jni::Array<jni::String> NativeMapView::queryRenderedFeatureIdsForPoint(JNIEnv& env, jni::jfloat x, jni::jfloat y,
+                                                                      jni::Array<jni::String> layerIds,
+                                                                      jni::Array<jni::Object<>> jfilter,
+                                                                      jni::jint limit) {
+    mapbox::geometry::point<double> point = {x, y};
 
-    mbgl::optional<std::vector<std::string>> layers;
-    if (layerIds != nullptr && layerIds.Length(env) > 0) {
-        layers = toVector(env, layerIds);
-    }
-    mapbox::geometry::box<double> box = {
-            mapbox::geometry::point<double>{ left, top},
-            mapbox::geometry::point<double>{ right, bottom }
+    return QueryOptions::convertIds(env,
+            rendererFrontend->queryRenderedFeatures(point, toRenderedQueryOptions(env, layerIds, jfilter)), limit);
+}
+
+jni::Array<jni::String> NativeMapView::queryRenderedFeatureIdsForBox(JNIEnv& env, jni::jfloat left, jni::jfloat top,
+                                                                    jni::jfloat right, jni::jfloat bottom,
+                                                                    jni::Array<jni::String> layerIds,
+                                                                    jni::Array<jni::Object<>> jfilter,
+                                                                    jni::jint limit) {
+    return QueryOptions::convertIds(env,
+            rendererFrontend->queryRenderedFeatures(toScreenBox(left, top, right, bottom),
+                                                    toRenderedQueryOptions(env, layerIds, jfilter)), limit);
+}
+
+jni::jlong NativeMapView::queryRenderedFeaturesForPointAsync(JNIEnv& env, jni::jfloat x, jni::jfloat y,
+                                                             jni::Array<jni::String> layerIds,
+                                                             jni::Array<jni::Object<>> jfilter,
+                                                             jni::jint limit, jni::jboolean geometry,
+                                                             jni::Array<jni::String> properties) {
+    mapbox::geometry::point<double> point = {x, y};
+
+    return rendererFrontend->queryRenderedFeatures(point, toRenderedQueryOptions(env, layerIds, jfilter),
+            queriedFeaturesConversion(QueryOptions(env, limit, geometry, properties)), queriedFeaturesCallback());
+}
+
+jni::jlong NativeMapView::queryRenderedFeaturesForBoxAsync(JNIEnv& env, jni::jfloat left, jni::jfloat top,
+                                                           jni::jfloat right, jni::jfloat bottom,
+                                                           jni::Array<jni::String> layerIds,
+                                                           jni::Array<jni::Object<>> jfilter,
+                                                           jni::jint limit, jni::jboolean geometry,
+                                                           jni::Array<jni::String> properties) {
+    return rendererFrontend->queryRenderedFeatures(toScreenBox(left, top, right, bottom),
+            toRenderedQueryOptions(env, layerIds, jfilter),
+            queriedFeaturesConversion(QueryOptions(env, limit, geometry, properties)), queriedFeaturesCallback());
+}
+
+void NativeMapView::cancelRenderedFeaturesQuery(JNIEnv&) {
+    rendererFrontend->cancelRenderedFeaturesQuery();
+}
+
+AndroidRendererFrontend::QueryConversion NativeMapView::queriedFeaturesConversion(QueryOptions queryOptions) {
+    return [queryOptions](JNIEnv& env, std::vector<Feature> features) {
+        return queryOptions.convert(env, std::move(features));
     };
+}
 
-    return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(
-            env,
-            rendererFrontend->queryRenderedFeatures(box, { layers, toFilter(env, jfilter) }));
+AndroidRendererFrontend::QueryCallback NativeMapView::queriedFeaturesCallback() {
+    return [this](uint64_t id, jni::Array<jni::Object<geojson::Feature>> features, Duration duration) {
+        auto _env = android::AttachEnv();
+        static auto onRenderedFeaturesQueried = javaClass.GetMethod<void (jni::jlong, jni::Array<jni::Object<geojson::Feature>>, jni::jdouble)>(*_env, "onRenderedFeaturesQueried");
+        javaPeer->Call(*_env, onRenderedFeaturesQueried, jni::jlong(id), features,
+                       jni::jdouble(std::chrono::duration<double, std::milli>(duration).count()));
+    };
 }
 
 jni::Object<Light> NativeMapView::getLight(JNIEnv& env) {
@@ -1021,6 +1086,11 @@ void NativeMapView::registerNative(jni::JNIEnv& env) {
             METHOD(&NativeMapView::queryShapeAnnotations, "nativeQueryShapeAnnotations"),
             METHOD(&NativeMapView::queryRenderedFeaturesForPoint, "nativeQueryRenderedFeaturesForPoint"),
             METHOD(&NativeMapView::queryRenderedFeaturesForBox, "nativeQueryRenderedFeaturesForBox"),
+            METHOD(&NativeMapView::queryRenderedFeatureIdsForPoint, "nativeQueryRenderedFeatureIdsForPoint"),
+            METHOD(&NativeMapView::queryRenderedFeatureIdsForBox, "nativeQueryRenderedFeatureIdsForBox"),
+            METHOD(&NativeMapView::queryRenderedFeaturesForPointAsync, "nativeQueryRenderedFeaturesForPointAsync"),
+            METHOD(&NativeMapView::queryRenderedFeaturesForBoxAsync, "nativeQueryRenderedFeaturesForBoxAsync"),
+            METHOD(&NativeMapView::cancelRenderedFeaturesQuery, "nativeCancelRenderedFeaturesQuery"),
             METHOD(&NativeMapView::getLight, "nativeGetLight"),
             METHOD(&NativeMapView::getLayers, "nativeGetLayers"),
             METHOD(&NativeMapView::getLayer, "nativeGetLayer"),
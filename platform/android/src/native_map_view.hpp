@@ -25,6 +25,8 @@
 #include "map/image.hpp"
 #include "style/light.hpp"
 #include "bitmap.hpp"
+#include "android_renderer_frontend.hpp"
+#include "style/query_options.hpp"
 
 #include <exception>
 #include <string>
@@ -36,7 +38,6 @@
 namespace mbgl {
 namespace android {
 
-class AndroidRendererFrontend;
 class FileSource;
 class MapRenderer;
 
@@ -202,11 +203,34 @@ public:
 
     jni::Array<jni::Object<geojson::Feature>> queryRenderedFeaturesForPoint(JNIEnv&, jni::jfloat, jni::jfloat,
                                                                    jni::Array<jni::String>,
-                                                                   jni::Array<jni::Object<>> jfilter);
+                                                                   jni::Array<jni::Object<>> jfilter,
+                                                                   jni::jint limit, jni::jboolean geometry,
+                                                                   jni::Array<jni::String> properties);
 
     jni::Array<jni::Object<geojson::Feature>> queryRenderedFeaturesForBox(JNIEnv&, jni::jfloat, jni::jfloat, jni::jfloat,
                                                                  jni::jfloat, jni::Array<jni::String>,
-                                                                 jni::Array<jni::Object<>> jfilter);
+                                                                 jni::Array<jni::Object<>> jfilter,
+                                                                 jni::jint limit, jni::jboolean geometry,
+                                                                 jni::Array<jni::String> properties);
+
+    jni::Array<jni::String> queryRenderedFeatureIdsForPoint(JNIEnv&, jni::jfloat, jni::jfloat, jni::Array<jni::String>,
+                                                            jni::Array<jni::Object<>> jfilter, jni::jint limit);
+
+    jni::Array<jni::String> queryRenderedFeatureIdsForBox(JNIEnv&, jni::jfloat, jni::jfloat, jni::jfloat, jni::jfloat,
+                                                          jni::Array<jni::String>, jni::Array<jni::Object<>> jfilter,
+                                                          jni::jint limit);
+
+    jni::jlong queryRenderedFeaturesForPointAsync(JNIEnv&, jni::jfloat, jni::jfloat, jni::Array<jni::String>,
+                                                  jni::Array<jni::Object<>> jfilter,
+                                                  jni::jint limit, jni::jboolean geometry,
+                                                  jni::Array<jni::String> properties);
+
+    jni::jlong queryRenderedFeaturesForBoxAsync(JNIEnv&, jni::jfloat, jni::jfloat, jni::jfloat, jni::jfloat,
+                                                jni::Array<jni::String>, jni::Array<jni::Object<>> jfilter,
+                                                jni::jint limit, jni::jboolean geometry,
+                                                jni::Array<jni::String> properties);
+
+    void cancelRenderedFeaturesQuery(JNIEnv&);
 
     jni::Object<Light> getLight(JNIEnv&);
 
@@ -249,6 +273,12 @@ public:
     jni::jboolean getPrefetchesTiles(JNIEnv&);
 
 private:
+    // Converts the features of an asynchronous query on the GL thread, as the options allow
+    static AndroidRendererFrontend::QueryConversion queriedFeaturesConversion(QueryOptions);
+
+    // Delivers the features of the latest asynchronous query to the java peer
+    AndroidRendererFrontend::QueryCallback queriedFeaturesCallback();
+
     std::unique_ptr<AndroidRendererFrontend> rendererFrontend;
 
     JavaVM *vm = nullptr;
@@ -0,0 +1,26 @@
+#include "ambient_cache_stats.hpp"
+
+namespace mbgl {
+namespace android {
+
+jni::Object<AmbientCacheStats> AmbientCacheStats::New(jni::JNIEnv& env, mbgl::AmbientCacheStats stats) {
+    static auto constructor = javaClass.GetConstructor<jlong, jlong, jlong, jlong, jlong, jlong, jlong>(env);
+    return javaClass.New(env, constructor,
+        jlong(stats.hitCount),
+        jlong(stats.missCount),
+        jlong(stats.resourceCount),
+        jlong(stats.resourceSize),
+        jlong(stats.databaseSize),
+        jlong(stats.freeSize),
+        jlong(stats.maximumSize)
+    );
+}
+
+jni::Class<AmbientCacheStats> AmbientCacheStats::javaClass;
+
+void AmbientCacheStats::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<AmbientCacheStats>::Find(env).NewGlobalRef(env).release();
+}
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,21 @@
+#pragma once
+
+#include <mbgl/storage/offline.hpp>
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+
+class AmbientCacheStats {
+public:
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/AmbientCacheStats"; };
+
+    static jni::Object<AmbientCacheStats> New(jni::JNIEnv&, mbgl::AmbientCacheStats stats);
+
+    static jni::Class<AmbientCacheStats> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+};
+
+} // namespace android
+} // namespace mbgl
@@ -1,4 +1,6 @@
 #include "offline_manager.hpp"
+#include "ambient_cache_stats.hpp"
+#include "offline_region_summary.hpp"
 
 #include <mbgl/util/string.hpp>
 
@@ -39,6 +41,55 @@ void OfflineManager::listOfflineRegions(jni::JNIEnv& env_, jni::Object<FileSourc
     });
 }
 
+void OfflineManager::listOfflineRegionSummaries(jni::JNIEnv& env_,
+                                                jni::jlong offset,
+                                                jni::jlong limit,
+                                                jni::jlong maxMetadataSize,
+                                                jni::jboolean descending,
+                                                jni::Object<ListOfflineRegionSummariesCallback> callback_) {
+    // list a page of region summaries
+    fileSource.listOfflineRegionSummaries(offset, limit, maxMetadataSize, descending, [
+        //Keep a shared ptr to a global reference of the callback so it is not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<std::vector<mbgl::OfflineRegionSummary>> summaries) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::ListOfflineRegionSummariesCallback::onError(*env, jni::Object<ListOfflineRegionSummariesCallback>(*callback), error);
+        } else if (summaries) {
+            OfflineManager::ListOfflineRegionSummariesCallback::onList(*env, jni::Object<ListOfflineRegionSummariesCallback>(*callback), std::move(summaries));
+        }
+    });
+}
+
+void OfflineManager::getOfflineRegion(jni::JNIEnv& env_,
+                                      jni::Object<FileSource> jFileSource_,
+                                      jni::jlong regionID,
+                                      jni::Object<GetOfflineRegionCallback> callback_) {
+    // get a single region
+    fileSource.getOfflineRegion(regionID, [
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<mbgl::OfflineRegion> region) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (!error && !region) {
+            error = std::make_exception_ptr(std::runtime_error("Offline region not found"));
+        }
+
+        if (error) {
+            OfflineManager::GetOfflineRegionCallback::onError(*env, jni::Object<GetOfflineRegionCallback>(*callback), error);
+        } else {
+            OfflineManager::GetOfflineRegionCallback::onRegion(*env, jni::Object<FileSource>(*jFileSource), jni::Object<GetOfflineRegionCallback>(*callback), std::move(region));
+        }
+    });
+}
+
 void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
                                          jni::Object<FileSource> jFileSource_,
                                          jni::Object<OfflineRegionDefinition> definition_,
@@ -46,8 +97,7 @@ void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
                                          jni::Object<CreateOfflineRegionCallback> callback_) {
     // Convert
 
-    // XXX hardcoded cast for now as we only support OfflineTilePyramidRegionDefinition
-    auto definition = OfflineTilePyramidRegionDefinition::getDefinition(env_, jni::Object<OfflineTilePyramidRegionDefinition>(*definition_));
+    auto definition = OfflineRegionDefinition::getDefinition(env_, definition_);
 
     mbgl::OfflineRegionMetadata metadata;
     if (metadata_) {
@@ -76,11 +126,84 @@ void OfflineManager::createOfflineRegion(jni::JNIEnv& env_,
     });
 }
 
+void OfflineManager::mergeOfflineRegions(jni::JNIEnv& env_,
+                                         jni::Object<FileSource> jFileSource_,
+                                         jni::String path_,
+                                         jni::Object<MergeOfflineRegionsCallback> callback_) {
+    // Merge regions
+    fileSource.mergeOfflineRegions(jni::Make<std::string>(env_, path_), [
+        //Keep a shared ptr to a global reference of the callback and file source so they are not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter()),
+        jFileSource = std::shared_ptr<jni::jobject>(jFileSource_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<std::vector<mbgl::OfflineRegion>> regions) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::MergeOfflineRegionsCallback::onError(*env, jni::Object<MergeOfflineRegionsCallback>(*callback), error);
+        } else if (regions) {
+            OfflineManager::MergeOfflineRegionsCallback::onMerge(*env, jni::Object<FileSource>(*jFileSource), jni::Object<MergeOfflineRegionsCallback>(*callback), std::move(regions));
+        }
+    });
+}
+
+std::function<void (std::exception_ptr)> OfflineManager::ambientCacheCallback(jni::JNIEnv& env_, jni::Object<AmbientCacheCallback> callback_) {
+    return [
+        //Keep a shared ptr to a global reference of the callback so it is not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::AmbientCacheCallback::onError(*env, jni::Object<AmbientCacheCallback>(*callback), error);
+        } else {
+            OfflineManager::AmbientCacheCallback::onComplete(*env, jni::Object<AmbientCacheCallback>(*callback));
+        }
+    };
+}
+
+void OfflineManager::setMaximumAmbientCacheSize(jni::JNIEnv& env_, jni::Object<FileSource>, jni::jlong size, jni::Object<AmbientCacheCallback> callback_) {
+    fileSource.setMaximumAmbientCacheSize(size, ambientCacheCallback(env_, callback_));
+}
+
+void OfflineManager::clearAmbientCache(jni::JNIEnv& env_, jni::Object<FileSource>, jni::Object<AmbientCacheCallback> callback_) {
+    fileSource.clearAmbientCache(ambientCacheCallback(env_, callback_));
+}
+
+void OfflineManager::compactAmbientCache(jni::JNIEnv& env_, jni::Object<FileSource>, jni::Object<AmbientCacheCallback> callback_) {
+    fileSource.compactAmbientCache(ambientCacheCallback(env_, callback_));
+}
+
+void OfflineManager::getAmbientCacheStats(jni::JNIEnv& env_, jni::Object<FileSource>, jni::Object<AmbientCacheStatsCallback> callback_) {
+    fileSource.getAmbientCacheStats([
+        //Keep a shared ptr to a global reference of the callback so it is not GC'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error, mbgl::optional<mbgl::AmbientCacheStats> stats) mutable {
+
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineManager::AmbientCacheStatsCallback::onError(*env, jni::Object<AmbientCacheStatsCallback>(*callback), error);
+        } else if (stats) {
+            OfflineManager::AmbientCacheStatsCallback::onStats(*env, jni::Object<AmbientCacheStatsCallback>(*callback), std::move(stats));
+        }
+    });
+}
+
 jni::Class<OfflineManager> OfflineManager::javaClass;
 
 void OfflineManager::registerNative(jni::JNIEnv& env) {
     OfflineManager::ListOfflineRegionsCallback::registerNative(env);
     OfflineManager::CreateOfflineRegionCallback::registerNative(env);
+    OfflineManager::ListOfflineRegionSummariesCallback::registerNative(env);
+    OfflineManager::GetOfflineRegionCallback::registerNative(env);
+    OfflineManager::MergeOfflineRegionsCallback::registerNative(env);
+    OfflineManager::AmbientCacheCallback::registerNative(env);
+    OfflineManager::AmbientCacheStatsCallback::registerNative(env);
 
     javaClass = *jni::Class<OfflineManager>::Find(env).NewGlobalRef(env).release();
 
@@ -92,7 +215,14 @@ void OfflineManager::registerNative(jni::JNIEnv& env) {
         "finalize",
         METHOD(&OfflineManager::setOfflineMapboxTileCountLimit, "setOfflineMapboxTileCountLimit"),
         METHOD(&OfflineManager::listOfflineRegions, "listOfflineRegions"),
-        METHOD(&OfflineManager::createOfflineRegion, "createOfflineRegion"));
+        METHOD(&OfflineManager::listOfflineRegionSummaries, "listOfflineRegionSummaries"),
+        METHOD(&OfflineManager::getOfflineRegion, "getOfflineRegion"),
+        METHOD(&OfflineManager::createOfflineRegion, "createOfflineRegion"),
+        METHOD(&OfflineManager::mergeOfflineRegions, "mergeOfflineRegions"),
+        METHOD(&OfflineManager::setMaximumAmbientCacheSize, "setMaximumAmbientCacheSize"),
+        METHOD(&OfflineManager::clearAmbientCache, "clearAmbientCache"),
+        METHOD(&OfflineManager::compactAmbientCache, "compactAmbientCache"),
+        METHOD(&OfflineManager::getAmbientCacheStats, "getAmbientCacheStats"));
 }
 
 // OfflineManager::ListOfflineRegionsCallback //
@@ -160,5 +290,156 @@ void OfflineManager::CreateOfflineRegionCallback::registerNative(jni::JNIEnv& en
     javaClass = *jni::Class<OfflineManager::CreateOfflineRegionCallback>::Find(env).NewGlobalRef(env).release();
 }
 
+// OfflineManager::ListOfflineRegionSummariesCallback //
+
+void OfflineManager::ListOfflineRegionSummariesCallback::onError(jni::JNIEnv& env,
+                                                                 jni::Object<OfflineManager::ListOfflineRegionSummariesCallback> callback,
+                                                                 std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::ListOfflineRegionSummariesCallback::onList(jni::JNIEnv& env,
+                                                                jni::Object<OfflineManager::ListOfflineRegionSummariesCallback> callback,
+                                                                mbgl::optional<std::vector<mbgl::OfflineRegionSummary>> summaries) {
+    //Convert the summaries to java objects
+    std::size_t index = 0;
+    auto jsummaries = jni::Array<jni::Object<OfflineRegionSummary>>::New(env, summaries->size(), OfflineRegionSummary::javaClass);
+    for (auto& summary : *summaries) {
+        auto jsummary = OfflineRegionSummary::New(env, std::move(summary));
+        jsummaries.Set(env, index, jsummary);
+        jni::DeleteLocalRef(env, jsummary);
+        index++;
+    }
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Array<jni::Object<OfflineRegionSummary>>)>(env, "onList");
+    callback.Call(env, method, jsummaries);
+    jni::DeleteLocalRef(env, jsummaries);
+}
+
+jni::Class<OfflineManager::ListOfflineRegionSummariesCallback> OfflineManager::ListOfflineRegionSummariesCallback::javaClass;
+
+void OfflineManager::ListOfflineRegionSummariesCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::ListOfflineRegionSummariesCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+// OfflineManager::GetOfflineRegionCallback //
+
+void OfflineManager::GetOfflineRegionCallback::onError(jni::JNIEnv& env,
+                                                       jni::Object<OfflineManager::GetOfflineRegionCallback> callback,
+                                                       std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::GetOfflineRegionCallback::onRegion(jni::JNIEnv& env,
+                                                        jni::Object<FileSource> jFileSource,
+                                                        jni::Object<OfflineManager::GetOfflineRegionCallback> callback,
+                                                        mbgl::optional<mbgl::OfflineRegion> region) {
+    //Convert the region to java peer object
+    auto jregion = OfflineRegion::New(env, jFileSource, std::move(*region));
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Object<OfflineRegion>)>(env, "onRegion");
+    callback.Call(env, method, jregion);
+    jni::DeleteLocalRef(env, jregion);
+}
+
+jni::Class<OfflineManager::GetOfflineRegionCallback> OfflineManager::GetOfflineRegionCallback::javaClass;
+
+void OfflineManager::GetOfflineRegionCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::GetOfflineRegionCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+// OfflineManager::MergeOfflineRegionsCallback //
+
+void OfflineManager::MergeOfflineRegionsCallback::onError(jni::JNIEnv& env,
+                                                          jni::Object<OfflineManager::MergeOfflineRegionsCallback> callback,
+                                                          std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::MergeOfflineRegionsCallback::onMerge(jni::JNIEnv& env,
+                                                          jni::Object<FileSource> jFileSource,
+                                                          jni::Object<OfflineManager::MergeOfflineRegionsCallback> callback,
+                                                          mbgl::optional<std::vector<mbgl::OfflineRegion>> regions) {
+    //Convert the regions to java peer objects
+    std::size_t index = 0;
+    auto jregions = jni::Array<jni::Object<OfflineRegion>>::New(env, regions->size(), OfflineRegion::javaClass);
+    for (auto& region : *regions) {
+        auto jregion = OfflineRegion::New(env, jFileSource, std::move(region));
+        jregions.Set(env, index, jregion);
+        jni::DeleteLocalRef(env, jregion);
+        index++;
+    }
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Array<jni::Object<OfflineRegion>>)>(env, "onMerge");
+    callback.Call(env, method, jregions);
+    jni::DeleteLocalRef(env, jregions);
+}
+
+jni::Class<OfflineManager::MergeOfflineRegionsCallback> OfflineManager::MergeOfflineRegionsCallback::javaClass;
+
+void OfflineManager::MergeOfflineRegionsCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::MergeOfflineRegionsCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+// OfflineManager::AmbientCacheCallback //
+
+void OfflineManager::AmbientCacheCallback::onError(jni::JNIEnv& env,
+                                                   jni::Object<OfflineManager::AmbientCacheCallback> callback,
+                                                   std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::AmbientCacheCallback::onComplete(jni::JNIEnv& env,
+                                                      jni::Object<OfflineManager::AmbientCacheCallback> callback) {
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void ()>(env, "onComplete");
+    callback.Call(env, method);
+}
+
+jni::Class<OfflineManager::AmbientCacheCallback> OfflineManager::AmbientCacheCallback::javaClass;
+
+void OfflineManager::AmbientCacheCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::AmbientCacheCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+// OfflineManager::AmbientCacheStatsCallback //
+
+void OfflineManager::AmbientCacheStatsCallback::onError(jni::JNIEnv& env,
+                                                        jni::Object<OfflineManager::AmbientCacheStatsCallback> callback,
+                                                        std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineManager::AmbientCacheStatsCallback::onStats(jni::JNIEnv& env,
+                                                        jni::Object<OfflineManager::AmbientCacheStatsCallback> callback,
+                                                        mbgl::optional<mbgl::AmbientCacheStats> stats) {
+    // Convert to java peer object
+    auto jstats = AmbientCacheStats::New(env, std::move(*stats));
+
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void (jni::Object<AmbientCacheStats>)>(env, "onStats");
+    callback.Call(env, method, jstats);
+    jni::DeleteLocalRef(env, jstats);
+}
+
+jni::Class<OfflineManager::AmbientCacheStatsCallback> OfflineManager::AmbientCacheStatsCallback::javaClass;
+
+void OfflineManager::AmbientCacheStatsCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineManager::AmbientCacheStatsCallback>::Find(env).NewGlobalRef(env).release();
+}
+
 } // namespace android
 } // namespace mbgl
@@ -48,6 +48,81 @@ public:
         static void registerNative(jni::JNIEnv&);
     };
 
+    class ListOfflineRegionSummariesCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$ListOfflineRegionSummariesCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::ListOfflineRegionSummariesCallback>, std::exception_ptr);
+
+        static void onList(jni::JNIEnv&,
+                           jni::Object<OfflineManager::ListOfflineRegionSummariesCallback>,
+                           mbgl::optional<std::vector<mbgl::OfflineRegionSummary>>);
+
+        static jni::Class<OfflineManager::ListOfflineRegionSummariesCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
+    class GetOfflineRegionCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$GetOfflineRegionCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::GetOfflineRegionCallback>, std::exception_ptr);
+
+        static void onRegion(jni::JNIEnv&,
+                             jni::Object<FileSource>,
+                             jni::Object<OfflineManager::GetOfflineRegionCallback>,
+                             mbgl::optional<mbgl::OfflineRegion>);
+
+        static jni::Class<OfflineManager::GetOfflineRegionCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
+    class MergeOfflineRegionsCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$MergeOfflineRegionsCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::MergeOfflineRegionsCallback>, std::exception_ptr);
+
+        static void onMerge(jni::JNIEnv&,
+                            jni::Object<FileSource>,
+                            jni::Object<OfflineManager::MergeOfflineRegionsCallback>,
+                            mbgl::optional<std::vector<mbgl::OfflineRegion>>);
+
+        static jni::Class<OfflineManager::MergeOfflineRegionsCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
+    class AmbientCacheCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$AmbientCacheCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::AmbientCacheCallback>, std::exception_ptr);
+
+        static void onComplete(jni::JNIEnv&, jni::Object<OfflineManager::AmbientCacheCallback>);
+
+        static jni::Class<OfflineManager::AmbientCacheCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
+    class AmbientCacheStatsCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager$AmbientCacheStatsCallback"; }
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineManager::AmbientCacheStatsCallback>, std::exception_ptr);
+
+        static void onStats(jni::JNIEnv&,
+                            jni::Object<OfflineManager::AmbientCacheStatsCallback>,
+                            mbgl::optional<mbgl::AmbientCacheStats>);
+
+        static jni::Class<OfflineManager::AmbientCacheStatsCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineManager"; };
 
     static jni::Class<OfflineManager> javaClass;
@@ -61,13 +136,40 @@ public:
 
     void listOfflineRegions(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<ListOfflineRegionsCallback> callback);
 
+    void listOfflineRegionSummaries(jni::JNIEnv&,
+                                    jni::jlong offset,
+                                    jni::jlong limit,
+                                    jni::jlong maxMetadataSize,
+                                    jni::jboolean descending,
+                                    jni::Object<ListOfflineRegionSummariesCallback> callback);
+
+    void getOfflineRegion(jni::JNIEnv&,
+                          jni::Object<FileSource> jFileSource_,
+                          jni::jlong regionID,
+                          jni::Object<GetOfflineRegionCallback> callback);
+
     void createOfflineRegion(jni::JNIEnv&,
                              jni::Object<FileSource> jFileSource_,
                              jni::Object<OfflineRegionDefinition> definition,
                              jni::Array<jni::jbyte> metadata,
                              jni::Object<OfflineManager::CreateOfflineRegionCallback> callback);
 
+    void mergeOfflineRegions(jni::JNIEnv&,
+                             jni::Object<FileSource> jFileSource_,
+                             jni::String path,
+                             jni::Object<OfflineManager::MergeOfflineRegionsCallback> callback);
+
+    void setMaximumAmbientCacheSize(jni::JNIEnv&, jni::Object<FileSource>, jni::jlong size, jni::Object<AmbientCacheCallback> callback);
+
+    void clearAmbientCache(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<AmbientCacheCallback> callback);
+
+    void compactAmbientCache(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<AmbientCacheCallback> callback);
+
+    void getAmbientCacheStats(jni::JNIEnv&, jni::Object<FileSource>, jni::Object<AmbientCacheStatsCallback> callback);
+
 private:
+    static std::function<void (std::exception_ptr)> ambientCacheCallback(jni::JNIEnv&, jni::Object<AmbientCacheCallback>);
+
     mbgl::DefaultFileSource& fileSource;
 };
 
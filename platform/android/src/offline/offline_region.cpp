@@ -102,6 +102,10 @@ void OfflineRegion::setOfflineRegionDownloadState(jni::JNIEnv&, jni::jint jState
     fileSource.setOfflineRegionDownloadState(*region, state);
 }
 
+void OfflineRegion::refreshOfflineRegion(jni::JNIEnv&) {
+    fileSource.refreshOfflineRegion(*region);
+}
+
 void OfflineRegion::getOfflineRegionStatus(jni::JNIEnv& env_, jni::Object<OfflineRegionStatusCallback> callback_) {
 
     fileSource.getOfflineRegionStatus(*region, [
@@ -136,6 +140,22 @@ void OfflineRegion::deleteOfflineRegion(jni::JNIEnv& env_, jni::Object<OfflineRe
     });
 }
 
+void OfflineRegion::exportOfflineRegion(jni::JNIEnv& env_, jni::String jPath, jni::Object<OfflineRegionExportCallback> callback_) {
+    fileSource.exportOfflineRegion(*region, jni::Make<std::string>(env_, jPath), [
+        //Ensure the object is not gc'd in the meanwhile
+        callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env_).release()->Get(), GenericGlobalRefDeleter())
+    ](std::exception_ptr error) mutable {
+        // Reattach, the callback comes from a different thread
+        android::UniqueEnv env = android::AttachEnv();
+
+        if (error) {
+            OfflineRegionExportCallback::onError(*env, jni::Object<OfflineRegionExportCallback>(*callback), error);
+        } else {
+            OfflineRegionExportCallback::onExport(*env, jni::Object<OfflineRegionExportCallback>(*callback));
+        }
+    });
+}
+
 void OfflineRegion::updateOfflineRegionMetadata(jni::JNIEnv& env_, jni::Array<jni::jbyte> jMetadata, jni::Object<OfflineRegionUpdateMetadataCallback> callback_) {
 
     // Convert
@@ -159,7 +179,7 @@ void OfflineRegion::updateOfflineRegionMetadata(jni::JNIEnv& env_, jni::Array<jn
 jni::Object<OfflineRegion> OfflineRegion::New(jni::JNIEnv& env, jni::Object<FileSource> jFileSource, mbgl::OfflineRegion region) {
 
     // Definition
-    auto definition = jni::Object<OfflineRegionDefinition>(*OfflineTilePyramidRegionDefinition::New(env, region.getDefinition()));
+    auto definition = OfflineRegionDefinition::New(env, region.getDefinition());
 
     // Metadata
     auto metadata = OfflineRegion::metadata(env, region.getMetadata());
@@ -201,6 +221,7 @@ void OfflineRegion::registerNative(jni::JNIEnv& env) {
     OfflineRegion::OfflineRegionStatusCallback::registerNative(env);
     OfflineRegion::OfflineRegionDeleteCallback::registerNative(env);
     OfflineRegion::OfflineRegionUpdateMetadataCallback::registerNative(env);
+    OfflineRegion::OfflineRegionExportCallback::registerNative(env);
 
     javaClass = *jni::Class<OfflineRegion>::Find(env).NewGlobalRef(env).release();
 
@@ -212,9 +233,11 @@ void OfflineRegion::registerNative(jni::JNIEnv& env) {
         "finalize",
         METHOD(&OfflineRegion::setOfflineRegionObserver, "setOfflineRegionObserver"),
         METHOD(&OfflineRegion::setOfflineRegionDownloadState, "setOfflineRegionDownloadState"),
+        METHOD(&OfflineRegion::refreshOfflineRegion, "refreshOfflineRegion"),
         METHOD(&OfflineRegion::getOfflineRegionStatus, "getOfflineRegionStatus"),
         METHOD(&OfflineRegion::deleteOfflineRegion, "deleteOfflineRegion"),
-        METHOD(&OfflineRegion::updateOfflineRegionMetadata, "updateOfflineRegionMetadata")
+        METHOD(&OfflineRegion::updateOfflineRegionMetadata, "updateOfflineRegionMetadata"),
+        METHOD(&OfflineRegion::exportOfflineRegion, "exportOfflineRegion")
     );
 }
 
@@ -276,6 +299,28 @@ void OfflineRegion::OfflineRegionDeleteCallback::onDelete(jni::JNIEnv& env, jni:
     callback.Call(env, method);
 }
 
+// OfflineRegionExportCallback //
+
+jni::Class<OfflineRegion::OfflineRegionExportCallback> OfflineRegion::OfflineRegionExportCallback::javaClass;
+
+void OfflineRegion::OfflineRegionExportCallback::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineRegionExportCallback>::Find(env).NewGlobalRef(env).release();
+}
+
+void OfflineRegion::OfflineRegionExportCallback::onError(jni::JNIEnv& env,
+                                                          jni::Object<OfflineRegion::OfflineRegionExportCallback> callback,
+                                                          std::exception_ptr error) {
+    static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+    std::string message = mbgl::util::toString(error);
+    callback.Call(env, method, jni::Make<jni::String>(env, message));
+}
+
+void OfflineRegion::OfflineRegionExportCallback::onExport(jni::JNIEnv& env, jni::Object<OfflineRegion::OfflineRegionExportCallback> callback) {
+    // Trigger callback
+    static auto method = javaClass.GetMethod<void ()>(env, "onExport");
+    callback.Call(env, method);
+}
+
 // OfflineRegionUpdateMetadataCallback //
 
 jni::Class<OfflineRegion::OfflineRegionUpdateMetadataCallback> OfflineRegion::OfflineRegionUpdateMetadataCallback::javaClass;
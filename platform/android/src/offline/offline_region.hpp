@@ -64,6 +64,19 @@ public:
         static void registerNative(jni::JNIEnv&);
     };
 
+    class OfflineRegionExportCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineRegion$OfflineRegionExportCallback"; };
+
+        static void onError(jni::JNIEnv&, jni::Object<OfflineRegionExportCallback>, std::exception_ptr);
+
+        static void onExport(jni::JNIEnv&, jni::Object<OfflineRegionExportCallback>);
+
+        static jni::Class<OfflineRegionExportCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineRegion"; };
 
     OfflineRegion(jni::JNIEnv&, jni::jlong, jni::Object<FileSource>);
@@ -74,12 +87,16 @@ public:
 
     void setOfflineRegionDownloadState(jni::JNIEnv&, jni::jint);
 
+    void refreshOfflineRegion(jni::JNIEnv&);
+
     void getOfflineRegionStatus(jni::JNIEnv&, jni::Object<OfflineRegion::OfflineRegionStatusCallback>);
 
     void deleteOfflineRegion(jni::JNIEnv&, jni::Object<OfflineRegionDeleteCallback>);
 
     void updateOfflineRegionMetadata(jni::JNIEnv&, jni::Array<jni::jbyte>, jni::Object<OfflineRegionUpdateMetadataCallback>);
 
+    void exportOfflineRegion(jni::JNIEnv&, jni::String, jni::Object<OfflineRegionExportCallback>);
+
     static jni::Object<OfflineRegion> New(jni::JNIEnv&, jni::Object<FileSource>, mbgl::OfflineRegion);
 
     static jni::Array<jni::jbyte> metadata(jni::JNIEnv&, mbgl::OfflineRegionMetadata);
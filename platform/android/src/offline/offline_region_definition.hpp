@@ -3,6 +3,8 @@
 #include <mbgl/storage/offline.hpp>
 #include <jni/jni.hpp>
 
+#include "../geojson/geometry.hpp"
+
 namespace mbgl {
 namespace android {
 
@@ -10,6 +12,10 @@ class OfflineRegionDefinition {
 public:
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineRegionDefinition"; };
 
+    static jni::Object<OfflineRegionDefinition> New(jni::JNIEnv&, const mbgl::OfflineRegionDefinition&);
+
+    static mbgl::OfflineRegionDefinition getDefinition(jni::JNIEnv&, jni::Object<OfflineRegionDefinition>);
+
     static jni::Class<OfflineRegionDefinition> javaClass;
 
     static void registerNative(jni::JNIEnv&);
@@ -30,5 +36,19 @@ public:
 
 };
 
+class OfflineGeometryRegionDefinition: public OfflineRegionDefinition {
+public:
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineGeometryRegionDefinition"; };
+
+    static jni::Object<OfflineGeometryRegionDefinition> New(jni::JNIEnv&, const mbgl::OfflineGeometryRegionDefinition&);
+
+    static mbgl::OfflineGeometryRegionDefinition getDefinition(jni::JNIEnv&, jni::Object<OfflineGeometryRegionDefinition>);
+
+    static jni::Class<OfflineGeometryRegionDefinition> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+
+};
+
 } // namespace android
 } // namespace mbgl
@@ -17,7 +17,7 @@ jni::Object<OfflineRegionStatus> OfflineRegionStatus::New(jni::JNIEnv& env, mbgl
     }
 
     // Create java object
-    static auto constructor = javaClass.GetConstructor<jint, jlong, jlong, jlong, jlong, jlong, jboolean>(env);
+    static auto constructor = javaClass.GetConstructor<jint, jlong, jlong, jlong, jlong, jlong, jboolean, jlong, jlong>(env);
     return javaClass.New(env, constructor,
         downloadState,
         jlong(status.completedResourceCount),
@@ -25,7 +25,9 @@ jni::Object<OfflineRegionStatus> OfflineRegionStatus::New(jni::JNIEnv& env, mbgl
         jlong(status.completedTileCount),
         jlong(status.completedTileSize),
         jlong(status.requiredResourceCount),
-        jboolean(status.requiredResourceCountIsPrecise)
+        jboolean(status.requiredResourceCountIsPrecise),
+        jlong(status.revalidatedResourceCount),
+        jlong(status.revalidatedResourceSize)
     );
 }
 
@@ -0,0 +1,28 @@
+#include "offline_region_summary.hpp"
+#include "offline_region.hpp"
+
+namespace mbgl {
+namespace android {
+
+jni::Object<OfflineRegionSummary> OfflineRegionSummary::New(jni::JNIEnv& env, mbgl::OfflineRegionSummary summary) {
+    auto metadata = OfflineRegion::metadata(env, std::move(summary.metadata));
+
+    static auto constructor = javaClass.GetConstructor<jni::jlong, jni::Array<jni::jbyte>, jni::jlong>(env);
+    auto jsummary = javaClass.New(env, constructor,
+        jni::jlong(summary.id),
+        metadata,
+        jni::jlong(summary.metadataSize)
+    );
+
+    jni::DeleteLocalRef(env, metadata);
+    return jsummary;
+}
+
+jni::Class<OfflineRegionSummary> OfflineRegionSummary::javaClass;
+
+void OfflineRegionSummary::registerNative(jni::JNIEnv& env) {
+    javaClass = *jni::Class<OfflineRegionSummary>::Find(env).NewGlobalRef(env).release();
+}
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,21 @@
+#pragma once
+
+#include <mbgl/storage/offline.hpp>
+#include <jni/jni.hpp>
+
+namespace mbgl {
+namespace android {
+
+class OfflineRegionSummary {
+public:
+    static constexpr auto Name() { return "com/mapbox/mapboxsdk/offline/OfflineRegionSummary"; };
+
+    static jni::Object<OfflineRegionSummary> New(jni::JNIEnv&, mbgl::OfflineRegionSummary summary);
+
+    static jni::Class<OfflineRegionSummary> javaClass;
+
+    static void registerNative(jni::JNIEnv&);
+};
+
+} // namespace android
+} // namespace mbgl
@@ -1,6 +1,5 @@
 #include "map_snapshot.hpp"
 
-#include "../bitmap.hpp"
 #include "../jni/collection.hpp"
 
 #include <memory>
@@ -28,9 +27,10 @@ jni::Object<MapSnapshot> MapSnapshot::New(JNIEnv& env,
                                           float pixelRatio,
                                           std::vector<std::string> attributions,
                                           bool showLogo,
-                                          mbgl::MapSnapshotter::PointForFn pointForFn) {
-    // Create the bitmap
-    auto bitmap = Bitmap::CreateBitmap(env, std::move(image));
+                                          mbgl::MapSnapshotter::PointForFn pointForFn,
+                                          jni::Object<Bitmap> target) {
+    // Reuse the target bitmap if it matches the image, create a new bitmap otherwise
+    auto bitmap = target && Bitmap::CopyImage(env, image, target) ? target : Bitmap::CreateBitmap(env, image);
 
     // Create the Mapsnapshot peers
     static auto constructor = javaClass.GetConstructor<jni::jlong, jni::Object<Bitmap>, jni::Array<jni::String>, jni::jboolean>(env);
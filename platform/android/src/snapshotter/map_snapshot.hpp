@@ -4,6 +4,7 @@
 
 #include <jni/jni.hpp>
 
+#include "../bitmap.hpp"
 #include "../geometry/lat_lng.hpp"
 #include "../graphics/pointf.hpp"
 
@@ -27,7 +28,8 @@ public:
                                         float pixelRatio,
                                         std::vector<std::string> attributions,
                                         bool showLogo,
-                                        PointForFn pointForFn);
+                                        PointForFn pointForFn,
+                                        jni::Object<Bitmap> target);
 
     MapSnapshot(jni::JNIEnv&) {};
     MapSnapshot(float pixelRatio, PointForFn);
@@ -73,8 +73,10 @@ void MapSnapshotter::start(JNIEnv& env) {
             static auto onSnapshotFailed = javaClass.GetMethod<void (jni::String)>(*_env, "onSnapshotFailed");
             javaPeer->Call(*_env, onSnapshotFailed, jni::Make<jni::String>(*_env, util::toString(err)));
         } else {
-            // Create the wrapper
-            auto mapSnapshot = android::MapSnapshot::New(*_env, std::move(image), pixelRatio, attributions, showLogo, pointForFn);
+            // Create the wrapper, rendering into the bitmap provided by the caller if any
+            static auto getTargetBitmap = javaClass.GetMethod<jni::Object<Bitmap> ()>(*_env, "getTargetBitmap");
+            auto target = javaPeer->Call(*_env, getTargetBitmap);
+            auto mapSnapshot = android::MapSnapshot::New(*_env, std::move(image), pixelRatio, attributions, showLogo, pointForFn, target);
 
             // invoke callback
             static auto onSnapshotReady = javaClass.GetMethod<void (jni::Object<MapSnapshot>)>(*_env, "onSnapshotReady");
@@ -0,0 +1,58 @@
+#include "query_options.hpp"
+
+#include "../conversion/collection.hpp"
+#include "../geojson/conversion/feature.hpp"
+
+namespace mbgl {
+namespace android {
+
+QueryOptions::QueryOptions(jni::JNIEnv& env, jni::jint limit_, jni::jboolean geometry_, jni::Array<jni::String> jProperties)
+    : limit(limit_ > 0 ? limit_ : 0),
+      geometry(geometry_) {
+    if (jProperties) {
+        properties = conversion::toVector(env, jProperties);
+    }
+}
+
+jni::Array<jni::Object<geojson::Feature>> QueryOptions::convert(jni::JNIEnv& env, std::vector<mbgl::Feature> features) const {
+    using namespace mbgl::android::conversion;
+    using namespace mbgl::android::geojson;
+
+    if (limit > 0 && features.size() > limit) {
+        features.erase(features.begin() + limit, features.end());
+    }
+
+    if (properties) {
+        for (auto& feature : features) {
+            PropertyMap projected;
+            for (const auto& key : *properties) {
+                auto it = feature.properties.find(key);
+                if (it != feature.properties.end()) {
+                    projected.emplace(key, std::move(it->second));
+                }
+            }
+            feature.properties = std::move(projected);
+        }
+    }
+
+    return *conversion::convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(env, features, geometry);
+}
+
+jni::Array<jni::String> QueryOptions::convertIds(jni::JNIEnv& env, const std::vector<mbgl::Feature>& features, jni::jint limit) {
+    using namespace mbgl::android::conversion;
+
+    FeatureIdVisitor idEvaluator;
+    std::vector<std::string> ids;
+    for (const auto& feature : features) {
+        if (limit > 0 && ids.size() >= static_cast<std::size_t>(limit)) {
+            break;
+        }
+        if (feature.id) {
+            ids.push_back(mapbox::geometry::identifier::visit(*feature.id, idEvaluator));
+        }
+    }
+    return jni::Make<jni::Array<jni::String>>(env, ids);
+}
+
+} // namespace android
+} // namespace mbgl
@@ -0,0 +1,35 @@
+#pragma once
+
+#include <mbgl/util/feature.hpp>
+#include <mbgl/util/optional.hpp>
+
+#include "../geojson/feature.hpp"
+
+#include <jni/jni.hpp>
+
+#include <string>
+#include <vector>
+
+namespace mbgl {
+namespace android {
+
+/**
+ * The parts of queried features to convert to java, parts left out are never converted.
+ */
+class QueryOptions {
+public:
+    QueryOptions(jni::JNIEnv&, jni::jint limit, jni::jboolean geometry, jni::Array<jni::String> properties);
+
+    jni::Array<jni::Object<geojson::Feature>> convert(jni::JNIEnv&, std::vector<mbgl::Feature>) const;
+
+    // Ids of the features that have one, a limit of 0 means all
+    static jni::Array<jni::String> convertIds(jni::JNIEnv&, const std::vector<mbgl::Feature>&, jni::jint limit);
+
+private:
+    std::size_t limit;
+    bool geometry;
+    optional<std::vector<std::string>> properties;
+};
+
+} // namespace android
+} // namespace mbgl
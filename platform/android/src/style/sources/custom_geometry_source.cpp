@@ -1,10 +1,12 @@
 #include "custom_geometry_source.hpp"
 
 #include <mbgl/renderer/query.hpp>
+#include <mbgl/util/logging.hpp>
 
 // Java -> C++ conversion
 #include "../android_conversion.hpp"
 #include "../conversion/filter.hpp"
+#include "../query_options.hpp"
 
 // C++ -> Java conversion
 #include "../../conversion/conversion.hpp"
@@ -56,6 +58,20 @@ namespace android {
 
     CustomGeometrySource::~CustomGeometrySource() = default;
 
+    void CustomGeometrySource::removeFromMap(JNIEnv& env, jni::Object<Source> obj, mbgl::Map& map) {
+        Source::removeFromMap(env, obj, map);
+
+        // The source may not be removed if any layers still reference it
+        if (!ownedSource) {
+            return;
+        }
+
+        // Drop the provider requests that are still queued
+        static auto cancelAllTiles = javaClass.GetMethod<void ()>(env, "cancelAllTiles");
+        auto peer = jni::Cast(env, obj, javaClass);
+        peer.Call(env, cancelAllTiles);
+    }
+
     void CustomGeometrySource::fetchTile (const mbgl::CanonicalTileID& tileID) {
         android::UniqueEnv _env = android::AttachEnv();
 
@@ -92,6 +108,58 @@ namespace android {
         source.as<mbgl::style::CustomGeometrySource>()->CustomGeometrySource::setTileData(CanonicalTileID(z, x, y), GeoJSON(geometry));
     }
 
+    void CustomGeometrySource::setTileDataBuffer(jni::JNIEnv& env,
+                                                 jni::jint z,
+                                                 jni::jint x,
+                                                 jni::jint y,
+                                                 jni::Object<java::nio::ByteBuffer> jBuffer,
+                                                 jni::jint length) {
+        using namespace mbgl::android::geojson;
+
+        // Decode the packed features in one pass, without calling back into java
+        mbgl::FeatureCollection features;
+        try {
+            features = FeatureBuffer::convert(env, jBuffer, length);
+        } catch (const std::exception& e) {
+            mbgl::Log::Error(mbgl::Event::JNI, std::string("Error setting tile data: ") + e.what());
+            return;
+        }
+
+        // Update the core source
+        source.as<mbgl::style::CustomGeometrySource>()->CustomGeometrySource::setTileData(CanonicalTileID(z, x, y), GeoJSON(std::move(features)));
+    }
+
+    void CustomGeometrySource::setVectorTileBuffer(jni::JNIEnv& env,
+                                                   jni::jint z,
+                                                   jni::jint x,
+                                                   jni::jint y,
+                                                   jni::Object<java::nio::ByteBuffer> jBuffer,
+                                                   jni::jint position,
+                                                   jni::jint length) {
+        auto address = reinterpret_cast<const char*>(env.GetDirectBufferAddress(jni::Unwrap(jBuffer.Get())));
+        auto capacity = env.GetDirectBufferCapacity(jni::Unwrap(jBuffer.Get()));
+        if (!address || position < 0 || length < 0 || jni::jlong(position) + length > capacity) {
+            mbgl::Log::Error(mbgl::Event::JNI, "Error setting vector tile data: invalid buffer");
+            return;
+        }
+
+        // Copied once, the tile parses it in place
+        auto data = std::make_shared<const std::string>(address + position, length);
+        source.as<mbgl::style::CustomGeometrySource>()->CustomGeometrySource::setVectorTileData(CanonicalTileID(z, x, y), std::move(data));
+    }
+
+    void CustomGeometrySource::setVectorTileBytes(jni::JNIEnv& env,
+                                                  jni::jint z,
+                                                  jni::jint x,
+                                                  jni::jint y,
+                                                  jni::Array<jni::jbyte> jBytes,
+                                                  jni::jint offset,
+                                                  jni::jint length) {
+        auto data = std::make_shared<std::string>(length, '\0');
+        jni::GetArrayRegion(env, *jBytes, offset, length, reinterpret_cast<jni::jbyte*>(&(*data)[0]));
+        source.as<mbgl::style::CustomGeometrySource>()->CustomGeometrySource::setVectorTileData(CanonicalTileID(z, x, y), std::move(data));
+    }
+
     void CustomGeometrySource::invalidateTile(jni::JNIEnv&, jni::jint z, jni::jint x, jni::jint y) {
         source.as<mbgl::style::CustomGeometrySource>()->CustomGeometrySource::invalidateTile(CanonicalTileID(z, x, y));
     }
@@ -102,15 +170,29 @@ namespace android {
     }
 
     jni::Array<jni::Object<geojson::Feature>> CustomGeometrySource::querySourceFeatures(jni::JNIEnv& env,
-                                                                        jni::Array<jni::Object<>> jfilter) {
+                                                                        jni::Array<jni::Object<>> jfilter,
+                                                                        jni::jint limit,
+                                                                        jni::jboolean geometry,
+                                                                        jni::Array<jni::String> properties) {
+        using namespace mbgl::android::conversion;
+
+        std::vector<mbgl::Feature> features;
+        if (rendererFrontend) {
+            features = rendererFrontend->querySourceFeatures(source.getID(), { {},  toFilter(env, jfilter) });
+        }
+        return QueryOptions(env, limit, geometry, properties).convert(env, std::move(features));
+    }
+
+    jni::Array<jni::String> CustomGeometrySource::querySourceFeatureIds(jni::JNIEnv& env,
+                                                                        jni::Array<jni::Object<>> jfilter,
+                                                                        jni::jint limit) {
         using namespace mbgl::android::conversion;
-        using namespace mbgl::android::geojson;
 
         std::vector<mbgl::Feature> features;
         if (rendererFrontend) {
             features = rendererFrontend->querySourceFeatures(source.getID(), { {},  toFilter(env, jfilter) });
         }
-        return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(env, features);
+        return QueryOptions::convertIds(env, features, limit);
     }
 
     jni::Class<CustomGeometrySource> CustomGeometrySource::javaClass;
@@ -133,7 +215,11 @@ namespace android {
             "initialize",
             "finalize",
             METHOD(&CustomGeometrySource::querySourceFeatures, "querySourceFeatures"),
+            METHOD(&CustomGeometrySource::querySourceFeatureIds, "querySourceFeatureIds"),
             METHOD(&CustomGeometrySource::setTileData, "nativeSetTileData"),
+            METHOD(&CustomGeometrySource::setTileDataBuffer, "nativeSetTileDataBuffer"),
+            METHOD(&CustomGeometrySource::setVectorTileBuffer, "nativeSetVectorTileBuffer"),
+            METHOD(&CustomGeometrySource::setVectorTileBytes, "nativeSetVectorTileBytes"),
             METHOD(&CustomGeometrySource::invalidateTile, "nativeInvalidateTile"),
             METHOD(&CustomGeometrySource::invalidateBounds, "nativeInvalidateBounds")
         );
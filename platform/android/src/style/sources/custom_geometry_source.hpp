@@ -6,6 +6,7 @@
 #include <mbgl/tile/tile_id.hpp>
 #include "../../geojson/geometry.hpp"
 #include "../../geojson/feature.hpp"
+#include "../../geojson/feature_buffer.hpp"
 #include "../../geojson/feature_collection.hpp"
 #include "../../geometry/lat_lng_bounds.hpp"
 #include <jni/jni.hpp>
@@ -28,15 +29,26 @@ public:
 
     ~CustomGeometrySource();
 
+    void removeFromMap(JNIEnv&, jni::Object<Source>, mbgl::Map&) override;
+
     void fetchTile(const mbgl::CanonicalTileID& tileID);
     void cancelTile(const mbgl::CanonicalTileID& tileID);
     void setTileData(jni::JNIEnv& env, jni::jint z, jni::jint x, jni::jint y, jni::Object<geojson::FeatureCollection> jf);
+    void setTileDataBuffer(jni::JNIEnv& env, jni::jint z, jni::jint x, jni::jint y,
+                           jni::Object<java::nio::ByteBuffer> buffer, jni::jint length);
+    void setVectorTileBuffer(jni::JNIEnv& env, jni::jint z, jni::jint x, jni::jint y,
+                             jni::Object<java::nio::ByteBuffer> buffer, jni::jint position, jni::jint length);
+    void setVectorTileBytes(jni::JNIEnv& env, jni::jint z, jni::jint x, jni::jint y,
+                            jni::Array<jni::jbyte> bytes, jni::jint offset, jni::jint length);
 
     void invalidateTile(jni::JNIEnv& env, jni::jint z, jni::jint x, jni::jint y);
     void invalidateBounds(jni::JNIEnv& env, jni::Object<LatLngBounds> bounds);
 
-    jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&,
-                                                                  jni::Array<jni::Object<>> );
+    jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&, jni::Array<jni::Object<>> jfilter,
+                                                                  jni::jint limit, jni::jboolean geometry,
+                                                                  jni::Array<jni::String> properties);
+
+    jni::Array<jni::String> querySourceFeatureIds(jni::JNIEnv&, jni::Array<jni::Object<>> jfilter, jni::jint limit);
 
 private:
     jni::Object<Source> createJavaPeer(jni::JNIEnv&);
@@ -1,10 +1,15 @@
 #include "geojson_source.hpp"
 
+#include "../../attach_env.hpp"
+#include "../../jni/generic_global_ref_deleter.hpp"
+
 #include <mbgl/renderer/query.hpp>
+#include <mbgl/util/string.hpp>
 
 // Java -> C++ conversion
 #include "../android_conversion.hpp"
 #include "../conversion/filter.hpp"
+#include "../query_options.hpp"
 #include <mbgl/style/conversion.hpp>
 #include <mbgl/style/conversion/geojson.hpp>
 #include <mbgl/style/conversion/geojson_options.hpp>
@@ -96,6 +101,167 @@ namespace android {
         source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSON(GeoJSON(geometry));
     }
 
+    void GeoJSONSource::setGeoJSONBuffer(jni::JNIEnv& env, jni::Object<java::nio::ByteBuffer> jBuffer,
+                                         jni::jint position, jni::jint length) {
+        using namespace mbgl::style::conversion;
+
+        // Parse the UTF-8 bytes of the direct buffer in place, without a java string copy
+        auto data = static_cast<const char*>(env.GetDirectBufferAddress(jni::Unwrap(jBuffer.Get())));
+        auto capacity = env.GetDirectBufferCapacity(jni::Unwrap(jBuffer.Get()));
+        if (!data || position < 0 || length < 0 || position + length > capacity) {
+            mbgl::Log::Error(mbgl::Event::JNI, "Error setting geo json: invalid buffer");
+            return;
+        }
+
+        Error error;
+        optional<GeoJSON> converted = parseGeoJSON(data + position, length, error);
+        if (!converted) {
+            mbgl::Log::Error(mbgl::Event::JNI, "Error setting geo json: " + error.message);
+            return;
+        }
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSON(std::move(*converted));
+    }
+
+    void GeoJSONSource::setFeatureBuffer(jni::JNIEnv& env, jni::Object<java::nio::ByteBuffer> jBuffer, jni::jint length) {
+        using namespace mbgl::android::geojson;
+
+        // Decode the packed features in one pass, without calling back into java
+        mbgl::FeatureCollection features;
+        try {
+            features = FeatureBuffer::convert(env, jBuffer, length);
+        } catch (const std::exception& e) {
+            mbgl::Log::Error(mbgl::Event::JNI, std::string("Error setting geo json: ") + e.what());
+            return;
+        }
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSON(GeoJSON(std::move(features)));
+    }
+
+    void GeoJSONSource::setGeoJSONStringAsync(jni::JNIEnv& env, jni::String jJson,
+                                              jni::Object<SetGeoJsonCallback> callback) {
+        // Parse on the worker thread, only the string is copied here
+        auto load = [json = jni::Make<std::string>(env, jJson)] () -> GeoJSON {
+            using namespace mbgl::style::conversion;
+
+            Error error;
+            optional<GeoJSON> converted = parseGeoJSON(json, error);
+            if (!converted) {
+                throw std::runtime_error(error.message);
+            }
+            return std::move(*converted);
+        };
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSONAsync(
+            std::move(load), makeCallback(env, callback));
+    }
+
+    void GeoJSONSource::setFeatureCollectionAsync(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures,
+                                                  jni::Object<SetGeoJsonCallback> callback) {
+        // Convert on the worker thread, the Java object is kept alive in the meanwhile
+        auto load = [
+            features = std::shared_ptr<jni::jobject>(jFeatures.NewGlobalRef(env).release()->Get(), GenericGlobalRefDeleter())
+        ] () -> GeoJSON {
+            using namespace mbgl::android::geojson;
+
+            android::UniqueEnv env_ = android::AttachEnv();
+            return GeoJSON(FeatureCollection::convert(*env_, jni::Object<FeatureCollection>(*features)));
+        };
+
+        // Update the core source
+        source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setGeoJSONAsync(
+            std::move(load), makeCallback(env, callback));
+    }
+
+    std::function<void (std::exception_ptr)> GeoJSONSource::makeCallback(jni::JNIEnv& env,
+                                                                        jni::Object<SetGeoJsonCallback> callback_) {
+        return [
+            //Ensure the object is not gc'd in the meanwhile
+            callback = std::shared_ptr<jni::jobject>(callback_.NewGlobalRef(env).release()->Get(), GenericGlobalRefDeleter())
+        ](std::exception_ptr error) {
+            android::UniqueEnv env_ = android::AttachEnv();
+
+            if (error) {
+                SetGeoJsonCallback::onError(*env_, jni::Object<SetGeoJsonCallback>(*callback), error);
+            } else {
+                SetGeoJsonCallback::onComplete(*env_, jni::Object<SetGeoJsonCallback>(*callback));
+            }
+        };
+    }
+
+    void GeoJSONSource::addFeatures(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures) {
+        using namespace mbgl::android::geojson;
+
+        // Convert the jni object
+        auto features = FeatureCollection::convert(env, jFeatures);
+
+        // Update the core source
+        changeFeatures([&] (mbgl::style::GeoJSONSource& geoJSONSource) {
+            geoJSONSource.addFeatures(features);
+        });
+    }
+
+    void GeoJSONSource::updateFeatures(jni::JNIEnv& env, jni::Object<geojson::FeatureCollection> jFeatures) {
+        using namespace mbgl::android::geojson;
+
+        // Convert the jni object
+        auto features = FeatureCollection::convert(env, jFeatures);
+
+        // Update the core source
+        changeFeatures([&] (mbgl::style::GeoJSONSource& geoJSONSource) {
+            geoJSONSource.updateFeatures(features);
+        });
+    }
+
+    void GeoJSONSource::removeFeatures(jni::JNIEnv& env, jni::Array<jni::String> jIds) {
+        using namespace mbgl::android::conversion;
+
+        // Feature ids are strings on the Java side
+        std::vector<FeatureIdentifier> ids;
+        for (auto& id : toVector(env, jIds)) {
+            ids.emplace_back(std::move(id));
+        }
+
+        // Update the core source
+        changeFeatures([&] (mbgl::style::GeoJSONSource& geoJSONSource) {
+            geoJSONSource.removeFeatures(ids);
+        });
+    }
+
+    void GeoJSONSource::removeNumericFeatures(jni::JNIEnv& env, jni::Array<jni::jlong> jIds) {
+        // Parsed GeoJSON keeps non-negative integer ids unsigned and negative ones signed
+        std::size_t length = jIds.Length(env);
+        auto elements = jni::GetArrayElements(env, *jIds);
+        jni::jlong* values = std::get<0>(elements).get();
+
+        std::vector<FeatureIdentifier> ids;
+        ids.reserve(length);
+        for (std::size_t i = 0; i < length; i++) {
+            if (values[i] < 0) {
+                ids.emplace_back(int64_t(values[i]));
+            } else {
+                ids.emplace_back(uint64_t(values[i]));
+            }
+        }
+
+        // Update the core source
+        changeFeatures([&] (mbgl::style::GeoJSONSource& geoJSONSource) {
+            geoJSONSource.removeFeatures(ids);
+        });
+    }
+
+    void GeoJSONSource::changeFeatures(std::function<void (mbgl::style::GeoJSONSource&)> change) {
+        // Sources without incremental updates throw, log it like the other errors of this source
+        try {
+            change(*source.as<mbgl::style::GeoJSONSource>());
+        } catch (const std::exception& e) {
+            mbgl::Log::Error(mbgl::Event::JNI, std::string("Error updating features: ") + e.what());
+        }
+    }
+
     void GeoJSONSource::setURL(jni::JNIEnv& env, jni::String url) {
         // Update the core source
         source.as<mbgl::style::GeoJSONSource>()->GeoJSONSource::setURL(jni::Make<std::string>(env, url));
@@ -107,15 +273,50 @@ namespace android {
     }
 
     jni::Array<jni::Object<geojson::Feature>> GeoJSONSource::querySourceFeatures(jni::JNIEnv& env,
-                                                                        jni::Array<jni::Object<>> jfilter) {
+                                                                        jni::Array<jni::Object<>> jfilter,
+                                                                        jni::jint limit,
+                                                                        jni::jboolean geometry,
+                                                                        jni::Array<jni::String> properties) {
         using namespace mbgl::android::conversion;
-        using namespace mbgl::android::geojson;
 
         std::vector<mbgl::Feature> features;
         if (rendererFrontend) {
             features = rendererFrontend->querySourceFeatures(source.getID(), { {},  toFilter(env, jfilter) });
         }
-        return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(env, features);
+        return QueryOptions(env, limit, geometry, properties).convert(env, std::move(features));
+    }
+
+    jni::Array<jni::String> GeoJSONSource::querySourceFeatureIds(jni::JNIEnv& env,
+                                                                 jni::Array<jni::Object<>> jfilter,
+                                                                 jni::jint limit) {
+        using namespace mbgl::android::conversion;
+
+        std::vector<mbgl::Feature> features;
+        if (rendererFrontend) {
+            features = rendererFrontend->querySourceFeatures(source.getID(), { {},  toFilter(env, jfilter) });
+        }
+        return QueryOptions::convertIds(env, features, limit);
+    }
+
+    // SetGeoJsonCallback //
+
+    jni::Class<GeoJSONSource::SetGeoJsonCallback> GeoJSONSource::SetGeoJsonCallback::javaClass;
+
+    void GeoJSONSource::SetGeoJsonCallback::registerNative(jni::JNIEnv& env) {
+        javaClass = *jni::Class<SetGeoJsonCallback>::Find(env).NewGlobalRef(env).release();
+    }
+
+    void GeoJSONSource::SetGeoJsonCallback::onError(jni::JNIEnv& env,
+                                                     jni::Object<SetGeoJsonCallback> callback,
+                                                     std::exception_ptr error) {
+        static auto method = javaClass.GetMethod<void (jni::String)>(env, "onError");
+        std::string message = mbgl::util::toString(error);
+        callback.Call(env, method, jni::Make<jni::String>(env, message));
+    }
+
+    void GeoJSONSource::SetGeoJsonCallback::onComplete(jni::JNIEnv& env, jni::Object<SetGeoJsonCallback> callback) {
+        static auto method = javaClass.GetMethod<void ()>(env, "onComplete");
+        callback.Call(env, method);
     }
 
     jni::Class<GeoJSONSource> GeoJSONSource::javaClass;
@@ -128,6 +329,7 @@ namespace android {
     void GeoJSONSource::registerNative(jni::JNIEnv& env) {
         // Lookup the class
         GeoJSONSource::javaClass = *jni::Class<GeoJSONSource>::Find(env).NewGlobalRef(env).release();
+        SetGeoJsonCallback::registerNative(env);
 
         #define METHOD(MethodPtr, name) jni::MakeNativePeerMethod<decltype(MethodPtr), (MethodPtr)>(name)
 
@@ -141,9 +343,18 @@ namespace android {
             METHOD(&GeoJSONSource::setFeatureCollection, "nativeSetFeatureCollection"),
             METHOD(&GeoJSONSource::setFeature, "nativeSetFeature"),
             METHOD(&GeoJSONSource::setGeometry, "nativeSetGeometry"),
+            METHOD(&GeoJSONSource::setGeoJSONBuffer, "nativeSetGeoJsonBuffer"),
+            METHOD(&GeoJSONSource::setFeatureBuffer, "nativeSetFeatureBuffer"),
+            METHOD(&GeoJSONSource::setGeoJSONStringAsync, "nativeSetGeoJsonStringAsync"),
+            METHOD(&GeoJSONSource::setFeatureCollectionAsync, "nativeSetFeatureCollectionAsync"),
+            METHOD(&GeoJSONSource::addFeatures, "nativeAddFeatures"),
+            METHOD(&GeoJSONSource::updateFeatures, "nativeUpdateFeatures"),
+            METHOD(&GeoJSONSource::removeFeatures, "nativeRemoveFeatures"),
+            METHOD(&GeoJSONSource::removeNumericFeatures, "nativeRemoveNumericFeatures"),
             METHOD(&GeoJSONSource::setURL, "nativeSetUrl"),
             METHOD(&GeoJSONSource::getURL, "nativeGetUrl"),
-            METHOD(&GeoJSONSource::querySourceFeatures, "querySourceFeatures")
+            METHOD(&GeoJSONSource::querySourceFeatures, "querySourceFeatures"),
+            METHOD(&GeoJSONSource::querySourceFeatureIds, "querySourceFeatureIds")
         );
     }
 
@@ -4,7 +4,9 @@
 #include <mbgl/style/sources/geojson_source.hpp>
 #include "../../geojson/geometry.hpp"
 #include "../../geojson/feature.hpp"
+#include "../../geojson/feature_buffer.hpp"
 #include "../../geojson/feature_collection.hpp"
+#include "../../java/nio.hpp"
 #include <jni/jni.hpp>
 
 namespace mbgl {
@@ -13,6 +15,19 @@ namespace android {
 class GeoJSONSource : public Source {
 public:
 
+    class SetGeoJsonCallback {
+    public:
+        static constexpr auto Name() { return "com/mapbox/mapboxsdk/style/sources/GeoJsonSource$SetGeoJsonCallback"; };
+
+        static void onError(jni::JNIEnv&, jni::Object<SetGeoJsonCallback>, std::exception_ptr);
+
+        static void onComplete(jni::JNIEnv&, jni::Object<SetGeoJsonCallback>);
+
+        static jni::Class<SetGeoJsonCallback> javaClass;
+
+        static void registerNative(jni::JNIEnv&);
+    };
+
     static constexpr auto Name() { return "com/mapbox/mapboxsdk/style/sources/GeoJsonSource"; };
 
     static jni::Class<GeoJSONSource> javaClass;
@@ -33,16 +48,39 @@ public:
 
     void setGeometry(jni::JNIEnv&, jni::Object<geojson::Geometry>);
 
+    void setGeoJSONBuffer(jni::JNIEnv&, jni::Object<java::nio::ByteBuffer>, jni::jint, jni::jint);
+
+    void setFeatureBuffer(jni::JNIEnv&, jni::Object<java::nio::ByteBuffer>, jni::jint);
+
+    void setGeoJSONStringAsync(jni::JNIEnv&, jni::String, jni::Object<SetGeoJsonCallback>);
+
+    void setFeatureCollectionAsync(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>, jni::Object<SetGeoJsonCallback>);
+
     void setURL(jni::JNIEnv&, jni::String);
 
-    jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&,
-                                                                  jni::Array<jni::Object<>> jfilter);
+    void addFeatures(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>);
+
+    void updateFeatures(jni::JNIEnv&, jni::Object<geojson::FeatureCollection>);
+
+    void removeFeatures(jni::JNIEnv&, jni::Array<jni::String>);
+
+    void removeNumericFeatures(jni::JNIEnv&, jni::Array<jni::jlong>);
+
+    jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&, jni::Array<jni::Object<>> jfilter,
+                                                                  jni::jint limit, jni::jboolean geometry,
+                                                                  jni::Array<jni::String> properties);
+
+    jni::Array<jni::String> querySourceFeatureIds(jni::JNIEnv&, jni::Array<jni::Object<>> jfilter, jni::jint limit);
 
     jni::String getURL(jni::JNIEnv&);
 
 private:
     jni::Object<Source> createJavaPeer(jni::JNIEnv&);
 
+    std::function<void (std::exception_ptr)> makeCallback(jni::JNIEnv&, jni::Object<SetGeoJsonCallback>);
+
+    void changeFeatures(std::function<void (mbgl::style::GeoJSONSource&)>);
+
 }; // class GeoJSONSource
 
 } // namespace android
@@ -5,6 +5,7 @@
 // Java -> C++ conversion
 #include "../android_conversion.hpp"
 #include "../conversion/filter.hpp"
+#include "../query_options.hpp"
 
 // C++ -> Java conversion
 #include "../../conversion/conversion.hpp"
@@ -45,15 +46,30 @@ namespace android {
 
     jni::Array<jni::Object<geojson::Feature>> VectorSource::querySourceFeatures(jni::JNIEnv& env,
                                                                              jni::Array<jni::String> jSourceLayerIds,
-                                                                             jni::Array<jni::Object<>> jfilter) {
+                                                                             jni::Array<jni::Object<>> jfilter,
+                                                                             jni::jint limit,
+                                                                             jni::jboolean geometry,
+                                                                             jni::Array<jni::String> properties) {
         using namespace mbgl::android::conversion;
-        using namespace mbgl::android::geojson;
 
         std::vector<mbgl::Feature> features;
         if (rendererFrontend) {
             features = rendererFrontend->querySourceFeatures(source.getID(), { toVector(env, jSourceLayerIds), toFilter(env, jfilter) });
         }
-        return *convert<jni::Array<jni::Object<Feature>>, std::vector<mbgl::Feature>>(env, features);
+        return QueryOptions(env, limit, geometry, properties).convert(env, std::move(features));
+    }
+
+    jni::Array<jni::String> VectorSource::querySourceFeatureIds(jni::JNIEnv& env,
+                                                                jni::Array<jni::String> jSourceLayerIds,
+                                                                jni::Array<jni::Object<>> jfilter,
+                                                                jni::jint limit) {
+        using namespace mbgl::android::conversion;
+
+        std::vector<mbgl::Feature> features;
+        if (rendererFrontend) {
+            features = rendererFrontend->querySourceFeatures(source.getID(), { toVector(env, jSourceLayerIds), toFilter(env, jfilter) });
+        }
+        return QueryOptions::convertIds(env, features, limit);
     }
 
     jni::Class<VectorSource> VectorSource::javaClass;
@@ -76,6 +92,7 @@ namespace android {
             "initialize",
             "finalize",
             METHOD(&VectorSource::querySourceFeatures, "querySourceFeatures"),
+            METHOD(&VectorSource::querySourceFeatureIds, "querySourceFeatureIds"),
             METHOD(&VectorSource::getURL, "nativeGetUrl")
         );
     }
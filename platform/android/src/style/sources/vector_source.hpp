@@ -24,7 +24,12 @@ public:
     ~VectorSource();
 
     jni::Array<jni::Object<geojson::Feature>> querySourceFeatures(jni::JNIEnv&, jni::Array<jni::String>,
-                                                                  jni::Array<jni::Object<>> jfilter);
+                                                                  jni::Array<jni::Object<>> jfilter,
+                                                                  jni::jint limit, jni::jboolean geometry,
+                                                                  jni::Array<jni::String> properties);
+
+    jni::Array<jni::String> querySourceFeatureIds(jni::JNIEnv&, jni::Array<jni::String>,
+                                                  jni::Array<jni::Object<>> jfilter, jni::jint limit);
 
     jni::String getURL(jni::JNIEnv&);
 
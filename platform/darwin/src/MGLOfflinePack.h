@@ -106,6 +106,10 @@ MGL_EXPORT
 
 /**
  The region for which the pack manages resources.
+
+ A pack covering an arbitrary geometry, for example one downloaded by another
+ SDK sharing the offline database, is represented by an
+ `MGLTilePyramidOfflineRegion` covering the bounds of the geometry.
  */
 @property (nonatomic, readonly) id <MGLOfflineRegion> region;
 
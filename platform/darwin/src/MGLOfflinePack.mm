@@ -7,6 +7,7 @@
 #import "NSValue+MGLAdditions.h"
 
 #include <mbgl/storage/default_file_source.hpp>
+#include <mapbox/geometry/envelope.hpp>
 
 /**
  Assert that the current offline pack is valid.
@@ -75,8 +76,21 @@ private:
     MGLAssertOfflinePackIsValid();
 
     const mbgl::OfflineRegionDefinition &regionDefinition = _mbglOfflineRegion->getDefinition();
+    // Regions covering a geometry, downloaded by another SDK sharing the database, are
+    // represented by a tile pyramid over the bounds of the geometry.
+    const mbgl::OfflineRegionDefinition tilePyramidDefinition = regionDefinition.match(
+        [](const mbgl::OfflineTilePyramidRegionDefinition &definition) -> mbgl::OfflineRegionDefinition {
+            return definition;
+        },
+        [](const mbgl::OfflineGeometryRegionDefinition &definition) -> mbgl::OfflineRegionDefinition {
+            const auto box = mapbox::geometry::envelope(definition.geometry);
+            const auto bounds = mbgl::LatLngBounds::hull({ box.min.y, box.min.x }, { box.max.y, box.max.x });
+            return mbgl::OfflineTilePyramidRegionDefinition(definition.styleURL, bounds,
+                                                            definition.minZoom, definition.maxZoom,
+                                                            definition.pixelRatio);
+        });
     NSAssert([MGLTilePyramidOfflineRegion conformsToProtocol:@protocol(MGLOfflineRegion_Private)], @"MGLTilePyramidOfflineRegion should conform to MGLOfflineRegion_Private.");
-    return [(id <MGLOfflineRegion_Private>)[MGLTilePyramidOfflineRegion alloc] initWithOfflineRegionDefinition:regionDefinition];
+    return [(id <MGLOfflineRegion_Private>)[MGLTilePyramidOfflineRegion alloc] initWithOfflineRegionDefinition:tilePyramidDefinition];
 }
 
 - (NSData *)context {
@@ -67,6 +67,23 @@ public:
         }
     }
 
+    void listRegionSummaries(uint64_t offset, uint64_t limit, uint64_t maxMetadataSize, bool descending,
+                             std::function<void (std::exception_ptr, optional<std::vector<OfflineRegionSummary>>)> callback) {
+        try {
+            callback({}, offlineDatabase->listRegionSummaries(offset, limit, maxMetadataSize, descending));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
+    void getRegion(int64_t regionID, std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
+        try {
+            callback({}, offlineDatabase->getRegion(regionID));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void createRegion(const OfflineRegionDefinition& definition,
                       const OfflineRegionMetadata& metadata,
                       std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
@@ -105,6 +122,23 @@ public:
         }
     }
 
+    void exportRegion(int64_t regionID, const std::string& path, std::function<void (std::exception_ptr)> callback) {
+        try {
+            offlineDatabase->exportRegion(regionID, path);
+            callback({});
+        } catch (...) {
+            callback(std::current_exception());
+        }
+    }
+
+    void mergeRegions(const std::string& path, std::function<void (std::exception_ptr, optional<std::vector<OfflineRegion>>)> callback) {
+        try {
+            callback({}, offlineDatabase->mergeRegions(path));
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void setRegionObserver(int64_t regionID, std::unique_ptr<OfflineRegionObserver> observer) {
         getDownload(regionID).setObserver(std::move(observer));
     }
@@ -113,6 +147,10 @@ public:
         getDownload(regionID).setState(state);
     }
 
+    void refreshRegion(int64_t regionID) {
+        getDownload(regionID).refresh();
+    }
+
     void request(AsyncRequest* req, Resource resource, ActorRef<FileSourceRequest> ref) {
         auto callback = [ref] (const Response& res) mutable {
             ref.invoke(&FileSourceRequest::setResponse, res);
@@ -127,7 +165,7 @@ public:
         } else {
             // Try the offline database
             if (resource.hasLoadingMethod(Resource::LoadingMethod::Cache)) {
-                auto offlineResponse = offlineDatabase->get(resource);
+                auto offlineResponse = offlineDatabase->get(resource, true);
 
                 if (resource.loadingMethod == Resource::LoadingMethod::CacheOnly) {
                     if (!offlineResponse) {
@@ -177,6 +215,41 @@ public:
         offlineDatabase->setOfflineMapboxTileCountLimit(limit);
     }
 
+    void setMaximumCacheSize(uint64_t size, std::function<void (std::exception_ptr)> callback) {
+        try {
+            offlineDatabase->setMaximumCacheSize(size);
+            callback({});
+        } catch (...) {
+            callback(std::current_exception());
+        }
+    }
+
+    void clearAmbientCache(std::function<void (std::exception_ptr)> callback) {
+        try {
+            offlineDatabase->clearAmbientCache();
+            callback({});
+        } catch (...) {
+            callback(std::current_exception());
+        }
+    }
+
+    void compactAmbientCache(std::function<void (std::exception_ptr)> callback) {
+        try {
+            offlineDatabase->compact();
+            callback({});
+        } catch (...) {
+            callback(std::current_exception());
+        }
+    }
+
+    void getAmbientCacheStats(std::function<void (std::exception_ptr, optional<AmbientCacheStats>)> callback) {
+        try {
+            callback({}, offlineDatabase->getAmbientCacheStats());
+        } catch (...) {
+            callback(std::current_exception(), {});
+        }
+    }
+
     void setOnlineStatus(const bool status) {
         onlineFileSource.setOnlineStatus(status);
     }
@@ -265,6 +338,16 @@ void DefaultFileSource::listOfflineRegions(std::function<void (std::exception_pt
     impl->actor().invoke(&Impl::listRegions, callback);
 }
 
+void DefaultFileSource::listOfflineRegionSummaries(uint64_t offset, uint64_t limit, uint64_t maxMetadataSize, bool descending,
+                                                   std::function<void (std::exception_ptr, optional<std::vector<OfflineRegionSummary>>)> callback) {
+    impl->actor().invoke(&Impl::listRegionSummaries, offset, limit, maxMetadataSize, descending, callback);
+}
+
+void DefaultFileSource::getOfflineRegion(int64_t regionID,
+                                         std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
+    impl->actor().invoke(&Impl::getRegion, regionID, callback);
+}
+
 void DefaultFileSource::createOfflineRegion(const OfflineRegionDefinition& definition,
                                             const OfflineRegionMetadata& metadata,
                                             std::function<void (std::exception_ptr, optional<OfflineRegion>)> callback) {
@@ -281,6 +364,16 @@ void DefaultFileSource::deleteOfflineRegion(OfflineRegion&& region, std::functio
     impl->actor().invoke(&Impl::deleteRegion, std::move(region), callback);
 }
 
+void DefaultFileSource::exportOfflineRegion(OfflineRegion& region, const std::string& path,
+                                            std::function<void (std::exception_ptr)> callback) {
+    impl->actor().invoke(&Impl::exportRegion, region.getID(), path, callback);
+}
+
+void DefaultFileSource::mergeOfflineRegions(const std::string& path,
+                                            std::function<void (std::exception_ptr, optional<std::vector<OfflineRegion>>)> callback) {
+    impl->actor().invoke(&Impl::mergeRegions, path, callback);
+}
+
 void DefaultFileSource::setOfflineRegionObserver(OfflineRegion& region, std::unique_ptr<OfflineRegionObserver> observer) {
     impl->actor().invoke(&Impl::setRegionObserver, region.getID(), std::move(observer));
 }
@@ -289,10 +382,30 @@ void DefaultFileSource::setOfflineRegionDownloadState(OfflineRegion& region, Off
     impl->actor().invoke(&Impl::setRegionDownloadState, region.getID(), state);
 }
 
+void DefaultFileSource::refreshOfflineRegion(OfflineRegion& region) {
+    impl->actor().invoke(&Impl::refreshRegion, region.getID());
+}
+
 void DefaultFileSource::getOfflineRegionStatus(OfflineRegion& region, std::function<void (std::exception_ptr, optional<OfflineRegionStatus>)> callback) const {
     impl->actor().invoke(&Impl::getRegionStatus, region.getID(), callback);
 }
 
+void DefaultFileSource::setMaximumAmbientCacheSize(uint64_t size, std::function<void (std::exception_ptr)> callback) {
+    impl->actor().invoke(&Impl::setMaximumCacheSize, size, callback);
+}
+
+void DefaultFileSource::clearAmbientCache(std::function<void (std::exception_ptr)> callback) {
+    impl->actor().invoke(&Impl::clearAmbientCache, callback);
+}
+
+void DefaultFileSource::compactAmbientCache(std::function<void (std::exception_ptr)> callback) {
+    impl->actor().invoke(&Impl::compactAmbientCache, callback);
+}
+
+void DefaultFileSource::getAmbientCacheStats(std::function<void (std::exception_ptr, optional<AmbientCacheStats>)> callback) const {
+    impl->actor().invoke(&Impl::getAmbientCacheStats, callback);
+}
+
 void DefaultFileSource::setOfflineMapboxTileCountLimit(uint64_t limit) const {
     impl->actor().invoke(&Impl::setOfflineMapboxTileCountLimit, limit);
 }
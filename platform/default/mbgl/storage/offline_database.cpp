@@ -8,6 +8,8 @@
 
 #include "sqlite3.hpp"
 
+#include <cerrno>
+
 namespace mbgl {
 
 OfflineDatabase::Statement::~Statement() {
@@ -145,8 +147,15 @@ OfflineDatabase::Statement OfflineDatabase::getStatement(const char * sql) {
     return Statement(*statements.emplace(sql, std::make_unique<mapbox::sqlite::Statement>(db->prepare(sql))).first->second);
 }
 
-optional<Response> OfflineDatabase::get(const Resource& resource) {
+optional<Response> OfflineDatabase::get(const Resource& resource, bool countLookup) {
     auto result = getInternal(resource);
+    if (countLookup) {
+        if (result) {
+            hitCount++;
+        } else {
+            missCount++;
+        }
+    }
     return result ? result->first : optional<Response>();
 }
 
@@ -575,6 +584,55 @@ std::vector<OfflineRegion> OfflineDatabase::listRegions() {
     return result;
 }
 
+std::vector<OfflineRegionSummary> OfflineDatabase::listRegionSummaries(uint64_t offset, uint64_t limit,
+                                                                      uint64_t maxMetadataSize, bool descending) {
+    // The metadata is truncated by SQLite so that large blobs are never read completely.
+    // clang-format off
+    Statement stmt = getStatement(descending ?
+        "SELECT id, substr(description, 1, ?1), length(description) "
+        "FROM regions "
+        "ORDER BY id DESC "
+        "LIMIT ?2 OFFSET ?3 " :
+        "SELECT id, substr(description, 1, ?1), length(description) "
+        "FROM regions "
+        "ORDER BY id ASC "
+        "LIMIT ?2 OFFSET ?3 ");
+    // clang-format on
+
+    stmt->bind(1, static_cast<int64_t>(maxMetadataSize));
+    stmt->bind(2, static_cast<int64_t>(limit));
+    stmt->bind(3, static_cast<int64_t>(offset));
+
+    std::vector<OfflineRegionSummary> result;
+
+    while (stmt->run()) {
+        OfflineRegionSummary summary;
+        summary.id = stmt->get<int64_t>(0);
+        summary.metadata = stmt->get<std::vector<uint8_t>>(1);
+        summary.metadataSize = stmt->get<int64_t>(2);
+        result.push_back(std::move(summary));
+    }
+
+    return result;
+}
+
+optional<OfflineRegion> OfflineDatabase::getRegion(int64_t regionID) {
+    // clang-format off
+    Statement stmt = getStatement(
+        "SELECT definition, description FROM regions WHERE id = ?1");
+    // clang-format on
+
+    stmt->bind(1, regionID);
+    if (!stmt->run()) {
+        return {};
+    }
+
+    return OfflineRegion(
+        regionID,
+        decodeOfflineRegionDefinition(stmt->get<std::string>(0)),
+        stmt->get<std::vector<uint8_t>>(1));
+}
+
 OfflineRegion OfflineDatabase::createRegion(const OfflineRegionDefinition& definition,
                                             const OfflineRegionMetadata& metadata) {
     // clang-format off
@@ -619,6 +677,214 @@ void OfflineDatabase::deleteRegion(OfflineRegion&& region) {
     offlineMapboxTileCount = {};
 }
 
+void OfflineDatabase::attachArchive(const std::string& archivePath) {
+    auto attach = db->prepare("ATTACH DATABASE ? AS archive");
+    attach.bind(1, archivePath);
+    attach.run();
+}
+
+void OfflineDatabase::detachArchive() {
+    db->exec("DETACH DATABASE archive");
+}
+
+void OfflineDatabase::exportRegion(int64_t regionID, const std::string& archivePath) {
+    try {
+        util::deleteFile(archivePath);
+    } catch (util::IOException& ex) {
+        if (ex.code != ENOENT) {
+            throw;
+        }
+    }
+
+    // Create an empty database with the current schema, the region is then copied into it
+    // with bulk statements, keeping the row IDs.
+    {
+        OfflineDatabase archive(archivePath, 0);
+    }
+
+    attachArchive(archivePath);
+
+    try {
+        mapbox::sqlite::Transaction transaction(*db);
+
+        // clang-format off
+        const char* statements[] = {
+            "INSERT INTO archive.regions (id, definition, description) "
+            "SELECT id, definition, description "
+            "FROM main.regions "
+            "WHERE id = ?1 ",
+
+            "INSERT INTO archive.resources (id, url, kind, expires, modified, etag, data, compressed, accessed, must_revalidate) "
+            "SELECT r.id, r.url, r.kind, r.expires, r.modified, r.etag, r.data, r.compressed, r.accessed, r.must_revalidate "
+            "FROM main.region_resources rr, main.resources r "
+            "WHERE rr.region_id = ?1 "
+            "AND r.id = rr.resource_id ",
+
+            "INSERT INTO archive.tiles (id, url_template, pixel_ratio, z, x, y, expires, modified, etag, data, compressed, accessed, must_revalidate) "
+            "SELECT t.id, t.url_template, t.pixel_ratio, t.z, t.x, t.y, t.expires, t.modified, t.etag, t.data, t.compressed, t.accessed, t.must_revalidate "
+            "FROM main.region_tiles rt, main.tiles t "
+            "WHERE rt.region_id = ?1 "
+            "AND t.id = rt.tile_id ",
+
+            "INSERT INTO archive.region_resources (region_id, resource_id) "
+            "SELECT region_id, resource_id "
+            "FROM main.region_resources "
+            "WHERE region_id = ?1 ",
+
+            "INSERT INTO archive.region_tiles (region_id, tile_id) "
+            "SELECT region_id, tile_id "
+            "FROM main.region_tiles "
+            "WHERE region_id = ?1 "
+        };
+        // clang-format on
+
+        for (const char* sql : statements) {
+            auto stmt = db->prepare(sql);
+            stmt.bind(1, regionID);
+            stmt.run();
+        }
+
+        transaction.commit();
+    } catch (...) {
+        detachArchive();
+        throw;
+    }
+
+    detachArchive();
+}
+
+std::vector<OfflineRegion> OfflineDatabase::mergeRegions(const std::string& archivePath) {
+    attachArchive(archivePath);
+
+    std::vector<OfflineRegion> result;
+
+    try {
+        // Schema versions 2 to 5 have the same tables, version 6 added must_revalidate.
+        auto version = db->prepare("PRAGMA archive.user_version");
+        version.run();
+        const int archiveVersion = version.get<int>(0);
+        if (archiveVersion < 2 || archiveVersion > 6) {
+            throw std::runtime_error("Unsupported offline database version");
+        }
+
+        // Let SQLite read the secondary database through a memory map instead of copying
+        // every page.
+        db->exec("PRAGMA archive.mmap_size = 268435456");
+
+        std::vector<int64_t> archiveRegionIDs;
+        auto regions = db->prepare("SELECT id FROM archive.regions ORDER BY id");
+        while (regions.run()) {
+            archiveRegionIDs.push_back(regions.get<int64_t>(0));
+        }
+        regions.reset();
+
+        // All the regions are merged, or none of them is
+        mapbox::sqlite::Transaction transaction(*db);
+
+        for (int64_t archiveRegionID : archiveRegionIDs) {
+            result.push_back(mergeRegion(archiveRegionID, archiveVersion >= 6));
+        }
+
+        // Merged tiles count towards the Mapbox tile limit like downloaded ones.
+        offlineMapboxTileCount = {};
+        if (getOfflineMapboxTileCount() > offlineMapboxTileCountLimit) {
+            throw std::runtime_error("Mapbox tile limit exceeded");
+        }
+
+        transaction.commit();
+    } catch (...) {
+        // The count may include rolled back tiles
+        offlineMapboxTileCount = {};
+        detachArchive();
+        throw;
+    }
+
+    detachArchive();
+
+    return result;
+}
+
+OfflineRegion OfflineDatabase::mergeRegion(int64_t archiveRegionID, bool archiveHasMustRevalidate) {
+    // clang-format off
+    auto region = db->prepare(
+        "SELECT definition, description FROM archive.regions WHERE id = ?1");
+    // clang-format on
+    region.bind(1, archiveRegionID);
+    region.run();
+    const auto definition = region.get<std::string>(0);
+    const auto metadata = region.get<std::vector<uint8_t>>(1);
+    region.reset();
+
+    // clang-format off
+    auto insertRegion = db->prepare(
+        "INSERT INTO main.regions (definition, description) "
+        "VALUES                   (?1,         ?2) ");
+    // clang-format on
+    insertRegion.bind(1, definition);
+    insertRegion.bindBlob(2, metadata);
+    insertRegion.run();
+    const int64_t regionID = insertRegion.lastInsertRowId();
+
+    // Resources and tiles of the region that aren't stored yet are copied, then the
+    // region is linked to the stored rows, which de-duplicates resources shared with
+    // other regions or the ambient cache.
+    // clang-format off
+    auto insertResources = db->prepare(archiveHasMustRevalidate ?
+        "INSERT OR IGNORE INTO main.resources (url, kind, expires, modified, etag, data, compressed, accessed, must_revalidate) "
+        "SELECT a.url, a.kind, a.expires, a.modified, a.etag, a.data, a.compressed, a.accessed, a.must_revalidate "
+        "FROM archive.region_resources ar, archive.resources a "
+        "WHERE ar.region_id = ?1 "
+        "AND a.id = ar.resource_id " :
+        "INSERT OR IGNORE INTO main.resources (url, kind, expires, modified, etag, data, compressed, accessed) "
+        "SELECT a.url, a.kind, a.expires, a.modified, a.etag, a.data, a.compressed, a.accessed "
+        "FROM archive.region_resources ar, archive.resources a "
+        "WHERE ar.region_id = ?1 "
+        "AND a.id = ar.resource_id ");
+    auto insertTiles = db->prepare(archiveHasMustRevalidate ?
+        "INSERT OR IGNORE INTO main.tiles (url_template, pixel_ratio, z, x, y, expires, modified, etag, data, compressed, accessed, must_revalidate) "
+        "SELECT a.url_template, a.pixel_ratio, a.z, a.x, a.y, a.expires, a.modified, a.etag, a.data, a.compressed, a.accessed, a.must_revalidate "
+        "FROM archive.region_tiles at, archive.tiles a "
+        "WHERE at.region_id = ?1 "
+        "AND a.id = at.tile_id " :
+        "INSERT OR IGNORE INTO main.tiles (url_template, pixel_ratio, z, x, y, expires, modified, etag, data, compressed, accessed) "
+        "SELECT a.url_template, a.pixel_ratio, a.z, a.x, a.y, a.expires, a.modified, a.etag, a.data, a.compressed, a.accessed "
+        "FROM archive.region_tiles at, archive.tiles a "
+        "WHERE at.region_id = ?1 "
+        "AND a.id = at.tile_id ");
+    auto linkResources = db->prepare(
+        "INSERT OR IGNORE INTO main.region_resources (region_id, resource_id) "
+        "SELECT ?2, r.id "
+        "FROM archive.region_resources ar, archive.resources a, main.resources r "
+        "WHERE ar.region_id = ?1 "
+        "AND a.id = ar.resource_id "
+        "AND r.url = a.url ");
+    auto linkTiles = db->prepare(
+        "INSERT OR IGNORE INTO main.region_tiles (region_id, tile_id) "
+        "SELECT ?2, t.id "
+        "FROM archive.region_tiles at, archive.tiles a, main.tiles t "
+        "WHERE at.region_id = ?1 "
+        "AND a.id = at.tile_id "
+        "AND t.url_template = a.url_template "
+        "AND t.pixel_ratio = a.pixel_ratio "
+        "AND t.z = a.z "
+        "AND t.x = a.x "
+        "AND t.y = a.y ");
+    // clang-format on
+
+    insertResources.bind(1, archiveRegionID);
+    insertResources.run();
+    insertTiles.bind(1, archiveRegionID);
+    insertTiles.run();
+
+    for (auto stmt : { &linkResources, &linkTiles }) {
+        stmt->bind(1, archiveRegionID);
+        stmt->bind(2, regionID);
+        stmt->run();
+    }
+
+    return OfflineRegion(regionID, decodeOfflineRegionDefinition(definition), metadata);
+}
+
 optional<std::pair<Response, uint64_t>> OfflineDatabase::getRegionResource(int64_t regionID, const Resource& resource) {
     auto response = getInternal(resource);
 
@@ -878,6 +1144,78 @@ bool OfflineDatabase::evict(uint64_t neededFreeSize) {
     return true;
 }
 
+void OfflineDatabase::setMaximumCacheSize(uint64_t maximumCacheSize_) {
+    maximumCacheSize = maximumCacheSize_;
+    evict(0);
+}
+
+void OfflineDatabase::clearAmbientCache() {
+    // clang-format off
+    Statement resourcesStmt = getStatement(
+        "DELETE FROM resources "
+        "WHERE id IN ( "
+        "  SELECT id FROM resources "
+        "  LEFT JOIN region_resources "
+        "  ON resource_id = resources.id "
+        "  WHERE resource_id IS NULL "
+        ") ");
+    // clang-format on
+    resourcesStmt->run();
+
+    // clang-format off
+    Statement tilesStmt = getStatement(
+        "DELETE FROM tiles "
+        "WHERE id IN ( "
+        "  SELECT id FROM tiles "
+        "  LEFT JOIN region_tiles "
+        "  ON tile_id = tiles.id "
+        "  WHERE tile_id IS NULL "
+        ") ");
+    // clang-format on
+    tilesStmt->run();
+
+    db->exec("PRAGMA incremental_vacuum");
+}
+
+void OfflineDatabase::compact() {
+    evict(0);
+    db->exec("PRAGMA incremental_vacuum");
+}
+
+AmbientCacheStats OfflineDatabase::getAmbientCacheStats() {
+    AmbientCacheStats stats;
+    stats.hitCount = hitCount;
+    stats.missCount = missCount;
+    stats.maximumSize = maximumCacheSize;
+
+    // clang-format off
+    Statement stmt = getStatement(
+        "SELECT COUNT(*), IFNULL(SUM(LENGTH(data)), 0) "
+        "FROM ( "
+        "    SELECT data "
+        "    FROM resources "
+        "    LEFT JOIN region_resources "
+        "    ON resource_id = resources.id "
+        "    WHERE resource_id IS NULL "
+        "  UNION ALL "
+        "    SELECT data "
+        "    FROM tiles "
+        "    LEFT JOIN region_tiles "
+        "    ON tile_id = tiles.id "
+        "    WHERE tile_id IS NULL "
+        ") ");
+    // clang-format on
+    stmt->run();
+    stats.resourceCount = stmt->get<int64_t>(0);
+    stats.resourceSize = stmt->get<int64_t>(1);
+
+    uint64_t pageSize = getPragma<int64_t>("PRAGMA page_size");
+    stats.databaseSize = pageSize * getPragma<int64_t>("PRAGMA page_count");
+    stats.freeSize = pageSize * getPragma<int64_t>("PRAGMA freelist_count");
+
+    return stats;
+}
+
 void OfflineDatabase::setOfflineMapboxTileCountLimit(uint64_t limit) {
     offlineMapboxTileCountLimit = limit;
 }
@@ -30,13 +30,21 @@ public:
     OfflineDatabase(std::string path, uint64_t maximumCacheSize = util::DEFAULT_MAX_CACHE_SIZE);
     ~OfflineDatabase();
 
-    optional<Response> get(const Resource&);
+    // Lookups for map requests count towards the hits and misses of the ambient cache
+    // statistics, other lookups such as those of offline downloads don't.
+    optional<Response> get(const Resource&, bool countLookup = false);
 
     // Return value is (inserted, stored size)
     std::pair<bool, uint64_t> put(const Resource&, const Response&);
 
     std::vector<OfflineRegion> listRegions();
 
+    // Returns a page of regions ordered by ID, with at most maxMetadataSize bytes of
+    // their metadata.
+    std::vector<OfflineRegionSummary> listRegionSummaries(uint64_t offset, uint64_t limit,
+                                                          uint64_t maxMetadataSize, bool descending);
+    optional<OfflineRegion> getRegion(int64_t regionID);
+
     OfflineRegion createRegion(const OfflineRegionDefinition&,
                                const OfflineRegionMetadata&);
 
@@ -44,6 +52,15 @@ public:
 
     void deleteRegion(OfflineRegion&&);
 
+    // Writes the region, its metadata and the resources and tiles it requires to a
+    // new offline database at the given path, replacing any existing file.
+    void exportRegion(int64_t regionID, const std::string& path);
+
+    // Adds the regions of another offline database, such as one written by exportRegion,
+    // in a single transaction. Resources already stored are kept, only the missing ones
+    // are copied.
+    std::vector<OfflineRegion> mergeRegions(const std::string& path);
+
     // Return value is (response, stored size)
     optional<std::pair<Response, uint64_t>> getRegionResource(int64_t regionID, const Resource&);
     optional<int64_t> hasRegionResource(int64_t regionID, const Resource&);
@@ -52,6 +69,14 @@ public:
     OfflineRegionDefinition getRegionDefinition(int64_t regionID);
     OfflineRegionStatus getRegionCompletedStatus(int64_t regionID);
 
+    // Evicts ambient resources until the database fits the new size.
+    void setMaximumCacheSize(uint64_t);
+    void clearAmbientCache();
+    // Evicts ambient resources above the maximum size and returns unused pages to the
+    // file system.
+    void compact();
+    AmbientCacheStats getAmbientCacheStats();
+
     void setOfflineMapboxTileCountLimit(uint64_t);
     uint64_t getOfflineMapboxTileCountLimit();
     bool offlineMapboxTileCountLimitExceeded();
@@ -66,6 +91,10 @@ private:
     void migrateToVersion5();
     void migrateToVersion6();
 
+    void attachArchive(const std::string& path);
+    void detachArchive();
+    OfflineRegion mergeRegion(int64_t archiveRegionID, bool archiveHasMustRevalidate);
+
     class Statement {
     public:
         explicit Statement(mapbox::sqlite::Statement& stmt_) : stmt(stmt_) {}
@@ -110,6 +139,9 @@ private:
 
     uint64_t maximumCacheSize;
 
+    uint64_t hitCount = 0;
+    uint64_t missCount = 0;
+
     uint64_t offlineMapboxTileCountLimit = util::mapbox::DEFAULT_OFFLINE_TILE_COUNT_LIMIT;
     optional<uint64_t> offlineMapboxTileCount;
 
@@ -23,6 +23,26 @@ namespace mbgl {
 
 using namespace style;
 
+namespace {
+
+std::string getStyleURL(const OfflineRegionDefinition& definition) {
+    return definition.match([](const auto& region) { return region.styleURL; });
+}
+
+float getPixelRatio(const OfflineRegionDefinition& definition) {
+    return definition.match([](const auto& region) { return region.pixelRatio; });
+}
+
+std::vector<CanonicalTileID> tileCover(const OfflineRegionDefinition& definition, SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) {
+    return definition.match([&](const auto& region) { return region.tileCover(type, tileSize, zoomRange); });
+}
+
+uint64_t tileCount(const OfflineRegionDefinition& definition, SourceType type, uint16_t tileSize, const Range<uint8_t>& zoomRange) {
+    return definition.match([&](const auto& region) { return region.tileCount(type, tileSize, zoomRange); });
+}
+
+} // namespace
+
 OfflineDownload::OfflineDownload(int64_t id_,
                                  OfflineRegionDefinition&& definition_,
                                  OfflineDatabase& offlineDatabase_,
@@ -56,6 +76,16 @@ void OfflineDownload::setState(OfflineRegionDownloadState state) {
     observer->statusChanged(status);
 }
 
+void OfflineDownload::refresh() {
+    if (status.downloadState == OfflineRegionDownloadState::Active) {
+        deactivateDownload();
+        status.downloadState = OfflineRegionDownloadState::Inactive;
+    }
+
+    revalidate = true;
+    setState(OfflineRegionDownloadState::Active);
+}
+
 OfflineRegionStatus OfflineDownload::getStatus() const {
     if (status.downloadState == OfflineRegionDownloadState::Active) {
         return status;
@@ -64,7 +94,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
     OfflineRegionStatus result = offlineDatabase.getRegionCompletedStatus(id);
 
     result.requiredResourceCount++;
-    optional<Response> styleResponse = offlineDatabase.get(Resource::style(definition.styleURL));
+    optional<Response> styleResponse = offlineDatabase.get(Resource::style(getStyleURL(definition)));
     if (!styleResponse) {
         return result;
     }
@@ -80,7 +110,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
         auto handleTiledSource = [&] (const variant<std::string, Tileset>& urlOrTileset, const uint16_t tileSize) {
             if (urlOrTileset.is<Tileset>()) {
                 result.requiredResourceCount +=
-                    definition.tileCount(type, tileSize, urlOrTileset.get<Tileset>().zoomRange);
+                    tileCount(definition, type, tileSize, urlOrTileset.get<Tileset>().zoomRange);
             } else {
                 result.requiredResourceCount += 1;
                 const auto& url = urlOrTileset.get<std::string>();
@@ -90,7 +120,7 @@ OfflineRegionStatus OfflineDownload::getStatus() const {
                     optional<Tileset> tileset = style::conversion::convertJSON<Tileset>(*sourceResponse->data, error);
                     if (tileset) {
                         result.requiredResourceCount +=
-                            definition.tileCount(type, tileSize, (*tileset).zoomRange);
+                            tileCount(definition, type, tileSize, (*tileset).zoomRange);
                     }
                 } else {
                     result.requiredResourceCountIsPrecise = false;
@@ -149,7 +179,7 @@ void OfflineDownload::activateDownload() {
     status = OfflineRegionStatus();
     status.downloadState = OfflineRegionDownloadState::Active;
     status.requiredResourceCount++;
-    ensureResource(Resource::style(definition.styleURL), [&](Response styleResponse) {
+    ensureResource(Resource::style(getStyleURL(definition)), [&](Response styleResponse) {
         status.requiredResourceCountIsPrecise = true;
 
         style::Parser parser;
@@ -229,8 +259,8 @@ void OfflineDownload::activateDownload() {
         }
 
         if (!parser.spriteURL.empty()) {
-            queueResource(Resource::spriteImage(parser.spriteURL, definition.pixelRatio));
-            queueResource(Resource::spriteJSON(parser.spriteURL, definition.pixelRatio));
+            queueResource(Resource::spriteImage(parser.spriteURL, getPixelRatio(definition)));
+            queueResource(Resource::spriteJSON(parser.spriteURL, getPixelRatio(definition)));
         }
 
         continueDownload();
@@ -267,6 +297,7 @@ void OfflineDownload::continueDownload() {
 }
 
 void OfflineDownload::deactivateDownload() {
+    revalidate = false;
     requiredSourceURLs.clear();
     resourcesRemaining.clear();
     requests.clear();
@@ -278,10 +309,10 @@ void OfflineDownload::queueResource(Resource resource) {
 }
 
 void OfflineDownload::queueTiles(SourceType type, uint16_t tileSize, const Tileset& tileset) {
-    for (const auto& tile : definition.tileCover(type, tileSize, tileset.zoomRange)) {
+    for (const auto& tile : tileCover(definition, type, tileSize, tileset.zoomRange)) {
         status.requiredResourceCount++;
         resourcesRemaining.push_back(
-            Resource::tile(tileset.tiles[0], definition.pixelRatio, tile.x, tile.y, tile.z, tileset.scheme));
+            Resource::tile(tileset.tiles[0], getPixelRatio(definition), tile.x, tile.y, tile.z, tileset.scheme));
     }
 }
 
@@ -303,7 +334,15 @@ void OfflineDownload::ensureResource(const Resource& resource,
             return response->second;
         };
 
-        optional<int64_t> offlineResponse = getResourceSizeInDatabase();
+        if (revalidate) {
+            optional<std::pair<Response, uint64_t>> storedResponse = offlineDatabase.getRegionResource(id, resource);
+            if (storedResponse) {
+                revalidateResource(resource, storedResponse->first, storedResponse->second, callback);
+                return;
+            }
+        }
+
+        optional<int64_t> offlineResponse = revalidate ? optional<int64_t>() : getResourceSizeInDatabase();
         if (offlineResponse) {
             status.completedResourceCount++;
             status.completedResourceSize += *offlineResponse;
@@ -353,6 +392,55 @@ void OfflineDownload::ensureResource(const Resource& resource,
     });
 }
 
+void OfflineDownload::revalidateResource(const Resource& resource,
+                                         Response storedResponse,
+                                         uint64_t storedSize,
+                                         std::function<void(Response)> callback) {
+    // Leave out the prior expiration, the request would otherwise be delayed until then.
+    Resource revalidation = resource;
+    revalidation.priorEtag = storedResponse.etag;
+    revalidation.priorModified = storedResponse.modified;
+
+    auto fileRequestsIt = requests.insert(requests.begin(), nullptr);
+    *fileRequestsIt = onlineFileSource.request(revalidation, [=](Response onlineResponse) {
+        if (onlineResponse.error) {
+            observer->responseError(*onlineResponse.error);
+            return;
+        }
+
+        requests.erase(fileRequestsIt);
+
+        uint64_t resourceSize;
+        if (onlineResponse.notModified) {
+            // Only refreshes the expiration of the stored response.
+            offlineDatabase.putRegionResource(id, resource, onlineResponse);
+            resourceSize = storedSize;
+            status.revalidatedResourceCount++;
+            status.revalidatedResourceSize += storedSize;
+
+            if (callback) {
+                callback(storedResponse);
+            }
+        } else {
+            if (callback) {
+                callback(onlineResponse);
+            }
+
+            resourceSize = offlineDatabase.putRegionResource(id, resource, onlineResponse);
+        }
+
+        status.completedResourceCount++;
+        status.completedResourceSize += resourceSize;
+        if (resource.kind == Resource::Kind::Tile) {
+            status.completedTileCount += 1;
+            status.completedTileSize += resourceSize;
+        }
+
+        observer->statusChanged(status);
+        continueDownload();
+    });
+}
+
 bool OfflineDownload::checkTileCountLimit(const Resource& resource) {
     if (resource.kind == Resource::Kind::Tile && util::mapbox::isMapboxURL(resource.url) &&
         offlineDatabase.offlineMapboxTileCountLimitExceeded()) {
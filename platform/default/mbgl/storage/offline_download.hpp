@@ -33,6 +33,11 @@ public:
     void setObserver(std::unique_ptr<OfflineRegionObserver>);
     void setState(OfflineRegionDownloadState);
 
+    /*
+     * (Re)activate the download, revalidating the resources that are already stored.
+     */
+    void refresh();
+
     OfflineRegionStatus getStatus() const;
 
 private:
@@ -48,12 +53,20 @@ private:
     void ensureResource(const Resource&, std::function<void (Response)> = {});
     bool checkTileCountLimit(const Resource& resource);
 
+    /*
+     * Request a stored resource conditionally and store the response, counting it as
+     * revalidated if the server reports that it didn't change.
+     */
+    void revalidateResource(const Resource&, Response storedResponse, uint64_t storedSize,
+                            std::function<void (Response)> callback);
+
     int64_t id;
     OfflineRegionDefinition definition;
     OfflineDatabase& offlineDatabase;
     FileSource& onlineFileSource;
     OfflineRegionStatus status;
     std::unique_ptr<OfflineRegionObserver> observer;
+    bool revalidate = false;
 
     std::list<std::unique_ptr<AsyncRequest>> requests;
     std::unordered_set<std::string> requiredSourceURLs;
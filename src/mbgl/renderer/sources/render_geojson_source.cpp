@@ -3,6 +3,7 @@
 #include <mbgl/renderer/paint_parameters.hpp>
 #include <mbgl/tile/geojson_tile.hpp>
 #include <mbgl/renderer/tile_parameters.hpp>
+#include <mbgl/util/projection.hpp>
 
 #include <mbgl/algorithm/generate_clip_ids.hpp>
 #include <mbgl/algorithm/generate_clip_ids_impl.hpp>
@@ -11,6 +12,28 @@ namespace mbgl {
 
 using namespace style;
 
+namespace {
+
+// Whether the bounds intersect a tile, extended by a buffer given as a fraction of the tile size
+bool intersects(const LatLngBounds& bounds, const CanonicalTileID& tileID, double buffer) {
+    const double scale = std::pow(2.0, tileID.z);
+    const Point<double> nw = Projection::project(bounds.northwest(), scale) / double(util::tileSize);
+    const Point<double> se = Projection::project(bounds.southeast(), scale) / double(util::tileSize);
+    if (nw.y > tileID.y + 1 + buffer || se.y < tileID.y - buffer) {
+        return false;
+    }
+
+    // Features are wrapped into the tiles on the other side of the antimeridian
+    for (const double wrap : { -scale, 0.0, scale }) {
+        if (nw.x + wrap <= tileID.x + 1 + buffer && se.x + wrap >= tileID.x - buffer) {
+            return true;
+        }
+    }
+    return false;
+}
+
+} // namespace
+
 RenderGeoJSONSource::RenderGeoJSONSource(Immutable<style::GeoJSONSource::Impl> impl_)
     : RenderSource(impl_) {
     tilePyramid.setObserver(this);
@@ -40,13 +63,23 @@ void RenderGeoJSONSource::update(Immutable<style::Source::Impl> baseImpl_,
         tilePyramid.cache.clear();
 
         if (data) {
+            // After incremental changes, only the tiles touched by the changed features are updated
+            optional<LatLngBounds> changed;
+            if (revision) {
+                changed = impl().getChangedBounds(*revision);
+            }
+
             const uint8_t maxZ = impl().getZoomRange().max;
+            const double buffer = impl().getTileBuffer();
             for (const auto& pair : tilePyramid.tiles) {
-                if (pair.first.canonical.z <= maxZ) {
+                if (pair.first.canonical.z <= maxZ &&
+                    (!changed || intersects(*changed, pair.first.canonical, buffer))) {
                     static_cast<GeoJSONTile*>(pair.second.get())->updateData(data->getTile(pair.first.canonical));
                 }
             }
         }
+
+        revision = impl().getRevision();
     }
 
     if (!data) {
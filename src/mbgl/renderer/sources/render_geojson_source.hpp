@@ -45,6 +45,7 @@ private:
 
     TilePyramid tilePyramid;
     style::GeoJSONData* data = nullptr;
+    optional<uint64_t> revision;
 };
 
 template <>
@@ -13,6 +13,10 @@ optional<GeoJSON> parseGeoJSON(const std::string& value, Error& error) {
     return convertJSON<GeoJSON>(value, error);
 }
 
+optional<GeoJSON> parseGeoJSON(const char* data, std::size_t length, Error& error) {
+    return convertJSON<GeoJSON>(data, length, error);
+}
+
 } // namespace conversion
 } // namespace style
 } // namespace mbgl
@@ -12,7 +12,7 @@ CustomTileLoader::CustomTileLoader(const TileFunction& fetchTileFn, const TileFu
 void CustomTileLoader::fetchTile(const OverscaledTileID& tileID, ActorRef<CustomGeometryTile> tileRef) {
     auto cachedTileData = dataCache.find(tileID.canonical);
     if (cachedTileData != dataCache.end()) {
-        tileRef.invoke(&CustomGeometryTile::setTileData, *(cachedTileData->second));
+        sendTileData(tileRef, *(cachedTileData->second));
     }
     auto tileCallbacks = tileCallbackMap.find(tileID.canonical);
     if (tileCallbacks == tileCallbackMap.end()) {
@@ -55,15 +55,31 @@ void CustomTileLoader::removeTile(const OverscaledTileID& tileID) {
 }
 
 void CustomTileLoader::setTileData(const CanonicalTileID& tileID, const GeoJSON& data) {
+    storeTileData(tileID, std::make_unique<TileData>(data));
+}
+
+void CustomTileLoader::setVectorTileData(const CanonicalTileID& tileID, std::shared_ptr<const std::string> data) {
+    storeTileData(tileID, std::make_unique<TileData>(std::move(data)));
+}
 
+void CustomTileLoader::storeTileData(const CanonicalTileID& tileID, std::unique_ptr<TileData> data) {
     auto iter = tileCallbackMap.find(tileID);
     if (iter == tileCallbackMap.end()) return;
-    auto dataPtr = std::make_unique<mapbox::geojson::geojson>(std::move(data));
     for (auto tuple : iter->second) {
-        auto actor = std::get<2>(tuple);
-        actor.invoke(&CustomGeometryTile::setTileData, *dataPtr);
+        sendTileData(std::get<2>(tuple), *data);
     }
-    dataCache[tileID] = std::move(dataPtr);
+    dataCache[tileID] = std::move(data);
+}
+
+void CustomTileLoader::sendTileData(ActorRef<CustomGeometryTile> tileRef, const TileData& data) {
+    data.match(
+        [&] (const GeoJSON& geoJSON) {
+            tileRef.invoke(&CustomGeometryTile::setTileData, geoJSON);
+        },
+        [&] (const std::shared_ptr<const std::string>& vectorTile) {
+            tileRef.invoke(&CustomGeometryTile::setVectorTileData, vectorTile);
+        }
+    );
 }
 
 void CustomTileLoader::invalidateTile(const CanonicalTileID& tileID) {
@@ -3,6 +3,7 @@
 #include <mbgl/style/sources/custom_geometry_source.hpp>
 #include <mbgl/tile/tile_id.hpp>
 #include <mbgl/util/geojson.hpp>
+#include <mbgl/util/variant.hpp>
 #include <mbgl/actor/actor_ref.hpp>
 
 #include <map>
@@ -25,11 +26,18 @@ public:
 
     void removeTile(const OverscaledTileID& tileID);
     void setTileData(const CanonicalTileID& tileID, const GeoJSON& data);
+    void setVectorTileData(const CanonicalTileID& tileID, std::shared_ptr<const std::string> data);
 
     void invalidateTile(const CanonicalTileID&);
     void invalidateRegion(const LatLngBounds&, Range<uint8_t>);
 
 private:
+    // The data of a tile, either features or an encoded vector tile
+    using TileData = variant<GeoJSON, std::shared_ptr<const std::string>>;
+
+    void storeTileData(const CanonicalTileID& tileID, std::unique_ptr<TileData> data);
+    static void sendTileData(ActorRef<CustomGeometryTile> tileRef, const TileData& data);
+
     void invokeTileFetch(const CanonicalTileID& tileID);
     void invokeTileCancel(const CanonicalTileID& tileID);
 
@@ -37,7 +45,7 @@ private:
     TileFunction cancelTileFunction;
     std::unordered_map<CanonicalTileID, std::vector<OverscaledIDFunctionTuple>> tileCallbackMap;
     // Keep around a cache of tile data to serve back for wrapped and over-zooomed tiles
-    std::map<CanonicalTileID, std::unique_ptr<GeoJSON>> dataCache;
+    std::map<CanonicalTileID, std::unique_ptr<TileData>> dataCache;
 
 };
 
@@ -33,6 +33,11 @@ void CustomGeometrySource::setTileData(const CanonicalTileID& tileID,
     loader->invoke(&CustomTileLoader::setTileData, tileID, data);
 }
 
+void CustomGeometrySource::setVectorTileData(const CanonicalTileID& tileID,
+                                             std::shared_ptr<const std::string> data) {
+    loader->invoke(&CustomTileLoader::setVectorTileData, tileID, std::move(data));
+}
+
 void CustomGeometrySource::invalidateTile(const CanonicalTileID& tileID) {
     loader->invoke(&CustomTileLoader::invalidateTile, tileID);
 }
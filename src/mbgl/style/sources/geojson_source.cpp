@@ -5,10 +5,226 @@
 #include <mbgl/style/conversion/geojson.hpp>
 #include <mbgl/storage/file_source.hpp>
 #include <mbgl/util/logging.hpp>
+#include <mbgl/util/geo.hpp>
+#include <mbgl/util/shared_thread_pool.hpp>
+#include <mbgl/actor/actor.hpp>
+#include <mbgl/actor/scheduler.hpp>
+
+#include <mapbox/geometry/envelope.hpp>
+
+#include <algorithm>
+#include <atomic>
+#include <map>
 
 namespace mbgl {
 namespace style {
 
+// Keeps the data of a source with incremental updates, and indexes its features by identifier
+// once they are updated.
+class GeoJSONSource::Features {
+public:
+    explicit Features(GeoJSON geoJSON_)
+        : geoJSON(std::move(geoJSON_)) {
+    }
+
+    const GeoJSON& get() const {
+        return geoJSON;
+    }
+
+    // Adds or replaces the features, returns the bounds of the changed features.
+    LatLngBounds set(const FeatureCollection& changes, bool replaceOnly) {
+        FeatureCollection& collection = getCollection();
+        LatLngBounds bounds = LatLngBounds::empty();
+
+        for (const auto& feature : changes) {
+            auto it = feature.id ? index.find(*feature.id) : index.end();
+            if (it != index.end()) {
+                extend(bounds, collection[it->second]);
+                collection[it->second] = feature;
+            } else if (!replaceOnly) {
+                if (feature.id) {
+                    index.emplace(*feature.id, collection.size());
+                }
+                collection.push_back(feature);
+            } else {
+                continue;
+            }
+            extend(bounds, feature);
+        }
+
+        return bounds;
+    }
+
+    // Removes the features, returns the bounds of the removed features.
+    LatLngBounds remove(const std::vector<FeatureIdentifier>& ids) {
+        FeatureCollection& collection = getCollection();
+        LatLngBounds bounds = LatLngBounds::empty();
+
+        for (const auto& id : ids) {
+            auto it = index.find(id);
+            if (it == index.end()) {
+                continue;
+            }
+
+            // Move the last feature into the gap instead of shifting every following feature
+            const std::size_t position = it->second;
+            index.erase(it);
+            extend(bounds, collection[position]);
+            if (position != collection.size() - 1) {
+                collection[position] = std::move(collection.back());
+                if (collection[position].id) {
+                    index[*collection[position].id] = position;
+                }
+            }
+            collection.pop_back();
+        }
+
+        return bounds;
+    }
+
+private:
+    FeatureCollection& getCollection() {
+        if (!geoJSON.is<FeatureCollection>()) {
+            FeatureCollection collection;
+            if (geoJSON.is<mapbox::geojson::feature>()) {
+                collection.push_back(std::move(geoJSON.get<mapbox::geojson::feature>()));
+            } else {
+                collection.push_back({ std::move(geoJSON.get<mapbox::geojson::geometry>()) });
+            }
+            geoJSON = std::move(collection);
+        }
+
+        FeatureCollection& collection = geoJSON.get<FeatureCollection>();
+        if (!indexed) {
+            for (std::size_t i = 0; i < collection.size(); ++i) {
+                if (collection[i].id) {
+                    index[*collection[i].id] = i;
+                }
+            }
+            indexed = true;
+        }
+        return collection;
+    }
+
+    static void extend(LatLngBounds& bounds, const mapbox::geojson::feature& feature) {
+        const auto box = mapbox::geometry::envelope(feature.geometry);
+        if (box.min.x > box.max.x) {
+            // The geometry has no points
+            return;
+        }
+
+        bounds.extend(LatLng(util::clamp(box.min.y, -util::LATITUDE_MAX, util::LATITUDE_MAX), box.min.x));
+        bounds.extend(LatLng(util::clamp(box.max.y, -util::LATITUDE_MAX, util::LATITUDE_MAX), box.max.x));
+    }
+
+    GeoJSON geoJSON;
+    std::map<FeatureIdentifier, std::size_t> index;
+    bool indexed = false;
+};
+
+// Loads data and builds its index on a background thread, then replaces the data of the source
+// on its own thread.
+class GeoJSONSource::Loader {
+public:
+    explicit Loader(GeoJSONSource& source_)
+        : source(source_),
+          mailbox(std::make_shared<Mailbox>(*Scheduler::GetCurrent())),
+          latest(std::make_shared<std::atomic<uint64_t>>(0)),
+          threadPool(sharedThreadPool()),
+          worker(*threadPool, latest) {
+    }
+
+    ~Loader() {
+        // Supersede pending loads so that the worker, which is destroyed after the mailbox is
+        // closed, doesn't index data nobody will use
+        ++*latest;
+        mailbox->close();
+    }
+
+    void load(std::function<GeoJSON ()> fn, std::function<void (std::exception_ptr)> callback_) {
+        callback = std::move(callback_);
+        worker.invoke(&Worker::load, ++*latest, staticImmutableCast<Impl>(source.baseImpl), std::move(fn),
+                      ActorRef<Loader>(*this, mailbox));
+    }
+
+    void cancel() {
+        ++*latest;
+        callback = nullptr;
+    }
+
+    void onLoad(uint64_t id, optional<GeoJSON> geoJSON, Mutable<Impl> impl) {
+        if (id != *latest) {
+            return;
+        }
+
+        source.features = geoJSON ? std::make_unique<Features>(std::move(*geoJSON)) : nullptr;
+        source.baseImpl = std::move(impl);
+        source.observer->onSourceChanged(source);
+        complete(nullptr);
+    }
+
+    void onError(uint64_t id, std::exception_ptr error) {
+        if (id == *latest) {
+            complete(error);
+        }
+    }
+
+private:
+    class Worker {
+    public:
+        explicit Worker(std::shared_ptr<std::atomic<uint64_t>> latest_)
+            : latest(std::move(latest_)) {
+        }
+
+        void load(uint64_t id, Immutable<Impl> base, std::function<GeoJSON ()> fn, ActorRef<Loader> loader) {
+            // Skip the loads superseded while they were queued, and the indexing of those
+            // superseded while they were loading
+            if (id != *latest) {
+                return;
+            }
+
+            try {
+                GeoJSON geoJSON = fn();
+                if (id != *latest) {
+                    return;
+                }
+
+                Mutable<Impl> impl = makeMutable<Impl>(*base, geoJSON);
+
+                // The data is only kept for incremental updates, otherwise it is released here
+                optional<GeoJSON> kept;
+                if (base->getOptions().incrementalUpdates) {
+                    kept = std::move(geoJSON);
+                }
+                loader.invoke(&Loader::onLoad, id, std::move(kept), std::move(impl));
+            } catch (...) {
+                loader.invoke(&Loader::onError, id, std::current_exception());
+            }
+        }
+
+    private:
+        const std::shared_ptr<std::atomic<uint64_t>> latest;
+    };
+
+    void complete(std::exception_ptr error) {
+        auto done = std::move(callback);
+        callback = nullptr;
+        if (done) {
+            done(error);
+        }
+    }
+
+    GeoJSONSource& source;
+    std::shared_ptr<Mailbox> mailbox;
+
+    // The id of the latest load, shared with the worker to skip superseded loads
+    std::shared_ptr<std::atomic<uint64_t>> latest;
+    std::function<void (std::exception_ptr)> callback;
+
+    std::shared_ptr<ThreadPool> threadPool;
+    Actor<Worker> worker;
+};
+
 GeoJSONSource::GeoJSONSource(const std::string& id, const GeoJSONOptions& options)
     : Source(makeMutable<Impl>(std::move(id), options)) {
 }
@@ -22,6 +238,10 @@ const GeoJSONSource::Impl& GeoJSONSource::impl() const {
 void GeoJSONSource::setURL(const std::string& url_) {
     url = std::move(url_);
 
+    if (loader) {
+        loader->cancel();
+    }
+
     // Signal that the source description needs a reload
     if (loaded || req) {
         loaded = false;
@@ -31,11 +251,84 @@ void GeoJSONSource::setURL(const std::string& url_) {
 }
 
 void GeoJSONSource::setGeoJSON(const mapbox::geojson::geojson& geoJSON) {
+    // Only a source with incremental updates keeps, and so copies, the data
+    if (impl().getOptions().incrementalUpdates) {
+        setGeoJSON(GeoJSON(geoJSON));
+        return;
+    }
+
     req.reset();
+    if (loader) {
+        loader->cancel();
+    }
     baseImpl = makeMutable<Impl>(impl(), geoJSON);
     observer->onSourceChanged(*this);
 }
 
+void GeoJSONSource::setGeoJSON(mapbox::geojson::geojson&& geoJSON) {
+    req.reset();
+    if (loader) {
+        loader->cancel();
+    }
+    setData(std::move(geoJSON));
+    observer->onSourceChanged(*this);
+}
+
+void GeoJSONSource::setData(GeoJSON&& geoJSON) {
+    if (impl().getOptions().incrementalUpdates) {
+        features = std::make_unique<Features>(std::move(geoJSON));
+        baseImpl = makeMutable<Impl>(impl(), features->get());
+    } else {
+        baseImpl = makeMutable<Impl>(impl(), geoJSON);
+    }
+}
+
+GeoJSONSource::Features& GeoJSONSource::getFeatures() {
+    if (!impl().getOptions().incrementalUpdates) {
+        throw std::runtime_error("Incremental updates require the incrementalUpdates GeoJSON source option");
+    }
+    if (!features) {
+        features = std::make_unique<Features>(FeatureCollection{});
+    }
+    return *features;
+}
+
+void GeoJSONSource::addFeatures(const FeatureCollection& changes) {
+    setChangedFeatures(getFeatures().set(changes, false));
+}
+
+void GeoJSONSource::updateFeatures(const FeatureCollection& changes) {
+    setChangedFeatures(getFeatures().set(changes, true));
+}
+
+void GeoJSONSource::removeFeatures(const std::vector<FeatureIdentifier>& ids) {
+    setChangedFeatures(getFeatures().remove(ids));
+}
+
+void GeoJSONSource::setGeoJSONAsync(std::function<GeoJSON ()> load,
+                                    std::function<void (std::exception_ptr)> callback) {
+    if (!Scheduler::GetCurrent()) {
+        throw std::runtime_error("Loading GeoJSON asynchronously requires a scheduler on the current thread");
+    }
+
+    req.reset();
+    if (!loader) {
+        loader = std::make_unique<Loader>(*this);
+    }
+    loader->load(std::move(load), std::move(callback));
+}
+
+void GeoJSONSource::setChangedFeatures(const LatLngBounds& changed) {
+    // Features without a location don't change any tile
+    if (!changed.valid()) {
+        return;
+    }
+
+    req.reset();
+    baseImpl = makeMutable<Impl>(impl(), features->get(), changed);
+    observer->onSourceChanged(*this);
+}
+
 optional<std::string> GeoJSONSource::getURL() const {
     return url;
 }
@@ -67,9 +360,9 @@ void GeoJSONSource::loadDescription(FileSource& fileSource) {
                            error.message.c_str());
                 // Create an empty GeoJSON VT object to make sure we're not infinitely waiting for
                 // tiles to load.
-                baseImpl = makeMutable<Impl>(impl(), GeoJSON{ FeatureCollection{} });
+                setData(FeatureCollection{});
             } else {
-                baseImpl = makeMutable<Impl>(impl(), *geoJSON);
+                setData(std::move(*geoJSON));
             }
 
             loaded = true;
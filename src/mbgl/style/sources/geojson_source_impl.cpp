@@ -6,11 +6,22 @@
 #include <mapbox/geojsonvt.hpp>
 #include <supercluster.hpp>
 
+#include <algorithm>
+#include <atomic>
 #include <cmath>
 
 namespace mbgl {
 namespace style {
 
+// The number of incremental changes kept, render sources lagging further behind update every tile
+static constexpr std::size_t maxChanges = 16;
+
+// Data may be built on a background thread, so revisions are unique rather than sequential
+static uint64_t makeRevision() {
+    static std::atomic<uint64_t> revision { 0 };
+    return ++revision;
+}
+
 class GeoJSONVTData : public GeoJSONData {
 public:
     GeoJSONVTData(const GeoJSON& geoJSON,
@@ -41,12 +52,14 @@ private:
 
 GeoJSONSource::Impl::Impl(std::string id_, GeoJSONOptions options_)
     : Source::Impl(SourceType::GeoJSON, std::move(id_)),
-      options(std::move(options_)) {
+      options(std::move(options_)),
+      revision(makeRevision()) {
 }
 
 GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
     : Source::Impl(other),
-      options(other.options) {
+      options(other.options),
+      revision(makeRevision()) {
     double scale = util::EXTENT / util::tileSize;
 
     if (options.cluster
@@ -68,6 +81,19 @@ GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON)
     }
 }
 
+GeoJSONSource::Impl::Impl(const Impl& other, const GeoJSON& geoJSON, const LatLngBounds& changed)
+    : Impl(other, geoJSON) {
+    // A change reshapes the clusters around it, which may span any number of tiles
+    if (options.cluster) {
+        return;
+    }
+
+    const std::size_t kept = std::min(other.changes.size(), maxChanges - 1);
+    changes.reserve(kept + 1);
+    changes.insert(changes.end(), other.changes.end() - kept, other.changes.end());
+    changes.push_back({ other.revision, changed });
+}
+
 GeoJSONSource::Impl::~Impl() = default;
 
 Range<uint8_t> GeoJSONSource::Impl::getZoomRange() const {
@@ -78,6 +104,37 @@ GeoJSONData* GeoJSONSource::Impl::getData() const {
     return data.get();
 }
 
+const GeoJSONOptions& GeoJSONSource::Impl::getOptions() const {
+    return options;
+}
+
+double GeoJSONSource::Impl::getTileBuffer() const {
+    return double(options.buffer) / util::tileSize;
+}
+
+uint64_t GeoJSONSource::Impl::getRevision() const {
+    return revision;
+}
+
+optional<LatLngBounds> GeoJSONSource::Impl::getChangedBounds(uint64_t sinceRevision) const {
+    if (sinceRevision == revision) {
+        return LatLngBounds::empty();
+    }
+
+    auto it = std::find_if(changes.begin(), changes.end(), [&] (const Change& change) {
+        return change.since == sinceRevision;
+    });
+    if (it == changes.end()) {
+        return {};
+    }
+
+    LatLngBounds bounds = LatLngBounds::empty();
+    for (; it != changes.end(); ++it) {
+        bounds.extend(it->bounds);
+    }
+    return bounds;
+}
+
 optional<std::string> GeoJSONSource::Impl::getAttribution() const {
     return {};
 }
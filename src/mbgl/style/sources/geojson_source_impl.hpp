@@ -3,6 +3,9 @@
 #include <mbgl/style/source_impl.hpp>
 #include <mbgl/style/sources/geojson_source.hpp>
 #include <mbgl/util/range.hpp>
+#include <mbgl/util/geo.hpp>
+
+#include <vector>
 
 namespace mbgl {
 
@@ -21,16 +24,37 @@ class GeoJSONSource::Impl : public Source::Impl {
 public:
     Impl(std::string id, GeoJSONOptions);
     Impl(const GeoJSONSource::Impl&, const GeoJSON&);
+    Impl(const GeoJSONSource::Impl&, const GeoJSON&, const LatLngBounds& changed);
     ~Impl() final;
 
     Range<uint8_t> getZoomRange() const;
     GeoJSONData* getData() const;
+    const GeoJSONOptions& getOptions() const;
+
+    // The buffer around a tile, as a fraction of its size
+    double getTileBuffer() const;
+
+    // Identifies the data, unique across sources
+    uint64_t getRevision() const;
+
+    // The bounds of the features changed since the given revision, or nothing if every
+    // tile needs to be updated.
+    optional<LatLngBounds> getChangedBounds(uint64_t sinceRevision) const;
 
     optional<std::string> getAttribution() const final;
 
 private:
     GeoJSONOptions options;
     std::unique_ptr<GeoJSONData> data;
+    uint64_t revision;
+
+    struct Change {
+        uint64_t since;
+        LatLngBounds bounds;
+    };
+
+    // The latest incremental changes, the last one leading to this revision
+    std::vector<Change> changes;
 };
 
 } // namespace style
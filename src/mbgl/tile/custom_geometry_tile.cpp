@@ -1,5 +1,6 @@
 #include <mbgl/tile/custom_geometry_tile.hpp>
 #include <mbgl/tile/geojson_tile_data.hpp>
+#include <mbgl/tile/vector_tile_data.hpp>
 #include <mbgl/renderer/query.hpp>
 #include <mbgl/renderer/tile_parameters.hpp>
 #include <mbgl/actor/scheduler.hpp>
@@ -12,6 +13,29 @@
 
 namespace mbgl {
 
+namespace {
+
+// The features of custom sources are in a single unnamed layer. Encoded tiles may be
+// used the same way, without a source layer the first layer of the tile is used.
+class CustomVectorTileData : public VectorTileData {
+public:
+    using VectorTileData::VectorTileData;
+
+    std::unique_ptr<GeometryTileData> clone() const override {
+        return std::make_unique<CustomVectorTileData>(*this);
+    }
+
+    std::unique_ptr<GeometryTileLayer> getLayer(const std::string& name) const override {
+        if (name.empty()) {
+            const auto names = layerNames();
+            return names.empty() ? nullptr : VectorTileData::getLayer(names.front());
+        }
+        return VectorTileData::getLayer(name);
+    }
+};
+
+} // namespace
+
 CustomGeometryTile::CustomGeometryTile(const OverscaledTileID& overscaledTileID,
                          std::string sourceID_,
                          const TileParameters& parameters,
@@ -46,6 +70,15 @@ void CustomGeometryTile::setTileData(const GeoJSON& geoJSON) {
     setData(std::make_unique<GeoJSONTileData>(std::move(featureData)));
 }
 
+void CustomGeometryTile::setVectorTileData(std::shared_ptr<const std::string> data) {
+    if (!data || data->empty()) {
+        setNecessity(TileNecessity::Optional);
+        setData(std::make_unique<GeoJSONTileData>(mapbox::geometry::feature_collection<int16_t>()));
+        return;
+    }
+    setData(std::make_unique<CustomVectorTileData>(std::move(data)));
+}
+
 void CustomGeometryTile::invalidateTileData() {
     stale = true;
     observer->onTileChanged(*this);
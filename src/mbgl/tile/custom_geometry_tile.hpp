@@ -24,6 +24,7 @@ public:
     ~CustomGeometryTile() override;
 
     void setTileData(const GeoJSON& data);
+    void setVectorTileData(std::shared_ptr<const std::string> data);
     void invalidateTileData();
 
     void setNecessity(TileNecessity) final;
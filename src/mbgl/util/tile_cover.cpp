@@ -1,9 +1,11 @@
 #include <mbgl/util/tile_cover.hpp>
 #include <mbgl/util/constants.hpp>
 #include <mbgl/util/interpolate.hpp>
+#include <mbgl/math/clamp.hpp>
 #include <mbgl/map/transform_state.hpp>
 
 #include <functional>
+#include <limits>
 
 namespace mbgl {
 
@@ -124,6 +126,242 @@ std::vector<UnwrappedTileID> tileCover(const Point<double>& tl,
     return result;
 }
 
+// Collects the tiles intersecting a geometry, one row at a time. Coordinates are projected to
+// tile units of zoom level z. The tiles crossed by points, lines and polygon edges are collected
+// up front as (y, x) pairs so that sorting orders them by row, the tiles inside of polygons are
+// computed per row. Counting adds up the spans of each row instead of enumerating their tiles.
+class GeometryTileCover {
+public:
+    explicit GeometryTileCover(int32_t z)
+        : zoom(z), tiles(1 << z) {
+    }
+
+    std::vector<UnwrappedTileID> result() {
+        std::vector<UnwrappedTileID> ids;
+        scanRows([&](int32_t x0, int32_t x1, int32_t y) {
+            for (int32_t x = x0; x <= x1; ++x) {
+                ids.emplace_back(zoom, x, y);
+            }
+        });
+        return ids;
+    }
+
+    uint64_t count() {
+        uint64_t n = 0;
+        scanRows([&](int32_t x0, int32_t x1, int32_t) {
+            n += x1 - x0 + 1;
+        });
+        return n;
+    }
+
+    void operator()(const Point<double>& point) {
+        const auto p = project(point);
+        add(std::floor(p.x), std::floor(p.y));
+    }
+
+    void operator()(const MultiPoint<double>& points) {
+        for (const auto& point : points) {
+            operator()(point);
+        }
+    }
+
+    void operator()(const LineString<double>& line) {
+        for (std::size_t i = 1; i < line.size(); ++i) {
+            scanSegment(project(line[i - 1]), project(line[i]));
+        }
+        if (line.size() == 1) {
+            operator()(line[0]);
+        }
+    }
+
+    void operator()(const MultiLineString<double>& lines) {
+        for (const auto& line : lines) {
+            operator()(line);
+        }
+    }
+
+    void operator()(const Polygon<double>& polygon) {
+        ProjectedPolygon projectedPolygon;
+        double minY = std::numeric_limits<double>::infinity();
+        double maxY = -std::numeric_limits<double>::infinity();
+
+        // The outline covers all tiles that are crossed by an edge of the polygon.
+        for (const auto& ring : polygon) {
+            std::vector<Point<double>> projected;
+            projected.reserve(ring.size());
+            for (const auto& point : ring) {
+                projected.push_back(project(point));
+                minY = std::min(minY, projected.back().y);
+                maxY = std::max(maxY, projected.back().y);
+            }
+            for (std::size_t i = 0; i < projected.size(); ++i) {
+                scanSegment(projected[i], projected[(i + 1) % projected.size()]);
+            }
+            projectedPolygon.rings.push_back(std::move(projected));
+        }
+
+        if (minY > maxY) {
+            return;
+        }
+
+        projectedPolygon.minY = std::floor(minY);
+        projectedPolygon.maxY = std::floor(maxY);
+        polygons.push_back(std::move(projectedPolygon));
+    }
+
+    void operator()(const MultiPolygon<double>& polygons_) {
+        for (const auto& polygon : polygons_) {
+            operator()(polygon);
+        }
+    }
+
+    void operator()(const mapbox::geometry::geometry_collection<double>& collection) {
+        for (const auto& geometry : collection) {
+            Geometry<double>::visit(geometry, *this);
+        }
+    }
+
+private:
+    struct ProjectedPolygon {
+        std::vector<std::vector<Point<double>>> rings;
+        int32_t minY = 0;
+        int32_t maxY = 0;
+    };
+
+    Point<double> project(const Point<double>& point) const {
+        const double lat = util::clamp(point.y, -util::LATITUDE_MAX, util::LATITUDE_MAX);
+        return TileCoordinate::fromLatLng(zoom, LatLng(lat, point.x)).p;
+    }
+
+    int32_t wrap(int32_t x) const {
+        x %= tiles;
+        return x < 0 ? x + tiles : x;
+    }
+
+    void add(int32_t x, int32_t y) {
+        if (y < 0 || y >= tiles) {
+            return;
+        }
+        outline.emplace_back(y, wrap(x));
+    }
+
+    // Adds every tile a segment passes through, walking the grid from one tile boundary
+    // to the next.
+    void scanSegment(const Point<double>& a, const Point<double>& b) {
+        int32_t x = std::floor(a.x);
+        int32_t y = std::floor(a.y);
+        const int32_t steps = std::abs(int32_t(std::floor(b.x)) - x) + std::abs(int32_t(std::floor(b.y)) - y);
+
+        const double dx = b.x - a.x;
+        const double dy = b.y - a.y;
+        const int32_t sx = dx > 0 ? 1 : -1;
+        const int32_t sy = dy > 0 ? 1 : -1;
+        const double tDeltaX = dx != 0 ? std::abs(1 / dx) : std::numeric_limits<double>::infinity();
+        const double tDeltaY = dy != 0 ? std::abs(1 / dy) : std::numeric_limits<double>::infinity();
+        double tMaxX = dx != 0 ? (dx > 0 ? x + 1 - a.x : a.x - x) * tDeltaX : std::numeric_limits<double>::infinity();
+        double tMaxY = dy != 0 ? (dy > 0 ? y + 1 - a.y : a.y - y) * tDeltaY : std::numeric_limits<double>::infinity();
+
+        add(x, y);
+        for (int32_t i = 0; i < steps; ++i) {
+            if (tMaxX < tMaxY) {
+                tMaxX += tDeltaX;
+                x += sx;
+            } else {
+                tMaxY += tDeltaY;
+                y += sy;
+            }
+            add(x, y);
+        }
+    }
+
+    // Passes the merged spans of tiles of every row to the given function, ordered by y and x.
+    template <class Fn>
+    void scanRows(Fn&& emit) {
+        std::sort(outline.begin(), outline.end());
+
+        int32_t minY = outline.empty() ? tiles : outline.front().first;
+        int32_t maxY = outline.empty() ? -1 : outline.back().first;
+        for (const auto& polygon : polygons) {
+            minY = std::min(minY, polygon.minY);
+            maxY = std::max(maxY, polygon.maxY);
+        }
+        minY = std::max(minY, 0);
+        maxY = std::min(maxY, tiles - 1);
+
+        auto it = outline.begin();
+        for (int32_t y = minY; y <= maxY; ++y) {
+            spans.clear();
+            for (; it != outline.end() && it->first == y; ++it) {
+                spans.emplace_back(it->second, it->second);
+            }
+            for (const auto& polygon : polygons) {
+                if (y >= polygon.minY && y <= polygon.maxY) {
+                    fillRow(polygon, y);
+                }
+            }
+
+            std::sort(spans.begin(), spans.end());
+            for (std::size_t i = 0; i < spans.size();) {
+                const int32_t start = spans[i].first;
+                int32_t end = spans[i].second;
+                for (++i; i < spans.size() && spans[i].first <= end + 1; ++i) {
+                    end = std::max(end, spans[i].second);
+                }
+                emit(start, end, y);
+            }
+        }
+    }
+
+    // Tiles that aren't crossed by an edge are either entirely inside or entirely outside
+    // of the polygon; adds the ones whose center is inside using the even-odd rule.
+    void fillRow(const ProjectedPolygon& polygon, int32_t y) {
+        const double cy = y + 0.5;
+        crossings.clear();
+        for (const auto& ring : polygon.rings) {
+            for (std::size_t i = 0; i < ring.size(); ++i) {
+                const auto& a = ring[i];
+                const auto& b = ring[(i + 1) % ring.size()];
+                if ((a.y <= cy) != (b.y <= cy)) {
+                    crossings.push_back(a.x + (cy - a.y) * (b.x - a.x) / (b.y - a.y));
+                }
+            }
+        }
+        std::sort(crossings.begin(), crossings.end());
+        for (std::size_t i = 0; i + 1 < crossings.size(); i += 2) {
+            const int32_t x0 = std::ceil(crossings[i] - 0.5);
+            const int32_t x1 = std::floor(crossings[i + 1] - 0.5);
+            if (x0 <= x1) {
+                addSpan(x0, x1);
+            }
+        }
+    }
+
+    // Adds a span of tiles to the current row, wrapping it around the antimeridian.
+    void addSpan(int32_t x0, int32_t x1) {
+        if (int64_t(x1) - x0 + 1 >= tiles) {
+            spans.emplace_back(0, tiles - 1);
+            return;
+        }
+        const int32_t start = wrap(x0);
+        const int32_t end = start + (x1 - x0);
+        if (end < tiles) {
+            spans.emplace_back(start, end);
+        } else {
+            spans.emplace_back(start, tiles - 1);
+            spans.emplace_back(0, end - tiles);
+        }
+    }
+
+    const int32_t zoom;
+    const int32_t tiles;
+    std::vector<std::pair<int32_t, int32_t>> outline;
+    std::vector<ProjectedPolygon> polygons;
+
+    // Scratch space of the current row, spans are (start, end) pairs
+    std::vector<std::pair<int32_t, int32_t>> spans;
+    std::vector<double> crossings;
+};
+
 } // namespace
 
 int32_t coveringZoomLevel(double zoom, style::SourceType type, uint16_t size) {
@@ -155,6 +393,12 @@ std::vector<UnwrappedTileID> tileCover(const LatLngBounds& bounds_, int32_t z) {
         z);
 }
 
+std::vector<UnwrappedTileID> tileCover(const Geometry<double>& geometry, int32_t z) {
+    GeometryTileCover cover(z);
+    Geometry<double>::visit(geometry, cover);
+    return cover.result();
+}
+
 std::vector<UnwrappedTileID> tileCover(const TransformState& state, int32_t z) {
     assert(state.valid());
 
@@ -190,5 +434,11 @@ uint64_t tileCount(const LatLngBounds& bounds, uint8_t zoom, uint16_t tileSize_)
     return (maxX - minX + 1) * (maxY - minY + 1);
 }
 
+uint64_t tileCount(const Geometry<double>& geometry, uint8_t z) {
+    GeometryTileCover cover(z);
+    Geometry<double>::visit(geometry, cover);
+    return cover.count();
+}
+
 } // namespace util
 } // namespace mbgl
@@ -3,6 +3,7 @@
 #include <mbgl/tile/tile_id.hpp>
 #include <mbgl/style/types.hpp>
 #include <mbgl/util/tile_coordinate.hpp>
+#include <mbgl/util/geometry.hpp>
 
 #include <vector>
 
@@ -18,8 +19,13 @@ int32_t coveringZoomLevel(double z, style::SourceType type, uint16_t tileSize);
 std::vector<UnwrappedTileID> tileCover(const TransformState&, int32_t z);
 std::vector<UnwrappedTileID> tileCover(const LatLngBounds&, int32_t z);
 
+// Exact tile cover of a geometry in longitude/latitude coordinates: only the tiles that
+// intersect the geometry are included, not all tiles of its bounding box.
+std::vector<UnwrappedTileID> tileCover(const Geometry<double>&, int32_t z);
+
 // Compute only the count of tiles needed for tileCover
 uint64_t tileCount(const LatLngBounds&, uint8_t z, uint16_t tileSize);
+uint64_t tileCount(const Geometry<double>&, uint8_t z);
 
 } // namespace util
 } // namespace mbgl
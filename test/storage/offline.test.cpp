@@ -3,6 +3,8 @@
 
 #include <gtest/gtest.h>
 
+#include <algorithm>
+
 using namespace mbgl;
 using SourceType = mbgl::style::SourceType;
 
@@ -61,3 +63,54 @@ TEST(OfflineTilePyramidRegionDefinition, TileCount) {
     EXPECT_EQ(38424u, region.tileCount(SourceType::Vector, 512, { 10, 18 }));
     EXPECT_EQ(9675240u, region.tileCount(SourceType::Vector, 512, { 3, 22 }));
 }
+
+TEST(OfflineGeometryRegionDefinition, TileCoverPoint) {
+    OfflineGeometryRegionDefinition region("", Point<double>{ -122.4, 37.7 }, 2, 2, 1.0);
+
+    EXPECT_EQ((std::vector<CanonicalTileID>{ { 2, 0, 1 } }),
+              region.tileCover(SourceType::Vector, 512, { 0, 22 }));
+
+    EXPECT_EQ((std::vector<CanonicalTileID>{}), region.tileCover(SourceType::Vector, 512, { 3, 22 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, TileCoverWorld) {
+    Polygon<double> world {{ { -180, -85 }, { 180, -85 }, { 180, 85 }, { -180, 85 }, { -180, -85 } }};
+    OfflineGeometryRegionDefinition region("", world, 1, 1, 1.0);
+
+    EXPECT_EQ((std::vector<CanonicalTileID>{ { 1, 0, 0 }, { 1, 1, 0 }, { 1, 0, 1 }, { 1, 1, 1 } }),
+              region.tileCover(SourceType::Vector, 512, { 0, 22 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, TileCoverLineString) {
+    LineString<double> line { { -135, 66 }, { 135, -66 } };
+    OfflineGeometryRegionDefinition region("", line, 3, 3, 1.0);
+
+    // Only the tiles the line passes through, not the 28 tiles of its bounding box.
+    EXPECT_EQ((std::vector<CanonicalTileID>{
+                  { 3, 1, 2 }, { 3, 2, 2 }, { 3, 2, 3 }, { 3, 3, 3 }, { 3, 4, 3 },
+                  { 3, 4, 4 }, { 3, 5, 4 }, { 3, 5, 5 }, { 3, 6, 5 }, { 3, 7, 5 } }),
+              region.tileCover(SourceType::Vector, 512, { 0, 22 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, TileCoverPolygonWithHole) {
+    Polygon<double> polygon {
+        { { -180, -85 }, { 180, -85 }, { 180, 85 }, { -180, 85 }, { -180, -85 } },
+        { { -90, -40 }, { 90, -40 }, { 90, 40 }, { -90, 40 }, { -90, -40 } }
+    };
+    OfflineGeometryRegionDefinition region("", polygon, 5, 5, 1.0);
+
+    const auto tiles = region.tileCover(SourceType::Vector, 512, { 0, 22 });
+    EXPECT_EQ(934u, tiles.size());
+    EXPECT_EQ(tiles.end(), std::find(tiles.begin(), tiles.end(), CanonicalTileID{ 5, 16, 16 }));
+    EXPECT_NE(tiles.end(), std::find(tiles.begin(), tiles.end(), CanonicalTileID{ 5, 8, 16 }));
+}
+
+TEST(OfflineGeometryRegionDefinition, TileCount) {
+    Polygon<double> triangle {{ { -180, -85 }, { 180, -85 }, { -180, 85 }, { -180, -85 } }};
+    OfflineGeometryRegionDefinition region("", triangle, 0, 22, 1.0);
+
+    // Roughly half of the 1024 tiles of the bounding box.
+    EXPECT_EQ(543u, region.tileCount(SourceType::Vector, 512, { 5, 5 }));
+    EXPECT_EQ(region.tileCover(SourceType::Vector, 512, { 3, 6 }).size(),
+              region.tileCount(SourceType::Vector, 512, { 3, 6 }));
+}
@@ -262,23 +262,40 @@ TEST(OfflineDatabase, CreateRegion) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
-    EXPECT_EQ(definition.styleURL, region.getDefinition().styleURL);
-    EXPECT_EQ(definition.bounds, region.getDefinition().bounds);
-    EXPECT_EQ(definition.minZoom, region.getDefinition().minZoom);
-    EXPECT_EQ(definition.maxZoom, region.getDefinition().maxZoom);
-    EXPECT_EQ(definition.pixelRatio, region.getDefinition().pixelRatio);
+    EXPECT_EQ(definition.styleURL, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+    EXPECT_EQ(definition.bounds, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().bounds);
+    EXPECT_EQ(definition.minZoom, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(definition.maxZoom, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
+    EXPECT_EQ(definition.pixelRatio, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().pixelRatio);
     EXPECT_EQ(metadata, region.getMetadata());
 }
 
+TEST(OfflineDatabase, CreateGeometryRegion) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    LineString<double> line { { -122.5, 37.6 }, { -122.3, 37.8 } };
+    OfflineGeometryRegionDefinition definition { "http://example.com/style", line, 5, 6, 2.0 };
+    OfflineRegionMetadata metadata {{ 1, 2, 3 }};
+    OfflineRegion region = db.createRegion(definition, metadata);
+
+    auto result = db.getRegionDefinition(region.getID()).get<OfflineGeometryRegionDefinition>();
+    EXPECT_EQ(definition.styleURL, result.styleURL);
+    EXPECT_EQ(definition.geometry, result.geometry);
+    EXPECT_EQ(definition.minZoom, result.minZoom);
+    EXPECT_EQ(definition.maxZoom, result.maxZoom);
+    EXPECT_EQ(definition.pixelRatio, result.pixelRatio);
+}
+
 TEST(OfflineDatabase, UpdateMetadata) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -291,7 +308,7 @@ TEST(OfflineDatabase, ListRegions) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
 
     OfflineRegion region = db.createRegion(definition, metadata);
@@ -299,23 +316,67 @@ TEST(OfflineDatabase, ListRegions) {
 
     ASSERT_EQ(1u, regions.size());
     EXPECT_EQ(region.getID(), regions.at(0).getID());
-    EXPECT_EQ(definition.styleURL, regions.at(0).getDefinition().styleURL);
-    EXPECT_EQ(definition.bounds, regions.at(0).getDefinition().bounds);
-    EXPECT_EQ(definition.minZoom, regions.at(0).getDefinition().minZoom);
-    EXPECT_EQ(definition.maxZoom, regions.at(0).getDefinition().maxZoom);
-    EXPECT_EQ(definition.pixelRatio, regions.at(0).getDefinition().pixelRatio);
+    EXPECT_EQ(definition.styleURL, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+    EXPECT_EQ(definition.bounds, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().bounds);
+    EXPECT_EQ(definition.minZoom, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(definition.maxZoom, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
+    EXPECT_EQ(definition.pixelRatio, regions.at(0).getDefinition().get<OfflineTilePyramidRegionDefinition>().pixelRatio);
     EXPECT_EQ(metadata, regions.at(0).getMetadata());
 }
 
+TEST(OfflineDatabase, ListRegionSummaries) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    std::vector<int64_t> ids;
+    for (uint8_t i = 0; i < 5; i++) {
+        ids.push_back(db.createRegion(definition, OfflineRegionMetadata(10, i)).getID());
+    }
+
+    std::vector<OfflineRegionSummary> first = db.listRegionSummaries(0, 2, 4, false);
+    ASSERT_EQ(2u, first.size());
+    EXPECT_EQ(ids[0], first[0].id);
+    EXPECT_EQ(ids[1], first[1].id);
+    EXPECT_EQ(OfflineRegionMetadata(4, 1), first[1].metadata);
+    EXPECT_EQ(10u, first[1].metadataSize);
+
+    std::vector<OfflineRegionSummary> last = db.listRegionSummaries(4, 2, 4, false);
+    ASSERT_EQ(1u, last.size());
+    EXPECT_EQ(ids[4], last[0].id);
+
+    std::vector<OfflineRegionSummary> descending = db.listRegionSummaries(0, 10, 20, true);
+    ASSERT_EQ(5u, descending.size());
+    EXPECT_EQ(ids[4], descending[0].id);
+    EXPECT_EQ(OfflineRegionMetadata(10, 4), descending[0].metadata);
+}
+
+TEST(OfflineDatabase, GetRegion) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineRegionMetadata metadata {{ 1, 2, 3 }};
+    OfflineRegion region = db.createRegion(definition, metadata);
+
+    auto result = db.getRegion(region.getID());
+    ASSERT_TRUE(bool(result));
+    EXPECT_EQ(region.getID(), result->getID());
+    EXPECT_EQ(metadata, result->getMetadata());
+    EXPECT_EQ(definition.styleURL, result->getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+
+    EXPECT_FALSE(bool(db.getRegion(region.getID() + 1)));
+}
+
 TEST(OfflineDatabase, GetRegionDefinition) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
 
     OfflineRegion region = db.createRegion(definition, metadata);
-    OfflineRegionDefinition result = db.getRegionDefinition(region.getID());
+    auto result = db.getRegionDefinition(region.getID()).get<OfflineTilePyramidRegionDefinition>();
 
     EXPECT_EQ(definition.styleURL, result.styleURL);
     EXPECT_EQ(definition.bounds, result.bounds);
@@ -328,7 +389,7 @@ TEST(OfflineDatabase, DeleteRegion) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata {{ 1, 2, 3 }};
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -343,16 +404,148 @@ TEST(OfflineDatabase, DeleteRegion) {
     ASSERT_EQ(0u, db.listRegions().size());
 }
 
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(ExportMergeRegion)) {
+    using namespace mbgl;
+
+    createDir("test/fixtures/offline_database");
+    std::string path("test/fixtures/offline_database/archive.db");
+    deleteFile(path.c_str());
+
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineRegionMetadata metadata {{ 1, 2, 3 }};
+
+    Response response;
+    response.data = std::make_shared<std::string>("data");
+
+    Resource style = Resource::style("http://example.com/");
+    Resource tile = Resource::tile("http://example.com/", 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+    Resource ambient = Resource::style("http://example.com/ambient");
+
+    {
+        OfflineDatabase source(":memory:");
+        OfflineRegion region = source.createRegion(definition, metadata);
+        source.putRegionResource(region.getID(), style, response);
+        source.putRegionResource(region.getID(), tile, response);
+        source.put(ambient, response);
+        source.exportRegion(region.getID(), path);
+    }
+
+    OfflineDatabase target(":memory:");
+
+    // Resources already stored are kept
+    Response local;
+    local.data = std::make_shared<std::string>("local");
+    target.put(style, local);
+
+    auto merged = target.mergeRegions(path);
+    ASSERT_EQ(1u, merged.size());
+    EXPECT_EQ(metadata, merged[0].getMetadata());
+    EXPECT_EQ(definition.styleURL, merged[0].getDefinition().get<OfflineTilePyramidRegionDefinition>().styleURL);
+
+    OfflineRegionStatus status = target.getRegionCompletedStatus(merged[0].getID());
+    EXPECT_EQ(2u, status.completedResourceCount);
+    EXPECT_EQ(1u, status.completedTileCount);
+
+    EXPECT_EQ("local", *target.get(style)->data);
+    EXPECT_EQ("data", *target.get(tile)->data);
+    EXPECT_FALSE(bool(target.get(ambient)));
+
+    // Merging again adds another region sharing the same resources
+    auto again = target.mergeRegions(path);
+    ASSERT_EQ(1u, again.size());
+    EXPECT_NE(merged[0].getID(), again[0].getID());
+    EXPECT_EQ(2u, target.listRegions().size());
+    EXPECT_EQ(2u, target.getRegionCompletedStatus(again[0].getID()).completedResourceCount);
+}
+
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(MergeDatabase)) {
+    using namespace mbgl;
+
+    createDir("test/fixtures/offline_database");
+    std::string path("test/fixtures/offline_database/secondary.db");
+    deleteFile(path.c_str());
+
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+
+    Response response;
+    response.data = std::make_shared<std::string>("data");
+
+    Resource shared = Resource::tile("http://example.com/", 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+    Resource first = Resource::tile("http://example.com/", 1.0, 1, 0, 0, Tileset::Scheme::XYZ);
+    Resource second = Resource::tile("http://example.com/", 1.0, 1, 1, 0, Tileset::Scheme::XYZ);
+    Resource ambient = Resource::style("http://example.com/ambient");
+
+    {
+        OfflineDatabase secondary(path);
+        OfflineRegion region1 = secondary.createRegion(definition, OfflineRegionMetadata {{ 1 }});
+        OfflineRegion region2 = secondary.createRegion(definition, OfflineRegionMetadata {{ 2 }});
+        secondary.putRegionResource(region1.getID(), shared, response);
+        secondary.putRegionResource(region1.getID(), first, response);
+        secondary.putRegionResource(region2.getID(), shared, response);
+        secondary.putRegionResource(region2.getID(), second, response);
+        secondary.put(ambient, response);
+    }
+
+    OfflineDatabase db(":memory:");
+    auto merged = db.mergeRegions(path);
+    ASSERT_EQ(2u, merged.size());
+    EXPECT_EQ(OfflineRegionMetadata {{ 1 }}, merged[0].getMetadata());
+    EXPECT_EQ(OfflineRegionMetadata {{ 2 }}, merged[1].getMetadata());
+    EXPECT_EQ(2u, db.getRegionCompletedStatus(merged[0].getID()).completedTileCount);
+    EXPECT_EQ(2u, db.getRegionCompletedStatus(merged[1].getID()).completedTileCount);
+
+    // The ambient cache of the secondary database isn't merged
+    EXPECT_FALSE(bool(db.get(ambient)));
+    EXPECT_EQ(0u, db.getAmbientCacheStats().resourceCount);
+
+    // The shared tile is stored once and still used by the second region
+    db.deleteRegion(std::move(merged[0]));
+    db.clearAmbientCache();
+    EXPECT_TRUE(bool(db.get(shared)));
+    EXPECT_TRUE(bool(db.get(second)));
+    EXPECT_FALSE(bool(db.get(first)));
+}
+
+TEST(OfflineDatabase, TEST_REQUIRES_WRITE(MergeDatabaseExceedingTileLimit)) {
+    using namespace mbgl;
+
+    createDir("test/fixtures/offline_database");
+    std::string path("test/fixtures/offline_database/secondary.db");
+    deleteFile(path.c_str());
+
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+
+    Response response;
+    response.data = std::make_shared<std::string>("data");
+
+    {
+        OfflineDatabase secondary(path);
+        OfflineRegion region1 = secondary.createRegion(definition, OfflineRegionMetadata {{ 1 }});
+        OfflineRegion region2 = secondary.createRegion(definition, OfflineRegionMetadata {{ 2 }});
+        secondary.putRegionResource(region1.getID(), Resource::tile("mapbox://tiles/1", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), response);
+        secondary.putRegionResource(region2.getID(), Resource::tile("mapbox://tiles/2", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), response);
+    }
+
+    // The first region fits within the limit, but the second one doesn't
+    OfflineDatabase db(":memory:");
+    db.setOfflineMapboxTileCountLimit(1);
+    EXPECT_THROW(db.mergeRegions(path), std::runtime_error);
+
+    // None of the regions is merged
+    EXPECT_EQ(0u, db.listRegions().size());
+    EXPECT_EQ(0u, db.getOfflineMapboxTileCount());
+}
+
 TEST(OfflineDatabase, CreateRegionInfiniteMaxZoom) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegionMetadata metadata;
     OfflineRegion region = db.createRegion(definition, metadata);
 
-    EXPECT_EQ(0, region.getDefinition().minZoom);
-    EXPECT_EQ(INFINITY, region.getDefinition().maxZoom);
+    EXPECT_EQ(0, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().minZoom);
+    EXPECT_EQ(INFINITY, region.getDefinition().get<OfflineTilePyramidRegionDefinition>().maxZoom);
 }
 
 TEST(OfflineDatabase, TEST_REQUIRES_WRITE(ConcurrentUse)) {
@@ -436,7 +629,7 @@ TEST(OfflineDatabase, PutRegionResourceDoesNotEvict) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     Response response;
@@ -450,6 +643,87 @@ TEST(OfflineDatabase, PutRegionResourceDoesNotEvict) {
     EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/20"))));
 }
 
+TEST(OfflineDatabase, SetMaximumCacheSizeEvicts) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+
+    Response response;
+    response.data = randomString(1024);
+
+    for (uint32_t i = 1; i <= 100; i++) {
+        db.put(Resource::style("http://example.com/"s + util::toString(i)), response);
+    }
+
+    db.setMaximumCacheSize(1024 * 50);
+
+    EXPECT_FALSE(bool(db.get(Resource::style("http://example.com/1"))));
+    EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/100"))));
+    EXPECT_EQ(1024u * 50, db.getAmbientCacheStats().maximumSize);
+}
+
+TEST(OfflineDatabase, ClearAmbientCache) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:");
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
+
+    Response response;
+    response.data = randomString(1024);
+
+    Resource style = Resource::style("http://example.com/style");
+    Resource tile = Resource::tile("http://example.com/", 1.0, 0, 0, 0, Tileset::Scheme::XYZ);
+    Resource ambientStyle = Resource::style("http://example.com/ambient");
+    Resource ambientTile = Resource::tile("http://example.com/", 1.0, 1, 0, 0, Tileset::Scheme::XYZ);
+
+    db.putRegionResource(region.getID(), style, response);
+    db.putRegionResource(region.getID(), tile, response);
+    db.put(ambientStyle, response);
+    db.put(ambientTile, response);
+
+    db.clearAmbientCache();
+
+    EXPECT_TRUE(bool(db.get(style)));
+    EXPECT_TRUE(bool(db.get(tile)));
+    EXPECT_FALSE(bool(db.get(ambientStyle)));
+    EXPECT_FALSE(bool(db.get(ambientTile)));
+    EXPECT_EQ(0u, db.getAmbientCacheStats().resourceCount);
+}
+
+TEST(OfflineDatabase, AmbientCacheStats) {
+    using namespace mbgl;
+
+    OfflineDatabase db(":memory:", 1024 * 100);
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
+
+    Response response;
+    response.data = randomString(1024);
+
+    db.putRegionResource(region.getID(), Resource::style("http://example.com/region"), response);
+    db.put(Resource::style("http://example.com/1"), response);
+    db.put(Resource::tile("http://example.com/", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), response);
+
+    EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/1"), true)));
+    EXPECT_FALSE(bool(db.get(Resource::style("http://example.com/2"), true)));
+
+    // Lookups outside of map requests, such as those of offline downloads, aren't counted
+    EXPECT_TRUE(bool(db.get(Resource::style("http://example.com/1"))));
+    EXPECT_FALSE(bool(db.get(Resource::style("http://example.com/2"))));
+
+    AmbientCacheStats stats = db.getAmbientCacheStats();
+    EXPECT_EQ(1u, stats.hitCount);
+    EXPECT_EQ(1u, stats.missCount);
+    EXPECT_EQ(2u, stats.resourceCount);
+    EXPECT_EQ(2048u, stats.resourceSize);
+    EXPECT_EQ(1024u * 100, stats.maximumSize);
+    EXPECT_LT(stats.resourceSize, stats.databaseSize);
+
+    db.compact();
+    EXPECT_EQ(0u, db.getAmbientCacheStats().freeSize);
+}
+
 TEST(OfflineDatabase, PutFailsWhenEvictionInsuffices) {
     using namespace mbgl;
 
@@ -466,7 +740,7 @@ TEST(OfflineDatabase, GetRegionCompletedStatus) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata;
     OfflineRegion region = db.createRegion(definition, metadata);
 
@@ -500,7 +774,7 @@ TEST(OfflineDatabase, HasRegionResource) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     EXPECT_FALSE(bool(db.hasRegionResource(region.getID(), Resource::style("http://example.com/1"))));
@@ -522,7 +796,7 @@ TEST(OfflineDatabase, HasRegionResourceTile) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:", 1024 * 100);
-    OfflineRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
+    OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::world(), 0, INFINITY, 1.0 };
     OfflineRegion region = db.createRegion(definition, OfflineRegionMetadata());
 
     Resource resource { Resource::Tile, "http://example.com/" };
@@ -553,7 +827,7 @@ TEST(OfflineDatabase, OfflineMapboxTileCount) {
     using namespace mbgl;
 
     OfflineDatabase db(":memory:");
-    OfflineRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
+    OfflineTilePyramidRegionDefinition definition { "http://example.com/style", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 2.0 };
     OfflineRegionMetadata metadata;
 
     OfflineRegion region1 = db.createRegion(definition, metadata);
@@ -43,7 +43,7 @@ public:
     std::size_t size = 0;
 
     OfflineRegion createRegion() {
-        OfflineRegionDefinition definition { "", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 1.0 };
+        OfflineTilePyramidRegionDefinition definition { "", LatLngBounds::hull({1, 2}, {3, 4}), 5, 6, 1.0 };
         OfflineRegionMetadata metadata;
         return db.createRegion(definition, metadata);
     }
@@ -98,6 +98,59 @@ TEST(OfflineDownload, NoSubresources) {
     test.loop.run();
 }
 
+TEST(OfflineDownload, Refresh) {
+    OfflineTest test;
+    OfflineRegion region = test.createRegion();
+    OfflineDownload download(
+        region.getID(),
+        OfflineTilePyramidRegionDefinition("http://127.0.0.1:3000/style.json", LatLngBounds::world(), 0.0, 0.0, 1.0),
+        test.db, test.fileSource);
+
+    // Store an earlier version of the region.
+    Response storedStyle = test.response("inline_source.style.json");
+    storedStyle.etag = "style"s;
+    const uint64_t styleSize = test.db.putRegionResource(region.getID(),
+        Resource::style("http://127.0.0.1:3000/style.json"), storedStyle);
+    Response storedTile = test.response("0-0-0.vector.pbf");
+    storedTile.etag = "tile-1"s;
+    test.db.putRegionResource(region.getID(),
+        Resource::tile("http://127.0.0.1:3000/{z}-{x}-{y}.vector.pbf", 1.0, 0, 0, 0, Tileset::Scheme::XYZ), storedTile);
+    test.size = 0;
+
+    test.fileSource.styleResponse = [&] (const Resource& resource) {
+        EXPECT_EQ("style"s, *resource.priorEtag);
+        EXPECT_FALSE(bool(resource.priorExpires));
+        Response response;
+        response.notModified = true;
+        return response;
+    };
+
+    test.fileSource.tileResponse = [&] (const Resource& resource) {
+        EXPECT_EQ("tile-1"s, *resource.priorEtag);
+        Response response = test.response("0-0-0.vector.pbf");
+        response.etag = "tile-2"s;
+        return response;
+    };
+
+    auto observer = std::make_unique<MockObserver>();
+
+    observer->statusChangedFn = [&] (OfflineRegionStatus status) {
+        if (status.complete()) {
+            EXPECT_EQ(2u, status.completedResourceCount);
+            EXPECT_EQ(1u, status.revalidatedResourceCount);
+            EXPECT_EQ(styleSize, status.revalidatedResourceSize);
+            EXPECT_EQ(styleSize + test.size, status.completedResourceSize);
+            EXPECT_TRUE(status.requiredResourceCountIsPrecise);
+            test.loop.stop();
+        }
+    };
+
+    download.setObserver(std::move(observer));
+    download.refresh();
+
+    test.loop.run();
+}
+
 TEST(OfflineDownload, InlineSource) {
     OfflineTest test;
     OfflineRegion region = test.createRegion();
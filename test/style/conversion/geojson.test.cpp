@@ -0,0 +1,22 @@
+#include <mbgl/test/util.hpp>
+
+#include <mbgl/style/conversion/geojson.hpp>
+
+using namespace mbgl;
+using namespace mbgl::style::conversion;
+
+TEST(GeoJSON, ParseBuffer) {
+    // Only the given length is parsed, the data doesn't need to be null terminated
+    const std::string buffer = R"JSON({ "type": "Point", "coordinates": [1, 2] }trailing)JSON";
+    const std::size_t length = buffer.size() - std::string("trailing").size();
+
+    Error error;
+    optional<GeoJSON> geoJSON = parseGeoJSON(buffer.data(), length, error);
+    ASSERT_TRUE((bool) geoJSON);
+    ASSERT_TRUE(geoJSON->is<mapbox::geojson::geometry>());
+    EXPECT_EQ(mapbox::geometry::point<double>(1, 2),
+              geoJSON->get<mapbox::geojson::geometry>().get<mapbox::geometry::point<double>>());
+
+    EXPECT_FALSE((bool) parseGeoJSON(buffer.data(), buffer.size(), error));
+    EXPECT_FALSE(error.message.empty());
+}
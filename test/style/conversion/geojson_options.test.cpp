@@ -37,6 +37,8 @@ TEST(GeoJSONOptions, RetainsDefaults) {
     ASSERT_EQ(converted.cluster, defaults.cluster);
     ASSERT_EQ(converted.clusterRadius, defaults.clusterRadius);
     ASSERT_EQ(converted.clusterMaxZoom, defaults.clusterMaxZoom);
+
+    ASSERT_EQ(converted.incrementalUpdates, defaults.incrementalUpdates);
 }
 
 TEST(GeoJSONOptions, FullConversion) {
@@ -47,7 +49,8 @@ TEST(GeoJSONOptions, FullConversion) {
         "tolerance": 3,
         "cluster": true,
         "clusterRadius": 4,
-        "clusterMaxZoom": 5
+        "clusterMaxZoom": 5,
+        "incrementalUpdates": true
     })JSON", error);
 
     // GeoJSON-VT
@@ -60,4 +63,6 @@ TEST(GeoJSONOptions, FullConversion) {
     ASSERT_EQ(converted.cluster, true);
     ASSERT_EQ(converted.clusterRadius, 4);
     ASSERT_EQ(converted.clusterMaxZoom, 5);
+
+    ASSERT_EQ(converted.incrementalUpdates, true);
 }
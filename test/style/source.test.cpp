@@ -8,6 +8,7 @@
 #include <mbgl/style/sources/raster_source.hpp>
 #include <mbgl/style/sources/vector_source.hpp>
 #include <mbgl/style/sources/geojson_source.hpp>
+#include <mbgl/style/sources/geojson_source_impl.hpp>
 #include <mbgl/style/sources/image_source.hpp>
 #include <mbgl/style/sources/custom_geometry_source.hpp>
 #include <mbgl/style/layers/raster_layer.cpp>
@@ -37,6 +38,8 @@
 #include <mbgl/text/glyph_manager.hpp>
 
 #include <cstdint>
+#include <future>
+#include <thread>
 
 using namespace mbgl;
 using SourceType = mbgl::style::SourceType;
@@ -514,6 +517,137 @@ TEST(Source, GeoJSonSourceUrlUpdate) {
     test.run();
 }
 
+TEST(Source, GeoJSONSourceIncrementalUpdates) {
+    auto point = [] (uint64_t id, double lng, double lat) {
+        mapbox::geojson::feature feature { mapbox::geometry::point<double>(lng, lat) };
+        feature.id = FeatureIdentifier(id);
+        return feature;
+    };
+
+    GeoJSONOptions options;
+    options.incrementalUpdates = true;
+
+    GeoJSONSource source("source", options);
+    const uint64_t empty = source.impl().getRevision();
+    source.setGeoJSON(FeatureCollection{ point(1, 10, 10), point(2, -10, -10) });
+    const uint64_t initial = source.impl().getRevision();
+
+    source.addFeatures({ point(3, 20, 20) });
+    const uint64_t added = source.impl().getRevision();
+    EXPECT_EQ(LatLngBounds::singleton({ 20, 20 }), *source.impl().getChangedBounds(initial));
+
+    // Changes since the replacement of the whole data aren't known
+    EXPECT_FALSE(source.impl().getChangedBounds(empty));
+
+    // Unknown features aren't added by an update
+    source.updateFeatures({ point(1, 30, 30), point(4, 0, 0) });
+    const uint64_t updated = source.impl().getRevision();
+    EXPECT_EQ(LatLngBounds::hull({ 10, 10 }, { 30, 30 }), *source.impl().getChangedBounds(added));
+    EXPECT_EQ(LatLngBounds::hull({ 10, 10 }, { 30, 30 }), *source.impl().getChangedBounds(initial));
+
+    source.removeFeatures({ FeatureIdentifier(uint64_t(2)), FeatureIdentifier(uint64_t(5)) });
+    const uint64_t removed = source.impl().getRevision();
+    EXPECT_EQ(LatLngBounds::singleton({ -10, -10 }), *source.impl().getChangedBounds(updated));
+
+    // Removing unknown features doesn't change the data
+    source.removeFeatures({ FeatureIdentifier(uint64_t(5)) });
+    EXPECT_EQ(removed, source.impl().getRevision());
+
+    EXPECT_EQ(2u, source.impl().getData()->getTile(CanonicalTileID(0, 0, 0)).size());
+
+    // A source replacing this one under the same id doesn't share its revisions
+    GeoJSONSource replacement("source", options);
+    replacement.setGeoJSON(FeatureCollection{ point(1, 10, 10) });
+    replacement.addFeatures({ point(2, 20, 20) });
+    EXPECT_FALSE(replacement.impl().getChangedBounds(initial));
+    EXPECT_FALSE(replacement.impl().getChangedBounds(added));
+    EXPECT_FALSE(replacement.impl().getChangedBounds(removed));
+}
+
+TEST(Source, GeoJSONSourceIncrementalUpdatesDisabled) {
+    mapbox::geojson::feature feature { mapbox::geometry::point<double>(10, 10) };
+    feature.id = FeatureIdentifier(uint64_t(1));
+
+    // The data isn't kept, so it can only be replaced as a whole
+    GeoJSONSource source("source");
+    source.setGeoJSON(FeatureCollection{ feature });
+    EXPECT_THROW(source.addFeatures({ feature }), std::runtime_error);
+    EXPECT_THROW(source.updateFeatures({ feature }), std::runtime_error);
+    EXPECT_THROW(source.removeFeatures({ FeatureIdentifier(uint64_t(1)) }), std::runtime_error);
+    EXPECT_EQ(1u, source.impl().getData()->getTile(CanonicalTileID(0, 0, 0)).size());
+}
+
+TEST(Source, GeoJSONSourceSetGeoJSONAsync) {
+    SourceTest test;
+
+    GeoJSONSource source("source");
+    source.setGeoJSONAsync([] () -> GeoJSON {
+        return FeatureCollection{ { mapbox::geometry::point<double>(10, 10) } };
+    }, [&] (std::exception_ptr) {
+        FAIL() << "A superseded load should not complete";
+    });
+
+    source.setGeoJSONAsync([] () -> GeoJSON {
+        throw std::runtime_error("failed");
+    }, [&] (std::exception_ptr) {
+        FAIL() << "A superseded load should not complete";
+    });
+
+    source.setGeoJSONAsync([] () -> GeoJSON {
+        return FeatureCollection{ { mapbox::geometry::point<double>(10, 10) },
+                                  { mapbox::geometry::point<double>(20, 20) } };
+    }, [&] (std::exception_ptr error) {
+        EXPECT_FALSE(error);
+        EXPECT_EQ(2u, source.impl().getData()->getTile(CanonicalTileID(0, 0, 0)).size());
+
+        source.setGeoJSONAsync([] () -> GeoJSON {
+            throw std::runtime_error("failed");
+        }, [&] (std::exception_ptr error_) {
+            EXPECT_TRUE(error_);
+            test.end();
+        });
+    });
+
+    test.run();
+}
+
+TEST(Source, GeoJSONSourceDestroyedWhileLoading) {
+    SourceTest test;
+
+    std::promise<void> started;
+    std::promise<void> release;
+    std::shared_future<void> released = release.get_future().share();
+    bool queuedLoadRan = false;
+
+    auto source = std::make_unique<GeoJSONSource>("source");
+    source->setGeoJSONAsync([&] () -> GeoJSON {
+        started.set_value();
+        released.wait();
+        return FeatureCollection{ { mapbox::geometry::point<double>(10, 10) } };
+    }, [&] (std::exception_ptr) {
+        FAIL() << "A load of a destroyed source should not complete";
+    });
+    source->setGeoJSONAsync([&] () -> GeoJSON {
+        queuedLoadRan = true;
+        return FeatureCollection{};
+    }, [&] (std::exception_ptr) {
+        FAIL() << "A load of a destroyed source should not complete";
+    });
+
+    started.get_future().wait();
+    std::thread releaser([&] {
+        std::this_thread::sleep_for(std::chrono::milliseconds(50));
+        release.set_value();
+    });
+
+    // Waits for the running load, which is then discarded, and drops the queued load
+    source.reset();
+    releaser.join();
+    EXPECT_FALSE(queuedLoadRan);
+
+    test.loop.runOnce();
+}
+
 TEST(Source, ImageSourceImageUpdate) {
     SourceTest test;
 
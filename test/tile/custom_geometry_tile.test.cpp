@@ -6,6 +6,7 @@
 #include <mbgl/style/custom_tile_loader.hpp>
 
 #include <mbgl/util/default_thread_pool.hpp>
+#include <mbgl/util/io.hpp>
 #include <mbgl/util/run_loop.hpp>
 #include <mbgl/map/transform.hpp>
 #include <mbgl/renderer/tile_parameters.hpp>
@@ -128,3 +129,33 @@ TEST(CustomGeometryTile, InvokeTileChanged) {
         test.loop.runOnce();
     }
 }
+
+TEST(CustomGeometryTile, VectorTileData) {
+    CustomTileTest test;
+
+    CircleLayer layer("circle", "source");
+
+    CustomTileLoader loader(nullptr, nullptr);
+    auto mb =std::make_shared<Mailbox>(*Scheduler::GetCurrent());
+    ActorRef<CustomTileLoader> loaderActor(loader, mb);
+
+    CustomGeometryTile tile(OverscaledTileID(0, 0, 0), "source", test.tileParameters, CustomGeometrySource::TileOptions(),
+    loaderActor);
+
+    StubTileObserver observer;
+    tile.setLayers({{ layer.baseImpl }});
+    tile.setObserver(&observer);
+    tile.setVectorTileData(std::make_shared<std::string>(
+        util::read_file("test/fixtures/api/assets/streets/0-0-0.vector.pbf")));
+
+    while (!tile.isComplete()) {
+        test.loop.runOnce();
+    }
+
+    // Without a source layer, the first layer of the encoded tile is used
+    EXPECT_NE(nullptr, tile.getBucket(*layer.baseImpl));
+
+    std::vector<Feature> features;
+    tile.querySourceFeatures(features, {});
+    EXPECT_FALSE(features.empty());
+}
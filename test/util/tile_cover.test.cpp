@@ -93,3 +93,25 @@ TEST(TileCount, SanFranciscoZ22) {
     EXPECT_EQ(7254450u, util::tileCount(sanFrancisco, 22, util::tileSize));
 }
 
+
+TEST(TileCount, GeometryWorldZ16) {
+    const Polygon<double> world {{ { -180, -90 }, { 180, -90 }, { 180, 90 }, { -180, 90 }, { -180, -90 } }};
+
+    // Counted per row, the 4^16 tiles are never enumerated.
+    EXPECT_EQ(uint64_t(1) << 32, util::tileCount(world, 16));
+}
+
+TEST(TileCount, GeometryMatchesTileCover) {
+    const Polygon<double> polygon {
+        { { -180, -85 }, { 180, -85 }, { 180, 85 }, { -180, 85 }, { -180, -85 } },
+        { { -90, -40 }, { 90, -40 }, { 90, 40 }, { -90, 40 }, { -90, -40 } }
+    };
+    const Polygon<double> antimeridian {{ { 170, 10 }, { 200, 10 }, { 200, 40 }, { 170, 40 }, { 170, 10 } }};
+    const LineString<double> line { { -135, 66 }, { 135, -66 } };
+
+    for (uint8_t z = 0; z <= 8; ++z) {
+        EXPECT_EQ(util::tileCover(polygon, z).size(), util::tileCount(polygon, z));
+        EXPECT_EQ(util::tileCover(antimeridian, z).size(), util::tileCount(antimeridian, z));
+        EXPECT_EQ(util::tileCover(line, z).size(), util::tileCount(line, z));
+    }
+}